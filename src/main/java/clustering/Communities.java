@@ -0,0 +1,102 @@
+package clustering;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Node;
+
+/**
+ * A class that encapsulates a partition of the nodes of a graph into
+ * communities numbered 0..k-1, together with its modularity.
+ */
+public class Communities {
+  private final CompactGraph graph;
+  private final int[] community;
+  private final int nbCommunities;
+  private final double modularity;
+  private final int iterations;
+
+  /**
+   * Communities constructor.
+   * @param graph The snapshot that was partitioned.
+   * @param community Community of every node, by node index.
+   * @param nbCommunities Number of communities.
+   * @param modularity Modularity of the partition.
+   * @param iterations Iterations of label propagation, or levels of Louvain.
+   */
+  public Communities(CompactGraph graph, int[] community, int nbCommunities, double modularity, int iterations) {
+    this.graph = graph;
+    this.community = community;
+    this.nbCommunities = nbCommunities;
+    this.modularity = modularity;
+    this.iterations = iterations;
+  }
+
+  /**
+   * Gets the community of every node, by node index.
+   * @return this.community
+   */
+  public int[] getCommunities() {
+    return community;
+  }
+
+  /**
+   * Gets the community of node n.
+   * @param n Target node.
+   * @return The community of n.
+   */
+  public int getCommunity(Node n) {
+    return getCommunity(n.getId());
+  }
+
+  /**
+   * Gets the community of node with specified id.
+   * @param id Target node id.
+   * @return The community, or -1 if the node is not in the graph.
+   */
+  public int getCommunity(int id) {
+    int index = graph.indexOf(id);
+    return index < 0 ? -1 : community[index];
+  }
+
+  /**
+   * Gets the ids of the members of community c.
+   * @param c Community number.
+   * @return The ids of its nodes, increasing.
+   */
+  public int[] getMembers(int c) {
+    int size = 0;
+    for (int x : community) {
+      if (x == c)
+        size++;
+    }
+    int[] ids = new int[size];
+    for (int u = 0, i = 0; u < community.length; u++) {
+      if (community[u] == c)
+        ids[i++] = graph.nodeId(u);
+    }
+    return ids;
+  }
+
+  /**
+   * Know the number of communities.
+   * @return this.nbCommunities
+   */
+  public int nbCommunities() {
+    return nbCommunities;
+  }
+
+  /**
+   * Gets the modularity of the partition.
+   * @return this.modularity
+   */
+  public double getModularity() {
+    return modularity;
+  }
+
+  /**
+   * Gets the number of iterations of label propagation, or of levels of Louvain.
+   * @return this.iterations
+   */
+  public int getIterations() {
+    return iterations;
+  }
+}
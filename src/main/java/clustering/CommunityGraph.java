@@ -0,0 +1,147 @@
+package clustering;
+
+import java.util.Arrays;
+
+import m1graphs2025.CompactGraph;
+
+/**
+ * An undirected CSR snapshot with real edge weights, as needed by modularity
+ * based community detection, where aggregated weights quickly overflow ints.
+ * Following the usual convention, a self-loop of weight w adds 2w to the
+ * strength of its node.
+ */
+class CommunityGraph {
+  final CompactGraph graph;
+  final double[] weights;
+  final double[] strength;
+  final double totalStrength;
+
+  CommunityGraph(CompactGraph graph, double[] weights) {
+    this.graph = graph;
+    this.weights = weights;
+    int n = graph.nbNodes();
+    this.strength = new double[n];
+    double total = 0;
+    for (int e = 0; e < graph.nbEdges(); e++) {
+      strength[graph.edgeSource(e)] += weights[e];
+      strength[graph.edgeTarget(e)] += weights[e];
+      total += 2 * weights[e];
+    }
+    this.totalStrength = total;
+  }
+
+  /**
+   * Weighs the edges of an undirected snapshot by their weight, or by 1 when
+   * the snapshot is unweighted.
+   */
+  static CommunityGraph of(CompactGraph graph) {
+    double[] weights = new double[graph.nbEdges()];
+    for (int e = 0; e < weights.length; e++) {
+      weights[e] = graph.isWeighted() ? graph.edgeWeight(e) : 1;
+    }
+    return new CommunityGraph(graph, weights);
+  }
+
+  int nbNodes() {
+    return graph.nbNodes();
+  }
+
+  /**
+   * Newman's modularity of a partition: the fraction of the weight inside
+   * communities minus its expected value when edges are rewired at random.
+   */
+  double modularity(int[] community, int nbCommunities) {
+    if (totalStrength == 0)
+      return 0;
+    double[] inside = new double[nbCommunities];
+    double[] total = new double[nbCommunities];
+    for (int e = 0; e < graph.nbEdges(); e++) {
+      int c = community[graph.edgeSource(e)];
+      if (c == community[graph.edgeTarget(e)])
+        inside[c] += 2 * weights[e];
+    }
+    for (int u = 0; u < nbNodes(); u++) {
+      total[community[u]] += strength[u];
+    }
+    double q = 0;
+    for (int c = 0; c < nbCommunities; c++) {
+      q += inside[c] / totalStrength - (total[c] / totalStrength) * (total[c] / totalStrength);
+    }
+    return q;
+  }
+
+  /**
+   * Builds the graph of communities: one node per community, and one edge per
+   * pair of communities joined by at least one edge, weighing their total
+   * weight. Inner edges become self-loops, so modularity is preserved.
+   */
+  CommunityGraph coarsen(int[] community, int nbCommunities) {
+    int m = graph.nbEdges();
+    long[] pairs = new long[m];
+    for (int e = 0; e < m; e++) {
+      int cu = community[graph.edgeSource(e)];
+      int cv = community[graph.edgeTarget(e)];
+      pairs[e] = ((long) Math.min(cu, cv) << 32) | Math.max(cu, cv);
+    }
+    int[] order = sortedOrder(pairs);
+
+    int size = 0;
+    for (int i = 0; i < m; i++) {
+      if (i == 0 || pairs[order[i]] != pairs[order[i - 1]])
+        size++;
+    }
+    int[] sources = new int[size];
+    int[] targets = new int[size];
+    double[] coarseWeights = new double[size];
+    int k = -1;
+    for (int i = 0; i < m; i++) {
+      long pair = pairs[order[i]];
+      if (i == 0 || pair != pairs[order[i - 1]]) {
+        k++;
+        sources[k] = (int) (pair >>> 32);
+        targets[k] = (int) pair;
+      }
+      coarseWeights[k] += weights[order[i]];
+    }
+    int[] nodeIds = new int[nbCommunities];
+    for (int c = 0; c < nbCommunities; c++) {
+      nodeIds[c] = c + 1;
+    }
+    return new CommunityGraph(CompactGraph.fromEdges(false, nodeIds, sources, targets, null), coarseWeights);
+  }
+
+  /**
+   * Sorts edge ids by pair with two stable counting passes: by target community
+   * then by source community.
+   */
+  private static int[] sortedOrder(long[] pairs) {
+    int m = pairs.length;
+    int max = 0;
+    for (long p : pairs) {
+      max = Math.max(max, (int) (p >>> 32));
+      max = Math.max(max, (int) p);
+    }
+    int[] order = new int[m];
+    int[] buffer = new int[m];
+    for (int e = 0; e < m; e++) {
+      order[e] = e;
+    }
+    int[] counts = new int[max + 2];
+    for (int shift = 0; shift <= 32; shift += 32) {
+      Arrays.fill(counts, 0);
+      for (int e : order) {
+        counts[(int) (pairs[e] >>> shift) + 1]++;
+      }
+      for (int c = 0; c <= max; c++) {
+        counts[c + 1] += counts[c];
+      }
+      for (int e : order) {
+        buffer[counts[(int) (pairs[e] >>> shift)]++] = e;
+      }
+      int[] tmp = order;
+      order = buffer;
+      buffer = tmp;
+    }
+    return order;
+  }
+}
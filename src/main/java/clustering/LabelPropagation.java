@@ -0,0 +1,125 @@
+package clustering;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.IntStream;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.UndirectedGraph;
+
+/**
+ * A class LabelPropagation, partitions an undirected graph into communities by
+ * asynchronous label propagation (Raghavan, Albert and Kumara).
+ * Every node starts with its own label, then repeatedly adopts the label
+ * carrying the largest total edge weight among its neighbours, until no label
+ * changes. Nodes are visited in parallel, in a shuffled order, and read the
+ * labels already updated during the same iteration. A node keeps its label
+ * when it is among the best ones, and otherwise takes the smallest best label.
+ */
+public class LabelPropagation {
+  private final CompactGraph graph;
+  private int maxIterations = 100;
+  private long seed = 0;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * LabelPropagation constructor, snapshots graph g.
+   * @param g The undirected graph to partition.
+   */
+  public LabelPropagation(UndirectedGraph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * LabelPropagation constructor over an existing snapshot.
+   * @param graph The undirected snapshot to partition.
+   */
+  public LabelPropagation(CompactGraph graph) {
+    if (graph.isDirected())
+      throw new GraphExceptions("Community detection requires an undirected graph");
+    this.graph = graph;
+  }
+
+  /**
+   * Sets the maximum number of iterations, 100 by default.
+   */
+  public void setMaxIterations(int maxIterations) {
+    this.maxIterations = maxIterations;
+  }
+
+  /**
+   * Sets the seed of the visiting order shuffle.
+   */
+  public void setSeed(long seed) {
+    this.seed = seed;
+  }
+
+  /**
+   * Sets the pool propagating the labels, the common pool by default.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Runs the propagation.
+   * @return The communities, one per final label.
+   */
+  public Communities compute() {
+    CommunityGraph weighted = CommunityGraph.of(graph);
+    int n = graph.nbNodes();
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    int[] arcEdges = graph.arcEdges();
+    int[] label = IntStream.range(0, n).toArray();
+
+    int[] order = IntStream.range(0, n).toArray();
+    Random random = new Random(seed);
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int tmp = order[i];
+      order[i] = order[j];
+      order[j] = tmp;
+    }
+
+    ThreadLocal<WeightAccumulator> accumulators = ThreadLocal.withInitial(() -> new WeightAccumulator(n));
+    int iteration = 0;
+    int changed = 1;
+    while (changed > 0 && iteration < maxIterations) {
+      AtomicInteger changes = new AtomicInteger();
+      pool.submit(() -> IntStream.range(0, n).parallel().forEach(i -> {
+        int u = order[i];
+        if (offsets[u] == offsets[u + 1])
+          return;
+        WeightAccumulator acc = accumulators.get();
+        for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+          if (targets[a] != u)
+            acc.add(label[targets[a]], weighted.weights[arcEdges[a]]);
+        }
+        int own = label[u];
+        int best = own;
+        double bestWeight = acc.weightOf(own);
+        for (int k = 0; k < acc.size; k++) {
+          int l = acc.touched[k];
+          double w = acc.weight[l];
+          if (w > bestWeight || (w == bestWeight && best != own && l < best)) {
+            best = l;
+            bestWeight = w;
+          }
+        }
+        acc.clear();
+        if (best != own) {
+          label[u] = best;
+          changes.incrementAndGet();
+        }
+      })).join();
+      changed = changes.get();
+      iteration++;
+    }
+
+    int k = Louvain.renumber(label);
+    return new Communities(graph, label, k, weighted.modularity(label, k), iteration);
+  }
+}
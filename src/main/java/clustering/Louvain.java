@@ -0,0 +1,222 @@
+package clustering;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.UndirectedGraph;
+
+/**
+ * A class Louvain, partitions an undirected graph into communities by
+ * multi-level modularity optimisation (Blondel et al.).
+ * On every level, nodes move to the neighbouring community that most increases
+ * modularity; the communities found then become the nodes of the next level,
+ * built as a weighted CSR snapshot. Edge weights come from
+ * {@link m1graphs2025.Edge#getWeight()}, every edge weighing 1 in an unweighted
+ * graph.
+ * Moves are chosen in parallel from the state of the previous sweep. To avoid
+ * two lone nodes endlessly swapping communities, a node alone in its community
+ * only joins another lone node of smaller community number, and a sweep that
+ * does not increase modularity is replayed sequentially.
+ */
+public class Louvain {
+  private final CompactGraph graph;
+  private int maxLevels = 32;
+  private int maxSweeps = 64;
+  private double minGain = 1e-7;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * Louvain constructor, snapshots graph g.
+   * @param g The undirected graph to partition.
+   */
+  public Louvain(UndirectedGraph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * Louvain constructor over an existing snapshot.
+   * @param graph The undirected snapshot to partition.
+   */
+  public Louvain(CompactGraph graph) {
+    if (graph.isDirected())
+      throw new GraphExceptions("Community detection requires an undirected graph");
+    this.graph = graph;
+  }
+
+  /**
+   * Sets the maximum number of levels, 32 by default.
+   */
+  public void setMaxLevels(int maxLevels) {
+    this.maxLevels = maxLevels;
+  }
+
+  /**
+   * Sets the maximum number of sweeps over the nodes on every level, 64 by default.
+   */
+  public void setMaxSweeps(int maxSweeps) {
+    this.maxSweeps = maxSweeps;
+  }
+
+  /**
+   * Sets the modularity increase under which a level stops moving nodes.
+   */
+  public void setMinGain(double minGain) {
+    this.minGain = minGain;
+  }
+
+  /**
+   * Sets the pool moving the nodes, the common pool by default.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Runs the optimisation.
+   * @return The communities of the last level.
+   */
+  public Communities compute() {
+    CommunityGraph level = CommunityGraph.of(graph);
+    int n = graph.nbNodes();
+    int[] assignment = new int[n];
+    for (int u = 0; u < n; u++) {
+      assignment[u] = u;
+    }
+    int nbCommunities = n;
+    int levels = 0;
+
+    while (levels < maxLevels) {
+      int[] community = moveNodes(level);
+      int k = renumber(community);
+      if (k == level.nbNodes())
+        break;
+      for (int u = 0; u < n; u++) {
+        assignment[u] = community[assignment[u]];
+      }
+      nbCommunities = k;
+      level = level.coarsen(community, k);
+      levels++;
+    }
+
+    CommunityGraph original = CommunityGraph.of(graph);
+    return new Communities(graph, assignment, nbCommunities, original.modularity(assignment, nbCommunities),
+        levels);
+  }
+
+  /**
+   * Local moving phase on one level.
+   * @return The community of every node of the level, numbered by node index.
+   */
+  private int[] moveNodes(CommunityGraph level) {
+    int n = level.nbNodes();
+    if (level.totalStrength == 0)
+      return IntStream.range(0, n).toArray();
+
+    int[] community = IntStream.range(0, n).toArray();
+    double[] total = level.strength.clone();
+    int[] size = new int[n];
+    Arrays.fill(size, 1);
+    double modularity = level.modularity(community, n);
+
+    ThreadLocal<WeightAccumulator> scratch = ThreadLocal.withInitial(() -> new WeightAccumulator(n));
+    for (int sweep = 0; sweep < maxSweeps; sweep++) {
+      final int[] current = community;
+      int[] next = pool.submit(() -> IntStream.range(0, n).parallel()
+          .map(u -> bestCommunity(level, u, current, total, size, scratch.get(), true)).toArray()).join();
+      Arrays.fill(total, 0);
+      Arrays.fill(size, 0);
+      for (int u = 0; u < n; u++) {
+        total[next[u]] += level.strength[u];
+        size[next[u]]++;
+      }
+      double q = level.modularity(next, n);
+
+      if (q <= modularity) {
+        // Concurrent moves went wrong: fall back on one sequential sweep,
+        // which never decreases modularity
+        next = community.clone();
+        Arrays.fill(total, 0);
+        Arrays.fill(size, 0);
+        for (int u = 0; u < n; u++) {
+          total[next[u]] += level.strength[u];
+          size[next[u]]++;
+        }
+        WeightAccumulator s = scratch.get();
+        for (int u = 0; u < n; u++) {
+          int c = bestCommunity(level, u, next, total, size, s, false);
+          if (c != next[u]) {
+            total[next[u]] -= level.strength[u];
+            size[next[u]]--;
+            total[c] += level.strength[u];
+            size[c]++;
+            next[u] = c;
+          }
+        }
+        q = level.modularity(next, n);
+        if (q <= modularity)
+          break;
+      }
+      community = next;
+      boolean converged = q - modularity < minGain;
+      modularity = q;
+      if (converged)
+        break;
+    }
+    return community;
+  }
+
+  /**
+   * Finds the neighbouring community whose joining most increases modularity,
+   * u's own community winning ties.
+   */
+  private static int bestCommunity(CommunityGraph level, int u, int[] community, double[] total, int[] size,
+      WeightAccumulator s, boolean concurrent) {
+    int[] offsets = level.graph.offsets();
+    int[] targets = level.graph.targets();
+    int[] arcEdges = level.graph.arcEdges();
+    double m2 = level.totalStrength;
+    int own = community[u];
+    double ku = level.strength[u];
+    s.add(own, 0);
+    for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+      int v = targets[a];
+      if (v != u)
+        s.add(community[v], level.weights[arcEdges[a]]);
+    }
+
+    int best = own;
+    double bestGain = s.weight[own] - ku * (total[own] - ku) / m2;
+    for (int i = 0; i < s.size; i++) {
+      int c = s.touched[i];
+      if (c == own || (concurrent && size[own] == 1 && size[c] == 1 && c > own))
+        continue;
+      double gain = s.weight[c] - ku * total[c] / m2;
+      if (gain > bestGain || (gain == bestGain && best != own && c < best)) {
+        best = c;
+        bestGain = gain;
+      }
+    }
+    s.clear();
+    return best;
+  }
+
+  /**
+   * Renumbers the communities 0..k-1 by order of first member.
+   * @return The number of communities k.
+   */
+  static int renumber(int[] community) {
+    int[] number = new int[community.length];
+    Arrays.fill(number, -1);
+    int k = 0;
+    for (int u = 0; u < community.length; u++) {
+      int c = community[u];
+      if (number[c] < 0)
+        number[c] = k++;
+      community[u] = number[c];
+    }
+    return k;
+  }
+}
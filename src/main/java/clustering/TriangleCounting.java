@@ -0,0 +1,187 @@
+package clustering;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.UndirectedGraph;
+
+/**
+ * A class TriangleCounting, counts the triangles of an undirected graph.
+ * Every edge is oriented from its endpoint of lower degree to the other one
+ * (ties broken by index), which bounds the out-degrees by O(sqrt(E)). The
+ * oriented neighbour lists are sorted primitive arrays, so that each triangle
+ * is found exactly once, from its lowest ranked node, by intersecting two
+ * lists. Intersections merge lists of similar lengths and gallop through the
+ * longer list otherwise. Nodes are processed in parallel.
+ */
+public class TriangleCounting {
+  private static final int GALLOP_RATIO = 16;
+
+  private final CompactGraph graph;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * TriangleCounting constructor, snapshots graph g.
+   * @param g The undirected graph.
+   */
+  public TriangleCounting(UndirectedGraph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * TriangleCounting constructor over an existing snapshot.
+   * @param graph The undirected snapshot.
+   */
+  public TriangleCounting(CompactGraph graph) {
+    if (graph.isDirected())
+      throw new GraphExceptions("Triangle counting requires an undirected graph");
+    this.graph = graph;
+  }
+
+  /**
+   * Sets the pool counting the triangles, the common pool by default.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Counts the triangles, globally and through every node.
+   * @return The triangle counts.
+   */
+  public TriangleCounts count() {
+    int n = graph.nbNodes();
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+
+    // Distinct neighbours, without self-loops, sorted by index
+    int[] simpleOffsets = new int[n + 1];
+    int[] simple = new int[targets.length];
+    int[] degrees = new int[n];
+    pool.submit(() -> IntStream.range(0, n).parallel().forEach(u -> {
+      int from = offsets[u];
+      int to = offsets[u + 1];
+      System.arraycopy(targets, from, simple, from, to - from);
+      Arrays.sort(simple, from, to);
+      int size = 0;
+      for (int a = from; a < to; a++) {
+        int v = simple[a];
+        if (v != u && (size == 0 || simple[from + size - 1] != v))
+          simple[from + size++] = v;
+      }
+      degrees[u] = size;
+    })).join();
+
+    // Keep the arcs going to a higher ranked node
+    for (int u = 0; u < n; u++) {
+      int kept = 0;
+      for (int a = offsets[u], end = offsets[u] + degrees[u]; a < end; a++) {
+        if (before(u, simple[a], degrees))
+          kept++;
+      }
+      simpleOffsets[u + 1] = simpleOffsets[u] + kept;
+    }
+    int[] oriented = new int[simpleOffsets[n]];
+    pool.submit(() -> IntStream.range(0, n).parallel().forEach(u -> {
+      int b = simpleOffsets[u];
+      for (int a = offsets[u], end = offsets[u] + degrees[u]; a < end; a++) {
+        if (before(u, simple[a], degrees))
+          oriented[b++] = simple[a];
+      }
+    })).join();
+
+    AtomicLongArray perNode = new AtomicLongArray(n);
+    long total = pool.submit(() -> IntStream.range(0, n).parallel().mapToLong(u -> {
+      long found = 0;
+      for (int a = simpleOffsets[u]; a < simpleOffsets[u + 1]; a++) {
+        int v = oriented[a];
+        found += intersect(oriented, simpleOffsets[u], simpleOffsets[u + 1], simpleOffsets[v],
+            simpleOffsets[v + 1], u, v, perNode);
+      }
+      return found;
+    }).sum()).join();
+
+    long[] counts = new long[n];
+    for (int u = 0; u < n; u++) {
+      counts[u] = perNode.get(u);
+    }
+    return new TriangleCounts(graph, total, counts, degrees);
+  }
+
+  private static boolean before(int u, int v, int[] degrees) {
+    return degrees[u] < degrees[v] || (degrees[u] == degrees[v] && u < v);
+  }
+
+  /**
+   * Counts the common elements of two sorted ranges of list, crediting a
+   * triangle to u, v and every common element.
+   */
+  private static long intersect(int[] list, int i, int iEnd, int j, int jEnd, int u, int v,
+      AtomicLongArray perNode) {
+    if (iEnd - i > jEnd - j) {
+      int tmp = i;
+      i = j;
+      j = tmp;
+      tmp = iEnd;
+      iEnd = jEnd;
+      jEnd = tmp;
+    }
+    int shortLength = iEnd - i;
+    if (shortLength == 0)
+      return 0;
+    boolean gallop = (long) shortLength * GALLOP_RATIO < jEnd - j;
+    long found = 0;
+    while (i < iEnd && j < jEnd) {
+      int x = list[i];
+      if (gallop) {
+        j = gallop(list, j, jEnd, x);
+        if (j == jEnd)
+          break;
+      } else {
+        while (j < jEnd && list[j] < x)
+          j++;
+        if (j == jEnd)
+          break;
+      }
+      if (list[j] == x) {
+        perNode.incrementAndGet(x);
+        found++;
+        j++;
+      }
+      i++;
+    }
+    if (found > 0) {
+      perNode.addAndGet(u, found);
+      perNode.addAndGet(v, found);
+    }
+    return found;
+  }
+
+  /**
+   * Finds the first position in list[from..to) holding a value at least x, by
+   * exponential then binary search.
+   */
+  private static int gallop(int[] list, int from, int to, int x) {
+    int step = 1;
+    int low = from;
+    int high = from;
+    while (high < to && list[high] < x) {
+      low = high + 1;
+      high = from + step;
+      step <<= 1;
+    }
+    high = Math.min(high, to);
+    while (low < high) {
+      int mid = (low + high) >>> 1;
+      if (list[mid] < x)
+        low = mid + 1;
+      else
+        high = mid;
+    }
+    return low;
+  }
+}
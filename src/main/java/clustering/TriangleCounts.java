@@ -0,0 +1,121 @@
+package clustering;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Node;
+
+/**
+ * A class that encapsulates the triangles of an undirected graph: their total
+ * number, the number of triangles through every node and the simple degree of
+ * every node, from which clustering coefficients are derived.
+ * Self-loops and multi-edges are not taken into account.
+ */
+public class TriangleCounts {
+  private final CompactGraph graph;
+  private final long total;
+  private final long[] perNode;
+  private final int[] degrees;
+
+  /**
+   * TriangleCounts constructor.
+   * @param graph The snapshot the triangles were counted on.
+   * @param total Number of triangles.
+   * @param perNode Number of triangles through every node, by node index.
+   * @param degrees Number of distinct neighbours of every node, by node index.
+   */
+  public TriangleCounts(CompactGraph graph, long total, long[] perNode, int[] degrees) {
+    this.graph = graph;
+    this.total = total;
+    this.perNode = perNode;
+    this.degrees = degrees;
+  }
+
+  /**
+   * Gets the number of triangles of the graph.
+   * @return this.total
+   */
+  public long getTotal() {
+    return total;
+  }
+
+  /**
+   * Gets the number of triangles through every node, by node index.
+   * @return this.perNode
+   */
+  public long[] getPerNode() {
+    return perNode;
+  }
+
+  /**
+   * Gets the number of triangles through node with specified id.
+   * @param id Target node id.
+   * @return The number of triangles, or 0 if the node is not in the graph.
+   */
+  public long getTriangles(int id) {
+    int index = graph.indexOf(id);
+    return index < 0 ? 0 : perNode[index];
+  }
+
+  /**
+   * Gets the local clustering coefficient of node n.
+   * @param n Target node.
+   * @return The clustering coefficient of n.
+   */
+  public double getClusteringCoefficient(Node n) {
+    return getClusteringCoefficient(n.getId());
+  }
+
+  /**
+   * Gets the local clustering coefficient of node with specified id, i.e. the
+   * fraction of pairs of its neighbours that are adjacent.
+   * @param id Target node id.
+   * @return The clustering coefficient, 0 for nodes with less than two neighbours.
+   */
+  public double getClusteringCoefficient(int id) {
+    int index = graph.indexOf(id);
+    return index < 0 ? 0 : coefficient(index);
+  }
+
+  /**
+   * Gets the local clustering coefficient of every node, by node index.
+   * @return The clustering coefficients.
+   */
+  public double[] getClusteringCoefficients() {
+    double[] coefficients = new double[perNode.length];
+    for (int u = 0; u < coefficients.length; u++) {
+      coefficients[u] = coefficient(u);
+    }
+    return coefficients;
+  }
+
+  /**
+   * Gets the mean of the local clustering coefficients over all nodes.
+   * @return The average clustering coefficient.
+   */
+  public double getAverageClusteringCoefficient() {
+    if (perNode.length == 0)
+      return 0;
+    double sum = 0;
+    for (int u = 0; u < perNode.length; u++) {
+      sum += coefficient(u);
+    }
+    return sum / perNode.length;
+  }
+
+  /**
+   * Gets the global clustering coefficient (transitivity), i.e. three times the
+   * number of triangles over the number of paths of length two.
+   * @return The global clustering coefficient.
+   */
+  public double getGlobalClusteringCoefficient() {
+    long triples = 0;
+    for (int d : degrees) {
+      triples += (long) d * (d - 1) / 2;
+    }
+    return triples == 0 ? 0 : 3.0 * total / triples;
+  }
+
+  private double coefficient(int u) {
+    long d = degrees[u];
+    return d < 2 ? 0 : 2.0 * perNode[u] / (d * (d - 1));
+  }
+}
@@ -0,0 +1,38 @@
+package clustering;
+
+/**
+ * Sparse accumulator of weights by community or label, reset in time
+ * proportional to the number of entries touched. Meant to be kept per thread.
+ */
+final class WeightAccumulator {
+  final double[] weight;
+  final boolean[] seen;
+  final int[] touched;
+  int size;
+
+  WeightAccumulator(int n) {
+    weight = new double[n];
+    seen = new boolean[n];
+    touched = new int[n];
+  }
+
+  void add(int c, double w) {
+    if (!seen[c]) {
+      seen[c] = true;
+      weight[c] = 0;
+      touched[size++] = c;
+    }
+    weight[c] += w;
+  }
+
+  double weightOf(int c) {
+    return seen[c] ? weight[c] : Double.NEGATIVE_INFINITY;
+  }
+
+  void clear() {
+    for (int i = 0; i < size; i++) {
+      seen[touched[i]] = false;
+    }
+    size = 0;
+  }
+}
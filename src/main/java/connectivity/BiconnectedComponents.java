@@ -0,0 +1,97 @@
+package connectivity;
+
+import java.util.Arrays;
+
+import m1graphs2025.CompactGraph;
+
+/**
+ * A class that encapsulates the single points of failure of an undirected
+ * graph: its articulation points, its bridges and its biconnected components,
+ * the latter given as groups of edge ids.
+ */
+public class BiconnectedComponents {
+  private final CompactGraph graph;
+  private final int[] articulationPoints;
+  private final int[] bridges;
+  private final int[] componentEdges;
+  private final int[] componentOffsets;
+  private final int[] componentOf;
+
+  /**
+   * BiconnectedComponents constructor.
+   * @param graph The snapshot that was analysed.
+   * @param articulationPoints Indices of the articulation points, increasing.
+   * @param bridges Ids of the bridges, increasing.
+   * @param componentEdges Edge ids grouped by component.
+   * @param componentOffsets Start of every component in componentEdges,
+   *                         followed by its length.
+   * @param componentOf Component of every edge id, -1 for self-loops.
+   */
+  public BiconnectedComponents(CompactGraph graph, int[] articulationPoints, int[] bridges, int[] componentEdges,
+      int[] componentOffsets, int[] componentOf) {
+    this.graph = graph;
+    this.articulationPoints = articulationPoints;
+    this.bridges = bridges;
+    this.componentEdges = componentEdges;
+    this.componentOffsets = componentOffsets;
+    this.componentOf = componentOf;
+  }
+
+  /**
+   * Gets the ids of the articulation points, i.e. the nodes whose removal
+   * disconnects their connected component.
+   * @return The ids of the articulation points, increasing.
+   */
+  public int[] getArticulationPoints() {
+    int[] ids = new int[articulationPoints.length];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = graph.nodeId(articulationPoints[i]);
+    }
+    return ids;
+  }
+
+  /**
+   * Know whether node with specified id is an articulation point.
+   * @param id Target node id.
+   * @return True if it is an articulation point, false otherwise.
+   */
+  public boolean isArticulationPoint(int id) {
+    int index = graph.indexOf(id);
+    return index >= 0 && Arrays.binarySearch(articulationPoints, index) >= 0;
+  }
+
+  /**
+   * Gets the ids of the bridges, i.e. the edges whose removal disconnects their
+   * connected component. An edge doubled by a multi-edge is never a bridge.
+   * @return The edge ids of the bridges, increasing.
+   */
+  public int[] getBridges() {
+    return bridges;
+  }
+
+  /**
+   * Know the number of biconnected components having at least one edge.
+   * @return The number of biconnected components.
+   */
+  public int nbComponents() {
+    return componentOffsets.length - 1;
+  }
+
+  /**
+   * Gets the edge ids of biconnected component c.
+   * @param c Component number, in 0..nbComponents()-1.
+   * @return The edge ids of the component.
+   */
+  public int[] getComponent(int c) {
+    return Arrays.copyOfRange(componentEdges, componentOffsets[c], componentOffsets[c + 1]);
+  }
+
+  /**
+   * Gets the biconnected component of edge e.
+   * @param e Edge id.
+   * @return The component number, or -1 for a self-loop, which belongs to none.
+   */
+  public int componentOf(int e) {
+    return componentOf[e];
+  }
+}
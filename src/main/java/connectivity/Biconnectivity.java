@@ -0,0 +1,152 @@
+package connectivity;
+
+import java.util.Arrays;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.UndirectedGraph;
+
+/**
+ * A class Biconnectivity, finds the articulation points, bridges and
+ * biconnected components of an undirected graph with Hopcroft and Tarjan's
+ * lowlink algorithm, in O(V + E).
+ * The depth-first search is iterative, driven by primitive stacks, so it does
+ * not overflow the call stack on deep graphs. The tree edge to a parent is
+ * recognised by its edge id rather than by its endpoint, so multi-edges count
+ * as alternative paths; self-loops are ignored.
+ */
+public class Biconnectivity {
+  private final CompactGraph graph;
+
+  /**
+   * Biconnectivity constructor, snapshots graph g.
+   * @param g The undirected graph to analyse.
+   */
+  public Biconnectivity(UndirectedGraph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * Biconnectivity constructor over an existing snapshot.
+   * @param graph The undirected snapshot to analyse.
+   */
+  public Biconnectivity(CompactGraph graph) {
+    if (graph.isDirected())
+      throw new GraphExceptions("Biconnectivity requires an undirected graph");
+    this.graph = graph;
+  }
+
+  /**
+   * Runs the analysis.
+   * @return The articulation points, bridges and biconnected components.
+   */
+  @SuppressWarnings("java:S3776")
+  public BiconnectedComponents compute() {
+    int n = graph.nbNodes();
+    int m = graph.nbEdges();
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    int[] arcEdges = graph.arcEdges();
+
+    int[] discovery = new int[n];
+    int[] low = new int[n];
+    int[] nextArc = new int[n];
+    int[] parentEdge = new int[n];
+    boolean[] articulation = new boolean[n];
+    Arrays.fill(discovery, -1);
+
+    int[] nodeStack = new int[n];
+    int[] edgeStack = new int[m];
+    int edgeTop = 0;
+    boolean[] bridge = new boolean[m];
+    int nbBridges = 0;
+    int[] componentOf = new int[m];
+    Arrays.fill(componentOf, -1);
+    int[] componentEdges = new int[m];
+    int[] componentOffsets = new int[m + 1];
+    int nbComponents = 0;
+    int nbComponentEdges = 0;
+    int time = 0;
+
+    for (int root = 0; root < n; root++) {
+      if (discovery[root] >= 0)
+        continue;
+      int top = 0;
+      int rootChildren = 0;
+      nodeStack[top++] = root;
+      discovery[root] = low[root] = time++;
+      nextArc[root] = offsets[root];
+      parentEdge[root] = -1;
+
+      while (top > 0) {
+        int u = nodeStack[top - 1];
+        if (nextArc[u] < offsets[u + 1]) {
+          int a = nextArc[u]++;
+          int v = targets[a];
+          int e = arcEdges[a];
+          if (v == u || e == parentEdge[u])
+            continue;
+          if (discovery[v] < 0) {
+            edgeStack[edgeTop++] = e;
+            parentEdge[v] = e;
+            discovery[v] = low[v] = time++;
+            nextArc[v] = offsets[v];
+            nodeStack[top++] = v;
+            if (u == root)
+              rootChildren++;
+          } else if (discovery[v] < discovery[u]) {
+            // Back edge to an ancestor, met first from the descendant side
+            edgeStack[edgeTop++] = e;
+            low[u] = Math.min(low[u], discovery[v]);
+          }
+          continue;
+        }
+
+        // u is finished: report to its parent p
+        top--;
+        if (top == 0)
+          break;
+        int p = nodeStack[top - 1];
+        low[p] = Math.min(low[p], low[u]);
+        if (low[u] >= discovery[p]) {
+          if (p != root)
+            articulation[p] = true;
+          if (low[u] > discovery[p]) {
+            bridge[parentEdge[u]] = true;
+            nbBridges++;
+          }
+          componentOffsets[nbComponents] = nbComponentEdges;
+          int e;
+          do {
+            e = edgeStack[--edgeTop];
+            componentOf[e] = nbComponents;
+            componentEdges[nbComponentEdges++] = e;
+          } while (e != parentEdge[u]);
+          nbComponents++;
+        }
+      }
+      if (rootChildren > 1)
+        articulation[root] = true;
+    }
+    componentOffsets[nbComponents] = nbComponentEdges;
+
+    int nbArticulations = 0;
+    for (boolean b : articulation) {
+      if (b)
+        nbArticulations++;
+    }
+    int[] articulationPoints = new int[nbArticulations];
+    for (int u = 0, i = 0; u < n; u++) {
+      if (articulation[u])
+        articulationPoints[i++] = u;
+    }
+    int[] bridges = new int[nbBridges];
+    for (int e = 0, i = 0; e < m; e++) {
+      if (bridge[e])
+        bridges[i++] = e;
+    }
+    return new BiconnectedComponents(graph, articulationPoints, bridges,
+        Arrays.copyOf(componentEdges, nbComponentEdges), Arrays.copyOf(componentOffsets, nbComponents + 1),
+        componentOf);
+  }
+}
@@ -0,0 +1,189 @@
+package connectivity;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Graph;
+
+/**
+ * A class CoreDecomposition, computes the core number of every node by
+ * repeatedly peeling a node of minimum degree.
+ * Degrees follow {@link Graph#degree(m1graphs2025.Node)}: in a directed graph
+ * they are the sum of the in and out-degrees, and multi-edges count as many
+ * times as they appear.
+ */
+public class CoreDecomposition {
+  private final CompactGraph graph;
+  private final CompactGraph reverse;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * CoreDecomposition constructor, snapshots graph g.
+   * @param g The graph to decompose, directed or undirected.
+   */
+  public CoreDecomposition(Graph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * CoreDecomposition constructor over an existing snapshot.
+   * @param graph The snapshot to decompose.
+   */
+  public CoreDecomposition(CompactGraph graph) {
+    this.graph = graph;
+    this.reverse = graph.isDirected() ? graph.transpose() : null;
+  }
+
+  /**
+   * Sets the pool running the parallel peeling, the common pool by default.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Batagelj and Zaversnik's algorithm: nodes are kept in an array sorted by
+   * current degree with bucket boundaries, so that taking a node of minimum
+   * degree and decrementing the degree of a neighbour are O(1), and the whole
+   * decomposition O(V + E).
+   * @return The core numbers and a degeneracy ordering.
+   */
+  public Cores compute() {
+    int n = graph.nbNodes();
+    int[] degree = degrees();
+    int maxDegree = 0;
+    for (int d : degree) {
+      maxDegree = Math.max(maxDegree, d);
+    }
+
+    // bucketStart[d] is the position of the first node of degree d in order
+    int[] bucketStart = new int[maxDegree + 2];
+    for (int d : degree) {
+      bucketStart[d + 1]++;
+    }
+    for (int d = 0; d <= maxDegree; d++) {
+      bucketStart[d + 1] += bucketStart[d];
+    }
+    int[] order = new int[n];
+    int[] position = new int[n];
+    int[] fill = Arrays.copyOf(bucketStart, maxDegree + 1);
+    for (int u = 0; u < n; u++) {
+      position[u] = fill[degree[u]]++;
+      order[position[u]] = u;
+    }
+
+    int degeneracy = 0;
+    for (int i = 0; i < n; i++) {
+      int u = order[i];
+      degeneracy = Math.max(degeneracy, degree[u]);
+      peelNeighbours(graph, u, degree, order, position, bucketStart);
+      if (reverse != null)
+        peelNeighbours(reverse, u, degree, order, position, bucketStart);
+    }
+    return new Cores(graph, degree, order, degeneracy);
+  }
+
+  private static void peelNeighbours(CompactGraph g, int u, int[] degree, int[] order, int[] position,
+      int[] bucketStart) {
+    int[] offsets = g.offsets();
+    int[] targets = g.targets();
+    for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+      int v = targets[a];
+      if (degree[v] <= degree[u])
+        continue;
+      // Swap v with the first node of its bucket, then shrink the bucket
+      int d = degree[v];
+      int first = bucketStart[d];
+      int w = order[first];
+      if (w != v) {
+        order[position[v]] = w;
+        position[w] = position[v];
+        order[first] = v;
+        position[v] = first;
+      }
+      bucketStart[d]++;
+      degree[v]--;
+    }
+  }
+
+  /**
+   * Peels the graph level by level: for k = 0, 1, ..., every node of degree at
+   * most k is removed, in parallel rounds, until all remaining nodes have degree
+   * greater than k. Neighbours crossing down to degree k during a round join the
+   * next round. Suited to large graphs with few distinct core numbers.
+   * @return The core numbers and a degeneracy ordering.
+   */
+  public Cores computeParallel() {
+    int n = graph.nbNodes();
+    AtomicIntegerArray degree = new AtomicIntegerArray(degrees());
+    int[] core = new int[n];
+    Arrays.fill(core, -1);
+    int[] order = new int[n];
+    int removed = 0;
+    int[] remaining = IntStream.range(0, n).toArray();
+    int k = 0;
+
+    while (removed < n) {
+      final int level = k;
+      final int[] left = remaining;
+      int[] frontier = pool.submit(() -> Arrays.stream(left).parallel()
+          .filter(u -> core[u] < 0 && degree.get(u) <= level).toArray()).join();
+      while (frontier.length > 0) {
+        for (int u : frontier) {
+          core[u] = level;
+        }
+        System.arraycopy(frontier, 0, order, removed, frontier.length);
+        removed += frontier.length;
+
+        final int[] current = frontier;
+        int[] next = new int[n - removed];
+        AtomicInteger size = new AtomicInteger();
+        pool.submit(() -> IntStream.range(0, current.length).parallel().forEach(i -> {
+          decrement(graph, current[i], level, core, degree, next, size);
+          if (reverse != null)
+            decrement(reverse, current[i], level, core, degree, next, size);
+        })).join();
+        frontier = Arrays.copyOf(next, size.get());
+        Arrays.sort(frontier);
+      }
+
+      int[] stillRemaining = pool.submit(() -> Arrays.stream(left).parallel().filter(u -> core[u] < 0).toArray())
+          .join();
+      if (stillRemaining.length == 0)
+        break;
+      remaining = stillRemaining;
+      int minDegree = pool.submit(() -> Arrays.stream(stillRemaining).parallel().map(degree::get).min().getAsInt())
+          .join();
+      k = Math.max(k + 1, minDegree);
+    }
+    return new Cores(graph, core, order, k);
+  }
+
+  private static void decrement(CompactGraph g, int u, int level, int[] core, AtomicIntegerArray degree,
+      int[] next, AtomicInteger size) {
+    int[] offsets = g.offsets();
+    int[] targets = g.targets();
+    for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+      int v = targets[a];
+      if (core[v] >= 0)
+        continue;
+      if (degree.decrementAndGet(v) == level)
+        next[size.getAndIncrement()] = v;
+    }
+  }
+
+  private int[] degrees() {
+    int n = graph.nbNodes();
+    int[] degree = new int[n];
+    for (int u = 0; u < n; u++) {
+      degree[u] = graph.outDegree(u);
+      if (reverse != null)
+        degree[u] += reverse.outDegree(u);
+    }
+    return degree;
+  }
+}
@@ -0,0 +1,98 @@
+package connectivity;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Node;
+
+/**
+ * A class that encapsulates a k-core decomposition: the core number of every
+ * node and a degeneracy ordering. The k-core of a graph is its largest induced
+ * subgraph in which every node has degree at least k, and the core number of a
+ * node is the largest k such that it belongs to the k-core.
+ */
+public class Cores {
+  private final CompactGraph graph;
+  private final int[] coreNumbers;
+  private final int[] ordering;
+  private final int degeneracy;
+
+  /**
+   * Cores constructor.
+   * @param graph The snapshot that was decomposed.
+   * @param coreNumbers Core number of every node, by node index.
+   * @param ordering Node indices in peeling order.
+   * @param degeneracy Largest core number.
+   */
+  public Cores(CompactGraph graph, int[] coreNumbers, int[] ordering, int degeneracy) {
+    this.graph = graph;
+    this.coreNumbers = coreNumbers;
+    this.ordering = ordering;
+    this.degeneracy = degeneracy;
+  }
+
+  /**
+   * Gets the core number of every node, by node index.
+   * @return this.coreNumbers
+   */
+  public int[] getCoreNumbers() {
+    return coreNumbers;
+  }
+
+  /**
+   * Gets the core number of node n.
+   * @param n Target node.
+   * @return The core number of n.
+   */
+  public int getCoreNumber(Node n) {
+    return getCoreNumber(n.getId());
+  }
+
+  /**
+   * Gets the core number of node with specified id.
+   * @param id Target node id.
+   * @return The core number, or -1 if the node is not in the graph.
+   */
+  public int getCoreNumber(int id) {
+    int index = graph.indexOf(id);
+    return index < 0 ? -1 : coreNumbers[index];
+  }
+
+  /**
+   * Gets the degeneracy of the graph, i.e. its largest core number.
+   * @return this.degeneracy
+   */
+  public int getDegeneracy() {
+    return degeneracy;
+  }
+
+  /**
+   * Gets the ids of the nodes in a degeneracy ordering: every node has at most
+   * {@link #getDegeneracy()} neighbours placed after it.
+   * @return The node ids in peeling order.
+   */
+  public int[] getDegeneracyOrdering() {
+    int[] ids = new int[ordering.length];
+    for (int i = 0; i < ids.length; i++) {
+      ids[i] = graph.nodeId(ordering[i]);
+    }
+    return ids;
+  }
+
+  /**
+   * Gets the ids of the nodes of the k-core.
+   * @param k Minimum degree.
+   * @return The ids of the nodes whose core number is at least k, increasing.
+   */
+  public int[] getCore(int k) {
+    int size = 0;
+    for (int c : coreNumbers) {
+      if (c >= k)
+        size++;
+    }
+    int[] ids = new int[size];
+    for (int u = 0, i = 0; u < coreNumbers.length; u++) {
+      if (coreNumbers[u] >= k)
+        ids[i++] = graph.nodeId(u);
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,96 @@
+package dags;
+
+import m1graphs2025.CompactGraph;
+
+/**
+ * A class that encapsulates the outcome of a topological sort:
+ * the nodes in topological order, optionally grouped in waves of independent
+ * nodes, or a concrete cycle when the graph is not acyclic.
+ */
+public class TopologicalOrder {
+  private final CompactGraph graph;
+  private final int[] order;
+  private final int[] waveOffsets;
+  private final int[] cycle;
+
+  /**
+   * TopologicalOrder constructor.
+   * @param graph The snapshot that was sorted.
+   * @param order Sorted node indices. Only the nodes that are not on or behind a
+   *              cycle are present when the graph is cyclic.
+   * @param waveOffsets Start of every wave in order, followed by the length of
+   *                    order, or null if the order is not split in waves.
+   * @param cycle Node indices of a cycle, or null if the graph is acyclic.
+   */
+  public TopologicalOrder(CompactGraph graph, int[] order, int[] waveOffsets, int[] cycle) {
+    this.graph = graph;
+    this.order = order;
+    this.waveOffsets = waveOffsets;
+    this.cycle = cycle;
+  }
+
+  /**
+   * Know whether the graph is acyclic, i.e. whether the order covers every node.
+   * @return True if acyclic, false otherwise.
+   */
+  public boolean isAcyclic() {
+    return cycle == null;
+  }
+
+  /**
+   * Gets the ids of the nodes in topological order: every edge goes from a node
+   * to a node placed after it.
+   * @return The ids of the sorted nodes.
+   */
+  public int[] getOrder() {
+    return toIds(order, 0, order.length);
+  }
+
+  /**
+   * Gets the sorted node indices. The array is shared and must not be modified.
+   * @return this.order
+   */
+  public int[] getIndexOrder() {
+    return order;
+  }
+
+  /**
+   * Know the number of waves.
+   * @return The number of waves, or 0 if the order was not split in waves.
+   */
+  public int nbWaves() {
+    return waveOffsets == null ? 0 : waveOffsets.length - 1;
+  }
+
+  /**
+   * Gets the ids of the nodes of every wave.
+   * The nodes of a wave only depend on nodes of the previous waves, so they can
+   * be scheduled together.
+   * @return The waves, each sorted by increasing id, or an empty array if the
+   *         order was not split in waves.
+   */
+  public int[][] getWaves() {
+    int[][] waves = new int[nbWaves()][];
+    for (int w = 0; w < waves.length; w++) {
+      waves[w] = toIds(order, waveOffsets[w], waveOffsets[w + 1]);
+    }
+    return waves;
+  }
+
+  /**
+   * Gets the ids of the nodes of a cycle c1, c2, ..., ck, such that there are
+   * edges (c1, c2), ..., (ck-1, ck) and (ck, c1).
+   * @return The ids of the cycle nodes, or null if the graph is acyclic.
+   */
+  public int[] getCycle() {
+    return cycle == null ? null : toIds(cycle, 0, cycle.length);
+  }
+
+  private int[] toIds(int[] indices, int from, int to) {
+    int[] ids = new int[to - from];
+    for (int i = from; i < to; i++) {
+      ids[i - from] = graph.nodeId(indices[i]);
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,185 @@
+package dags;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.stream.IntStream;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Graph;
+import m1graphs2025.GraphExceptions;
+
+/**
+ * A class TopologicalSort, sorts the nodes of a directed graph with Kahn's
+ * algorithm over primitive in-degree arrays, in O(V + E).
+ * When the graph is not acyclic, a concrete cycle is reported instead of
+ * failing.
+ */
+public class TopologicalSort {
+  private static final int PARALLEL_THRESHOLD = 1 << 12;
+
+  private final CompactGraph graph;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * TopologicalSort constructor, snapshots graph g.
+   * @param g The directed graph to sort.
+   */
+  public TopologicalSort(Graph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * TopologicalSort constructor over an existing snapshot.
+   * @param graph The directed snapshot to sort.
+   */
+  public TopologicalSort(CompactGraph graph) {
+    if (!graph.isDirected())
+      throw new GraphExceptions("Topological sort requires a directed graph");
+    this.graph = graph;
+  }
+
+  /**
+   * Sets the pool running the parallel waves, the common pool by default.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Sorts the nodes, breaking ties in favour of the smallest ids first met.
+   * @return The topological order, or a cycle.
+   */
+  public TopologicalOrder sort() {
+    int n = graph.nbNodes();
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    int[] inDegree = inDegrees();
+
+    // The order array doubles as the FIFO queue of Kahn's algorithm
+    int[] order = new int[n];
+    int tail = 0;
+    for (int u = 0; u < n; u++) {
+      if (inDegree[u] == 0)
+        order[tail++] = u;
+    }
+    for (int head = 0; head < tail; head++) {
+      int u = order[head];
+      for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+        if (--inDegree[targets[a]] == 0)
+          order[tail++] = targets[a];
+      }
+    }
+
+    if (tail == n)
+      return new TopologicalOrder(graph, order, null, null);
+    return new TopologicalOrder(graph, Arrays.copyOf(order, tail), null, findCycle(inDegree));
+  }
+
+  /**
+   * Sorts the nodes level by level: the first wave holds the nodes without
+   * predecessor, and every following wave the nodes whose predecessors all
+   * belong to previous waves. Large waves are processed in parallel.
+   * @return The topological order split in waves, or a cycle.
+   */
+  public TopologicalOrder sortInWaves() {
+    int n = graph.nbNodes();
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    AtomicIntegerArray inDegree = new AtomicIntegerArray(inDegrees());
+
+    int[] order = new int[n];
+    int[] waveOffsets = new int[n + 1];
+    int nbWaves = 0;
+    int tail = 0;
+    for (int u = 0; u < n; u++) {
+      if (inDegree.get(u) == 0)
+        order[tail++] = u;
+    }
+
+    int head = 0;
+    while (head < tail) {
+      waveOffsets[nbWaves++] = head;
+      final int from = head;
+      final int to = tail;
+      if (to - from < PARALLEL_THRESHOLD) {
+        for (int i = from; i < to; i++) {
+          int u = order[i];
+          for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+            if (inDegree.decrementAndGet(targets[a]) == 0)
+              order[tail++] = targets[a];
+          }
+        }
+      } else {
+        AtomicInteger next = new AtomicInteger(tail);
+        pool.submit(() -> IntStream.range(from, to).parallel().forEach(i -> {
+          int u = order[i];
+          for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+            if (inDegree.decrementAndGet(targets[a]) == 0)
+              order[next.getAndIncrement()] = targets[a];
+          }
+        })).join();
+        tail = next.get();
+      }
+      Arrays.parallelSort(order, to, tail);
+      head = to;
+    }
+    waveOffsets[nbWaves] = tail;
+    int[] waves = Arrays.copyOf(waveOffsets, nbWaves + 1);
+
+    if (tail == n)
+      return new TopologicalOrder(graph, order, waves, null);
+    int[] remaining = new int[n];
+    for (int u = 0; u < n; u++) {
+      remaining[u] = inDegree.get(u);
+    }
+    return new TopologicalOrder(graph, Arrays.copyOf(order, tail), waves, findCycle(remaining));
+  }
+
+  private int[] inDegrees() {
+    int[] inDegree = new int[graph.nbNodes()];
+    for (int v : graph.targets()) {
+      inDegree[v]++;
+    }
+    return inDegree;
+  }
+
+  /**
+   * Every node left with a positive in-degree by Kahn's algorithm has a
+   * predecessor that was left too, so walking backwards along such predecessors
+   * must eventually meet a node twice.
+   */
+  private int[] findCycle(int[] remainingInDegree) {
+    CompactGraph reverse = graph.transpose();
+    int[] inOffsets = reverse.offsets();
+    int[] sources = reverse.targets();
+    int n = graph.nbNodes();
+
+    int start = 0;
+    while (remainingInDegree[start] == 0)
+      start++;
+
+    int[] stepOf = new int[n];
+    Arrays.fill(stepOf, -1);
+    int[] walk = new int[n + 1];
+    int steps = 0;
+    int v = start;
+    while (stepOf[v] < 0) {
+      stepOf[v] = steps;
+      walk[steps++] = v;
+      int a = inOffsets[v];
+      while (remainingInDegree[sources[a]] == 0)
+        a++;
+      v = sources[a];
+    }
+
+    // The walk follows edges backwards, so the cycle is read in reverse
+    int length = steps - stepOf[v];
+    int[] cycle = new int[length];
+    for (int i = 0; i < length; i++) {
+      cycle[i] = walk[steps - 1 - i];
+    }
+    return cycle;
+  }
+}
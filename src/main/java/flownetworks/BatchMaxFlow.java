@@ -0,0 +1,83 @@
+package flownetworks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import m1graphs2025.GraphExceptions;
+
+/**
+ * A class BatchMaxFlow, computes the maximum flow values, equal to the minimum
+ * cut capacities, of many source and target pairs of the same network.
+ * All the pairs share one {@link CompactFlowNetwork}; they are solved in
+ * parallel with Dinic's algorithm, every thread owning its residual capacities
+ * and scratch arrays, which are reset rather than reallocated between pairs.
+ */
+public class BatchMaxFlow {
+  private final CompactFlowNetwork network;
+  private final long[] initialResidual;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * BatchMaxFlow constructor, snapshots flow network f. Its "s" and "t" nodes
+   * play no particular role.
+   * @param f The flow network.
+   */
+  public BatchMaxFlow(FlowNetwork f) {
+    this(CompactFlowNetwork.of(f));
+  }
+
+  /**
+   * BatchMaxFlow constructor over an existing snapshot.
+   * @param network The snapshot.
+   */
+  public BatchMaxFlow(CompactFlowNetwork network) {
+    this.network = network;
+    this.initialResidual = network.residualCapacities();
+  }
+
+  /**
+   * Sets the pool solving the pairs, the common pool by default.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Computes the maximum flow value of every pair.
+   * @param pairs Pairs of node ids, the source first and the target second.
+   * @return The maximum flow value of every pair, in the same order.
+   */
+  public long[] solve(int[][] pairs) {
+    int[] sources = new int[pairs.length];
+    int[] targets = new int[pairs.length];
+    for (int i = 0; i < pairs.length; i++) {
+      if (pairs[i].length != 2)
+        throw new IllegalArgumentException("A terminal pair holds two node ids");
+      sources[i] = indexOf(pairs[i][0]);
+      targets[i] = indexOf(pairs[i][1]);
+    }
+    ThreadLocal<Worker> workers = ThreadLocal.withInitial(Worker::new);
+    long[] values = new long[pairs.length];
+    pool.submit(() -> IntStream.range(0, pairs.length).parallel().forEach(i -> {
+      Worker worker = workers.get();
+      System.arraycopy(initialResidual, 0, worker.residual, 0, initialResidual.length);
+      values[i] = worker.dinic.augment(worker.residual, sources[i], targets[i], Long.MAX_VALUE);
+    })).join();
+    return values;
+  }
+
+  private int indexOf(int id) {
+    int index = network.indexOf(id);
+    if (index < 0)
+      throw new GraphExceptions("No node with id " + id);
+    return index;
+  }
+
+  /**
+   * The residual capacities and Dinic scratch arrays of one thread.
+   */
+  private final class Worker {
+    final long[] residual = new long[initialResidual.length];
+    final Dinic dinic = new Dinic(network);
+  }
+}
@@ -0,0 +1,368 @@
+package flownetworks;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import m1graphs2025.Edge;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.GraphStore;
+import m1graphs2025.Node;
+
+/**
+ * A class CompactFlowNetwork, codes a read-only snapshot of a flow network as
+ * primitive arrays, shared by the flow algorithms.
+ * Nodes are renumbered with dense indices 0..n-1 by increasing id, and edge ids
+ * are the positions of the edges in {@link FlowNetwork#getAllEdges()}.
+ * Every edge e gives two residual arcs: the forward arc {@code 2e} and the
+ * backward arc {@code 2e + 1}, so that {@code a ^ 1} is the reverse of arc a.
+ * The arcs leaving the node of index u are listed in
+ * {@code arcs[offsets[u]..offsets[u + 1])}.
+ * Flows themselves are not stored here: every solver keeps its own residual
+ * capacities, indexed by arc, as returned by {@link #residualCapacities()}.
+ */
+public final class CompactFlowNetwork {
+  private final int[] nodeIds;
+  private final int source;
+  private final int target;
+  private final int[] tails;
+  private final int[] heads;
+  private final long[] capacities;
+  private final long[] costs;
+  private final Edge[] edges;
+  private final int[] offsets;
+  private final int[] arcs;
+
+  /**
+   * Constructor for the class CompactFlowNetwork, takes the edges as parallel
+   * arrays. The arcs are grouped by tail with a counting sort.
+   *
+   * @param nodeIds    Node ids, by increasing index. Must be sorted.
+   * @param source     Source index, or -1.
+   * @param target     Target index, or -1.
+   * @param tails      Tail index of each edge.
+   * @param heads      Head index of each edge.
+   * @param capacities Capacity of each edge.
+   * @param costs      Cost of each edge.
+   * @param edges      Edge instances by edge id, or null when there is no
+   *                   backing flow network.
+   */
+  CompactFlowNetwork(int[] nodeIds, int source, int target, int[] tails, int[] heads, long[] capacities,
+      long[] costs, Edge[] edges) {
+    this.nodeIds = nodeIds;
+    this.source = source;
+    this.target = target;
+    this.tails = tails;
+    this.heads = heads;
+    this.capacities = capacities;
+    this.costs = costs;
+    this.edges = edges;
+
+    int n = nodeIds.length;
+    int m = tails.length;
+    int[] counts = new int[n + 1];
+    for (int e = 0; e < m; e++) {
+      if (capacities[e] < 0)
+        throw new GraphExceptions("Capacities must be non-negative");
+      counts[tails[e] + 1]++;
+      counts[heads[e] + 1]++;
+    }
+    for (int u = 0; u < n; u++) {
+      counts[u + 1] += counts[u];
+    }
+    this.offsets = counts.clone();
+    this.arcs = new int[2 * m];
+    for (int e = 0; e < m; e++) {
+      arcs[counts[tails[e]]++] = 2 * e;
+      arcs[counts[heads[e]]++] = 2 * e + 1;
+    }
+  }
+
+  /**
+   * Builds the snapshot of flow network f, its source and target being the
+   * nodes named "s" and "t". Capacities are the edge weights and costs come
+   * from {@link FlowNetwork#getEdgeCost(Edge)}.
+   *
+   * @param f The flow network to snapshot.
+   * @return The snapshot of f.
+   */
+  public static CompactFlowNetwork of(FlowNetwork f) {
+    Map<Node, List<Edge>> ael = f.getAel();
+    int n = ael.size();
+    int[] nodeIds = new int[n];
+    int idx = 0;
+    int m = 0;
+    for (Map.Entry<Node, List<Edge>> entry : ael.entrySet()) {
+      nodeIds[idx++] = entry.getKey().getId();
+      m += entry.getValue().size();
+    }
+
+    int[] tails = new int[m];
+    int[] heads = new int[m];
+    long[] capacities = new long[m];
+    long[] costs = new long[m];
+    Edge[] edges = new Edge[m];
+    int e = 0;
+    int u = 0;
+    for (List<Edge> out : ael.values()) {
+      for (Edge edge : out) {
+        tails[e] = u;
+        heads[e] = Arrays.binarySearch(nodeIds, edge.to().getId());
+        capacities[e] = f.getLongEdgeCapacity(edge);
+        costs[e] = f.getEdgeCost(edge);
+        edges[e++] = edge;
+      }
+      u++;
+    }
+    Node s = f.getSource();
+    Node t = f.getTarget();
+    return new CompactFlowNetwork(nodeIds, s == null ? -1 : Arrays.binarySearch(nodeIds, s.getId()),
+        t == null ? -1 : Arrays.binarySearch(nodeIds, t.getId()), tails, heads, capacities, costs, edges);
+  }
+
+  /**
+   * Builds the snapshot of any graph store, its edge weights being the
+   * capacities, with no costs. Every edge of an undirected store gives one edge
+   * in each direction.
+   *
+   * @param store    The graph store to snapshot.
+   * @param sourceId Source node id.
+   * @param targetId Target node id.
+   * @return The snapshot, with source or target -1 when their id is not used.
+   */
+  public static CompactFlowNetwork of(GraphStore store, int sourceId, int targetId) {
+    int[] nodeIds = store.getNodeIds();
+    int m = 0;
+    for (int id : nodeIds)
+      m += store.outDegree(id);
+
+    int[] tails = new int[m];
+    int[] heads = new int[m];
+    long[] capacities = new long[m];
+    int[] e = new int[1];
+    for (int u = 0; u < nodeIds.length; u++) {
+      int tail = u;
+      store.forEachOutEdge(nodeIds[u], (from, to, weight) -> {
+        tails[e[0]] = tail;
+        heads[e[0]] = Arrays.binarySearch(nodeIds, to);
+        capacities[e[0]++] = weight;
+      });
+    }
+    int s = Arrays.binarySearch(nodeIds, sourceId);
+    int t = Arrays.binarySearch(nodeIds, targetId);
+    return new CompactFlowNetwork(nodeIds, Math.max(s, -1), Math.max(t, -1), tails, heads, capacities,
+        new long[m], null);
+  }
+
+  /**
+   * Builds a snapshot directly from edge arrays, without any
+   * {@link FlowNetwork}. Edge ids are the positions in the arrays.
+   *
+   * @param nodeIds    Node ids by increasing index. Must be sorted.
+   * @param source     Source index, or -1.
+   * @param target     Target index, or -1.
+   * @param tails      Tail index of each edge.
+   * @param heads      Head index of each edge.
+   * @param capacities Capacity of each edge, non-negative.
+   * @param costs      Cost of each edge, or null for no costs.
+   * @return The snapshot.
+   */
+  public static CompactFlowNetwork fromEdges(int[] nodeIds, int source, int target, int[] tails, int[] heads,
+      long[] capacities, long[] costs) {
+    if (tails.length != heads.length || capacities.length != tails.length
+        || (costs != null && costs.length != tails.length))
+      throw new IllegalArgumentException("Edge arrays must have the same length");
+    return new CompactFlowNetwork(nodeIds, source, target, tails, heads, capacities,
+        costs == null ? new long[tails.length] : costs, null);
+  }
+
+  /* API */
+
+  /**
+   * Know the number of nodes.
+   *
+   * @return The number of nodes.
+   */
+  public int nbNodes() {
+    return nodeIds.length;
+  }
+
+  /**
+   * Know the number of edges, half the number of arcs.
+   *
+   * @return The number of edges.
+   */
+  public int nbEdges() {
+    return tails.length;
+  }
+
+  /**
+   * Gets the id of the node with specified index.
+   *
+   * @param index Node index.
+   * @return The node id.
+   */
+  public int nodeId(int index) {
+    return nodeIds[index];
+  }
+
+  /**
+   * Gets the index of the node with specified id.
+   *
+   * @param id Node id.
+   * @return The node index, or -1 if no node has this id.
+   */
+  public int indexOf(int id) {
+    int index = Arrays.binarySearch(nodeIds, id);
+    return index < 0 ? -1 : index;
+  }
+
+  /**
+   * Gets the index of the source.
+   *
+   * @return The source index, or -1 if there is none.
+   */
+  public int source() {
+    return source;
+  }
+
+  /**
+   * Gets the index of the target.
+   *
+   * @return The target index, or -1 if there is none.
+   */
+  public int target() {
+    return target;
+  }
+
+  /**
+   * Gets the tail index of edge e.
+   *
+   * @param e Edge id.
+   * @return The tail index.
+   */
+  public int tail(int e) {
+    return tails[e];
+  }
+
+  /**
+   * Gets the head index of edge e.
+   *
+   * @param e Edge id.
+   * @return The head index.
+   */
+  public int head(int e) {
+    return heads[e];
+  }
+
+  /**
+   * Gets the capacity of edge e.
+   *
+   * @param e Edge id.
+   * @return The capacity.
+   */
+  public long capacity(int e) {
+    return capacities[e];
+  }
+
+  /**
+   * Gets the cost of one unit of flow on edge e.
+   *
+   * @param e Edge id.
+   * @return The cost, 0 when no cost was given.
+   */
+  public long cost(int e) {
+    return costs[e];
+  }
+
+  /**
+   * Gets the edge instance of edge e.
+   *
+   * @param e Edge id.
+   * @return The edge instance, or null if the snapshot has no backing network.
+   */
+  public Edge edge(int e) {
+    return edges == null ? null : edges[e];
+  }
+
+  /**
+   * Gets the arc offsets, of length {@code nbNodes() + 1}.
+   * The array is shared and must not be modified.
+   *
+   * @return This.offsets
+   */
+  public int[] offsets() {
+    return offsets;
+  }
+
+  /**
+   * Gets the arc ids grouped by tail.
+   * The array is shared and must not be modified.
+   *
+   * @return This.arcs
+   */
+  public int[] arcs() {
+    return arcs;
+  }
+
+  /**
+   * Gets the node an arc leaves.
+   *
+   * @param a Arc id.
+   * @return The tail index of the arc.
+   */
+  public int arcTail(int a) {
+    return (a & 1) == 0 ? tails[a >> 1] : heads[a >> 1];
+  }
+
+  /**
+   * Gets the node an arc enters.
+   *
+   * @param a Arc id.
+   * @return The head index of the arc.
+   */
+  public int arcHead(int a) {
+    return (a & 1) == 0 ? heads[a >> 1] : tails[a >> 1];
+  }
+
+  /**
+   * Gets the cost of one unit of flow on an arc, backward arcs refunding the
+   * cost of their edge.
+   *
+   * @param a Arc id.
+   * @return The arc cost.
+   */
+  public long arcCost(int a) {
+    return (a & 1) == 0 ? costs[a >> 1] : -costs[a >> 1];
+  }
+
+  /**
+   * Builds the residual capacities of the null flow: every forward arc holds
+   * the capacity of its edge and every backward arc 0.
+   *
+   * @return A new array of residual capacities, indexed by arc.
+   */
+  public long[] residualCapacities() {
+    long[] residual = new long[2 * tails.length];
+    for (int e = 0; e < tails.length; e++) {
+      residual[2 * e] = capacities[e];
+    }
+    return residual;
+  }
+
+  /**
+   * Computes the cost of a flow, checking for overflow.
+   *
+   * @param edgeFlows Flow on every edge.
+   * @return The sum of the flows times the edge costs.
+   * @throws ArithmeticException If the cost does not fit in a long.
+   */
+  public long costOf(long[] edgeFlows) {
+    long total = 0;
+    for (int e = 0; e < edgeFlows.length; e++) {
+      if (edgeFlows[e] != 0 && costs[e] != 0)
+        total = Math.addExact(total, Math.multiplyExact(edgeFlows[e], costs[e]));
+    }
+    return total;
+  }
+}
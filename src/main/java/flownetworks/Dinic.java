@@ -0,0 +1,116 @@
+package flownetworks;
+
+import java.util.Arrays;
+
+/**
+ * Dinic's blocking flow algorithm over the residual capacities of a
+ * {@link CompactFlowNetwork}. The scratch arrays belong to the instance, so
+ * that one thread can reuse them from one solve to the next, while the
+ * residual capacities are passed in and updated in place.
+ */
+final class Dinic {
+  private final CompactFlowNetwork network;
+  private final int[] level;
+  private final int[] queue;
+  private final int[] nextArc;
+  private final int[] path;
+
+  Dinic(CompactFlowNetwork network) {
+    this.network = network;
+    int n = network.nbNodes();
+    this.level = new int[n];
+    this.queue = new int[n];
+    this.nextArc = new int[n];
+    this.path = new int[n];
+  }
+
+  /**
+   * Augments the flow from s to t until it is maximum or has grown by limit.
+   * @return The value added to the flow.
+   */
+  long augment(long[] residual, int s, int t, long limit) {
+    if (s == t)
+      return 0;
+    int[] offsets = network.offsets();
+    int[] arcs = network.arcs();
+    long total = 0;
+    while (total < limit && layer(residual, s, t)) {
+      System.arraycopy(offsets, 0, nextArc, 0, nextArc.length);
+      int depth = 0;
+      int u = s;
+      while (total < limit) {
+        if (u == t) {
+          long pushed = limit - total;
+          for (int i = 0; i < depth; i++) {
+            pushed = Math.min(pushed, residual[path[i]]);
+          }
+          int cut = depth;
+          for (int i = depth - 1; i >= 0; i--) {
+            int a = path[i];
+            residual[a] -= pushed;
+            residual[a ^ 1] += pushed;
+            if (residual[a] == 0)
+              cut = i;
+          }
+          total += pushed;
+          depth = cut;
+          u = depth == 0 ? s : network.arcHead(path[depth - 1]);
+          continue;
+        }
+        boolean advanced = false;
+        while (nextArc[u] < offsets[u + 1]) {
+          int a = arcs[nextArc[u]];
+          int v = network.arcHead(a);
+          if (residual[a] > 0 && level[v] == level[u] + 1) {
+            path[depth++] = a;
+            u = v;
+            advanced = true;
+            break;
+          }
+          nextArc[u]++;
+        }
+        if (advanced)
+          continue;
+        if (u == s)
+          break;
+        level[u] = -1;
+        u = network.arcTail(path[--depth]);
+        nextArc[u]++;
+      }
+    }
+    return total;
+  }
+
+  /**
+   * Know whether u is reachable from the source in the residual graph, i.e. on
+   * the source side of a minimum cut, once an unlimited augment has returned.
+   */
+  boolean isSourceSide(int u) {
+    return level[u] >= 0;
+  }
+
+  /**
+   * Levels the nodes by breadth-first search from s over the residual arcs.
+   * @return Whether t is reachable.
+   */
+  private boolean layer(long[] residual, int s, int t) {
+    int[] offsets = network.offsets();
+    int[] arcs = network.arcs();
+    Arrays.fill(level, -1);
+    level[s] = 0;
+    queue[0] = s;
+    int tail = 1;
+    for (int head = 0; head < tail && level[t] < 0; head++) {
+      int u = queue[head];
+      for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+        int a = arcs[i];
+        int v = network.arcHead(a);
+        if (residual[a] > 0 && level[v] < 0) {
+          level[v] = level[u] + 1;
+          queue[tail++] = v;
+        }
+      }
+    }
+    return level[t] >= 0;
+  }
+}
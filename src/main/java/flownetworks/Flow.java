@@ -0,0 +1,292 @@
+package flownetworks;
+
+import java.util.Arrays;
+
+import m1graphs2025.Edge;
+import m1graphs2025.GraphExceptions;
+
+/**
+ * A class that encapsulates a flow computed on a {@link CompactFlowNetwork}:
+ * the flow on every edge, its value and its cost.
+ */
+public class Flow {
+  private final CompactFlowNetwork network;
+  private final long[] edgeFlows;
+  private final long value;
+  private final long cost;
+
+  /**
+   * Flow constructor.
+   * @param network The snapshot the flow runs on.
+   * @param edgeFlows Flow on every edge, by edge id.
+   * @param value Value of the flow, leaving the source.
+   * @param cost Total cost of the flow.
+   */
+  public Flow(CompactFlowNetwork network, long[] edgeFlows, long value, long cost) {
+    this.network = network;
+    this.edgeFlows = edgeFlows;
+    this.value = value;
+    this.cost = cost;
+  }
+
+  /**
+   * Builds the flow held by residual capacities indexed by arc, the flow on an
+   * edge being the residual capacity of its backward arc.
+   */
+  static Flow fromResidual(CompactFlowNetwork network, long[] residual, long value) {
+    long[] edgeFlows = new long[network.nbEdges()];
+    for (int e = 0; e < edgeFlows.length; e++) {
+      edgeFlows[e] = residual[2 * e + 1];
+    }
+    return new Flow(network, edgeFlows, value, network.costOf(edgeFlows));
+  }
+
+  /**
+   * Snapshots flow network f together with the flow it currently holds, for
+   * instance once {@link FlowNetworkOperations#getMaximumFlow(String)} is done.
+   * @param f The flow network.
+   * @return The flow of f, its value being the net flow leaving the source.
+   */
+  public static Flow of(FlowNetwork f) {
+    CompactFlowNetwork network = CompactFlowNetwork.of(f);
+    long[] edgeFlows = new long[network.nbEdges()];
+    long value = 0;
+    for (int e = 0; e < edgeFlows.length; e++) {
+      edgeFlows[e] = f.getLongEdgeFlow(network.edge(e));
+      if (network.tail(e) == network.source())
+        value = Math.addExact(value, edgeFlows[e]);
+      if (network.head(e) == network.source())
+        value = Math.subtractExact(value, edgeFlows[e]);
+    }
+    return new Flow(network, edgeFlows, value, network.costOf(edgeFlows));
+  }
+
+  /**
+   * Gets the value of the flow.
+   * @return this.value
+   */
+  public long getValue() {
+    return value;
+  }
+
+  /**
+   * Gets the total cost of the flow.
+   * @return this.cost
+   */
+  public long getCost() {
+    return cost;
+  }
+
+  /**
+   * Gets the flow on every edge, by edge id.
+   * @return this.edgeFlows
+   */
+  public long[] getEdgeFlows() {
+    return edgeFlows;
+  }
+
+  /**
+   * Gets the flow on edge e.
+   * @param e Edge id.
+   * @return The flow on e.
+   */
+  public long getEdgeFlow(int e) {
+    return edgeFlows[e];
+  }
+
+  /**
+   * Writes the flow into the flow network the snapshot was taken from, which
+   * switches to 64-bit values if the flow does not fit in ints.
+   * @param flowNetwork The flow network of the snapshot.
+   */
+  public void applyTo(FlowNetwork flowNetwork) {
+    if (network.nbEdges() > 0 && network.edge(0) == null)
+      throw new GraphExceptions("Flow is not backed by a flow network");
+    for (int e = 0; e < edgeFlows.length; e++) {
+      Edge edge = network.edge(e);
+      flowNetwork.updateLongEdgeFlow(edge, edgeFlows[e]);
+    }
+    flowNetwork.setFlowValue(value);
+  }
+
+  /**
+   * Finds the minimum cut certified by the flow: the source side holds the
+   * nodes reachable from the source in the residual graph, found by one
+   * breadth-first search, and the cut edges are the edges leaving it.
+   * Its capacity equals the flow value only if the flow is maximum.
+   * @return The cut.
+   */
+  public MinCut getMinCut() {
+    int n = network.nbNodes();
+    int s = network.source();
+    if (s < 0)
+      throw new GraphExceptions("Flow network must have source and target !");
+    int[] offsets = network.offsets();
+    int[] arcs = network.arcs();
+    boolean[] sourceSide = new boolean[n];
+    int[] queue = new int[n];
+    sourceSide[s] = true;
+    queue[0] = s;
+    int tail = 1;
+    for (int head = 0; head < tail; head++) {
+      int u = queue[head];
+      for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+        int a = arcs[i];
+        int v = network.arcHead(a);
+        if (!sourceSide[v] && residual(a) > 0) {
+          sourceSide[v] = true;
+          queue[tail++] = v;
+        }
+      }
+    }
+
+    int[] cutEdges = new int[edgeFlows.length];
+    int size = 0;
+    long capacity = 0;
+    for (int e = 0; e < edgeFlows.length; e++) {
+      if (sourceSide[network.tail(e)] && !sourceSide[network.head(e)]) {
+        cutEdges[size++] = e;
+        capacity = Math.addExact(capacity, network.capacity(e));
+      }
+    }
+    return new MinCut(network, sourceSide, Arrays.copyOf(cutEdges, size), capacity);
+  }
+
+  private long residual(int a) {
+    long flow = edgeFlows[a >> 1];
+    return (a & 1) == 0 ? network.capacity(a >> 1) - flow : flow;
+  }
+
+  /**
+   * Decomposes the flow into flows along source to target paths and along
+   * cycles, in O(V.E). A virtual edge from the target back to the source,
+   * carrying the flow value, turns the flow into a circulation; walks along
+   * edges of positive flow then close cycles, each of which is removed at the
+   * flow of its smallest edge and so empties at least one edge. The cycles
+   * through the virtual edge are the paths.
+   * @return The decomposition.
+   * @throws GraphExceptions If the flow is not conserved at some node.
+   */
+  public FlowDecomposition decompose() {
+    int n = network.nbNodes();
+    int m = edgeFlows.length;
+    int s = network.source();
+    int t = network.target();
+    if (value != 0 && (s < 0 || t < 0))
+      throw new GraphExceptions("Flow network must have source and target !");
+    int[] offsets = network.offsets();
+    int[] arcs = network.arcs();
+    long[] remaining = Arrays.copyOf(edgeFlows, m + 1);
+    remaining[m] = value;
+    int[] nextArc = Arrays.copyOf(offsets, n);
+    int[] position = new int[n];
+    Arrays.fill(position, -1);
+    int[] walkNodes = new int[n + 1];
+    int[] walkEdges = new int[n];
+    Decomposer paths = new Decomposer();
+    Decomposer cycles = new Decomposer();
+
+    for (int r = 0; r < n; r++) {
+      int length = 0;
+      int u = r;
+      walkNodes[0] = r;
+      position[r] = 0;
+      while (true) {
+        int e = m;
+        if (u != t || remaining[m] == 0) {
+          while (nextArc[u] < offsets[u + 1]
+              && ((arcs[nextArc[u]] & 1) != 0 || remaining[arcs[nextArc[u]] >> 1] == 0)) {
+            nextArc[u]++;
+          }
+          if (nextArc[u] == offsets[u + 1]) {
+            if (length > 0)
+              throw new GraphExceptions("Flow is not conserved at node " + network.nodeId(u));
+            break;
+          }
+          e = arcs[nextArc[u]] >> 1;
+        }
+        int v = e == m ? s : network.head(e);
+        walkEdges[length++] = e;
+        if (position[v] < 0) {
+          position[v] = length;
+          walkNodes[length] = v;
+          u = v;
+          continue;
+        }
+
+        int start = position[v];
+        long pushed = Long.MAX_VALUE;
+        int virtual = -1;
+        for (int i = start; i < length; i++) {
+          pushed = Math.min(pushed, remaining[walkEdges[i]]);
+          if (walkEdges[i] == m)
+            virtual = i;
+        }
+        for (int i = start; i < length; i++) {
+          remaining[walkEdges[i]] -= pushed;
+        }
+        if (virtual < 0) {
+          cycles.add(walkEdges, start, length, -1, pushed);
+        } else {
+          paths.add(walkEdges, start, length, virtual, pushed);
+        }
+        for (int i = start + 1; i < length; i++) {
+          position[walkNodes[i]] = -1;
+        }
+        length = start;
+        u = v;
+      }
+      position[r] = -1;
+    }
+    return new FlowDecomposition(network, Arrays.copyOf(paths.edges, paths.size), paths.offsets(),
+        paths.flows(), Arrays.copyOf(cycles.edges, cycles.size), cycles.offsets(), cycles.flows());
+  }
+
+  /**
+   * Growable primitive storage of the paths or cycles found by
+   * {@link #decompose()}.
+   */
+  private static final class Decomposer {
+    private int[] edges = new int[16];
+    private int size;
+    private int[] starts = new int[16];
+    private long[] amounts = new long[16];
+    private int count;
+
+    /**
+     * Adds the cycle walk[start..end), rotated to begin right after the virtual
+     * edge at position virtual, which is left out, if there is one.
+     */
+    void add(int[] walk, int start, int end, int virtual, long amount) {
+      if (size + end - start > edges.length)
+        edges = Arrays.copyOf(edges, Math.max(2 * edges.length, size + end - start));
+      if (count == amounts.length) {
+        starts = Arrays.copyOf(starts, 2 * count);
+        amounts = Arrays.copyOf(amounts, 2 * count);
+      }
+      starts[count] = size;
+      amounts[count++] = amount;
+      if (virtual < 0) {
+        System.arraycopy(walk, start, edges, size, end - start);
+        size += end - start;
+        return;
+      }
+      for (int i = virtual + 1; i < end; i++) {
+        edges[size++] = walk[i];
+      }
+      for (int i = start; i < virtual; i++) {
+        edges[size++] = walk[i];
+      }
+    }
+
+    int[] offsets() {
+      int[] offsets = Arrays.copyOf(starts, count + 1);
+      offsets[count] = size;
+      return offsets;
+    }
+
+    long[] flows() {
+      return Arrays.copyOf(amounts, count);
+    }
+  }
+}
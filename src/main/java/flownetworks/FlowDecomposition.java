@@ -0,0 +1,107 @@
+package flownetworks;
+
+import java.util.Arrays;
+
+/**
+ * A class that encapsulates the decomposition of a flow into flows along
+ * source to target paths and along cycles, every edge carrying the sum of the
+ * flows of the paths and cycles through it.
+ * Paths and cycles are stored back to back as edge ids in one array.
+ */
+public class FlowDecomposition {
+  private final CompactFlowNetwork network;
+  private final int[] pathEdges;
+  private final int[] pathOffsets;
+  private final long[] pathFlows;
+  private final int[] cycleEdges;
+  private final int[] cycleOffsets;
+  private final long[] cycleFlows;
+
+  /**
+   * FlowDecomposition constructor.
+   * @param network The snapshot the flow runs on.
+   * @param pathEdges Edge ids of the paths, back to back.
+   * @param pathOffsets Start of every path in pathEdges, followed by its length.
+   * @param pathFlows Flow along every path.
+   * @param cycleEdges Edge ids of the cycles, back to back.
+   * @param cycleOffsets Start of every cycle in cycleEdges, followed by its length.
+   * @param cycleFlows Flow along every cycle.
+   */
+  public FlowDecomposition(CompactFlowNetwork network, int[] pathEdges, int[] pathOffsets, long[] pathFlows,
+      int[] cycleEdges, int[] cycleOffsets, long[] cycleFlows) {
+    this.network = network;
+    this.pathEdges = pathEdges;
+    this.pathOffsets = pathOffsets;
+    this.pathFlows = pathFlows;
+    this.cycleEdges = cycleEdges;
+    this.cycleOffsets = cycleOffsets;
+    this.cycleFlows = cycleFlows;
+  }
+
+  /**
+   * Know the number of paths.
+   * @return The number of source to target paths.
+   */
+  public int nbPaths() {
+    return pathFlows.length;
+  }
+
+  /**
+   * Gets the edge ids of path i, from the source to the target.
+   * @param i Path number.
+   * @return The edge ids of the path.
+   */
+  public int[] getPath(int i) {
+    return Arrays.copyOfRange(pathEdges, pathOffsets[i], pathOffsets[i + 1]);
+  }
+
+  /**
+   * Gets the node ids of path i, from the source to the target.
+   * @param i Path number.
+   * @return The node ids of the path.
+   */
+  public int[] getPathNodes(int i) {
+    int length = pathOffsets[i + 1] - pathOffsets[i];
+    int[] ids = new int[length + 1];
+    ids[0] = network.nodeId(network.source());
+    for (int k = 0; k < length; k++) {
+      ids[k + 1] = network.nodeId(network.head(pathEdges[pathOffsets[i] + k]));
+    }
+    return ids;
+  }
+
+  /**
+   * Gets the flow along path i.
+   * @param i Path number.
+   * @return The flow of the path.
+   */
+  public long getPathFlow(int i) {
+    return pathFlows[i];
+  }
+
+  /**
+   * Know the number of cycles.
+   * @return The number of cycles.
+   */
+  public int nbCycles() {
+    return cycleFlows.length;
+  }
+
+  /**
+   * Gets the edge ids of cycle i, in order.
+   * @param i Cycle number.
+   * @return The edge ids of the cycle.
+   */
+  public int[] getCycle(int i) {
+    return Arrays.copyOfRange(cycleEdges, cycleOffsets[i], cycleOffsets[i + 1]);
+  }
+
+  /**
+   * Gets the flow along cycle i.
+   * @param i Cycle number.
+   * @return The flow of the cycle.
+   */
+  public long getCycleFlow(int i) {
+    return cycleFlows[i];
+  }
+}
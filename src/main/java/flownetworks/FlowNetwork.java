@@ -7,7 +7,9 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.security.InvalidParameterException;
+import java.util.Arrays;
 import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Matcher;
@@ -18,13 +20,20 @@ import m1graphs2025.Edge;
 public class FlowNetwork extends Graph {
   private SymetricFlowNetwork symetricFlowNetwork;
   private Map<Edge, Integer> flowMap = new HashMap<>();
+  private Map<Edge, Integer> costMap = new IdentityHashMap<>();
   private int flowNetworkId = 0;
   private int flowValue = 0;
   private Integer isInducedBy = null;
+  // 64-bit mode: capacities and flows by edge slot, null until useLongValues()
+  private Edge[] longEdges = null;
+  private long[] longCapacities;
+  private long[] longFlows;
+  private int nbSlots = 0;
+  private long longFlowValue = 0;
 
   public FlowNetwork() {
     super();
-    symetricFlowNetwork = new SymetricFlowNetwork(getAel(), flowMap);
+    symetricFlowNetwork = new SymetricFlowNetwork(this);
     initFlows();
   }
 
@@ -33,7 +42,20 @@ public class FlowNetwork extends Graph {
   }
 
   public int getFlowValue() {
-    return flowValue;
+    return longEdges == null ? flowValue : Math.toIntExact(longFlowValue);
+  }
+
+  public long getLongFlowValue() {
+    return longEdges == null ? flowValue : longFlowValue;
+  }
+
+  void setFlowValue(long flowValue) {
+    if (longEdges == null && flowValue != (int) flowValue)
+      useLongValues();
+    if (longEdges == null)
+      this.flowValue = (int) flowValue;
+    else
+      this.longFlowValue = flowValue;
   }
 
   public int getFlowNetworkId() {
@@ -45,16 +67,167 @@ public class FlowNetwork extends Graph {
   }
 
   public int getEdgeCapacity(Edge edge) {
+    if (longEdges != null)
+      return Math.toIntExact(getLongEdgeCapacity(edge));
     Integer capacity = edge.getWeight();
     return capacity == null ? 0 : capacity;
   }
 
   public int getEdgeFlow(Edge edge) {
     if (edge == null) return 0;
+    if (longEdges != null)
+      return Math.toIntExact(getLongEdgeFlow(edge));
     return flowMap.get(edge);
   }
 
+  /* 64-bit capacities and flows */
+
+  /**
+   * Switches the flow network to 64-bit capacities and flows, held in primitive
+   * long columns indexed by a slot stored in every edge, instead of the edge
+   * weights and the flow map. The int accessors keep working and throw an ArithmeticException rather
+   * than overflow once a value no longer fits in an int. The long setters
+   * switch automatically, so that it only needs to be called to reserve room.
+   */
+  public void useLongValues() {
+    if (longEdges != null)
+      return;
+    int m = 0;
+    for (List<Edge> edges : getAel().values()) {
+      m += edges.size();
+    }
+    longEdges = new Edge[Math.max(16, m)];
+    longCapacities = new long[longEdges.length];
+    longFlows = new long[longCapacities.length];
+    longFlowValue = flowValue;
+    for (List<Edge> edges : getAel().values()) {
+      for (Edge edge : edges) {
+        slot(edge);
+      }
+    }
+  }
+
+  /**
+   * Know whether capacities and flows are held on 64 bits.
+   * @return True after {@link #useLongValues()}, false otherwise.
+   */
+  public boolean hasLongValues() {
+    return longEdges != null;
+  }
+
+  /**
+   * Gets the slot of edge in the long columns, the edge getting a new one,
+   * initialized from its weight and flow, when it has none.
+   */
+  private int slot(Edge edge) {
+    int slot = ownSlot(edge);
+    if (slot >= 0)
+      return slot;
+    int next = nbSlots++;
+    if (next == longEdges.length) {
+      longEdges = Arrays.copyOf(longEdges, 2 * next);
+      longCapacities = Arrays.copyOf(longCapacities, 2 * next);
+      longFlows = Arrays.copyOf(longFlows, 2 * next);
+    }
+    Integer capacity = edge.getWeight();
+    Integer flow = flowMap.get(edge);
+    longEdges[next] = edge;
+    longCapacities[next] = capacity == null ? 0 : capacity;
+    longFlows[next] = flow == null ? 0 : flow;
+    setSlot(edge, next);
+    return next;
+  }
+
+  /**
+   * Gets the slot of edge in the long columns of this network.
+   * @return The slot, or -1 if the edge has none here.
+   */
+  private int ownSlot(Edge edge) {
+    int slot = getSlot(edge);
+    return slot >= 0 && slot < nbSlots && longEdges[slot] == edge ? slot : -1;
+  }
+
+  public long getLongEdgeCapacity(Edge edge) {
+    if (longEdges == null)
+      return getEdgeCapacity(edge);
+    // A new slot may grow the columns: it must be taken before indexing them
+    int slot = slot(edge);
+    return longCapacities[slot];
+  }
+
+  /**
+   * Keeps the long capacity of an edge whose weight is set directly equal to
+   * the new weight.
+   */
+  @Override
+  protected void weightChanged(Edge edge, Integer previousWeight) {
+    super.weightChanged(edge, previousWeight);
+    if (longEdges == null || !edge.isWeighted())
+      return;
+    int slot = ownSlot(edge);
+    if (slot >= 0)
+      longCapacities[slot] = edge.getWeight();
+  }
+
+  /**
+   * Sets the capacity of edge, which keeps as weight the capacity capped to
+   * {@link Integer#MAX_VALUE} once it no longer fits in an int.
+   */
+  public void setLongEdgeCapacity(Edge edge, long capacity) {
+    if (longEdges == null && capacity != (int) capacity)
+      useLongValues();
+    edge.setWeight((int) Math.min(capacity, Integer.MAX_VALUE));
+    if (longEdges != null) {
+      int slot = slot(edge);
+      longCapacities[slot] = capacity;
+    }
+  }
+
+  public long getLongEdgeFlow(Edge edge) {
+    if (edge == null) return 0;
+    if (longEdges == null)
+      return getEdgeFlow(edge);
+    int slot = slot(edge);
+    return longFlows[slot];
+  }
+
+  /**
+   * Replaces the flow of edge, capped to its capacity.
+   * The flow map holds the flow capped to {@link Integer#MAX_VALUE} once it no
+   * longer fits in an int.
+   * @return False if the flow exceeded the capacity, true otherwise.
+   */
+  public boolean updateLongEdgeFlow(Edge edge, long flow) {
+    if (longEdges == null && flow != (int) flow)
+      useLongValues();
+    if (longEdges == null)
+      return updateEdgeFlow(edge, (int) flow);
+    int slot = slot(edge);
+    boolean fits = flow <= longCapacities[slot];
+    longFlows[slot] = fits ? flow : longCapacities[slot];
+    flowMap.replace(edge, (int) Math.min(longFlows[slot], Integer.MAX_VALUE));
+    return fits;
+  }
+
+  public int getEdgeCost(Edge edge) {
+    Integer cost = costMap.get(edge);
+    return cost == null ? 0 : cost;
+  }
+
+  public void setEdgeCost(Edge edge, int cost) {
+    if (cost == 0)
+      costMap.remove(edge);
+    else
+      costMap.put(edge, cost);
+  }
+
   public boolean setEdgeFlow(Edge edge, int flow) {
+    if (longEdges != null) {
+      if (flowMap.containsKey(edge))
+        return flow <= getLongEdgeCapacity(edge);
+      flowMap.put(edge, 0);
+      return updateLongEdgeFlow(edge, flow);
+    }
     if (flow > getEdgeCapacity(edge)) {
       flowMap.putIfAbsent(edge, getEdgeCapacity(edge));
       return false;
@@ -64,6 +237,8 @@ public class FlowNetwork extends Graph {
   }
 
   public boolean updateEdgeFlow(Edge edge, int flow) {
+    if (longEdges != null)
+      return updateLongEdgeFlow(edge, flow);
     if (flow > getEdgeCapacity(edge)) {
       flowMap.replace(edge, getEdgeCapacity(edge));
       return false;
@@ -73,6 +248,8 @@ public class FlowNetwork extends Graph {
   }
 
   public boolean addEdgeFlow(Edge edge, int flow) {
+    if (longEdges != null)
+      return updateLongEdgeFlow(edge, Math.addExact(getLongEdgeFlow(edge), flow));
     int newFlow = flow + getEdgeFlow(edge);
     if (newFlow > getEdgeCapacity(edge)) {
       flowMap.replace(edge, getEdgeCapacity(edge));
@@ -139,9 +316,8 @@ public class FlowNetwork extends Graph {
   private void applyFlowRestriction() {
     for (List<Edge> edges : getAel().values()) {
       for (Edge edge : edges) {
-        int edgeFlow = flowMap.get(edge);
-        if (edgeFlow > edge.getWeight()) {
-          flowMap.replace(edge, edge.getWeight());
+        if (getLongEdgeFlow(edge) > getLongEdgeCapacity(edge)) {
+          updateLongEdgeFlow(edge, getLongEdgeCapacity(edge));
         }
       }
     }
@@ -210,24 +386,33 @@ public class FlowNetwork extends Graph {
           flowNetwork.addNode(u);
 
           boolean attributeWatcher = false;
+          Integer cost = null;
           while (attribuMatcher.find()) {
             String key = attribuMatcher.group(1).trim();
             String value = attribuMatcher.group(2).trim();
 
             if (key.equals("weight") || key.equals("len")) {
               Edge e = flowNetwork.getEdges(n, u).getLast();
-              e.setWeight(Integer.parseInt(value));
+              flowNetwork.setLongEdgeCapacity(e, Long.parseLong(value));
               attributeWatcher = true;
             }
             if (key.equals("label")) {
-              flowNetwork.addEdge(n, u, Integer.parseInt(value));
-              flowNetwork.setEdgeFlow(flowNetwork.getEdges(n, u).getLast(), Integer.parseInt(value));
+              long capacity = Long.parseLong(value);
+              flowNetwork.addEdge(n, u, (int) Math.min(capacity, Integer.MAX_VALUE));
+              Edge e = flowNetwork.getEdges(n, u).getLast();
+              flowNetwork.setLongEdgeCapacity(e, capacity);
+              flowNetwork.setEdgeFlow(e, 0);
+              flowNetwork.updateLongEdgeFlow(e, capacity);
               attributeWatcher = true;
             }
-            
+            if (key.equals("cost")) {
+              cost = Integer.parseInt(value.replaceAll("^\"|\"$", ""));
+            }
           }
           if (!attributeWatcher)
             flowNetwork.addEdge(n, u);
+          if (cost != null)
+            flowNetwork.setEdgeCost(flowNetwork.getEdges(n, u).getLast(), cost);
         }
       }
     } catch (IOException e) {
@@ -246,7 +431,7 @@ public class FlowNetwork extends Graph {
     final String graphName = (isInducedBy == null) ? "Flow initial" : "Flow induced from residual graph " + isInducedBy;
 
     sb.append("digraph flowNetwork").append(flowNetworkId).append(" {\n");
-    sb.append(String.format("  label = \"(%d) %s. Value: %d.\"%n", flowNetworkId, graphName, flowValue));
+    sb.append(String.format("  label = \"(%d) %s. Value: %d.\"%n", flowNetworkId, graphName, getLongFlowValue()));
     sb.append("  rankdir=LR\n  { rank = source; s; }\n  { rank = sink;   t; }\n");
     for (List<Edge> edges : getAel().values()) {
       for (Edge e : edges) {
@@ -255,10 +440,12 @@ public class FlowNetwork extends Graph {
             .append(" -> ")
             .append(e.to().getName());
         sb.append(" [label=\"") // Flow
-            .append(getEdgeFlow(e)).append("/").append(getEdgeCapacity(e))
+            .append(getLongEdgeFlow(e)).append("/").append(getLongEdgeCapacity(e))
             .append("\", len=") // Capacity
-            .append(getEdgeCapacity(e))
-            .append("]");
+            .append(getLongEdgeCapacity(e));
+        if (getEdgeCost(e) != 0)
+          sb.append(", cost=").append(getEdgeCost(e));
+        sb.append("]");
         sb.append(";\n");
       }
     }
@@ -315,14 +502,14 @@ public class FlowNetwork extends Graph {
     }
   }
 
-  public void applyResidualCapacity(List<Edge> routeEdges, int residualCapacity) {
+  public void applyResidualCapacity(List<Edge> routeEdges, long residualCapacity) {
     isInducedBy = isInducedBy == null ? 0 : isInducedBy + 1;
     flowNetworkId++;
-    flowValue += residualCapacity;
+    setFlowValue(Math.addExact(getLongFlowValue(), residualCapacity));
     for (Edge edge : getAllEdges()) {
       for (Edge exploredEdge : routeEdges) {
         if (edge == exploredEdge) {
-          addEdgeFlow(edge, residualCapacity);
+          updateLongEdgeFlow(edge, Math.addExact(getLongEdgeFlow(edge), residualCapacity));
         }
       }
     }
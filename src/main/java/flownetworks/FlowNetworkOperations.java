@@ -23,4 +23,20 @@ public class FlowNetworkOperations {
       i++;
     }
   }
+
+  public Flow getMinimumCostMaximumFlow(MinCostFlow.Method method) {
+    MinCostFlow minCostFlow = new MinCostFlow(flowNetwork);
+    minCostFlow.setMethod(method);
+    Flow flow = minCostFlow.compute();
+    flow.applyTo(flowNetwork);
+    return flow;
+  }
+
+  public MinCut getMinimumCut() {
+    return Flow.of(flowNetwork).getMinCut();
+  }
+
+  public FlowDecomposition getFlowDecomposition() {
+    return Flow.of(flowNetwork).decompose();
+  }
 }
@@ -0,0 +1,86 @@
+package flownetworks;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.UndirectedGraph;
+
+/**
+ * A class GomoryHu, builds the Gomory-Hu tree of an undirected graph whose edge
+ * weights are capacities, with Gusfield's algorithm: n - 1 maximum flow
+ * computations on the original graph, without any contraction.
+ * An undirected edge of capacity c can carry flow both ways, so both of its
+ * residual arcs start with capacity c. Unweighted edges have capacity 0.
+ */
+public class GomoryHu {
+  private final CompactGraph graph;
+
+  /**
+   * GomoryHu constructor, snapshots graph g.
+   * @param g The undirected capacity graph.
+   */
+  public GomoryHu(UndirectedGraph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * GomoryHu constructor over an existing snapshot.
+   * @param graph The undirected capacity snapshot.
+   */
+  public GomoryHu(CompactGraph graph) {
+    if (graph.isDirected())
+      throw new GraphExceptions("Gomory-Hu trees require an undirected graph");
+    this.graph = graph;
+  }
+
+  /**
+   * Builds the tree.
+   * @return The Gomory-Hu tree, whose minimum weight on the path between two
+   *         nodes is their minimum cut capacity.
+   */
+  public GomoryHuTree compute() {
+    int n = graph.nbNodes();
+    int m = graph.nbEdges();
+    int[] nodeIds = new int[n];
+    for (int u = 0; u < n; u++) {
+      nodeIds[u] = graph.nodeId(u);
+    }
+    int[] tails = new int[m];
+    int[] heads = new int[m];
+    long[] capacities = new long[m];
+    for (int e = 0; e < m; e++) {
+      tails[e] = graph.edgeSource(e);
+      heads[e] = graph.edgeTarget(e);
+      capacities[e] = graph.edgeWeight(e);
+    }
+    CompactFlowNetwork network = CompactFlowNetwork.fromEdges(nodeIds, -1, -1, tails, heads, capacities, null);
+    long[] initialResidual = new long[2 * m];
+    for (int e = 0; e < m; e++) {
+      initialResidual[2 * e] = capacities[e];
+      initialResidual[2 * e + 1] = capacities[e];
+    }
+
+    int[] parent = new int[n];
+    long[] weight = new long[n];
+    if (n > 0)
+      parent[0] = -1;
+    long[] residual = new long[2 * m];
+    Dinic dinic = new Dinic(network);
+    for (int s = 1; s < n; s++) {
+      int t = parent[s];
+      System.arraycopy(initialResidual, 0, residual, 0, residual.length);
+      long cut = dinic.augment(residual, s, t, Long.MAX_VALUE);
+      weight[s] = cut;
+      for (int i = 0; i < n; i++) {
+        if (i != s && parent[i] == t && dinic.isSourceSide(i))
+          parent[i] = s;
+      }
+      if (parent[t] >= 0 && dinic.isSourceSide(parent[t])) {
+        parent[s] = parent[t];
+        parent[t] = s;
+        weight[s] = weight[t];
+        weight[t] = cut;
+      }
+    }
+    return new GomoryHuTree(network, parent, weight);
+  }
+}
@@ -0,0 +1,100 @@
+package flownetworks;
+
+import m1graphs2025.GraphExceptions;
+
+/**
+ * A class that encapsulates a Gomory-Hu tree: a tree on the nodes of an
+ * undirected capacity graph such that the minimum cut capacity between any
+ * two nodes is the smallest weight on the tree path joining them, and the
+ * component of either side of that tree edge is a minimum cut.
+ * The tree is rooted at the node of smallest id and stored as parent links.
+ */
+public class GomoryHuTree {
+  private final CompactFlowNetwork network;
+  private final int[] parent;
+  private final long[] weight;
+  private final int[] depth;
+
+  /**
+   * GomoryHuTree constructor.
+   * @param network The snapshot the tree was built on.
+   * @param parent Parent index of every node, -1 for the root.
+   * @param weight Weight of the tree edge to the parent of every node.
+   */
+  public GomoryHuTree(CompactFlowNetwork network, int[] parent, long[] weight) {
+    this.network = network;
+    this.parent = parent;
+    this.weight = weight;
+    this.depth = new int[parent.length];
+    for (int u = 0; u < parent.length; u++) {
+      depthOf(u);
+    }
+  }
+
+  private int depthOf(int u) {
+    int d = 0;
+    int v = u;
+    while (parent[v] >= 0 && depth[v] == 0) {
+      v = parent[v];
+      d++;
+    }
+    int total = d + depth[v];
+    for (v = u; d > 0; d--) {
+      depth[v] = total--;
+      v = parent[v];
+    }
+    return depth[u];
+  }
+
+  /**
+   * Gets the minimum cut capacity between two nodes.
+   * @param idU Id of the first node.
+   * @param idV Id of the second node.
+   * @return The minimum cut capacity, or Long.MAX_VALUE if both ids are equal.
+   */
+  public long minCut(int idU, int idV) {
+    int u = indexOf(idU);
+    int v = indexOf(idV);
+    long min = Long.MAX_VALUE;
+    while (u != v) {
+      if (depth[u] < depth[v]) {
+        int tmp = u;
+        u = v;
+        v = tmp;
+      }
+      min = Math.min(min, weight[u]);
+      u = parent[u];
+    }
+    return min;
+  }
+
+  /**
+   * Gets the id of the parent of the node with specified id.
+   * @param id Node id.
+   * @return The parent id, or -1 for the root.
+   */
+  public int getParent(int id) {
+    int p = parent[indexOf(id)];
+    return p < 0 ? -1 : network.nodeId(p);
+  }
+
+  /**
+   * Gets the weight of the tree edge between the node with specified id and
+   * its parent.
+   * @param id Node id, not the root.
+   * @return The minimum cut capacity between the node and its parent.
+   */
+  public long getWeight(int id) {
+    int u = indexOf(id);
+    if (parent[u] < 0)
+      throw new GraphExceptions("The root has no parent edge");
+    return weight[u];
+  }
+
+  private int indexOf(int id) {
+    int index = network.indexOf(id);
+    if (index < 0)
+      throw new GraphExceptions("No node with id " + id);
+    return index;
+  }
+}
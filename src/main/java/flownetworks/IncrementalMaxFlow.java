@@ -0,0 +1,164 @@
+package flownetworks;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+import m1graphs2025.Edge;
+import m1graphs2025.GraphExceptions;
+
+/**
+ * A class IncrementalMaxFlow, maintains a maximum flow from the source to the
+ * target of a flow network while edge capacities change.
+ * The residual capacities are kept between two solves, so that:
+ * <ul>
+ * <li>a capacity increase only opens residual capacity, and the next solve
+ * augments from the current flow;</li>
+ * <li>a capacity decrease below the flow of its edge cuts the flow down to the
+ * new capacity, which leaves an excess at the tail of the edge and a deficit at
+ * its head. The excess is first rerouted to the head through the residual
+ * graph; what cannot be rerouted is pushed back to the source, the deficit
+ * being filled from the target, before the next solve re-augments.</li>
+ * </ul>
+ * Augmentations use Dinic's algorithm, whose breadth-first searches stop as
+ * soon as their target is reached, so small changes stay local.
+ */
+public class IncrementalMaxFlow {
+  private final CompactFlowNetwork network;
+  private final FlowNetwork flowNetwork;
+  private final long[] capacities;
+  private final long[] residual;
+  private final Dinic dinic;
+  private Map<Edge, Integer> edgeIds;
+  private long value;
+  private boolean solved;
+
+  /**
+   * IncrementalMaxFlow constructor, snapshots flow network f.
+   * @param f The flow network.
+   */
+  public IncrementalMaxFlow(FlowNetwork f) {
+    this(CompactFlowNetwork.of(f), f);
+  }
+
+  /**
+   * IncrementalMaxFlow constructor over an existing snapshot, starting from the
+   * null flow. Capacities can then only be changed by edge id.
+   * @param network The snapshot, which must have a source and a target.
+   */
+  public IncrementalMaxFlow(CompactFlowNetwork network) {
+    this(network, null);
+  }
+
+  private IncrementalMaxFlow(CompactFlowNetwork network, FlowNetwork flowNetwork) {
+    if (network.source() < 0 || network.target() < 0)
+      throw new GraphExceptions("Flow network must have source and target !");
+    this.network = network;
+    this.flowNetwork = flowNetwork;
+    this.capacities = new long[network.nbEdges()];
+    for (int e = 0; e < capacities.length; e++) {
+      capacities[e] = network.capacity(e);
+    }
+    this.residual = network.residualCapacities();
+    this.dinic = new Dinic(network);
+  }
+
+  /**
+   * Augments the current flow until it is maximum.
+   * @return The maximum flow value.
+   */
+  public long solve() {
+    if (!solved) {
+      value = Math.addExact(value, dinic.augment(residual, network.source(), network.target(), Long.MAX_VALUE));
+      solved = true;
+    }
+    return value;
+  }
+
+  /**
+   * Gets the current capacity of edge e.
+   * @param e Edge id.
+   * @return The capacity of e.
+   */
+  public long getCapacity(int e) {
+    return capacities[e];
+  }
+
+  /**
+   * Changes the capacity of edge e, repairing the flow if it no longer fits.
+   * The flow is maximum again after the next {@link #solve()}.
+   * @param e Edge id.
+   * @param capacity The new capacity, non-negative.
+   */
+  public void setCapacity(int e, long capacity) {
+    if (capacity < 0)
+      throw new IllegalArgumentException("Capacities must be non-negative");
+    long flow = residual[2 * e + 1];
+    capacities[e] = capacity;
+    solved = false;
+    if (capacity >= flow) {
+      residual[2 * e] = capacity - flow;
+      return;
+    }
+
+    long excess = flow - capacity;
+    residual[2 * e] = 0;
+    residual[2 * e + 1] = capacity;
+    int u = network.tail(e);
+    int v = network.head(e);
+    if (u == v)
+      return;
+    excess -= dinic.augment(residual, u, v, excess);
+    if (excess == 0)
+      return;
+    int s = network.source();
+    int t = network.target();
+    long returned = u == s ? excess : dinic.augment(residual, u, s, excess);
+    long refilled = v == t ? excess : dinic.augment(residual, t, v, excess);
+    if (returned != excess || refilled != excess)
+      throw new IllegalStateException("Flow conservation was broken");
+    value -= excess;
+  }
+
+  /**
+   * Changes the capacity of an edge of the flow network the snapshot was taken
+   * from, which is also given the new weight.
+   * @param edge Edge of the flow network.
+   * @param capacity The new capacity, non-negative.
+   */
+  public void setCapacity(Edge edge, int capacity) {
+    setCapacity(edge, (long) capacity);
+  }
+
+  /**
+   * Changes the capacity of an edge of the flow network the snapshot was taken
+   * from, through {@link FlowNetwork#setLongEdgeCapacity(Edge, long)}.
+   * @param edge Edge of the flow network.
+   * @param capacity The new capacity, non-negative.
+   * @throws GraphExceptions If this was built from a bare snapshot.
+   */
+  public void setCapacity(Edge edge, long capacity) {
+    if (flowNetwork == null)
+      throw new GraphExceptions("No flow network to change edges of, use setCapacity(int, long) on a bare snapshot");
+    if (edgeIds == null) {
+      edgeIds = new IdentityHashMap<>();
+      for (int e = 0; e < network.nbEdges(); e++) {
+        if (network.edge(e) != null)
+          edgeIds.put(network.edge(e), e);
+      }
+    }
+    Integer e = edgeIds.get(edge);
+    if (e == null)
+      throw new GraphExceptions("Edge is not part of the flow network");
+    setCapacity(e, capacity);
+    flowNetwork.setLongEdgeCapacity(edge, capacity);
+  }
+
+  /**
+   * Gets the current flow, solving first if needed.
+   * @return The maximum flow under the current capacities.
+   */
+  public Flow getFlow() {
+    solve();
+    return Flow.fromResidual(network, residual.clone(), value);
+  }
+}
@@ -0,0 +1,317 @@
+package flownetworks;
+
+import java.util.Arrays;
+
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.IndexedMinHeap;
+
+/**
+ * A class MinCostFlow, finds a maximum flow of minimum cost from the source to
+ * the target of a flow network, every edge charging its cost per unit of flow.
+ * Two methods are available:
+ * <ul>
+ * <li>successive shortest paths: the flow is augmented along cheapest residual
+ * paths, found by Dijkstra's algorithm on costs made non-negative by Johnson
+ * potentials. Negative costs are allowed, but not negative cost cycles;</li>
+ * <li>cost scaling: a maximum flow is found by Dinic's algorithm, then turned
+ * into a cheapest one by Goldberg and Tarjan's push-relabel refinements of
+ * decreasing epsilon. Negative cost cycles are allowed and get saturated.</li>
+ * </ul>
+ * Both work on primitive residual arrays of a {@link CompactFlowNetwork}.
+ */
+public class MinCostFlow {
+  private static final long INFINITY = Long.MAX_VALUE;
+  private static final int SCALING_FACTOR = 8;
+
+  /**
+   * The algorithms available to MinCostFlow.
+   */
+  public enum Method {
+    SUCCESSIVE_SHORTEST_PATHS, COST_SCALING
+  }
+
+  private final CompactFlowNetwork network;
+  private Method method = Method.SUCCESSIVE_SHORTEST_PATHS;
+  private long flowLimit = Long.MAX_VALUE;
+
+  /**
+   * MinCostFlow constructor, snapshots flow network f.
+   * @param f The flow network, with costs set by {@link FlowNetwork#setEdgeCost}.
+   */
+  public MinCostFlow(FlowNetwork f) {
+    this(CompactFlowNetwork.of(f));
+  }
+
+  /**
+   * MinCostFlow constructor over an existing snapshot.
+   * @param network The snapshot, which must have a source and a target.
+   */
+  public MinCostFlow(CompactFlowNetwork network) {
+    if (network.source() < 0 || network.target() < 0)
+      throw new GraphExceptions("Flow network must have source and target !");
+    this.network = network;
+  }
+
+  /**
+   * Sets the algorithm, successive shortest paths by default.
+   */
+  public void setMethod(Method method) {
+    this.method = method;
+  }
+
+  /**
+   * Sets the largest flow value wanted, so that the cheapest flow of that value
+   * is found when the maximum flow is larger. Unlimited by default.
+   */
+  public void setFlowLimit(long flowLimit) {
+    if (flowLimit < 0)
+      throw new IllegalArgumentException("Flow limit must be non-negative");
+    this.flowLimit = flowLimit;
+  }
+
+  /**
+   * Computes the flow.
+   * @return A maximum flow, or a flow of the limit value, of minimum cost.
+   * @throws ArithmeticException If its cost does not fit in a long.
+   */
+  public Flow compute() {
+    long[] residual = network.residualCapacities();
+    long value;
+    if (method == Method.COST_SCALING) {
+      value = new Dinic(network).augment(residual, network.source(), network.target(), flowLimit);
+      costScaling(residual);
+    } else {
+      value = successiveShortestPaths(residual);
+    }
+    return Flow.fromResidual(network, residual, value);
+  }
+
+  /* Successive shortest paths */
+
+  private long successiveShortestPaths(long[] residual) {
+    int n = network.nbNodes();
+    int s = network.source();
+    int t = network.target();
+    int[] offsets = network.offsets();
+    int[] arcs = network.arcs();
+    long[] potential = initialPotentials(residual);
+    long[] dist = new long[n];
+    Arrays.fill(dist, INFINITY);
+    int[] parentArc = new int[n];
+    int[] touched = new int[n];
+    IndexedMinHeap heap = new IndexedMinHeap(n);
+
+    long value = 0;
+    while (value < flowLimit && s != t) {
+      int count = 0;
+      dist[s] = 0;
+      touched[count++] = s;
+      heap.offer(s, 0);
+      while (!heap.isEmpty()) {
+        int u = heap.poll();
+        if (u == t) {
+          heap.clear();
+          break;
+        }
+        for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+          int a = arcs[i];
+          if (residual[a] == 0)
+            continue;
+          int v = network.arcHead(a);
+          long d = dist[u] + network.arcCost(a) + potential[u] - potential[v];
+          if (d < dist[v]) {
+            if (dist[v] == INFINITY)
+              touched[count++] = v;
+            dist[v] = d;
+            parentArc[v] = a;
+            heap.offer(v, d);
+          }
+        }
+      }
+      long reach = dist[t];
+      if (reach == INFINITY) {
+        for (int i = 0; i < count; i++) {
+          dist[touched[i]] = INFINITY;
+        }
+        break;
+      }
+
+      // Johnson's update, shifted by -reach so that unreached nodes keep their
+      // potential: only differences of potentials matter
+      for (int i = 0; i < count; i++) {
+        int u = touched[i];
+        potential[u] += Math.min(dist[u], reach) - reach;
+        dist[u] = INFINITY;
+      }
+
+      long pushed = flowLimit - value;
+      for (int v = t; v != s; v = network.arcTail(parentArc[v])) {
+        pushed = Math.min(pushed, residual[parentArc[v]]);
+      }
+      for (int v = t; v != s; v = network.arcTail(parentArc[v])) {
+        residual[parentArc[v]] -= pushed;
+        residual[parentArc[v] ^ 1] += pushed;
+      }
+      value += pushed;
+    }
+    return value;
+  }
+
+  /**
+   * Finds potentials making the reduced costs of the residual arcs
+   * non-negative: 0 without negative costs, otherwise the distances from a
+   * virtual node joined to every node, computed by a queue-based Bellman-Ford.
+   */
+  private long[] initialPotentials(long[] residual) {
+    int n = network.nbNodes();
+    long[] potential = new long[n];
+    boolean negative = false;
+    for (int e = 0; e < network.nbEdges() && !negative; e++) {
+      negative = network.cost(e) < 0 && network.capacity(e) > 0;
+    }
+    if (!negative)
+      return potential;
+
+    int[] offsets = network.offsets();
+    int[] arcs = network.arcs();
+    int[] relaxations = new int[n];
+    boolean[] queued = new boolean[n];
+    int[] queue = new int[n + 1];
+    int head = 0;
+    int tail = 0;
+    for (int u = 0; u < n; u++) {
+      queue[tail++] = u;
+      queued[u] = true;
+    }
+    while (head != tail) {
+      int u = queue[head];
+      head = head == n ? 0 : head + 1;
+      queued[u] = false;
+      for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+        int a = arcs[i];
+        if (residual[a] == 0)
+          continue;
+        int v = network.arcHead(a);
+        long d = potential[u] + network.arcCost(a);
+        if (d < potential[v]) {
+          potential[v] = d;
+          if (++relaxations[v] > n)
+            throw new GraphExceptions("Negative cost cycle, use the cost scaling method");
+          if (!queued[v]) {
+            queued[v] = true;
+            queue[tail] = v;
+            tail = tail == n ? 0 : tail + 1;
+          }
+        }
+      }
+    }
+    return potential;
+  }
+
+  /* Cost scaling */
+
+  /**
+   * Turns the flow held by residual into a cheapest flow of the same value.
+   * Costs are multiplied by n + 1, so that an epsilon of 1 proves optimality.
+   */
+  private void costScaling(long[] residual) {
+    int n = network.nbNodes();
+    long scale = n + 1L;
+    long epsilon = 0;
+    for (int e = 0; e < network.nbEdges(); e++) {
+      epsilon = Math.max(epsilon, Math.abs(Math.multiplyExact(network.cost(e), scale)));
+    }
+    long[] price = new long[n];
+    long[] excess = new long[n];
+    int[] nextArc = new int[n];
+    int[] queue = new int[n + 1];
+    boolean[] queued = new boolean[n];
+    while (epsilon > 1) {
+      epsilon = Math.max(1, epsilon / SCALING_FACTOR);
+      refine(residual, price, excess, nextArc, queue, queued, scale, epsilon);
+    }
+  }
+
+  /**
+   * Makes the flow epsilon-optimal: saturates every residual arc of negative
+   * reduced cost, then pushes the excesses created along admissible arcs,
+   * lowering the price of a node that has none left.
+   */
+  @SuppressWarnings("java:S107")
+  private void refine(long[] residual, long[] price, long[] excess, int[] nextArc, int[] queue, boolean[] queued,
+      long scale, long epsilon) {
+    int n = network.nbNodes();
+    int[] offsets = network.offsets();
+    int[] arcs = network.arcs();
+    for (int u = 0; u < n; u++) {
+      for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+        int a = arcs[i];
+        if (residual[a] > 0 && reducedCost(a, u, price, scale) < 0) {
+          long r = residual[a];
+          residual[a] = 0;
+          residual[a ^ 1] += r;
+          excess[u] -= r;
+          excess[network.arcHead(a)] += r;
+        }
+      }
+    }
+    int head = 0;
+    int tail = 0;
+    for (int u = 0; u < n; u++) {
+      nextArc[u] = offsets[u];
+      if (excess[u] > 0) {
+        queued[u] = true;
+        queue[tail++] = u;
+      }
+    }
+
+    while (head != tail) {
+      int u = queue[head];
+      head = head == n ? 0 : head + 1;
+      queued[u] = false;
+      while (excess[u] > 0) {
+        if (nextArc[u] == offsets[u + 1]) {
+          relabel(residual, price, u, scale, epsilon);
+          nextArc[u] = offsets[u];
+          continue;
+        }
+        int a = arcs[nextArc[u]];
+        if (residual[a] > 0 && reducedCost(a, u, price, scale) < 0) {
+          int v = network.arcHead(a);
+          long pushed = Math.min(excess[u], residual[a]);
+          residual[a] -= pushed;
+          residual[a ^ 1] += pushed;
+          excess[u] -= pushed;
+          excess[v] += pushed;
+          if (excess[v] > 0 && !queued[v]) {
+            queued[v] = true;
+            queue[tail] = v;
+            tail = tail == n ? 0 : tail + 1;
+          }
+        } else {
+          nextArc[u]++;
+        }
+      }
+    }
+  }
+
+  private long reducedCost(int a, int u, long[] price, long scale) {
+    return network.arcCost(a) * scale + price[u] - price[network.arcHead(a)];
+  }
+
+  /**
+   * Lowers the price of u just enough for its cheapest residual arc to become
+   * admissible, which is at least epsilon.
+   */
+  private void relabel(long[] residual, long[] price, int u, long scale, long epsilon) {
+    int[] offsets = network.offsets();
+    int[] arcs = network.arcs();
+    long best = Long.MIN_VALUE;
+    for (int i = offsets[u]; i < offsets[u + 1]; i++) {
+      int a = arcs[i];
+      if (residual[a] > 0)
+        best = Math.max(best, price[network.arcHead(a)] - network.arcCost(a) * scale);
+    }
+    price[u] = best - epsilon;
+  }
+}
@@ -0,0 +1,91 @@
+package flownetworks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import m1graphs2025.Edge;
+
+/**
+ * A class that encapsulates a minimum s-t cut, certificate of the maximality of
+ * a flow: the nodes on the source side, the ids of the edges leaving that side
+ * and the sum of their capacities, which equals the flow value.
+ */
+public class MinCut {
+  private final CompactFlowNetwork network;
+  private final boolean[] sourceSide;
+  private final int[] cutEdges;
+  private final long capacity;
+
+  /**
+   * MinCut constructor.
+   * @param network The snapshot that was cut.
+   * @param sourceSide Whether every node index is on the source side.
+   * @param cutEdges Ids of the edges from the source side to the target side.
+   * @param capacity Sum of the capacities of the cut edges.
+   */
+  public MinCut(CompactFlowNetwork network, boolean[] sourceSide, int[] cutEdges, long capacity) {
+    this.network = network;
+    this.sourceSide = sourceSide;
+    this.cutEdges = cutEdges;
+    this.capacity = capacity;
+  }
+
+  /**
+   * Gets the ids of the nodes on the source side.
+   * @return The node ids, increasing.
+   */
+  public int[] getSourceSide() {
+    int size = 0;
+    for (boolean b : sourceSide) {
+      if (b)
+        size++;
+    }
+    int[] ids = new int[size];
+    for (int u = 0, i = 0; u < sourceSide.length; u++) {
+      if (sourceSide[u])
+        ids[i++] = network.nodeId(u);
+    }
+    return ids;
+  }
+
+  /**
+   * Know whether the node with specified id is on the source side.
+   * @param id Node id.
+   * @return True if on the source side, false otherwise.
+   */
+  public boolean isOnSourceSide(int id) {
+    int index = network.indexOf(id);
+    return index >= 0 && sourceSide[index];
+  }
+
+  /**
+   * Gets the ids of the cut edges, i.e. their positions in
+   * {@link FlowNetwork#getAllEdges()}.
+   * @return this.cutEdges
+   */
+  public int[] getCutEdgeIds() {
+    return cutEdges;
+  }
+
+  /**
+   * Gets the cut edge instances.
+   * @return The cut edges, or an empty list if the snapshot has no backing network.
+   */
+  public List<Edge> getCutEdges() {
+    List<Edge> edges = new ArrayList<>(cutEdges.length);
+    if (cutEdges.length == 0 || network.edge(cutEdges[0]) == null)
+      return edges;
+    for (int e : cutEdges) {
+      edges.add(network.edge(e));
+    }
+    return edges;
+  }
+
+  /**
+   * Gets the capacity of the cut.
+   * @return this.capacity
+   */
+  public long getCapacity() {
+    return capacity;
+  }
+}
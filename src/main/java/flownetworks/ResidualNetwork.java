@@ -14,7 +14,7 @@ import m1graphs2025.Node;
 public class ResidualNetwork extends Graph {
   private int residualNetworkId = -1;
   private List<Node> augementingPath;
-  private int residualCapacity = 0;
+  private long residualCapacity = 0;
   private FlowNetwork flowNetwork;
   private List<Edge> exploredEdges;
 
@@ -37,16 +37,16 @@ public class ResidualNetwork extends Graph {
     return augementingPath;
   }
 
-  public int getResidualCapacity() {
-    int minFlow = Integer.MAX_VALUE;
+  public long getResidualCapacity() {
+    long minFlow = Long.MAX_VALUE;
     for (Edge edge : exploredEdges) {
       minFlow = Math.min(minFlow, getResidualFlow(edge));
     }
-    return minFlow == Integer.MAX_VALUE ? 0 : minFlow;
+    return minFlow == Long.MAX_VALUE ? 0 : minFlow;
   }
 
-  public int getResidualFlow(Edge edge) {
-    return flowNetwork.getEdgeCapacity(edge) - flowNetwork.getEdgeFlow(edge);
+  public long getResidualFlow(Edge edge) {
+    return flowNetwork.getLongEdgeCapacity(edge) - flowNetwork.getLongEdgeFlow(edge);
   }
 
   @Override
@@ -10,17 +10,17 @@ import m1graphs2025.Graph;
 import m1graphs2025.Node;
 
 public class SymetricFlowNetwork extends Graph {
-  private Map<Node, List<Edge>> aelRef;
-  private Map<Edge, Integer> flowMapRef;
-  private Map<Edge, Integer> flowMap = new HashMap<>();
+  private FlowNetwork flowNetworkRef;
+  private Map<Edge, Long> flowMap = new HashMap<>();
+  private Map<Edge, Long> capacityMap = new HashMap<>();
 
-  public SymetricFlowNetwork(Map<Node, List<Edge>> aelRef, Map<Edge, Integer> flowMapRef) {
+  public SymetricFlowNetwork(FlowNetwork flowNetworkRef) {
     super();
-    this.aelRef = aelRef;
-    this.flowMapRef = flowMapRef;
+    this.flowNetworkRef = flowNetworkRef;
   }
 
   public void init() {
+    Map<Node, List<Edge>> aelRef = flowNetworkRef.getAel();
     for (Node n : aelRef.keySet()) {
       addNode(n.getId(), n.getName());
     }
@@ -37,7 +37,9 @@ public class SymetricFlowNetwork extends Graph {
           newEdge = new Edge(from, to);
         }
         addEdge(newEdge);
-        flowMap.putIfAbsent(newEdge, flowMapRef.get(e));
+        // Long values, the weight and the flow map being capped to the int range
+        capacityMap.putIfAbsent(newEdge, flowNetworkRef.getLongEdgeCapacity(e));
+        flowMap.putIfAbsent(newEdge, flowNetworkRef.getLongEdgeFlow(e));
       }
     }
   }
@@ -49,7 +51,7 @@ public class SymetricFlowNetwork extends Graph {
       for (Edge edge : edges) {
         Edge symetricEdge = edge.getSymmetric();
         symetricEdges.add(symetricEdge);
-        setEdgeFlow(symetricEdge, getEdgeFlow(edge) * -1);
+        setLongEdgeFlow(symetricEdge, getLongEdgeFlow(edge) * -1);
       }
     }
     for (Edge edge : symetricEdges) {
@@ -60,18 +62,33 @@ public class SymetricFlowNetwork extends Graph {
   }
 
   public int getEdgeCapacity(Edge edge) {
-    Integer capacity = edge.getWeight();
-    return capacity == null ? 0 : capacity;
+    return Math.toIntExact(getLongEdgeCapacity(edge));
+  }
+
+  public long getLongEdgeCapacity(Edge edge) {
+    Long capacity = capacityMap.get(edge);
+    if (capacity != null)
+      return capacity;
+    Integer weight = edge.getWeight();
+    return weight == null ? 0 : weight;
   }
 
   public int getEdgeFlow(Edge edge) {
+    return Math.toIntExact(getLongEdgeFlow(edge));
+  }
+
+  public long getLongEdgeFlow(Edge edge) {
     if (edge == null) return 0;
     return flowMap.get(edge);
   }
 
   public boolean setEdgeFlow(Edge edge, int flow) {
-    if (flow > getEdgeCapacity(edge)) {
-      flowMap.putIfAbsent(edge, getEdgeCapacity(edge));
+    return setLongEdgeFlow(edge, flow);
+  }
+
+  public boolean setLongEdgeFlow(Edge edge, long flow) {
+    if (flow > getLongEdgeCapacity(edge)) {
+      flowMap.putIfAbsent(edge, getLongEdgeCapacity(edge));
       return false;
     }
     flowMap.putIfAbsent(edge, flow);
@@ -91,9 +108,9 @@ public class SymetricFlowNetwork extends Graph {
             .append(" -> ")
             .append(e.to().getName());
         sb.append(" [label=") // Flow
-            .append(getEdgeFlow(e))
+            .append(getLongEdgeFlow(e))
             .append(", len=") // Capacity
-            .append(getEdgeCapacity(e))
+            .append(getLongEdgeCapacity(e))
             .append("]");
         sb.append(";\n");
       }
@@ -102,4 +119,4 @@ public class SymetricFlowNetwork extends Graph {
     sb.append("}\n");
     return sb.toString();
   }
-}
\ No newline at end of file
+}
@@ -0,0 +1,183 @@
+package m1graphs2025;
+
+import java.util.Arrays;
+
+/**
+ * A class ChangeBatch, gives a batch of consecutive mutations of a graph to
+ * its {@link ChangeListener}s, as node ids in primitive arrays.
+ * A synchronous listener reads the batch in place, in the ring buffer of the
+ * graph, so it must not keep it after {@link ChangeListener#onChanges} returns;
+ * an asynchronous listener gets its own copy.
+ * The removal of a node comes after the removals of its incident edges.
+ * Unweighted edges have a weight of 0, {@link #isWeighted(int)} telling them
+ * apart.
+ */
+public final class ChangeBatch {
+
+  /**
+   * The kinds of mutation.
+   */
+  public enum Kind {
+    NODE_ADDED, NODE_REMOVED, EDGE_ADDED, EDGE_REMOVED, WEIGHT_CHANGED
+  }
+
+  private static final Kind[] KINDS = Kind.values();
+  static final int KIND_MASK = 0x0f;
+  static final int WEIGHTED = 0x10;
+  static final int PREVIOUSLY_WEIGHTED = 0x20;
+
+  private final long firstSequence;
+  private final byte[] kinds;
+  private final int[] froms;
+  private final int[] tos;
+  private final int[] weights;
+  private final int[] previousWeights;
+  private final int[] occurrences;
+  private final int start;
+  private final int size;
+  private final int mask;
+
+  ChangeBatch(long firstSequence, byte[] kinds, int[] froms, int[] tos, int[] weights, int[] previousWeights,
+      int[] occurrences, int start, int size) {
+    this.firstSequence = firstSequence;
+    this.kinds = kinds;
+    this.froms = froms;
+    this.tos = tos;
+    this.weights = weights;
+    this.previousWeights = previousWeights;
+    this.occurrences = occurrences;
+    this.start = start;
+    this.size = size;
+    this.mask = kinds.length - 1;
+  }
+
+  /**
+   * Know the number of changes in the batch.
+   * @return The number of changes.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Gets the sequence number of the first change of the batch, changes being
+   * numbered from 0 since the graph last went from no listener to one.
+   * @return The sequence number of change 0.
+   */
+  public long getFirstSequence() {
+    return firstSequence;
+  }
+
+  /**
+   * Gets the kind of change i.
+   * @param i Change index in the batch.
+   * @return Its kind.
+   */
+  public Kind kind(int i) {
+    return KINDS[kinds[slot(i)] & KIND_MASK];
+  }
+
+  /**
+   * Gets the node id of a node change, or the source node id of an edge change.
+   * @param i Change index in the batch.
+   * @return The node id.
+   */
+  public int fromId(int i) {
+    return froms[slot(i)];
+  }
+
+  /**
+   * Gets the target node id of an edge change.
+   * @param i Change index in the batch.
+   * @return The node id, 0 for a node change.
+   */
+  public int toId(int i) {
+    return tos[slot(i)];
+  }
+
+  /**
+   * Gets the weight of the edge of an edge change, the new one for a weight
+   * change.
+   * @param i Change index in the batch.
+   * @return The weight.
+   */
+  public int weight(int i) {
+    return weights[slot(i)];
+  }
+
+  /**
+   * Know whether the edge of an edge change is weighted, after a weight change.
+   * @param i Change index in the batch.
+   * @return True if weighted, false for an unweighted edge or a node change.
+   */
+  public boolean isWeighted(int i) {
+    return (kinds[slot(i)] & WEIGHTED) != 0;
+  }
+
+  /**
+   * Know whether the edge of a weight change was weighted before it.
+   * @param i Change index in the batch.
+   * @return True if it was weighted, false otherwise.
+   */
+  public boolean wasWeighted(int i) {
+    return (kinds[slot(i)] & PREVIOUSLY_WEIGHTED) != 0;
+  }
+
+  /**
+   * Gets the weight an edge had before a weight change.
+   * @param i Change index in the batch.
+   * @return The former weight, 0 for other changes.
+   */
+  public int previousWeight(int i) {
+    return previousWeights[slot(i)];
+  }
+
+  /**
+   * Gets the position of the edge of an edge removal or a weight change among
+   * the edges from its source to its target, in the out edges of the source,
+   * the changes before it being made. Replaying the changes in order on a copy
+   * of the graph thus finds the very same edge among parallel ones.
+   * @param i Change index in the batch.
+   * @return The position, 0 for other changes.
+   */
+  public int occurrence(int i) {
+    return occurrences[slot(i)];
+  }
+
+  /**
+   * Copies the batch out of the ring buffer.
+   */
+  ChangeBatch copy() {
+    byte[] k = new byte[Integer.highestOneBit(Math.max(1, size - 1) << 1)];
+    int[] f = new int[k.length];
+    int[] t = new int[k.length];
+    int[] w = new int[k.length];
+    int[] p = new int[k.length];
+    int[] o = new int[k.length];
+    for (int i = 0; i < size; i++) {
+      int s = slot(i);
+      k[i] = kinds[s];
+      f[i] = froms[s];
+      t[i] = tos[s];
+      w[i] = weights[s];
+      p[i] = previousWeights[s];
+      o[i] = occurrences[s];
+    }
+    return new ChangeBatch(firstSequence, k, f, t, w, p, o, 0, size);
+  }
+
+  private int slot(int i) {
+    if (i < 0 || i >= size)
+      throw new IndexOutOfBoundsException("No change " + i + " in a batch of " + size);
+    return (start + i) & mask;
+  }
+
+  @Override
+  public String toString() {
+    String[] changes = new String[size];
+    for (int i = 0; i < size; i++) {
+      changes[i] = kind(i) + " " + fromId(i) + (kind(i).ordinal() < Kind.EDGE_ADDED.ordinal() ? "" : "->" + toId(i));
+    }
+    return Arrays.toString(changes);
+  }
+}
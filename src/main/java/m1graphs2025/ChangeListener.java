@@ -0,0 +1,17 @@
+package m1graphs2025;
+
+/**
+ * An interface ChangeListener, receives the mutations of a {@link Graph} it
+ * was added to by {@link Graph#addChangeListener(ChangeListener)}, in batches
+ * and in the order they were made, so that structures derived from the graph
+ * can be updated instead of being recomputed.
+ */
+@FunctionalInterface
+public interface ChangeListener {
+
+  /**
+   * Receives the next batch of changes.
+   * @param changes The changes, in order.
+   */
+  void onChanges(ChangeBatch changes);
+}
@@ -0,0 +1,170 @@
+package m1graphs2025;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * The mutations of a graph waiting to be delivered to its listeners, in a ring
+ * buffer of primitive arrays. A graph only has one while it has listeners.
+ * Changes are delivered once a batch is full or on {@link #flush()}:
+ * synchronous listeners read the ring in place, in the mutating thread, and
+ * asynchronous ones get a copy, run by their executor one batch at a time.
+ */
+final class ChangeStream {
+  private final byte[] kinds;
+  private final int[] froms;
+  private final int[] tos;
+  private final int[] weights;
+  private final int[] previousWeights;
+  private final int[] occurrences;
+  private final int batchSize;
+  private final List<Subscriber> subscribers = new ArrayList<>();
+  private long sequence;
+  private long delivered;
+  private boolean delivering;
+
+  /**
+   * A listener, and for an asynchronous one its executor and waiting batches.
+   */
+  private static final class Subscriber {
+    private final ChangeListener listener;
+    private final Executor executor;
+    private final Queue<ChangeBatch> pending = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    Subscriber(ChangeListener listener, Executor executor) {
+      this.listener = listener;
+      this.executor = executor;
+    }
+
+    void deliver(ChangeBatch batch) {
+      if (executor == null) {
+        listener.onChanges(batch);
+        return;
+      }
+      pending.add(batch.copy());
+      if (scheduled.compareAndSet(false, true))
+        executor.execute(this::drain);
+    }
+
+    /**
+     * Runs the waiting batches in order, one task at a time per listener.
+     */
+    private void drain() {
+      do {
+        for (ChangeBatch batch; (batch = pending.poll()) != null;)
+          listener.onChanges(batch);
+        scheduled.set(false);
+      } while (!pending.isEmpty() && scheduled.compareAndSet(false, true));
+    }
+  }
+
+  ChangeStream(int batchSize) {
+    int capacity = Integer.highestOneBit(Math.max(1, batchSize - 1) << 1);
+    this.kinds = new byte[capacity];
+    this.froms = new int[capacity];
+    this.tos = new int[capacity];
+    this.weights = new int[capacity];
+    this.previousWeights = new int[capacity];
+    this.occurrences = new int[capacity];
+    this.batchSize = batchSize;
+  }
+
+  /**
+   * Takes over the listeners of a flushed stream, with another batch size.
+   */
+  ChangeStream(int batchSize, ChangeStream previous) {
+    this(batchSize);
+    subscribers.addAll(previous.subscribers);
+    sequence = previous.sequence;
+    delivered = previous.delivered;
+  }
+
+  boolean isEmpty() {
+    return subscribers.isEmpty();
+  }
+
+  void subscribe(ChangeListener listener, Executor executor) {
+    subscribers.add(new Subscriber(listener, executor));
+  }
+
+  boolean unsubscribe(ChangeListener listener) {
+    for (int i = 0; i < subscribers.size(); i++) {
+      if (subscribers.get(i).listener == listener) {
+        subscribers.remove(i);
+        return true;
+      }
+    }
+    return false;
+  }
+
+  void nodeAdded(Node n) {
+    record(ChangeBatch.Kind.NODE_ADDED.ordinal(), n.getId(), 0, 0, 0, 0);
+  }
+
+  void nodeRemoved(Node n) {
+    record(ChangeBatch.Kind.NODE_REMOVED.ordinal(), n.getId(), 0, 0, 0, 0);
+  }
+
+  void edgeAdded(Edge e) {
+    record(ChangeBatch.Kind.EDGE_ADDED.ordinal() | flags(e), e.from().getId(), e.to().getId(), weight(e), 0, 0);
+  }
+
+  void edgeRemoved(Edge e, int occurrence) {
+    record(ChangeBatch.Kind.EDGE_REMOVED.ordinal() | flags(e), e.from().getId(), e.to().getId(), weight(e), 0,
+        occurrence);
+  }
+
+  void weightChanged(Edge e, Integer previousWeight, int occurrence) {
+    int kind = ChangeBatch.Kind.WEIGHT_CHANGED.ordinal() | flags(e);
+    if (previousWeight != null)
+      kind |= ChangeBatch.PREVIOUSLY_WEIGHTED;
+    record(kind, e.from().getId(), e.to().getId(), weight(e), previousWeight == null ? 0 : previousWeight,
+        occurrence);
+  }
+
+  /**
+   * Delivers the buffered changes, if any.
+   */
+  void flush() {
+    int size = (int) (sequence - delivered);
+    if (size == 0)
+      return;
+    ChangeBatch batch = new ChangeBatch(delivered, kinds, froms, tos, weights, previousWeights, occurrences,
+        (int) delivered & (kinds.length - 1), size);
+    delivering = true;
+    try {
+      for (Subscriber subscriber : subscribers.toArray(new Subscriber[0]))
+        subscriber.deliver(batch);
+    } finally {
+      delivering = false;
+      delivered = sequence;
+    }
+  }
+
+  private void record(int kind, int from, int to, int weight, int previousWeight, int occurrence) {
+    if (delivering)
+      throw new IllegalStateException("Graph modified while its changes are delivered");
+    int slot = (int) sequence & (kinds.length - 1);
+    kinds[slot] = (byte) kind;
+    froms[slot] = from;
+    tos[slot] = to;
+    weights[slot] = weight;
+    previousWeights[slot] = previousWeight;
+    occurrences[slot] = occurrence;
+    if (++sequence - delivered == batchSize)
+      flush();
+  }
+
+  private static int flags(Edge e) {
+    return e.isWeighted() ? ChangeBatch.WEIGHTED : 0;
+  }
+
+  private static int weight(Edge e) {
+    return e.isWeighted() ? e.getWeight() : 0;
+  }
+}
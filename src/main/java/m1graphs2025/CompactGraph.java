@@ -0,0 +1,567 @@
+package m1graphs2025;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntPredicate;
+
+/**
+ * A class CompactGraph, codes a read-only snapshot of a graph in the
+ * Compressed Sparse Row (CSR) format.
+ * Nodes are renumbered with dense indices 0..n-1 by increasing id, and the arcs
+ * leaving the node of index u are stored in
+ * {@code targets[offsets[u]..offsets[u + 1])}.
+ * Every arc remembers the id of the edge it comes from, edge ids being the
+ * positions of the edges in {@link Graph#getAllEdges()}.
+ * In the undirected case, every edge but a self-loop is stored as two arcs.
+ * Unweighted edges are given a weight of 0, as capacities are in flow networks.
+ * <p>
+ * Views ({@link #transpose()}, {@link #inducedSubgraph(BitSet)},
+ * {@link #filterEdges(IntPredicate)} and {@link #simpleView()}) are snapshots
+ * too, so every algorithm taking a CompactGraph accepts them. They share the
+ * edge columns and the edge instances of the snapshot they come from, reached
+ * through their own edge and node numbering, and only build their own arcs.
+ */
+public final class CompactGraph {
+  private final boolean directed;
+  private final boolean weighted;
+  private final int[] nodeIds;
+  private final int[] offsets;
+  private final int[] targets;
+  private final int[] arcEdges;
+  private final int[] edgeSources;
+  private final int[] edgeTargets;
+  private final int[] edgeWeights;
+  private final Edge[] edges;
+  // Views: edge id to position in the shared edge columns, and node index in
+  // the shared columns to index here, null when they are the same
+  private final int[] columns;
+  private final int[] localIndices;
+  private CompactGraph transpose;
+  private CompactGraph simpleView;
+
+  /**
+   * Constructor for the class CompactGraph, takes the edges as parallel arrays of
+   * source indices, target indices and weights.
+   * The arcs are sorted by source with a counting sort, keeping the edge order
+   * within each source.
+   *
+   * @param directed    Whether the graph is directed.
+   * @param weighted    Whether the weights are meaningful.
+   * @param nodeIds     Node ids, by increasing index. Must be sorted.
+   * @param edgeSources Source index of each edge.
+   * @param edgeTargets Target index of each edge.
+   * @param edgeWeights Weight of each edge.
+   * @param edges       Edge instances by edge id, or null when there is no
+   *                    backing graph.
+   */
+  CompactGraph(boolean directed, boolean weighted, int[] nodeIds, int[] edgeSources, int[] edgeTargets,
+      int[] edgeWeights, Edge[] edges) {
+    this.directed = directed;
+    this.weighted = weighted;
+    this.nodeIds = nodeIds;
+    this.edgeSources = edgeSources;
+    this.edgeTargets = edgeTargets;
+    this.edgeWeights = edgeWeights;
+    this.edges = edges;
+    this.columns = null;
+    this.localIndices = null;
+
+    int n = nodeIds.length;
+    int m = edgeSources.length;
+    int[] counts = new int[n + 1];
+    for (int e = 0; e < m; e++) {
+      counts[edgeSources[e] + 1]++;
+      if (!directed && edgeSources[e] != edgeTargets[e])
+        counts[edgeTargets[e] + 1]++;
+    }
+    for (int u = 0; u < n; u++) {
+      counts[u + 1] += counts[u];
+    }
+    this.offsets = counts.clone();
+    this.targets = new int[counts[n]];
+    this.arcEdges = new int[counts[n]];
+    for (int e = 0; e < m; e++) {
+      int u = edgeSources[e];
+      int v = edgeTargets[e];
+      int a = counts[u]++;
+      targets[a] = v;
+      arcEdges[a] = e;
+      if (!directed && u != v) {
+        a = counts[v]++;
+        targets[a] = u;
+        arcEdges[a] = e;
+      }
+    }
+  }
+
+  /**
+   * Constructor for the class CompactGraph over arcs already grouped by source,
+   * as built by {@link GraphBuilder}.
+   */
+  CompactGraph(boolean directed, boolean weighted, int[] nodeIds, int[] edgeSources, int[] edgeTargets,
+      int[] edgeWeights, int[] offsets, int[] targets, int[] arcEdges) {
+    this.directed = directed;
+    this.weighted = weighted;
+    this.nodeIds = nodeIds;
+    this.edgeSources = edgeSources;
+    this.edgeTargets = edgeTargets;
+    this.edgeWeights = edgeWeights;
+    this.edges = null;
+    this.columns = null;
+    this.localIndices = null;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.arcEdges = arcEdges;
+  }
+
+  private CompactGraph(CompactGraph original) {
+    this.directed = true;
+    this.weighted = original.weighted;
+    this.nodeIds = original.nodeIds;
+    this.edgeSources = original.edgeTargets;
+    this.edgeTargets = original.edgeSources;
+    this.edgeWeights = original.edgeWeights;
+    this.edges = original.edges;
+    this.columns = original.columns;
+    this.localIndices = original.localIndices;
+
+    int n = nodeIds.length;
+    int[] counts = new int[n + 1];
+    for (int a = 0; a < original.targets.length; a++) {
+      counts[original.targets[a] + 1]++;
+    }
+    for (int u = 0; u < n; u++) {
+      counts[u + 1] += counts[u];
+    }
+    this.offsets = counts.clone();
+    this.targets = new int[counts[n]];
+    this.arcEdges = new int[counts[n]];
+    for (int u = 0; u < n; u++) {
+      for (int a = original.offsets[u]; a < original.offsets[u + 1]; a++) {
+        int b = counts[original.targets[a]]++;
+        targets[b] = u;
+        arcEdges[b] = original.arcEdges[a];
+      }
+    }
+    this.transpose = original;
+  }
+
+  /**
+   * Constructor for a view of base keeping the nodes of index in keptNodes, or
+   * all of them when null, and the edges between them accepted by keptEdges.
+   * Arcs keep the order they have in base.
+   */
+  private CompactGraph(CompactGraph base, BitSet keptNodes, IntPredicate keptEdges) {
+    this.directed = base.directed;
+    this.weighted = base.weighted;
+    this.edgeSources = base.edgeSources;
+    this.edgeTargets = base.edgeTargets;
+    this.edgeWeights = base.edgeWeights;
+    this.edges = base.edges;
+
+    int baseN = base.nbNodes();
+    int[] local = null;
+    if (keptNodes == null) {
+      this.nodeIds = base.nodeIds;
+    } else {
+      local = new int[baseN];
+      this.nodeIds = new int[keptNodes.cardinality()];
+      for (int u = 0, i = 0; u < baseN; u++) {
+        local[u] = keptNodes.get(u) ? i : -1;
+        if (local[u] >= 0)
+          nodeIds[i++] = base.nodeIds[u];
+      }
+    }
+
+    int baseM = base.nbEdges();
+    int[] edgeIds = new int[baseM];
+    int m = 0;
+    for (int e = 0; e < baseM; e++) {
+      boolean kept = keptEdges.test(e) && (local == null
+          || (local[base.edgeSource(e)] >= 0 && local[base.edgeTarget(e)] >= 0));
+      edgeIds[e] = kept ? m++ : -1;
+    }
+    this.columns = new int[m];
+    for (int e = 0; e < baseM; e++) {
+      if (edgeIds[e] >= 0)
+        columns[edgeIds[e]] = base.column(e);
+    }
+    if (local == null) {
+      this.localIndices = base.localIndices;
+    } else if (base.localIndices == null) {
+      this.localIndices = local;
+    } else {
+      this.localIndices = new int[base.localIndices.length];
+      for (int u = 0; u < localIndices.length; u++) {
+        int i = base.localIndices[u];
+        localIndices[u] = i < 0 ? -1 : local[i];
+      }
+    }
+
+    int n = nodeIds.length;
+    this.offsets = new int[n + 1];
+    int arcCount = 0;
+    for (int u = 0, i = 0; u < baseN; u++) {
+      if (local != null && local[u] < 0)
+        continue;
+      for (int a = base.offsets[u]; a < base.offsets[u + 1]; a++) {
+        if (edgeIds[base.arcEdges[a]] >= 0)
+          arcCount++;
+      }
+      offsets[++i] = arcCount;
+    }
+    this.targets = new int[arcCount];
+    this.arcEdges = new int[arcCount];
+    int b = 0;
+    for (int u = 0; u < baseN; u++) {
+      if (local != null && local[u] < 0)
+        continue;
+      for (int a = base.offsets[u]; a < base.offsets[u + 1]; a++) {
+        int e = edgeIds[base.arcEdges[a]];
+        if (e >= 0) {
+          targets[b] = local == null ? base.targets[a] : local[base.targets[a]];
+          arcEdges[b++] = e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Builds the CSR snapshot of graph g.
+   * An {@link UndirectedGraph} gives an undirected snapshot, any other graph a
+   * directed one.
+   *
+   * @param g The graph to snapshot.
+   * @return The CSR snapshot of graph g.
+   */
+  public static CompactGraph of(Graph g) {
+    Map<Node, List<Edge>> ael = g.getAel();
+    int n = ael.size();
+    int[] nodeIds = new int[n];
+    int idx = 0;
+    int m = 0;
+    for (Map.Entry<Node, List<Edge>> entry : ael.entrySet()) {
+      nodeIds[idx++] = entry.getKey().getId();
+      m += entry.getValue().size();
+    }
+
+    int[] edgeSources = new int[m];
+    int[] edgeTargets = new int[m];
+    int[] edgeWeights = new int[m];
+    Edge[] edges = new Edge[m];
+    boolean weighted = false;
+    int e = 0;
+    int u = 0;
+    for (List<Edge> out : ael.values()) {
+      for (Edge edge : out) {
+        edgeSources[e] = u;
+        edgeTargets[e] = Arrays.binarySearch(nodeIds, edge.to().getId());
+        if (edge.isWeighted()) {
+          edgeWeights[e] = edge.getWeight();
+          weighted = true;
+        }
+        edges[e++] = edge;
+      }
+      u++;
+    }
+    return new CompactGraph(!(g instanceof UndirectedGraph), weighted, nodeIds, edgeSources, edgeTargets,
+        edgeWeights, edges);
+  }
+
+  /**
+   * Builds the CSR snapshot of any graph store, so that the algorithms run the
+   * same over every backend. A {@link Graph} is snapshot with its edges, as by
+   * {@link #of(Graph)}.
+   *
+   * @param store The graph store to snapshot.
+   * @return The CSR snapshot of the store.
+   */
+  public static CompactGraph of(GraphStore store) {
+    if (store instanceof Graph)
+      return of((Graph) store);
+    int[] nodeIds = store.getNodeIds();
+    int m = store.nbEdges();
+    int[] edgeSources = new int[m];
+    int[] edgeTargets = new int[m];
+    int[] edgeWeights = new int[m];
+    int[] e = new int[1];
+    store.forEachEdge((from, to, weight) -> {
+      edgeSources[e[0]] = Arrays.binarySearch(nodeIds, from);
+      edgeTargets[e[0]] = Arrays.binarySearch(nodeIds, to);
+      edgeWeights[e[0]++] = weight;
+    });
+    return new CompactGraph(store.isDirected(), store.isWeighted(), nodeIds, edgeSources, edgeTargets,
+        edgeWeights, null);
+  }
+
+  /**
+   * Builds a snapshot directly from edge arrays, without any {@link Graph}.
+   * Edge ids are the positions in the arrays.
+   *
+   * @param directed    Whether the graph is directed.
+   * @param nodeIds     Node ids by increasing index. Must be sorted.
+   * @param edgeSources Source index of each edge.
+   * @param edgeTargets Target index of each edge.
+   * @param edgeWeights Weight of each edge, or null for an unweighted graph.
+   * @return The snapshot.
+   */
+  public static CompactGraph fromEdges(boolean directed, int[] nodeIds, int[] edgeSources, int[] edgeTargets,
+      int[] edgeWeights) {
+    if (edgeSources.length != edgeTargets.length
+        || (edgeWeights != null && edgeWeights.length != edgeSources.length))
+      throw new IllegalArgumentException("Edge arrays must have the same length");
+    boolean weighted = edgeWeights != null;
+    return new CompactGraph(directed, weighted, nodeIds, edgeSources, edgeTargets,
+        weighted ? edgeWeights : new int[edgeSources.length], null);
+  }
+
+  /* API */
+
+  /**
+   * Know whether the snapshot is directed.
+   *
+   * @return True if directed, false if every edge is stored both ways.
+   */
+  public boolean isDirected() {
+    return directed;
+  }
+
+  /**
+   * Know whether at least one edge of the snapshot was weighted.
+   *
+   * @return True if weighted, false otherwise.
+   */
+  public boolean isWeighted() {
+    return weighted;
+  }
+
+  /**
+   * Know the number of nodes.
+   *
+   * @return The number of nodes.
+   */
+  public int nbNodes() {
+    return nodeIds.length;
+  }
+
+  /**
+   * Know the number of edges.
+   *
+   * @return The number of edges.
+   */
+  public int nbEdges() {
+    return columns == null ? edgeSources.length : columns.length;
+  }
+
+  /**
+   * Know the number of arcs, which is twice the number of non self-loop edges in
+   * the undirected case.
+   *
+   * @return The number of arcs.
+   */
+  public int nbArcs() {
+    return targets.length;
+  }
+
+  /**
+   * Gets the id of the node with specified index.
+   *
+   * @param index Node index.
+   * @return The node id.
+   */
+  public int nodeId(int index) {
+    return nodeIds[index];
+  }
+
+  /**
+   * Gets the index of the node with specified id.
+   *
+   * @param id Node id.
+   * @return The node index, or -1 if no node has this id.
+   */
+  public int indexOf(int id) {
+    int index = Arrays.binarySearch(nodeIds, id);
+    return index < 0 ? -1 : index;
+  }
+
+  /**
+   * Gets the index of node n.
+   *
+   * @param n Target node.
+   * @return The node index, or -1 if no node has the id of n.
+   */
+  public int indexOf(Node n) {
+    return indexOf(n.getId());
+  }
+
+  /**
+   * Know the out-degree of the node with specified index, counting arcs.
+   *
+   * @param u Node index.
+   * @return The number of arcs leaving u.
+   */
+  public int outDegree(int u) {
+    return offsets[u + 1] - offsets[u];
+  }
+
+  /**
+   * Gets the CSR offsets, of length {@code nbNodes() + 1}.
+   * The array is shared and must not be modified.
+   *
+   * @return This.offsets
+   */
+  public int[] offsets() {
+    return offsets;
+  }
+
+  /**
+   * Gets the target index of every arc.
+   * The array is shared and must not be modified.
+   *
+   * @return This.targets
+   */
+  public int[] targets() {
+    return targets;
+  }
+
+  /**
+   * Gets the edge id of every arc.
+   * The array is shared and must not be modified.
+   *
+   * @return This.arcEdges
+   */
+  public int[] arcEdges() {
+    return arcEdges;
+  }
+
+  /**
+   * Gets the weight of the edge an arc comes from.
+   *
+   * @param a Arc position.
+   * @return The arc weight.
+   */
+  public int arcWeight(int a) {
+    return edgeWeights[column(arcEdges[a])];
+  }
+
+  /**
+   * Gets the source index of edge e.
+   *
+   * @param e Edge id.
+   * @return The source index.
+   */
+  public int edgeSource(int e) {
+    return local(edgeSources[column(e)]);
+  }
+
+  /**
+   * Gets the target index of edge e.
+   *
+   * @param e Edge id.
+   * @return The target index.
+   */
+  public int edgeTarget(int e) {
+    return local(edgeTargets[column(e)]);
+  }
+
+  /**
+   * Gets the weight of edge e.
+   *
+   * @param e Edge id.
+   * @return The weight, 0 for unweighted edges.
+   */
+  public int edgeWeight(int e) {
+    return edgeWeights[column(e)];
+  }
+
+  /**
+   * Gets the edge instance of edge e.
+   *
+   * @param e Edge id.
+   * @return The edge instance, or null if the snapshot has no backing graph.
+   */
+  public Edge edge(int e) {
+    return edges == null ? null : edges[column(e)];
+  }
+
+  private int column(int e) {
+    return columns == null ? e : columns[e];
+  }
+
+  private int local(int u) {
+    return localIndices == null ? u : localIndices[u];
+  }
+
+  /**
+   * Gets the snapshot with every arc reversed, i.e. the in-arcs of every node,
+   * which is the reversed view of this. Edge ids are kept.
+   * The transpose of an undirected snapshot is itself.
+   * It is computed once and cached.
+   *
+   * @return The transposed snapshot.
+   */
+  public synchronized CompactGraph transpose() {
+    if (!directed)
+      return this;
+    if (transpose == null)
+      transpose = new CompactGraph(this);
+    return transpose;
+  }
+
+  /**
+   * Gets the view of the subgraph induced by some nodes, which are renumbered
+   * by increasing index and keep their ids. Edges are renumbered too, by
+   * increasing id.
+   *
+   * @param nodes Indices of the nodes to keep.
+   * @return The induced subgraph view.
+   */
+  public CompactGraph inducedSubgraph(BitSet nodes) {
+    if (nodes.length() > nbNodes())
+      throw new IllegalArgumentException("Node index out of range: " + (nodes.length() - 1));
+    return new CompactGraph(this, nodes, e -> true);
+  }
+
+  /**
+   * Gets the view keeping the edges accepted by a predicate, and every node.
+   * Edges are renumbered by increasing id.
+   *
+   * @param keep Predicate on the edge ids of this.
+   * @return The filtered view.
+   */
+  public CompactGraph filterEdges(IntPredicate keep) {
+    return new CompactGraph(this, null, keep);
+  }
+
+  /**
+   * Gets the view without self-loops nor multi-edges, the first edge leaving a
+   * node towards another being kept; in the undirected case, u-v and v-u are
+   * the same edge. It is computed once and cached.
+   *
+   * @return The simple graph view.
+   */
+  public synchronized CompactGraph simpleView() {
+    if (simpleView == null) {
+      int n = nbNodes();
+      boolean[] kept = new boolean[nbEdges()];
+      int[] seenFrom = new int[n];
+      Arrays.fill(seenFrom, -1);
+      for (int u = 0; u < n; u++) {
+        for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+          int v = targets[a];
+          if (v == u || seenFrom[v] == u)
+            continue;
+          seenFrom[v] = u;
+          int e = arcEdges[a];
+          // An undirected edge is first met from both of its ends
+          if (directed || edgeSource(e) == u)
+            kept[e] = true;
+        }
+      }
+      simpleView = new CompactGraph(this, null, e -> kept[e]);
+    }
+    return simpleView;
+  }
+}
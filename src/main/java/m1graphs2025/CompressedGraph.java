@@ -0,0 +1,529 @@
+package m1graphs2025;
+
+import java.util.Arrays;
+
+/**
+ * A class CompressedGraph, codes a read-only graph whose adjacency lists are
+ * compressed in the manner of WebGraph, for graphs that would not fit in
+ * memory otherwise.
+ * Nodes get dense indices 0..n-1 by increasing id. The successors of every
+ * node are sorted by index and written as variable-length ints, 7 bits per
+ * byte:
+ * <ul>
+ * <li>the out-degree;</li>
+ * <li>the first successor, as the zig-zag encoded gap from the node itself;</li>
+ * <li>then one token per remaining successor, {@code gap << 1} from the
+ * previous one, or {@code (length - MIN_RUN) << 1 | 1} for an interval of at
+ * least MIN_RUN consecutive indices.</li>
+ * </ul>
+ * Weights, if any, follow in a separate stream, one zig-zag encoded variable
+ * length int per edge. Graphs of local, sorted successors such as web crawls
+ * then take a few bytes per edge.
+ * Edges are decoded on the fly by the cursors of {@link #neighbors(int)}.
+ * Every undirected edge is stored from each of its ends, a self-loop once.
+ */
+public final class CompressedGraph implements GraphStore {
+  private static final int CHUNK_SHIFT = 30;
+  private static final int MIN_RUN = 3;
+
+  private final boolean directed;
+  private final boolean weighted;
+  private final boolean multiGraph;
+  private final int[] nodeIds;
+  private final int[] inDegrees;
+  private final long[] offsets;
+  private final long[] weightOffsets;
+  private final byte[][] data;
+  private final byte[][] weightData;
+  private final int chunkShift;
+  private final long edgeCount;
+  private final long arcCount;
+
+  /**
+   * An interface ArcSource, gives the arcs leaving the node of an index to the
+   * builder, targets being indices too.
+   */
+  private interface ArcSource {
+    void arcs(int u, EdgeConsumer sink);
+  }
+
+  private CompressedGraph(boolean directed, boolean weighted, int[] nodeIds, ArcSource source, int chunkShift) {
+    int n = nodeIds.length;
+    this.directed = directed;
+    this.weighted = weighted;
+    this.nodeIds = nodeIds;
+    this.chunkShift = chunkShift;
+    this.inDegrees = directed ? new int[n] : null;
+    this.offsets = new long[n + 1];
+    this.weightOffsets = weighted ? new long[n + 1] : null;
+    ByteSink sink = new ByteSink(chunkShift);
+    ByteSink weightSink = weighted ? new ByteSink(chunkShift) : null;
+
+    ArcBuffer buffer = new ArcBuffer();
+    boolean multi = false;
+    long m = 0;
+    long loops = 0;
+    for (int u = 0; u < n; u++) {
+      offsets[u] = sink.size();
+      if (weighted)
+        weightOffsets[u] = weightSink.size();
+      buffer.size = 0;
+      source.arcs(u, buffer);
+      long[] arcs = buffer.arcs;
+      int d = buffer.size;
+      Arrays.sort(arcs, 0, d);
+
+      for (int i = 0; i < d; i++) {
+        int v = (int) (arcs[i] >>> 32);
+        if (i > 0 && v == (int) (arcs[i - 1] >>> 32))
+          multi = true;
+        if (v == u)
+          loops++;
+        if (directed)
+          inDegrees[v]++;
+        if (weighted)
+          weightSink.writeVarint(zigZag((int) arcs[i] ^ Integer.MIN_VALUE));
+      }
+      encode(sink, u, arcs, d);
+      m += d;
+    }
+    offsets[n] = sink.size();
+    if (weighted)
+      weightOffsets[n] = weightSink.size();
+    this.data = sink.toChunks();
+    this.weightData = weighted ? weightSink.toChunks() : null;
+    this.multiGraph = multi;
+    this.arcCount = m;
+    this.edgeCount = directed ? m : (m + loops) / 2;
+  }
+
+  /**
+   * Compresses any graph store.
+   *
+   * @param store The graph store to compress.
+   * @return The compressed copy.
+   */
+  public static CompressedGraph of(GraphStore store) {
+    return of(store, CHUNK_SHIFT);
+  }
+
+  /**
+   * Compresses any graph store, in chunks of 2^chunkShift bytes.
+   *
+   * @param store      The graph store to compress.
+   * @param chunkShift Log2 of the number of bytes per chunk.
+   * @return The compressed copy.
+   */
+  static CompressedGraph of(GraphStore store, int chunkShift) {
+    int[] ids = store.getNodeIds();
+    return new CompressedGraph(store.isDirected(), store.isWeighted(), ids,
+        (u, sink) -> store.forEachOutEdge(ids[u],
+            (from, to, weight) -> sink.accept(u, Arrays.binarySearch(ids, to), weight)),
+        chunkShift);
+  }
+
+  /**
+   * Compresses a CSR snapshot, for example one built by {@link GraphBuilder}.
+   *
+   * @param g The snapshot to compress.
+   * @return The compressed copy.
+   */
+  public static CompressedGraph of(CompactGraph g) {
+    int[] ids = new int[g.nbNodes()];
+    for (int u = 0; u < ids.length; u++)
+      ids[u] = g.nodeId(u);
+    int[] offsets = g.offsets();
+    int[] targets = g.targets();
+    return new CompressedGraph(g.isDirected(), g.isWeighted(), ids, (u, sink) -> {
+      for (int a = offsets[u]; a < offsets[u + 1]; a++)
+        sink.accept(u, targets[a], g.arcWeight(a));
+    }, CHUNK_SHIFT);
+  }
+
+  /* Capabilities */
+
+  @Override
+  public boolean isDirected() {
+    return directed;
+  }
+
+  @Override
+  public boolean isWeighted() {
+    return weighted;
+  }
+
+  @Override
+  public boolean isMultiGraph() {
+    return multiGraph;
+  }
+
+  /**
+   * Know whether the graph can be modified, which it cannot.
+   *
+   * @return False.
+   */
+  @Override
+  public boolean isMutable() {
+    return false;
+  }
+
+  /* Read */
+
+  @Override
+  public int nbNodes() {
+    return nodeIds.length;
+  }
+
+  /**
+   * Know the number of edges, failing beyond the int range.
+   *
+   * @return The number of edges.
+   * @throws ArithmeticException If there are more than Integer.MAX_VALUE edges.
+   */
+  @Override
+  public int nbEdges() {
+    return Math.toIntExact(edgeCount);
+  }
+
+  /**
+   * Know the number of edges, with no range limit.
+   *
+   * @return The number of edges.
+   */
+  public long getLongEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Know the number of arcs, twice the number of non-loop edges when
+   * undirected.
+   *
+   * @return The number of arcs.
+   */
+  public long nbArcs() {
+    return arcCount;
+  }
+
+  /**
+   * Know the size of the compressed adjacency, weights included.
+   *
+   * @return The number of bytes.
+   */
+  public long getByteSize() {
+    return offsets[nodeIds.length] + (weighted ? weightOffsets[nodeIds.length] : 0);
+  }
+
+  /**
+   * Gets the dense index of the node with specified id.
+   *
+   * @param id Node id.
+   * @return Its index, or -1 when the id is not used.
+   */
+  public int indexOf(int id) {
+    return Math.max(Arrays.binarySearch(nodeIds, id), -1);
+  }
+
+  @Override
+  public boolean usesNode(int id) {
+    return indexOf(id) >= 0;
+  }
+
+  @Override
+  public int[] getNodeIds() {
+    return nodeIds.clone();
+  }
+
+  @Override
+  public int outDegree(int id) {
+    int u = indexOf(id);
+    return u < 0 ? 0 : new ByteReader(data, chunkShift, offsets[u]).readVarint();
+  }
+
+  @Override
+  public int inDegree(int id) {
+    int u = indexOf(id);
+    if (u < 0)
+      return 0;
+    return directed ? inDegrees[u] : outDegree(id);
+  }
+
+  /**
+   * Know whether an edge exists between the nodes with specified ids, decoding
+   * the successors of the source up to the target at most.
+   *
+   * @param uId Source node id.
+   * @param vId Target node id.
+   * @return True if it exists, false otherwise.
+   */
+  @Override
+  public boolean existsEdge(int uId, int vId) {
+    int u = indexOf(uId);
+    int v = indexOf(vId);
+    if (u < 0 || v < 0)
+      return false;
+    Cursor cursor = new Cursor(u);
+    while (cursor.next()) {
+      if (cursor.current >= v)
+        return cursor.current == v;
+    }
+    return false;
+  }
+
+  /**
+   * Gets a cursor decoding the edges leaving the node with specified id, by
+   * increasing target index.
+   *
+   * @param id Source node id.
+   * @return A new cursor, before the first edge.
+   */
+  @Override
+  public NeighborCursor neighbors(int id) {
+    int u = indexOf(id);
+    return u < 0 ? new Cursor(-1) : new Cursor(u);
+  }
+
+  @Override
+  public void forEachOutEdge(int id, EdgeConsumer action) {
+    NeighborCursor cursor = neighbors(id);
+    while (cursor.next())
+      action.accept(id, cursor.target(), cursor.weight());
+  }
+
+  /**
+   * Performs an action on every edge of the graph, by source node. An
+   * undirected edge is reported once, from its end of smaller id.
+   *
+   * @param action The action.
+   */
+  @Override
+  public void forEachEdge(EdgeConsumer action) {
+    for (int u = 0; u < nodeIds.length; u++) {
+      Cursor cursor = new Cursor(u);
+      while (cursor.next()) {
+        if (directed || cursor.current >= u)
+          action.accept(nodeIds[u], nodeIds[cursor.current], cursor.weight());
+      }
+    }
+  }
+
+  /* Write */
+
+  @Override
+  public boolean addNode(int id) {
+    throw new UnsupportedOperationException("Compressed graphs are read-only");
+  }
+
+  @Override
+  public boolean removeNode(int id) {
+    throw new UnsupportedOperationException("Compressed graphs are read-only");
+  }
+
+  @Override
+  public void addEdge(int fromId, int toId) {
+    throw new UnsupportedOperationException("Compressed graphs are read-only");
+  }
+
+  @Override
+  public void addEdge(int fromId, int toId, int weight) {
+    throw new UnsupportedOperationException("Compressed graphs are read-only");
+  }
+
+  @Override
+  public boolean removeEdge(int fromId, int toId) {
+    throw new UnsupportedOperationException("Compressed graphs are read-only");
+  }
+
+  /**
+   * A cursor decoding the successors of a node, the node of index -1 having
+   * none.
+   */
+  private final class Cursor implements NeighborCursor {
+    private final ByteReader reader;
+    private final ByteReader weightReader;
+    private int remaining;
+    private boolean started;
+    private int runLeft;
+    private int current;
+    private int weight;
+
+    Cursor(int u) {
+      if (u < 0) {
+        reader = null;
+        weightReader = null;
+        return;
+      }
+      reader = new ByteReader(data, chunkShift, offsets[u]);
+      weightReader = weighted ? new ByteReader(weightData, chunkShift, weightOffsets[u]) : null;
+      remaining = reader.readVarint();
+      current = u;
+    }
+
+    @Override
+    public boolean next() {
+      if (remaining == 0)
+        return false;
+      remaining--;
+      if (runLeft > 0) {
+        current++;
+        runLeft--;
+      } else if (!started) {
+        current += unZigZag(reader.readVarint());
+        started = true;
+      } else {
+        int token = reader.readVarint();
+        if ((token & 1) != 0) {
+          runLeft = (token >>> 1) + MIN_RUN - 1;
+          current++;
+        } else {
+          current += token >>> 1;
+        }
+      }
+      if (weightReader != null)
+        weight = unZigZag(weightReader.readVarint());
+      return true;
+    }
+
+    @Override
+    public int target() {
+      return nodeIds[current];
+    }
+
+    @Override
+    public int weight() {
+      return weight;
+    }
+  }
+
+  /**
+   * A reader of variable-length ints from byte chunks, every chunk but the last
+   * being full.
+   */
+  private static final class ByteReader {
+    private final byte[][] chunks;
+    private byte[] chunk;
+    private int index;
+    private int position;
+
+    ByteReader(byte[][] chunks, int shift, long start) {
+      this.chunks = chunks;
+      this.index = (int) (start >>> shift);
+      this.position = (int) (start & ((1L << shift) - 1));
+      this.chunk = index < chunks.length ? chunks[index] : null;
+    }
+
+    int readVarint() {
+      int value = 0;
+      for (int shift = 0;; shift += 7) {
+        if (position == chunk.length) {
+          chunk = chunks[++index];
+          position = 0;
+        }
+        byte b = chunk[position++];
+        value |= (b & 0x7F) << shift;
+        if (b >= 0)
+          return value;
+      }
+    }
+  }
+
+  /**
+   * A growable byte output in chunks of 2^shift bytes.
+   */
+  private static final class ByteSink {
+    private final int chunkSize;
+    private byte[][] chunks = new byte[1][];
+    private int count;
+    private byte[] current;
+    private int position;
+    private long size;
+
+    ByteSink(int shift) {
+      this.chunkSize = 1 << shift;
+      this.current = new byte[Math.min(64, chunkSize)];
+    }
+
+    long size() {
+      return size;
+    }
+
+    void writeVarint(int value) {
+      while ((value & ~0x7F) != 0) {
+        write(value & 0x7F | 0x80);
+        value >>>= 7;
+      }
+      write(value);
+    }
+
+    private void write(int b) {
+      if (position == current.length) {
+        if (current.length < chunkSize) {
+          current = Arrays.copyOf(current, Math.min(2 * current.length, chunkSize));
+        } else {
+          if (count == chunks.length)
+            chunks = Arrays.copyOf(chunks, 2 * count);
+          chunks[count++] = current;
+          current = new byte[Math.min(64, chunkSize)];
+          position = 0;
+        }
+      }
+      current[position++] = (byte) b;
+      size++;
+    }
+
+    byte[][] toChunks() {
+      byte[][] result = Arrays.copyOf(chunks, count + 1);
+      result[count] = Arrays.copyOf(current, position);
+      return result;
+    }
+  }
+
+  /**
+   * A growable buffer of the arcs leaving a node, each packed as its target
+   * index then its weight.
+   */
+  private static final class ArcBuffer implements EdgeConsumer {
+    private long[] arcs = new long[16];
+    private int size;
+
+    @Override
+    public void accept(int from, int to, int weight) {
+      if (size == arcs.length)
+        arcs = Arrays.copyOf(arcs, 2 * size);
+      // By target, then by signed weight
+      arcs[size++] = (long) to << 32 | (weight ^ Integer.MIN_VALUE) & 0xFFFFFFFFL;
+    }
+  }
+
+  /**
+   * Writes the sorted successors of the node of index u.
+   */
+  private static void encode(ByteSink sink, int u, long[] arcs, int d) {
+    sink.writeVarint(d);
+    if (d == 0)
+      return;
+    int previous = (int) (arcs[0] >>> 32);
+    sink.writeVarint(zigZag(previous - u));
+    for (int i = 1; i < d;) {
+      int run = 0;
+      while (i + run < d && (int) (arcs[i + run] >>> 32) == previous + run + 1)
+        run++;
+      if (run >= MIN_RUN) {
+        sink.writeVarint((run - MIN_RUN) << 1 | 1);
+        previous += run;
+        i += run;
+      } else {
+        int v = (int) (arcs[i++] >>> 32);
+        sink.writeVarint((v - previous) << 1);
+        previous = v;
+      }
+    }
+  }
+
+  private static int zigZag(int value) {
+    return value << 1 ^ value >> 31;
+  }
+
+  private static int unZigZag(int value) {
+    return value >>> 1 ^ -(value & 1);
+  }
+}
@@ -15,6 +15,8 @@ public class Edge implements Comparable<Edge> {
   private Node from;
   private Node to;
   private Integer weight;
+  // Index of the edge in the primitive columns of a graph, see Graph.getSlot
+  int slot = -1;
 
   /**
    * Constructor for the Edge class, takes a source node (from) and a target node (to) as parameters.
@@ -143,11 +145,7 @@ public class Edge implements Comparable<Edge> {
    * @return True if it's a multi-edge, otherwise false.
    */
   public boolean isMultiEdge() {
-    for (Node n : from.getSuccessorsMulti()) {
-      if (to.getId() == n.getId())
-        return true;
-    }
-    return false;
+    return from.getGraph().isMultiEdge(from, to);
   }
 
   /**
@@ -167,10 +165,13 @@ public class Edge implements Comparable<Edge> {
   }
 
   /**
-   * Sets the weight of edge this.
+   * Sets the weight of edge this, which is reported to the change listeners of
+   * the graph of its nodes if the edge is one of its edges.
    */
   public void setWeight(int weight) {
+    Integer previousWeight = this.weight;
     this.weight = weight;
+    from.getGraph().weightChanged(this, previousWeight);
   }
 
 }
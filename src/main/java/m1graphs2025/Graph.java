@@ -6,13 +6,17 @@ import java.io.FileWriter;
 import java.io.IOException;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeMap;
+import java.util.concurrent.Executor;
+import java.util.function.Predicate;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -23,8 +27,12 @@ import java.util.List;
  * The graph structure is coded as adjacent edge lists, meaning that the list
  * of its out edges is mapped to each of the graph nodes.
  */
-public class Graph {
+public class Graph implements GraphStore {
   private Map<Node, List<Edge>> ael; // TreeMap<Node, List<Edge>>
+  private Map<Node, Map<Node, List<Edge>>> edgeIndex; // hub nodes only, null until useEdgeIndex
+  private int indexDegree;
+  private ChangeStream changes; // null while nobody listens
+  private int changeBatchSize = 256;
   protected int nodeCount;
   protected int edgeCount;
   private static final String PRINT_PATH = "target/output/printOutput.txt";
@@ -80,6 +88,93 @@ public class Graph {
     this.edgeCount = edgeCount;
   }
 
+  /**
+   * Fills this empty graph in one go, as done by {@link GraphBuilder}.
+   *
+   * @param nodes    Nodes by increasing id.
+   * @param outEdges Out edge list of every node.
+   * @param nbEdges  Total number of edges.
+   */
+  void load(Node[] nodes, List<List<Edge>> outEdges, int nbEdges) {
+    for (int u = 0; u < nodes.length; u++) {
+      ael.put(nodes[u], outEdges.get(u));
+    }
+    nodeCount = nodes.length;
+    edgeCount = nbEdges;
+    if (edgeIndex != null)
+      useEdgeIndex(indexDegree);
+  }
+
+  /**
+   * Indexes the out edges of every node with at least minDegree of them by
+   * target, so that {@link #existsEdge(Node, Node)},
+   * {@link #adjacent(Node, Node)}, {@link #getEdges(Node, Node)},
+   * {@link #countEdges(Node, Node)} and {@link #isMultiEdge(Node, Node)} run in
+   * constant time on such nodes instead of scanning their edges, the
+   * multiplicity of every pair being kept by the index.
+   * Nodes enter the index as their out-degree reaches minDegree. Edges must
+   * then only be added and removed through the methods of the graph.
+   * 
+   * @param minDegree Out-degree from which a node is indexed, at least 1.
+   */
+  public void useEdgeIndex(int minDegree) {
+    if (minDegree < 1)
+      throw new IllegalArgumentException("Index degree must be positive");
+    indexDegree = minDegree;
+    edgeIndex = new HashMap<>();
+    for (Map.Entry<Node, List<Edge>> entry : ael.entrySet()) {
+      if (entry.getValue().size() >= minDegree)
+        edgeIndex.put(entry.getKey(), indexTargets(entry.getValue()));
+    }
+  }
+
+  /**
+   * Know whether the out edges of hub nodes are indexed by target.
+   * 
+   * @return True if {@link #useEdgeIndex(int)} was called, false otherwise.
+   */
+  public boolean hasEdgeIndex() {
+    return edgeIndex != null;
+  }
+
+  private static Map<Node, List<Edge>> indexTargets(List<Edge> edges) {
+    Map<Node, List<Edge>> index = new HashMap<>();
+    for (Edge edge : edges)
+      index.computeIfAbsent(edge.to(), v -> new ArrayList<>(1)).add(edge);
+    return index;
+  }
+
+  /**
+   * Records edge e, just added to the list of its source, in the index.
+   */
+  private void indexEdge(Edge e) {
+    if (edgeIndex == null)
+      return;
+    Map<Node, List<Edge>> index = edgeIndex.get(e.from());
+    if (index != null)
+      index.computeIfAbsent(e.to(), v -> new ArrayList<>(1)).add(e);
+    else if (ael.get(e.from()).size() >= indexDegree)
+      edgeIndex.put(e.from(), indexTargets(ael.get(e.from())));
+  }
+
+  /**
+   * Gets the index of the out edges of node u by target.
+   * 
+   * @return The index, or null if u is not indexed.
+   */
+  private Map<Node, List<Edge>> targetIndex(Node u) {
+    return edgeIndex == null ? null : edgeIndex.get(u);
+  }
+
+  /**
+   * Rebuilds the index of the out edges of node u after a bulk edit, if u is
+   * indexed or has reached the index degree.
+   */
+  private void reindex(Node u) {
+    if (edgeIndex != null && (edgeIndex.containsKey(u) || ael.get(u).size() >= indexDegree))
+      edgeIndex.put(u, indexTargets(ael.get(u)));
+  }
+
   /**
    * Same behavior as {@link #getNode()} but creates a node if it dosen't exist.
    * 
@@ -95,6 +190,14 @@ public class Graph {
     return n;
   }
 
+  /**
+   * Gets the node with specified name, or creates it with an id after the
+   * largest one used, so that ids stay unique once nodes have been removed.
+   * 
+   * @param name Target node name.
+   * @return An existing node of the graph or a new node that belongs to the graph
+   *         otherwise.
+   */
   public Node getNodeOrCreate(String name) {
     Node n = null;
     for (Node node : ael.keySet()) {
@@ -103,7 +206,7 @@ public class Graph {
       }
     }
     if (n == null) {
-      n = new Node(nodeCount+1, this, name);
+      n = new Node(ael.isEmpty() ? 1 : largestNodeId() + 1, this, name);
       addNode(n);
     }
     return n;
@@ -178,6 +281,202 @@ public class Graph {
 
   /* API */
 
+  /**
+   * Gets a batch buffering node and edge mutations of this graph, which are
+   * only applied, all together, by {@link GraphBatch#commit()}.
+   * 
+   * @return A new empty batch.
+   */
+  public GraphBatch batch() {
+    return new GraphBatch(this);
+  }
+
+  /**
+   * Adds a listener receiving the node and edge mutations of this graph, and
+   * the weight changes of its edges, in batches of
+   * {@link #setChangeBatchSize(int)} changes, in the mutating thread.
+   * The listener must not modify the graph.
+   * Changes are only recorded while the graph has listeners.
+   * 
+   * @param listener The listener.
+   */
+  public void addChangeListener(ChangeListener listener) {
+    addChangeListener(listener, null);
+  }
+
+  /**
+   * Adds a listener receiving the changes of this graph through an executor,
+   * one batch after another, so that it may be slow without holding up the
+   * mutations.
+   * 
+   * @param listener The listener.
+   * @param executor The executor running the listener, or null to run it in
+   *                 the mutating thread.
+   */
+  public void addChangeListener(ChangeListener listener, Executor executor) {
+    if (changes == null)
+      changes = new ChangeStream(changeBatchSize);
+    changes.subscribe(listener, executor);
+  }
+
+  /**
+   * Removes a listener, after delivering it the changes buffered so far.
+   * 
+   * @param listener The listener.
+   * @return True if it was listening, false otherwise.
+   */
+  public boolean removeChangeListener(ChangeListener listener) {
+    if (changes == null)
+      return false;
+    changes.flush();
+    boolean removed = changes.unsubscribe(listener);
+    if (changes.isEmpty())
+      changes = null;
+    return removed;
+  }
+
+  /**
+   * Sets the number of changes buffered before they are delivered to the
+   * listeners, 256 by default, or 1 to deliver every change as it is made.
+   */
+  public void setChangeBatchSize(int changeBatchSize) {
+    if (changeBatchSize < 1)
+      throw new IllegalArgumentException("Change batch size must be positive");
+    this.changeBatchSize = changeBatchSize;
+    if (changes != null) {
+      changes.flush();
+      changes = new ChangeStream(changeBatchSize, changes);
+    }
+  }
+
+  /**
+   * Delivers the buffered changes to the listeners now, without waiting for a
+   * full batch.
+   */
+  public void flushChanges() {
+    if (changes != null)
+      changes.flush();
+  }
+
+  /**
+   * The edges taken out by a removal, kept to be reported once the graph is
+   * updated, each with its position among the edges between the same nodes
+   * once the edges reported before it are gone.
+   */
+  private static final class RemovedEdges {
+    private final List<Edge> edges = new ArrayList<>();
+    private int[] occurrences = new int[16];
+
+    void add(Edge edge, int occurrence) {
+      if (edges.size() == occurrences.length)
+        occurrences = Arrays.copyOf(occurrences, 2 * occurrences.length);
+      occurrences[edges.size()] = occurrence;
+      edges.add(edge);
+    }
+
+    /**
+     * Adds every edge of a list, all of them being removed.
+     */
+    void addAll(List<Edge> list) {
+      for (Edge edge : list)
+        add(edge, 0);
+    }
+  }
+
+  /**
+   * Gets the edges of a list that a removal is about to take out, so as to
+   * report them once the graph is updated.
+   * 
+   * @return The matching edges, or null while nobody listens.
+   */
+  private RemovedEdges removedEdges(List<Edge> edges, Predicate<Edge> removed) {
+    if (changes == null)
+      return null;
+    RemovedEdges result = new RemovedEdges();
+    // Edges kept so far, by target
+    Map<Node, int[]> kept = new HashMap<>();
+    for (Edge edge : edges) {
+      int[] count = kept.computeIfAbsent(edge.to(), v -> new int[1]);
+      if (removed.test(edge))
+        result.add(edge, count[0]);
+      else
+        count[0]++;
+    }
+    return result;
+  }
+
+  /**
+   * Reports the removal of edges, which have left their lists, to the
+   * listeners.
+   * 
+   * @param removed The removed edges, or null while nobody listens.
+   */
+  private void reportRemovals(RemovedEdges removed) {
+    if (changes == null || removed == null)
+      return;
+    for (int i = 0; i < removed.edges.size(); i++)
+      changes.edgeRemoved(removed.edges.get(i), removed.occurrences[i]);
+  }
+
+  /**
+   * Called when the weight of an edge between nodes of this graph is changed,
+   * which is reported to the listeners if the edge is held by this graph.
+   * Subclasses keeping values derived from the weights override it to update
+   * them.
+   * 
+   * @param e              The edge.
+   * @param previousWeight Its former weight, null if it was unweighted.
+   */
+  protected void weightChanged(Edge e, Integer previousWeight) {
+    if (changes == null)
+      return;
+    int occurrence = occurrence(e);
+    if (occurrence >= 0)
+      changes.weightChanged(e, previousWeight, occurrence);
+  }
+
+  /**
+   * Gets the slot of edge e: an index a subclass may give it, so as to keep
+   * values per edge in primitive columns rather than in maps.
+   * 
+   * @param e The edge.
+   * @return The slot, -1 if none was given.
+   */
+  protected static int getSlot(Edge e) {
+    return e.slot;
+  }
+
+  /**
+   * Gives edge e a slot, see {@link #getSlot(Edge)}.
+   * 
+   * @param e    The edge.
+   * @param slot The slot.
+   */
+  protected static void setSlot(Edge e, int slot) {
+    e.slot = slot;
+  }
+
+  /**
+   * Gets the position of edge e itself among the edges from its source to its
+   * target in this graph.
+   * 
+   * @return The position, or -1 if this graph does not hold e.
+   */
+  private int occurrence(Edge e) {
+    Map<Node, List<Edge>> index = targetIndex(e.from());
+    List<Edge> edges = index != null ? index.get(e.to()) : ael.get(e.from());
+    if (edges == null)
+      return -1;
+    int occurrence = 0;
+    for (Edge edge : edges) {
+      if (edge == e)
+        return occurrence;
+      if (edge.to().equals(e.to()))
+        occurrence++;
+    }
+    return -1;
+  }
+
   /** Nodes **/
 
   /**
@@ -206,11 +505,7 @@ public class Graph {
    * @return True if the node id exists, false otherwise.
    */
   public boolean usesNode(int id) {
-    for (Node v : ael.keySet()) {
-      if (id == v.getId())
-        return true;
-    }
-    return false;
+    return getNode(id) != null;
   }
 
   /**
@@ -237,11 +532,8 @@ public class Graph {
    *         or null in case this does not have a node with number id.
    */
   public Node getNode(int id) {
-    for (Node v : ael.keySet()) {
-      if (id == v.getId())
-        return v;
-    }
-    return null;
+    Node v = ((TreeMap<Node, List<Edge>>) ael).floorKey(new Node(id, this));
+    return v != null && v.getId() == id ? v : null;
   }
 
   /**
@@ -255,6 +547,8 @@ public class Graph {
       return false;
     ael.put(n, new java.util.ArrayList<>());
     nodeCount++;
+    if (changes != null)
+      changes.nodeAdded(n);
     return true;
   }
 
@@ -295,18 +589,33 @@ public class Graph {
       return false;
     // Remove all outgoing edges from node
     List<Edge> outgoingEdges = ael.remove(n);
-    if (outgoingEdges != null)
-      edgeCount -= outgoingEdges.size();
-    // Remove all incoming edges from node
+    edgeCount -= outgoingEdges.size();
+    nodeCount--;
+    if (edgeIndex != null) {
+      edgeIndex.remove(n);
+      for (Map<Node, List<Edge>> index : edgeIndex.values())
+        index.remove(n);
+    }
+    // Remove all incoming edges from node, all edges to n going
+    RemovedEdges removedEdges = changes == null ? null : new RemovedEdges();
+    if (removedEdges != null)
+      removedEdges.addAll(outgoingEdges);
     for (List<Edge> edges : ael.values()) {
       Iterator<Edge> it = edges.iterator();
       while (it.hasNext()) {
-        if (it.next().to().equals(n)) {
+        Edge edge = it.next();
+        if (edge.to().equals(n)) {
           it.remove();
           edgeCount--;
+          if (removedEdges != null)
+            removedEdges.add(edge, 0);
         }
       }
     }
+    if (changes != null) {
+      reportRemovals(removedEdges);
+      changes.nodeRemoved(n);
+    }
     return true;
   }
 
@@ -322,6 +631,53 @@ public class Graph {
     return removeNode(getNode(id));
   }
 
+  /**
+   * Removes the nodes with specified ids that belong to the graph, and all
+   * their incident edges in a single sweep over the edge lists, as done by
+   * {@link GraphBatch#commit()}.
+   * 
+   * @param ids Node ids, sorted.
+   */
+  void removeNodes(int[] ids) {
+    List<Node> removed = new ArrayList<>();
+    RemovedEdges removedEdges = changes == null ? null : new RemovedEdges();
+    for (int id : ids) {
+      Node n = getNode(id);
+      if (n == null)
+        continue;
+      List<Edge> outgoingEdges = ael.remove(n);
+      edgeCount -= outgoingEdges.size();
+      nodeCount--;
+      if (edgeIndex != null)
+        edgeIndex.remove(n);
+      if (removedEdges != null)
+        removedEdges.addAll(outgoingEdges);
+      removed.add(n);
+    }
+    if (removed.isEmpty())
+      return;
+    Predicate<Edge> incoming = edge -> Arrays.binarySearch(ids, edge.to().getId()) >= 0;
+    for (Map.Entry<Node, List<Edge>> entry : ael.entrySet()) {
+      List<Edge> edges = entry.getValue();
+      int size = edges.size();
+      if (removedEdges != null) {
+        // All the edges to a removed node go
+        for (Edge edge : edges) {
+          if (incoming.test(edge))
+            removedEdges.add(edge, 0);
+        }
+      }
+      if (edges.removeIf(incoming)) {
+        edgeCount -= size - edges.size();
+        reindex(entry.getKey());
+      }
+    }
+    if (changes != null) {
+      reportRemovals(removedEdges);
+      removed.forEach(changes::nodeRemoved);
+    }
+  }
+
   /**
    * Gets a list of all the nodes of the graph.
    * 
@@ -331,6 +687,20 @@ public class Graph {
     return new ArrayList<>(ael.keySet());
   }
 
+  /**
+   * Gets the ids of all the nodes of the graph.
+   * 
+   * @return The node ids, by increasing id.
+   */
+  @Override
+  public int[] getNodeIds() {
+    int[] ids = new int[ael.size()];
+    int i = 0;
+    for (Node n : ael.keySet())
+      ids[i++] = n.getId();
+    return ids;
+  }
+
   /**
    * Know the largest id used by the graph.
    * 
@@ -420,11 +790,7 @@ public class Graph {
    * @return True if adjacent, false otherwise.
    */
   public boolean adjacent(Node n, Node u) {
-    for (Edge edge : ael.get(n)) {
-      if (edge.to().equals(u))
-        return true;
-    }
-    return false;
+    return hasEdge(n, u);
   }
 
   /**
@@ -524,6 +890,13 @@ public class Graph {
    * @return True if an edge exists between nodes u and v, false otherwise.
    */
   public boolean existsEdge(Node u, Node v) {
+    return hasEdge(u, v);
+  }
+
+  private boolean hasEdge(Node u, Node v) {
+    Map<Node, List<Edge>> index = targetIndex(u);
+    if (index != null)
+      return index.containsKey(v);
     for (Edge edge : ael.get(u)) {
       if (edge.to().equals(v))
         return true;
@@ -564,12 +937,47 @@ public class Graph {
    *         false otherwise.
    */
   public boolean isMultiEdge(Node u, Node v) {
+    return edgeMultiplicity(u, v) > 1;
+  }
+
+  /**
+   * Know the number of edges from node u to node v.
+   * 
+   * @param u Source node.
+   * @param v Target node.
+   * @return The number of edges from u to v.
+   */
+  public int countEdges(Node u, Node v) {
+    return edgeMultiplicity(u, v);
+  }
+
+  /**
+   * Know the number of edges from node with id uId to node with id vId.
+   * 
+   * @param uId Source node id.
+   * @param vId Target node id.
+   * @return The number of edges from u to v, 0 if either node does not exist.
+   */
+  public int countEdges(int uId, int vId) {
+    Node u = getNode(uId);
+    Node v = getNode(vId);
+    if (u == null || v == null)
+      return 0;
+    return countEdges(u, v);
+  }
+
+  private int edgeMultiplicity(Node u, Node v) {
+    Map<Node, List<Edge>> index = targetIndex(u);
+    if (index != null) {
+      List<Edge> edges = index.get(v);
+      return edges == null ? 0 : edges.size();
+    }
     int eCount = 0;
     for (Edge edge : ael.get(u)) {
-      if (edge.from().equals(u) && edge.to().equals(v))
+      if (edge.to().equals(v))
         eCount++;
     }
-    return eCount > 1;
+    return eCount;
   }
 
   /**
@@ -609,8 +1017,12 @@ public class Graph {
   public void addEdge(Node from, Node to) {
     if (!ael.containsKey(from) || !ael.containsKey(to))
       return;
-    ael.get(from).add(new Edge(from, to));
+    Edge edge = new Edge(from, to);
+    ael.get(from).add(edge);
     edgeCount++;
+    indexEdge(edge);
+    if (changes != null)
+      changes.edgeAdded(edge);
   }
 
   /**
@@ -635,8 +1047,12 @@ public class Graph {
   public void addEdge(Node from, Node to, int weight) {
     if (!ael.containsKey(from) || !ael.containsKey(to))
       return;
-    ael.get(from).add(new Edge(from, to, weight));
+    Edge edge = new Edge(from, to, weight);
+    ael.get(from).add(edge);
     edgeCount++;
+    indexEdge(edge);
+    if (changes != null)
+      changes.edgeAdded(edge);
   }
 
   /**
@@ -664,6 +1080,9 @@ public class Graph {
       return;
     ael.get(edge.from()).add(edge);
     edgeCount++;
+    indexEdge(edge);
+    if (changes != null)
+      changes.edgeAdded(edge);
   }
 
   /**
@@ -674,12 +1093,19 @@ public class Graph {
    * @return True if edge was removed, false otherwise.
    */
   public boolean removeEdge(Node from, Node to) {
-    if (!existsEdge(from, to))
+    if (!hasEdge(from, to))
       return false;
-    boolean isRemoved = ael.get(from).removeIf(edge -> edge.to().equals(to));
-    if (isRemoved)
-      edgeCount--;
-    return isRemoved;
+    List<Edge> edges = ael.get(from);
+    int size = edges.size();
+    Predicate<Edge> removed = edge -> edge.to().equals(to);
+    RemovedEdges removedEdges = removedEdges(edges, removed);
+    edges.removeIf(removed);
+    edgeCount -= size - edges.size();
+    Map<Node, List<Edge>> index = targetIndex(from);
+    if (index != null)
+      index.remove(to);
+    reportRemovals(removedEdges);
+    return true;
   }
 
   /**
@@ -710,12 +1136,24 @@ public class Graph {
    * @return True if edge was removed, false otherwise.
    */
   public boolean removeEdge(Node from, Node to, int weight) {
-    if (!existsEdge(from, to))
+    Map<Node, List<Edge>> index = targetIndex(from);
+    if (index != null) {
+      List<Edge> targetEdges = index.get(to);
+      if (targetEdges == null || !targetEdges.removeIf(edge -> Integer.valueOf(weight).equals(edge.getWeight())))
+        return false;
+      if (targetEdges.isEmpty())
+        index.remove(to);
+    } else if (!hasEdge(from, to)) {
       return false;
-    boolean isRemoved = ael.get(from).removeIf(edge -> edge.to().equals(to) && edge.getWeight().equals(weight));
-    if (isRemoved)
-      edgeCount--;
-    return isRemoved;
+    }
+    List<Edge> edges = ael.get(from);
+    int size = edges.size();
+    Predicate<Edge> removed = edge -> edge.to().equals(to) && Integer.valueOf(weight).equals(edge.getWeight());
+    RemovedEdges removedEdges = removedEdges(edges, removed);
+    edges.removeIf(removed);
+    edgeCount -= size - edges.size();
+    reportRemovals(removedEdges);
+    return size != edges.size();
   }
 
   /**
@@ -746,6 +1184,92 @@ public class Graph {
     return removeEdge(edge.from(), edge.to());
   }
 
+  /**
+   * Removes a single edge from the node with id fromId towards the node with id
+   * toId, the one at the specified position among the edges between them, as
+   * done when replaying a log of changes.
+   * 
+   * @param fromId     Source node id.
+   * @param toId       Target node id.
+   * @param occurrence Position of the edge among the edges from fromId to toId.
+   * @return True if an edge was removed, false otherwise.
+   */
+  boolean removeOneEdge(int fromId, int toId, int occurrence) {
+    Edge edge = detachOneEdge(fromId, toId, occurrence);
+    if (edge == null)
+      return false;
+    if (changes != null)
+      changes.edgeRemoved(edge, occurrence);
+    return true;
+  }
+
+  /**
+   * Takes out the edge removed by {@link #removeOneEdge(int, int, int)},
+   * without reporting it.
+   * 
+   * @return The edge, or null if there is none.
+   */
+  Edge detachOneEdge(int fromId, int toId, int occurrence) {
+    Node from = getNode(fromId);
+    if (from == null)
+      return null;
+    Iterator<Edge> it = ael.get(from).iterator();
+    int seen = 0;
+    while (it.hasNext()) {
+      Edge edge = it.next();
+      if (edge.to().getId() == toId && seen++ == occurrence) {
+        it.remove();
+        edgeCount--;
+        Map<Node, List<Edge>> index = targetIndex(from);
+        if (index != null) {
+          List<Edge> targetEdges = index.get(edge.to());
+          targetEdges.remove(edge);
+          if (targetEdges.isEmpty())
+            index.remove(edge.to());
+        }
+        return edge;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Edits the out edges of node u in one go, as done by
+   * {@link GraphBatch#commit()}: the edges matching removed are removed, then
+   * the added edges are appended, and the index of u is rebuilt once.
+   * 
+   * @param u       Source node.
+   * @param removed The edges to remove, or null to keep them all.
+   * @param added   New edges from u.
+   */
+  void editOutEdges(Node u, Predicate<Edge> removed, List<Edge> added) {
+    List<Edge> edges = ael.get(u);
+    RemovedEdges removedEdges = null;
+    if (removed != null) {
+      int size = edges.size();
+      removedEdges = removedEdges(edges, removed);
+      edges.removeIf(removed);
+      edgeCount -= size - edges.size();
+    }
+    edges.addAll(added);
+    edgeCount += added.size();
+    reindex(u);
+    if (changes != null) {
+      reportRemovals(removedEdges);
+      added.forEach(changes::edgeAdded);
+    }
+  }
+
+  /**
+   * Applies the edge mutations of a batch to the edge lists, after its node
+   * mutations.
+   * 
+   * @param batch The batch being committed.
+   */
+  void commitEdges(GraphBatch batch) {
+    batch.applyEdges(this, false);
+  }
+
   /**
    * Gets the list of all edges leaving node n.
    * 
@@ -767,6 +1291,23 @@ public class Graph {
     return getOutEdges(getNode(id));
   }
 
+  /**
+   * Performs an action on every edge leaving node with specified id, without
+   * building the edge list in the directed case.
+   * 
+   * @param id     Source node id.
+   * @param action The action, given the source, target and weight (0 if
+   *               unweighted) of every edge.
+   */
+  @Override
+  public void forEachOutEdge(int id, EdgeConsumer action) {
+    Node n = getNode(id);
+    if (n == null)
+      return;
+    for (Edge e : getOutEdges(n))
+      action.accept(id, e.to().getId(), e.isWeighted() ? e.getWeight() : 0);
+  }
+
   /**
    * Gets the list of all edges entering node n.
    * 
@@ -827,6 +1368,9 @@ public class Graph {
    * @return A list of all edges going from node u to node v.
    */
   public List<Edge> getEdges(Node u, Node v) {
+    Map<Node, List<Edge>> index = targetIndex(u);
+    if (index != null)
+      return new ArrayList<>(index.getOrDefault(v, List.of()));
     List<Edge> edges = new ArrayList<>();
     for (Edge edge : ael.get(u)) {
       if (edge.to().equals(v))
@@ -860,6 +1404,21 @@ public class Graph {
     return allEdges;
   }
 
+  /**
+   * Performs an action on every edge of the graph, in the order of
+   * {@link #getAllEdges()}.
+   * 
+   * @param action The action, given the source, target and weight (0 if
+   *               unweighted) of every edge.
+   */
+  @Override
+  public void forEachEdge(EdgeConsumer action) {
+    for (List<Edge> edges : ael.values()) {
+      for (Edge e : edges)
+        action.accept(e.from().getId(), e.to().getId(), e.isWeighted() ? e.getWeight() : 0);
+    }
+  }
+
   /** Graph representation & transformation **/
 
   /**
@@ -945,6 +1504,43 @@ public class Graph {
     return closure;
   }
 
+  /**
+   * Know if this is directed, which is the case of Graph but not of its
+   * undirected subclass.
+   * 
+   * @return True if directed, false otherwise.
+   */
+  @Override
+  public boolean isDirected() {
+    return true;
+  }
+
+  /**
+   * Know if this is weighted (i.e. it has at least one weighted edge) or not.
+   * 
+   * @return True if weighted, false otherwise.
+   */
+  @Override
+  public boolean isWeighted() {
+    for (List<Edge> edges : ael.values()) {
+      for (Edge edge : edges) {
+        if (edge.isWeighted())
+          return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Know if this can be modified, which is always the case of a Graph.
+   * 
+   * @return True.
+   */
+  @Override
+  public boolean isMutable() {
+    return true;
+  }
+
   /**
    * Know if this is a multi-graph (i.e. it has at least one multi-edge) or not.
    * 
@@ -992,29 +1588,27 @@ public class Graph {
    * @return A simple graph from this in a new graph.
    */
   public Graph toSimpleGraph() {
-    Graph simpleGraph = new Graph();
-
-    for (Node n : getAllNodes()) {
-      simpleGraph.addNode(n.getId());
-    }
-
-    for (Node u : getAllNodes()) {
-      Set<Integer> targets = new HashSet<>();
-
-      for (Edge e : ael.getOrDefault(u, List.of())) {
-        int fromId = e.from().getId();
-        int toId = e.to().getId();
-
-        if (fromId == toId || !targets.add(toId))
-          continue;
+    return simpleGraphBuilder(true).build();
+  }
 
-        simpleGraph.addEdge(
-            simpleGraph.getNode(fromId),
-            simpleGraph.getNode(toId));
+  /**
+   * Gets a builder holding the nodes and edges of this, which drops self-loops
+   * and multi-edges.
+   *
+   * @param directed Whether the graph to build is directed.
+   * @return The builder.
+   */
+  GraphBuilder simpleGraphBuilder(boolean directed) {
+    GraphBuilder builder = new GraphBuilder(directed);
+    builder.setRemoveSelfLoops(true);
+    builder.setRemoveMultiEdges(true);
+    for (Map.Entry<Node, List<Edge>> entry : ael.entrySet()) {
+      builder.addNode(entry.getKey().getId());
+      for (Edge e : entry.getValue()) {
+        builder.addEdge(e.from().getId(), e.to().getId());
       }
     }
-
-    return simpleGraph;
+    return builder;
   }
 
   /**
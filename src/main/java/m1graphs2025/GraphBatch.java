@@ -0,0 +1,272 @@
+package m1graphs2025;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * A class GraphBatch, buffers mutations of a {@link Graph}, obtained from
+ * {@link Graph#batch()}, to apply them all at once.
+ * Mutations are logged as node ids in primitive growable arrays, and nothing
+ * is looked up until {@link #commit()}, which leaves the graph as if they had
+ * been applied one by one, in order, while doing the work once:
+ * <ul>
+ * <li>the removed nodes and all their incident edges go in a single sweep over
+ * the edge lists;</li>
+ * <li>the edge mutations are grouped by source node, so that every edited edge
+ * list is filtered once, appended to once and has its index rebuilt once;</li>
+ * <li>edge mutations undone by a later mutation of the batch, such as an edge
+ * added then removed, or an edge whose end is removed later on, are
+ * dropped.</li>
+ * </ul>
+ * Unlike the methods of the graph, edges create their missing nodes whether
+ * weighted or not. In the undirected case, removals keep their orientation as
+ * {@link UndirectedGraph#removeEdge(Node, Node)} does: removing u-v leaves the
+ * edges added as v-u.
+ */
+public final class GraphBatch {
+  private static final byte ADD_NODE = 0;
+  private static final byte REMOVE_NODE = 1;
+  private static final byte ADD_EDGE = 2;
+  private static final byte ADD_WEIGHTED_EDGE = 3;
+  private static final byte REMOVE_EDGE = 4;
+  private static final byte REMOVE_WEIGHTED_EDGE = 5;
+
+  private final Graph graph;
+  private byte[] kinds = new byte[16];
+  private int[] froms = new int[16];
+  private int[] tos = new int[16];
+  private int[] weights = new int[16];
+  private int size = 0;
+  private int[] liveEdges;
+
+  GraphBatch(Graph graph) {
+    this.graph = graph;
+  }
+
+  /**
+   * Gets the graph the batch applies to.
+   * @return this.graph
+   */
+  public Graph getGraph() {
+    return graph;
+  }
+
+  /**
+   * Know the number of mutations waiting for {@link #commit()}.
+   * @return The number of mutations logged.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Logs the addition of a node.
+   * @param id Node id.
+   */
+  public void addNode(int id) {
+    log(ADD_NODE, id, 0, 0);
+  }
+
+  /**
+   * Logs the removal of a node, and of its incident edges.
+   * @param id Node id.
+   */
+  public void removeNode(int id) {
+    log(REMOVE_NODE, id, 0, 0);
+  }
+
+  /**
+   * Logs the addition of an edge, its nodes being created if missing.
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   */
+  public void addEdge(int fromId, int toId) {
+    log(ADD_EDGE, fromId, toId, 0);
+  }
+
+  /**
+   * Logs the addition of an edge with specified weight, its nodes being
+   * created if missing.
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   * @param weight Edge weight.
+   */
+  public void addEdge(int fromId, int toId, int weight) {
+    log(ADD_WEIGHTED_EDGE, fromId, toId, weight);
+  }
+
+  /**
+   * Logs the removal of all the edges between two nodes.
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   */
+  public void removeEdge(int fromId, int toId) {
+    log(REMOVE_EDGE, fromId, toId, 0);
+  }
+
+  /**
+   * Logs the removal of all the edges with specified weight between two nodes.
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   * @param weight Edge weight.
+   */
+  public void removeEdge(int fromId, int toId, int weight) {
+    log(REMOVE_WEIGHTED_EDGE, fromId, toId, weight);
+  }
+
+  /**
+   * Drops the logged mutations without applying them.
+   */
+  public void clear() {
+    size = 0;
+  }
+
+  /**
+   * Applies the logged mutations to the graph, after which the batch is empty
+   * and can be filled again. The change listeners of the graph receive the
+   * changes actually made before the method returns.
+   */
+  public void commit() {
+    // Last removal of every removed node, by increasing id
+    long[] removals = new long[size];
+    int count = 0;
+    for (int i = 0; i < size; i++) {
+      if (kinds[i] == REMOVE_NODE)
+        removals[count++] = (long) froms[i] << 32 | i;
+    }
+    Arrays.sort(removals, 0, count);
+    int[] removedIds = new int[count];
+    int[] removedAt = new int[count];
+    int removed = 0;
+    for (int k = 0; k < count; k++) {
+      int id = (int) (removals[k] >> 32);
+      if (removed > 0 && removedIds[removed - 1] == id)
+        removed--;
+      removedIds[removed] = id;
+      removedAt[removed++] = (int) removals[k];
+    }
+    removedIds = Arrays.copyOf(removedIds, removed);
+    removedAt = Arrays.copyOf(removedAt, removed);
+    graph.removeNodes(removedIds);
+
+    // Nodes added after their last removal, and the edges outliving their ends
+    int[] live = new int[size];
+    int liveCount = 0;
+    for (int i = 0; i < size; i++) {
+      byte kind = kinds[i];
+      if (kind == REMOVE_NODE)
+        continue;
+      boolean fromAlive = i > lastRemoval(froms[i], removedIds, removedAt);
+      if (kind == ADD_NODE) {
+        if (fromAlive)
+          graph.addNode(froms[i]);
+        continue;
+      }
+      boolean toAlive = i > lastRemoval(tos[i], removedIds, removedAt);
+      if (kind == ADD_EDGE || kind == ADD_WEIGHTED_EDGE) {
+        if (fromAlive)
+          graph.addNode(froms[i]);
+        if (toAlive)
+          graph.addNode(tos[i]);
+      }
+      if (fromAlive && toAlive)
+        live[liveCount++] = i;
+    }
+    liveEdges = Arrays.copyOf(live, liveCount);
+    try {
+      graph.commitEdges(this);
+    } finally {
+      liveEdges = null;
+      size = 0;
+    }
+    graph.flushChanges();
+  }
+
+  /**
+   * Applies the live edge mutations to the edge lists of g, grouped by source,
+   * every edge being taken backwards if reversed.
+   * @param g        The graph, or the reverse graph of an undirected graph.
+   * @param reversed Whether edges are stored backwards in g.
+   */
+  void applyEdges(Graph g, boolean reversed) {
+    // Mutations by source, then in order
+    long[] keys = new long[liveEdges.length];
+    for (int k = 0; k < keys.length; k++) {
+      int i = liveEdges[k];
+      keys[k] = (long) (reversed ? tos[i] : froms[i]) << 32 | k;
+    }
+    Arrays.sort(keys);
+
+    Set<Integer> cut = new HashSet<>();
+    Set<Long> cutWeighted = new HashSet<>();
+    List<Edge> added = new ArrayList<>();
+    for (int end = keys.length; end > 0;) {
+      int source = (int) (keys[end - 1] >> 32);
+      Node u = g.getNode(source);
+      cut.clear();
+      cutWeighted.clear();
+      added.clear();
+      // Backwards, so that the removals seen are the ones after the edge
+      for (; end > 0 && (int) (keys[end - 1] >> 32) == source; end--) {
+        int i = liveEdges[(int) keys[end - 1]];
+        int target = reversed ? froms[i] : tos[i];
+        switch (kinds[i]) {
+          case REMOVE_EDGE:
+            cut.add(target);
+            break;
+          case REMOVE_WEIGHTED_EDGE:
+            cutWeighted.add(pair(target, weights[i]));
+            break;
+          case ADD_EDGE:
+            if (!cut.contains(target))
+              added.add(new Edge(u, g.getNode(target)));
+            break;
+          default:
+            if (!cut.contains(target) && !cutWeighted.contains(pair(target, weights[i])))
+              added.add(new Edge(u, g.getNode(target), weights[i]));
+        }
+      }
+      if (u == null)
+        continue; // Removals only, from a missing node
+      Collections.reverse(added);
+      Predicate<Edge> removed = null;
+      if (!cut.isEmpty() || !cutWeighted.isEmpty()) {
+        removed = edge -> cut.contains(edge.to().getId())
+            || edge.isWeighted() && cutWeighted.contains(pair(edge.to().getId(), edge.getWeight()));
+      }
+      g.editOutEdges(u, removed, added);
+    }
+  }
+
+  private static long pair(int target, int weight) {
+    return (long) target << 32 | (weight & 0xffffffffL);
+  }
+
+  /**
+   * Gets the position in the log of the last removal of node id.
+   * @return The position, or -1 if the node is not removed.
+   */
+  private static int lastRemoval(int id, int[] removedIds, int[] removedAt) {
+    int k = Arrays.binarySearch(removedIds, id);
+    return k < 0 ? -1 : removedAt[k];
+  }
+
+  private void log(byte kind, int fromId, int toId, int weight) {
+    if (size == kinds.length) {
+      int capacity = size + (size >> 1) + 16;
+      kinds = Arrays.copyOf(kinds, capacity);
+      froms = Arrays.copyOf(froms, capacity);
+      tos = Arrays.copyOf(tos, capacity);
+      weights = Arrays.copyOf(weights, capacity);
+    }
+    kinds[size] = kind;
+    froms[size] = fromId;
+    tos[size] = toId;
+    weights[size++] = weight;
+  }
+}
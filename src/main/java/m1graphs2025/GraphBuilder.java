@@ -0,0 +1,476 @@
+package m1graphs2025;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
+import java.util.stream.IntStream;
+
+/**
+ * A class GraphBuilder, loads large graphs in bulk.
+ * Edges are collected as node ids into primitive growable arrays, possibly by
+ * several threads each filling its own {@link EdgeBuffer}, and the adjacency
+ * is built once at the end:
+ * <ul>
+ * <li>node ids are renumbered with dense indices by increasing id, through a
+ * lookup table when they are dense enough and a parallel sort otherwise;</li>
+ * <li>self-loops and multi-edges are optionally dropped, the first edge added
+ * between two nodes being kept;</li>
+ * <li>the arcs are grouped by source with a stable counting sort, whose
+ * histograms, prefix sums and placement all run in parallel.</li>
+ * </ul>
+ * Edge ids follow the order of {@link Graph#getAllEdges()} in the built graph,
+ * i.e. by source node, then by order of addition. If any edge is given a
+ * weight, the graph is weighted and the edges added without one weigh 0.
+ */
+public final class GraphBuilder {
+  private final boolean directed;
+  private final List<EdgeBuffer> buffers = new ArrayList<>();
+  private final EdgeBuffer buffer;
+  private boolean removeSelfLoops = false;
+  private boolean removeMultiEdges = false;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * GraphBuilder constructor.
+   * @param directed Whether to build a directed graph or an
+   *                 {@link UndirectedGraph}.
+   */
+  public GraphBuilder(boolean directed) {
+    this.directed = directed;
+    this.buffer = buffer();
+  }
+
+  /**
+   * Sets whether self-loops are dropped, false by default.
+   */
+  public void setRemoveSelfLoops(boolean removeSelfLoops) {
+    this.removeSelfLoops = removeSelfLoops;
+  }
+
+  /**
+   * Sets whether multi-edges are dropped, false by default. In the undirected
+   * case, u-v and v-u are the same edge.
+   */
+  public void setRemoveMultiEdges(boolean removeMultiEdges) {
+    this.removeMultiEdges = removeMultiEdges;
+  }
+
+  /**
+   * Sets the pool building the adjacency, the common pool by default.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Gets a new buffer whose edges will be part of the graph. Every thread
+   * adding edges concurrently must use its own buffer.
+   * @return A new empty buffer.
+   */
+  public synchronized EdgeBuffer buffer() {
+    EdgeBuffer b = new EdgeBuffer();
+    buffers.add(b);
+    return b;
+  }
+
+  /**
+   * Adds a node, which is useful for isolated nodes only, to the default
+   * buffer.
+   * @param id Node id.
+   */
+  public void addNode(int id) {
+    buffer.addNode(id);
+  }
+
+  /**
+   * Adds an edge to the default buffer, its nodes being created when the graph
+   * is built.
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   */
+  public void addEdge(int fromId, int toId) {
+    buffer.addEdge(fromId, toId);
+  }
+
+  /**
+   * Adds an edge with specified weight to the default buffer.
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   * @param weight Edge weight.
+   */
+  public void addEdge(int fromId, int toId, int weight) {
+    buffer.addEdge(fromId, toId, weight);
+  }
+
+  /**
+   * Builds the CSR snapshot of the collected graph, without any edge instance.
+   * @return The snapshot.
+   */
+  public CompactGraph buildCompact() {
+    return pool.submit(() -> {
+      Edges edges = prepare();
+      int n = edges.nodeIds.length;
+      int m = edges.sources.length;
+      if (directed) {
+        int[] arcEdges = new int[m];
+        Arrays.parallelSetAll(arcEdges, e -> e);
+        return new CompactGraph(true, edges.weighted, edges.nodeIds, edges.sources, edges.targets,
+            edges.weights, edges.offsets, edges.targets, arcEdges);
+      }
+
+      // Arc 2e runs along edge e and arc 2e + 1 against it, self-loops keeping one arc
+      int[] offsets = new int[n + 1];
+      int[] arcs = group(n, 2 * m, a -> {
+        int e = a >> 1;
+        if ((a & 1) == 0)
+          return edges.sources[e];
+        return edges.sources[e] == edges.targets[e] ? -1 : edges.targets[e];
+      }, offsets);
+      int[] targets = new int[arcs.length];
+      int[] arcEdges = new int[arcs.length];
+      IntStream.range(0, arcs.length).parallel().forEach(i -> {
+        int e = arcs[i] >> 1;
+        arcEdges[i] = e;
+        targets[i] = (arcs[i] & 1) == 0 ? edges.targets[e] : edges.sources[e];
+      });
+      return new CompactGraph(false, edges.weighted, edges.nodeIds, edges.sources, edges.targets,
+          edges.weights, offsets, targets, arcEdges);
+    }).join();
+  }
+
+  /**
+   * Builds the collected graph, a {@link Graph} in the directed case and an
+   * {@link UndirectedGraph} otherwise. Nodes are given their default names.
+   * @return The graph.
+   */
+  public Graph build() {
+    return pool.submit(() -> {
+      Edges edges = prepare();
+      int n = edges.nodeIds.length;
+      int m = edges.sources.length;
+      Graph g = directed ? new Graph() : new UndirectedGraph();
+      Node[] nodes = new Node[n];
+      Arrays.parallelSetAll(nodes, u -> new Node(edges.nodeIds[u], g));
+      List<List<Edge>> out = new ArrayList<>(Collections.nCopies(n, null));
+      IntStream.range(0, n).parallel().forEach(u -> {
+        List<Edge> list = new ArrayList<>(edges.offsets[u + 1] - edges.offsets[u]);
+        for (int e = edges.offsets[u]; e < edges.offsets[u + 1]; e++) {
+          list.add(edges.edge(nodes, u, edges.targets[e], e));
+        }
+        out.set(u, list);
+      });
+      if (directed) {
+        g.load(nodes, out, m);
+        return g;
+      }
+
+      // The reverse graph of an undirected graph holds every edge backwards
+      int[] offsets = new int[n + 1];
+      int[] byTarget = group(n, m, e -> edges.targets[e], offsets);
+      List<List<Edge>> in = new ArrayList<>(Collections.nCopies(n, null));
+      IntStream.range(0, n).parallel().forEach(v -> {
+        List<Edge> list = new ArrayList<>(offsets[v + 1] - offsets[v]);
+        for (int i = offsets[v]; i < offsets[v + 1]; i++) {
+          int e = byTarget[i];
+          list.add(edges.edge(nodes, v, edges.sources[e], e));
+        }
+        in.set(v, list);
+      });
+      ((UndirectedGraph) g).load(nodes, out, in, m);
+      return g;
+    }).join();
+  }
+
+  /**
+   * Gathers the buffers, renumbers the nodes, drops the unwanted edges and
+   * sorts the others by source.
+   */
+  private Edges prepare() {
+    int m = 0;
+    int nodeCount = 0;
+    for (EdgeBuffer b : buffers) {
+      m = Math.addExact(m, b.size);
+      nodeCount = Math.addExact(nodeCount, b.nodeCount);
+    }
+    if (!directed && m > Integer.MAX_VALUE / 2)
+      throw new GraphExceptions("Too many edges for an undirected graph");
+    int[] sources = new int[m];
+    int[] targets = new int[m];
+    int[] ids = new int[nodeCount];
+    boolean weighted = false;
+    for (EdgeBuffer b : buffers) {
+      weighted |= b.weights != null;
+    }
+    int[] weights = weighted ? new int[m] : null;
+    int e = 0;
+    int k = 0;
+    for (EdgeBuffer b : buffers) {
+      System.arraycopy(b.sources, 0, sources, e, b.size);
+      System.arraycopy(b.targets, 0, targets, e, b.size);
+      if (b.weights != null)
+        System.arraycopy(b.weights, 0, weights, e, b.size);
+      System.arraycopy(b.nodes, 0, ids, k, b.nodeCount);
+      e += b.size;
+      k += b.nodeCount;
+    }
+
+    int[] nodeIds = renumber(sources, targets, ids);
+    int n = nodeIds.length;
+    int[] kept = null;
+    if (removeSelfLoops)
+      kept = IntStream.range(0, m).parallel().filter(i -> sources[i] != targets[i]).toArray();
+    if (removeMultiEdges)
+      kept = firstEdges(n, sources, targets, kept);
+
+    // Stable counting sort by source, which gives the final edge ids
+    int[] order = kept;
+    int size = kept == null ? m : kept.length;
+    int[] offsets = new int[n + 1];
+    int[] byEdge = group(n, size, i -> sources[order == null ? i : order[i]], offsets);
+    int[] sortedSources = new int[size];
+    int[] sortedTargets = new int[size];
+    int[] sortedWeights = new int[size];
+    IntStream.range(0, n).parallel().forEach(u -> Arrays.fill(sortedSources, offsets[u], offsets[u + 1], u));
+    IntStream.range(0, size).parallel().forEach(i -> {
+      int f = order == null ? byEdge[i] : order[byEdge[i]];
+      sortedTargets[i] = targets[f];
+      if (weights != null)
+        sortedWeights[i] = weights[f];
+    });
+    return new Edges(nodeIds, sortedSources, sortedTargets, sortedWeights, weighted, offsets);
+  }
+
+  /**
+   * Replaces in place the node ids of the edge ends by their dense indices.
+   * @return The sorted distinct node ids, of the edges and of the isolated
+   *         nodes.
+   */
+  private static int[] renumber(int[] sources, int[] targets, int[] ids) {
+    int m = sources.length;
+    if (m == 0 && ids.length == 0)
+      return new int[0];
+    long min = Long.MAX_VALUE;
+    long max = Long.MIN_VALUE;
+    for (int[] a : new int[][] { sources, targets, ids }) {
+      if (a.length > 0) {
+        min = Math.min(min, IntStream.of(a).parallel().min().getAsInt());
+        max = Math.max(max, IntStream.of(a).parallel().max().getAsInt());
+      }
+    }
+    long range = max - min + 1;
+    long total = 2L * m + ids.length;
+    int[] nodeIds;
+    IntUnaryOperator indexOf;
+    if (range <= 2 * total + 1024 && range < Integer.MAX_VALUE) {
+      // Dense ids: a presence table, numbered by a prefix sum
+      int base = (int) min;
+      int[] index = new int[(int) range + 1];
+      IntStream.range(0, m).parallel().forEach(i -> {
+        index[sources[i] - base + 1] = 1;
+        index[targets[i] - base + 1] = 1;
+      });
+      for (int id : ids) {
+        index[id - base + 1] = 1;
+      }
+      nodeIds = IntStream.range(0, (int) range).parallel().filter(i -> index[i + 1] == 1).map(i -> i + base)
+          .toArray();
+      Arrays.parallelPrefix(index, Integer::sum);
+      indexOf = id -> index[id - base];
+    } else {
+      int[] all = new int[(int) total];
+      System.arraycopy(sources, 0, all, 0, m);
+      System.arraycopy(targets, 0, all, m, m);
+      System.arraycopy(ids, 0, all, 2 * m, ids.length);
+      Arrays.parallelSort(all);
+      nodeIds = IntStream.range(0, all.length).parallel().filter(i -> i == 0 || all[i] != all[i - 1])
+          .map(i -> all[i]).toArray();
+      int[] sorted = nodeIds;
+      indexOf = id -> Arrays.binarySearch(sorted, id);
+    }
+    IntStream.range(0, m).parallel().forEach(i -> {
+      sources[i] = indexOf.applyAsInt(sources[i]);
+      targets[i] = indexOf.applyAsInt(targets[i]);
+    });
+    return nodeIds;
+  }
+
+  /**
+   * Keeps the first of the edges joining the same nodes, among the kept ones
+   * or all of them when kept is null.
+   * @return The positions of the edges left, increasing.
+   */
+  private int[] firstEdges(int n, int[] sources, int[] targets, int[] kept) {
+    int size = kept == null ? sources.length : kept.length;
+    int[] offsets = new int[n + 1];
+    int[] byEnd = group(n, size, i -> {
+      int f = kept == null ? i : kept[i];
+      return directed ? sources[f] : Math.min(sources[f], targets[f]);
+    }, offsets);
+    boolean[] first = new boolean[size];
+    IntStream.range(0, n).parallel().forEach(u -> {
+      int from = offsets[u];
+      int to = offsets[u + 1];
+      long[] keys = new long[to - from];
+      for (int i = from; i < to; i++) {
+        int f = kept == null ? byEnd[i] : kept[byEnd[i]];
+        int other = directed ? targets[f] : Math.max(sources[f], targets[f]);
+        keys[i - from] = (long) other << 32 | byEnd[i];
+      }
+      Arrays.sort(keys);
+      for (int i = 0; i < keys.length; i++) {
+        if (i == 0 || keys[i] >>> 32 != keys[i - 1] >>> 32)
+          first[(int) keys[i]] = true;
+      }
+    });
+    return IntStream.range(0, size).parallel().filter(i -> first[i]).map(i -> kept == null ? i : kept[i])
+        .toArray();
+  }
+
+  /**
+   * Groups the items 0..count-1 by key, in [0, n) or -1 for the items to skip,
+   * with a stable counting sort: the items are cut into chunks, each counting
+   * its keys in its own histogram, prefix sums over the histograms give every
+   * chunk its positions in every group, and the chunks are then placed in
+   * parallel. There are at most count / n chunks, so that the histograms take
+   * no more room than the items.
+   * @param offsets Array of length n + 1, receiving the start of every group.
+   * @return The items by increasing key, then increasing item.
+   */
+  private int[] group(int n, int count, IntUnaryOperator key, int[] offsets) {
+    int chunks = (int) Math.max(1, Math.min(4L * pool.getParallelism(), count / (n + 1L)));
+    long chunkSize = (count + chunks - 1L) / chunks;
+    int[][] positions = new int[chunks][n];
+    IntStream.range(0, chunks).parallel().forEach(c -> {
+      int[] histogram = positions[c];
+      int to = (int) Math.min(count, (c + 1) * chunkSize);
+      for (int i = (int) (c * chunkSize); i < to; i++) {
+        int k = key.applyAsInt(i);
+        if (k >= 0)
+          histogram[k]++;
+      }
+    });
+    IntStream.range(0, n).parallel().forEach(u -> {
+      int total = 0;
+      for (int[] histogram : positions) {
+        total += histogram[u];
+      }
+      offsets[u + 1] = total;
+    });
+    Arrays.parallelPrefix(offsets, Integer::sum);
+    IntStream.range(0, n).parallel().forEach(u -> {
+      int position = offsets[u];
+      for (int[] histogram : positions) {
+        int size = histogram[u];
+        histogram[u] = position;
+        position += size;
+      }
+    });
+    int[] items = new int[offsets[n]];
+    IntStream.range(0, chunks).parallel().forEach(c -> {
+      int[] cursors = positions[c];
+      int to = (int) Math.min(count, (c + 1) * chunkSize);
+      for (int i = (int) (c * chunkSize); i < to; i++) {
+        int k = key.applyAsInt(i);
+        if (k >= 0)
+          items[cursors[k]++] = i;
+      }
+    });
+    return items;
+  }
+
+  /**
+   * The edges once prepared: dense node indices, sorted by source, and the
+   * offsets of every source.
+   */
+  private static final class Edges {
+    private final int[] nodeIds;
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] weights;
+    private final boolean weighted;
+    private final int[] offsets;
+
+    Edges(int[] nodeIds, int[] sources, int[] targets, int[] weights, boolean weighted, int[] offsets) {
+      this.nodeIds = nodeIds;
+      this.sources = sources;
+      this.targets = targets;
+      this.weights = weights;
+      this.weighted = weighted;
+      this.offsets = offsets;
+    }
+
+    Edge edge(Node[] nodes, int from, int to, int e) {
+      return weighted ? new Edge(nodes[from], nodes[to], weights[e]) : new Edge(nodes[from], nodes[to]);
+    }
+  }
+
+  /**
+   * A buffer collecting edges and nodes as primitive growable arrays, to be
+   * filled by one thread at a time.
+   */
+  public static final class EdgeBuffer {
+    private int[] sources = new int[16];
+    private int[] targets = new int[16];
+    private int[] weights = null;
+    private int size = 0;
+    private int[] nodes = new int[0];
+    private int nodeCount = 0;
+
+    private EdgeBuffer() {
+    }
+
+    /**
+     * Adds a node, which is useful for isolated nodes only.
+     * @param id Node id.
+     */
+    public void addNode(int id) {
+      if (nodeCount == nodes.length)
+        nodes = Arrays.copyOf(nodes, Math.max(16, 2 * nodeCount));
+      nodes[nodeCount++] = id;
+    }
+
+    /**
+     * Adds an edge, its nodes being created when the graph is built.
+     * @param fromId Source node id.
+     * @param toId   Target node id.
+     */
+    public void addEdge(int fromId, int toId) {
+      if (size == sources.length)
+        grow();
+      sources[size] = fromId;
+      targets[size++] = toId;
+    }
+
+    /**
+     * Adds an edge with specified weight.
+     * @param fromId Source node id.
+     * @param toId   Target node id.
+     * @param weight Edge weight.
+     */
+    public void addEdge(int fromId, int toId, int weight) {
+      if (weights == null)
+        weights = new int[sources.length];
+      addEdge(fromId, toId);
+      weights[size - 1] = weight;
+    }
+
+    /**
+     * Know the number of edges in the buffer.
+     * @return The number of edges added.
+     */
+    public int size() {
+      return size;
+    }
+
+    private void grow() {
+      int capacity = size + (size >> 1) + 16;
+      sources = Arrays.copyOf(sources, capacity);
+      targets = Arrays.copyOf(targets, capacity);
+      if (weights != null)
+        weights = Arrays.copyOf(weights, capacity);
+    }
+  }
+}
@@ -0,0 +1,299 @@
+package m1graphs2025;
+
+import java.util.Arrays;
+
+/**
+ * An interface GraphStore, codes the storage of a graph whose nodes are known
+ * by their ids only, so that the same code runs over any backend:
+ * {@link Graph} and its subclasses, or any other storage.
+ * Capability flags tell what a backend holds and allows: backends that are not
+ * mutable throw an UnsupportedOperationException from the write methods.
+ * In the undirected case, every edge is reported from both of its ends by
+ * {@link #forEachOutEdge(int, EdgeConsumer)} but only once by
+ * {@link #forEachEdge(EdgeConsumer)}.
+ * Unweighted edges are reported with a weight of 0.
+ * {@link CompactGraph#of(GraphStore)} snapshots any backend for the algorithms.
+ */
+public interface GraphStore {
+
+  /**
+   * An action on the edges of a graph store.
+   */
+  @FunctionalInterface
+  interface EdgeConsumer {
+    /**
+     * Performs the action on an edge.
+     * @param fromId Source node id.
+     * @param toId   Target node id.
+     * @param weight Edge weight, 0 for unweighted edges.
+     */
+    void accept(int fromId, int toId, int weight);
+  }
+
+  /**
+   * A cursor over the edges leaving a node, read one at a time, so that
+   * backends can decode their edges on the fly.
+   */
+  interface NeighborCursor {
+    /**
+     * Moves to the next edge.
+     * @return True if there is one, false once every edge was seen.
+     */
+    boolean next();
+
+    /**
+     * Gets the target node id of the current edge.
+     * @return The target id.
+     */
+    int target();
+
+    /**
+     * Gets the weight of the current edge.
+     * @return The weight, 0 for unweighted edges.
+     */
+    int weight();
+  }
+
+  /* Capabilities */
+
+  /**
+   * Know whether the graph is directed.
+   * @return True if directed, false if undirected.
+   */
+  boolean isDirected();
+
+  /**
+   * Know whether the edges of the graph carry weights.
+   * @return True if weighted, false otherwise.
+   */
+  boolean isWeighted();
+
+  /**
+   * Know whether the graph has multi-edges.
+   * @return True if it is a multi-graph, false otherwise.
+   */
+  boolean isMultiGraph();
+
+  /**
+   * Know whether the graph can be modified through the write methods.
+   * @return True if mutable, false otherwise.
+   */
+  boolean isMutable();
+
+  /* Read */
+
+  /**
+   * Know the number of nodes.
+   * @return The number of nodes.
+   */
+  int nbNodes();
+
+  /**
+   * Know the number of edges.
+   * @return The number of edges.
+   */
+  int nbEdges();
+
+  /**
+   * Know if node id is used in this graph.
+   * @param id Target node id.
+   * @return True if the node id exists, false otherwise.
+   */
+  boolean usesNode(int id);
+
+  /**
+   * Gets the ids of all the nodes.
+   * @return A new array of the node ids, by increasing id.
+   */
+  int[] getNodeIds();
+
+  /**
+   * Know the out-degree of the node with specified id.
+   * @param id Node id.
+   * @return The number of edges leaving the node.
+   */
+  int outDegree(int id);
+
+  /**
+   * Know the in-degree of the node with specified id.
+   * @param id Node id.
+   * @return The number of edges entering the node.
+   */
+  int inDegree(int id);
+
+  /**
+   * Know whether an edge exists between the nodes with specified ids.
+   * @param uId Source node id.
+   * @param vId Target node id.
+   * @return True if it exists, false otherwise.
+   */
+  boolean existsEdge(int uId, int vId);
+
+  /**
+   * Performs an action on every edge leaving the node with specified id, which
+   * is the source given to the action.
+   * @param id     Source node id.
+   * @param action The action.
+   */
+  void forEachOutEdge(int id, EdgeConsumer action);
+
+  /**
+   * Performs an action on every edge of the graph, once each, by source node.
+   * @param action The action.
+   */
+  void forEachEdge(EdgeConsumer action);
+
+  /* Write */
+
+  /**
+   * Add a node to the graph.
+   * @param id Target node id.
+   * @return True if node was added, false otherwise.
+   */
+  boolean addNode(int id);
+
+  /**
+   * Remove a node and its incident edges from the graph, if it exists.
+   * @param id Target node id.
+   * @return True if node was removed, false otherwise.
+   */
+  boolean removeNode(int id);
+
+  /**
+   * Adds an edge between the nodes with specified ids.
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   */
+  void addEdge(int fromId, int toId);
+
+  /**
+   * Adds an edge with specified weight between the nodes with specified ids.
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   * @param weight Edge weight.
+   */
+  void addEdge(int fromId, int toId, int weight);
+
+  /**
+   * Removes the edges between the nodes with specified ids.
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   * @return True if an edge was removed, false otherwise.
+   */
+  boolean removeEdge(int fromId, int toId);
+
+  /* Shared code */
+
+  /**
+   * Gets a cursor over the edges leaving the node with specified id, in the
+   * order of {@link #forEachOutEdge(int, EdgeConsumer)}.
+   * By default the edges are first gathered into arrays.
+   * @param id Source node id.
+   * @return A new cursor, before the first edge.
+   */
+  default NeighborCursor neighbors(int id) {
+    int[] targets = new int[outDegree(id)];
+    int[] weights = new int[targets.length];
+    int[] size = new int[1];
+    forEachOutEdge(id, (from, to, weight) -> {
+      targets[size[0]] = to;
+      weights[size[0]++] = weight;
+    });
+    return new NeighborCursor() {
+      private int i = -1;
+
+      @Override
+      public boolean next() {
+        return ++i < size[0];
+      }
+
+      @Override
+      public int target() {
+        return targets[i];
+      }
+
+      @Override
+      public int weight() {
+        return weights[i];
+      }
+    };
+  }
+
+  /**
+   * Gets the ids of the successors of the node with specified id, with
+   * duplicates in the case of a multigraph.
+   * @param id Source node id.
+   * @return The successor ids, in edge order.
+   */
+  default int[] getSuccessorIds(int id) {
+    int[] ids = new int[outDegree(id)];
+    int[] size = new int[1];
+    forEachOutEdge(id, (from, to, weight) -> ids[size[0]++] = to);
+    return ids;
+  }
+
+  /**
+   * Gets a Breadth-First Search traversal from the node with specified id.
+   * @param id Start node id.
+   * @return The ids of the nodes reached, in visit order.
+   */
+  default int[] getBFSIds(int id) {
+    int[] nodeIds = getNodeIds();
+    int start = Arrays.binarySearch(nodeIds, id);
+    if (start < 0)
+      return new int[0];
+    boolean[] visited = new boolean[nodeIds.length];
+    int[] queue = new int[nodeIds.length];
+    visited[start] = true;
+    queue[0] = id;
+    int[] tail = { 1 };
+    for (int head = 0; head < tail[0]; head++) {
+      forEachOutEdge(queue[head], (from, to, weight) -> {
+        int v = Arrays.binarySearch(nodeIds, to);
+        if (!visited[v]) {
+          visited[v] = true;
+          queue[tail[0]++] = to;
+        }
+      });
+    }
+    return Arrays.copyOf(queue, tail[0]);
+  }
+
+  /**
+   * Copies the nodes and edges of this graph into another store, for example to
+   * load a graph read by {@link Graph#fromDotFile(String)} into another
+   * backend. In a weighted graph, unweighted edges are copied with weight 0.
+   * @param target A mutable store, of the same orientation.
+   */
+  default void copyTo(GraphStore target) {
+    if (target.isDirected() != isDirected())
+      throw new IllegalArgumentException("Cannot copy between directed and undirected graphs");
+    for (int id : getNodeIds())
+      target.addNode(id);
+    boolean weighted = isWeighted();
+    forEachEdge((from, to, weight) -> {
+      if (weighted)
+        target.addEdge(from, to, weight);
+      else
+        target.addEdge(from, to);
+    });
+  }
+
+  /**
+   * Gets the DOT representation of the graph, nodes being named by their ids.
+   * @return The DOT string.
+   */
+  default String toDotString() {
+    StringBuilder sb = new StringBuilder(isDirected() ? "digraph G {\n" : "graph G {\n");
+    String link = isDirected() ? " -> " : " -- ";
+    boolean weighted = isWeighted();
+    forEachEdge((from, to, weight) -> {
+      sb.append("  ").append(from).append(link).append(to);
+      if (weighted)
+        sb.append(" [weight=").append(weight).append(", label=").append(weight).append("]");
+      sb.append(";\n");
+    });
+    sb.append("}\n");
+    return sb.toString();
+  }
+}
@@ -0,0 +1,159 @@
+package m1graphs2025;
+
+import java.util.Arrays;
+
+/**
+ * A class IndexedMinHeap, codes a binary min-heap of the integers 0..capacity-1
+ * keyed by long values, stored in primitive arrays.
+ * Knowing the position of every element in the heap allows decreasing its key
+ * in O(log n), as needed by Prim's and Dijkstra's algorithms.
+ */
+public class IndexedMinHeap {
+  private final int[] heap;
+  private final int[] position;
+  private final long[] keys;
+  private int size;
+
+  /**
+   * Constructor for the class IndexedMinHeap, constructs an empty heap.
+   *
+   * @param capacity Elements must be in 0..capacity-1.
+   */
+  public IndexedMinHeap(int capacity) {
+    this.heap = new int[capacity];
+    this.position = new int[capacity];
+    this.keys = new long[capacity];
+    Arrays.fill(position, -1);
+  }
+
+  /**
+   * Know whether the heap is empty.
+   *
+   * @return True if empty, false otherwise.
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * Know the number of elements in the heap.
+   *
+   * @return The number of elements.
+   */
+  public int size() {
+    return size;
+  }
+
+  /**
+   * Know whether element i is in the heap.
+   *
+   * @param i Target element.
+   * @return True if i is in the heap, false otherwise.
+   */
+  public boolean contains(int i) {
+    return position[i] >= 0;
+  }
+
+  /**
+   * Gets the key of element i, valid while it is in the heap.
+   *
+   * @param i Target element.
+   * @return The key of i.
+   */
+  public long key(int i) {
+    return keys[i];
+  }
+
+  /**
+   * Inserts element i with the specified key, or lowers its key if it is
+   * already in the heap with a greater one.
+   *
+   * @param i   Target element.
+   * @param key New key.
+   * @return True if i was inserted or its key lowered, false otherwise.
+   */
+  public boolean offer(int i, long key) {
+    if (position[i] < 0) {
+      keys[i] = key;
+      heap[size] = i;
+      position[i] = size;
+      siftUp(size++);
+      return true;
+    }
+    if (key >= keys[i])
+      return false;
+    keys[i] = key;
+    siftUp(position[i]);
+    return true;
+  }
+
+  /**
+   * Gets the element with the smallest key, without removing it.
+   *
+   * @return The element with the smallest key.
+   */
+  public int peek() {
+    return heap[0];
+  }
+
+  /**
+   * Removes the element with the smallest key.
+   *
+   * @return The element with the smallest key.
+   */
+  public int poll() {
+    int top = heap[0];
+    position[top] = -1;
+    if (--size > 0) {
+      heap[0] = heap[size];
+      position[heap[0]] = 0;
+      siftDown(0);
+    }
+    return top;
+  }
+
+  /**
+   * Removes every element.
+   */
+  public void clear() {
+    for (int k = 0; k < size; k++) {
+      position[heap[k]] = -1;
+    }
+    size = 0;
+  }
+
+  private void siftUp(int k) {
+    int i = heap[k];
+    long key = keys[i];
+    while (k > 0) {
+      int parent = (k - 1) >>> 1;
+      int p = heap[parent];
+      if (keys[p] <= key)
+        break;
+      heap[k] = p;
+      position[p] = k;
+      k = parent;
+    }
+    heap[k] = i;
+    position[i] = k;
+  }
+
+  private void siftDown(int k) {
+    int i = heap[k];
+    long key = keys[i];
+    int half = size >>> 1;
+    while (k < half) {
+      int child = 2 * k + 1;
+      if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]])
+        child++;
+      int c = heap[child];
+      if (key <= keys[c])
+        break;
+      heap[k] = c;
+      position[c] = k;
+      k = child;
+    }
+    heap[k] = i;
+    position[i] = k;
+  }
+}
@@ -0,0 +1,534 @@
+package m1graphs2025;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A class MultiplicityGraph, codes a multigraph in which the parallel edges
+ * between two nodes are not stored one by one but as a single entry holding
+ * their multiplicity, and their weights packed in an int array when the edges
+ * are weighted. Graphs with many parallel edges then take a fraction of the
+ * memory of a {@link Graph}, which holds an {@link Edge} per edge.
+ * Parallel edges are expanded lazily, one by one, by the traversal methods
+ * such as {@link #forEachOutEdge(int, EdgeConsumer)} or
+ * {@link #neighbors(int)}, and on demand by
+ * {@link #getSuccessorsMulti(int)}, {@link #toSuccessorArray()},
+ * {@link #toAdjMatrix()} and {@link #toGraph()}.
+ * Entries are kept in the order their first edge was added, and nodes by
+ * increasing id. An undirected pair shares its entry between both its ends.
+ * Nodes are created as edges need them.
+ */
+public class MultiplicityGraph implements GraphStore {
+  private final boolean directed;
+  private final Map<Integer, Adjacency> nodes = new TreeMap<>();
+  private long edgeCount;
+  private int multiPairs;
+  private int weightedPairs;
+
+  /**
+   * An entry of a node towards one of its neighbours.
+   */
+  private static final class Pair {
+    private final int from;
+    private final int to;
+    private int count;
+    private int[] weights;
+
+    Pair(int from, int to) {
+      this.from = from;
+      this.to = to;
+    }
+
+    int other(int id) {
+      return id == from ? to : from;
+    }
+
+    int weight(int k) {
+      return weights == null ? 0 : weights[k];
+    }
+  }
+
+  /**
+   * The entries of a node, by neighbour id, and its degree.
+   */
+  private static final class Adjacency {
+    private final Map<Integer, Pair> pairs = new LinkedHashMap<>();
+    private long degree;
+  }
+
+  /**
+   * Constructor for the class MultiplicityGraph, constructs an empty graph.
+   *
+   * @param directed Whether the graph is directed.
+   */
+  public MultiplicityGraph(boolean directed) {
+    this.directed = directed;
+  }
+
+  /**
+   * Compresses graph g, an {@link UndirectedGraph} giving an undirected graph.
+   *
+   * @param g The graph to compress.
+   * @return The compressed copy.
+   */
+  public static MultiplicityGraph of(Graph g) {
+    MultiplicityGraph result = new MultiplicityGraph(g.isDirected());
+    g.copyTo(result);
+    return result;
+  }
+
+  /* Capabilities */
+
+  @Override
+  public boolean isDirected() {
+    return directed;
+  }
+
+  @Override
+  public boolean isWeighted() {
+    return weightedPairs > 0;
+  }
+
+  /**
+   * Know if this is a multi-graph, from the number of pairs of multiplicity
+   * above 1 that is kept up to date.
+   *
+   * @return True if it is a multi-graph, false otherwise.
+   */
+  @Override
+  public boolean isMultiGraph() {
+    return multiPairs > 0;
+  }
+
+  @Override
+  public boolean isMutable() {
+    return true;
+  }
+
+  /* Read */
+
+  @Override
+  public int nbNodes() {
+    return nodes.size();
+  }
+
+  /**
+   * Know the number of edges, failing beyond the int range.
+   *
+   * @return The number of edges.
+   * @throws ArithmeticException If there are more than Integer.MAX_VALUE edges.
+   */
+  @Override
+  public int nbEdges() {
+    return Math.toIntExact(edgeCount);
+  }
+
+  /**
+   * Know the number of edges, with no range limit.
+   *
+   * @return The number of edges.
+   */
+  public long getLongEdgeCount() {
+    return edgeCount;
+  }
+
+  /**
+   * Know the number of distinct pairs of nodes joined by edges, that is the
+   * number of entries.
+   *
+   * @return The number of pairs.
+   */
+  public int nbPairs() {
+    int pairs = 0;
+    for (Map.Entry<Integer, Adjacency> entry : nodes.entrySet()) {
+      for (Pair pair : entry.getValue().pairs.values()) {
+        if (pair.from == entry.getKey())
+          pairs++;
+      }
+    }
+    return pairs;
+  }
+
+  @Override
+  public boolean usesNode(int id) {
+    return nodes.containsKey(id);
+  }
+
+  @Override
+  public int[] getNodeIds() {
+    int[] ids = new int[nodes.size()];
+    int i = 0;
+    for (int id : nodes.keySet())
+      ids[i++] = id;
+    return ids;
+  }
+
+  /**
+   * Know the out-degree of the node with specified id, parallel edges
+   * included, and self-loops counted once when undirected.
+   *
+   * @param id Node id.
+   * @return The number of edges leaving the node.
+   */
+  @Override
+  public int outDegree(int id) {
+    Adjacency adjacency = nodes.get(id);
+    return adjacency == null ? 0 : Math.toIntExact(adjacency.degree);
+  }
+
+  @Override
+  public int inDegree(int id) {
+    if (!directed)
+      return outDegree(id);
+    long inDegree = 0;
+    for (Adjacency adjacency : nodes.values()) {
+      Pair pair = adjacency.pairs.get(id);
+      if (pair != null)
+        inDegree += pair.count;
+    }
+    return Math.toIntExact(inDegree);
+  }
+
+  @Override
+  public boolean existsEdge(int uId, int vId) {
+    return countEdges(uId, vId) > 0;
+  }
+
+  /**
+   * Know the number of edges from node with id uId to node with id vId, in
+   * constant time.
+   *
+   * @param uId Source node id.
+   * @param vId Target node id.
+   * @return The multiplicity of the pair, 0 if there is no edge.
+   */
+  public int countEdges(int uId, int vId) {
+    Pair pair = pair(uId, vId);
+    return pair == null ? 0 : pair.count;
+  }
+
+  /**
+   * Know if edge (u, v) is a multi-edge, in constant time.
+   *
+   * @param uId Source node id.
+   * @param vId Target node id.
+   * @return True if there are several edges from u to v, false otherwise.
+   */
+  public boolean isMultiEdge(int uId, int vId) {
+    return countEdges(uId, vId) > 1;
+  }
+
+  /**
+   * Gets the weights of the edges from node with id uId to node with id vId.
+   *
+   * @param uId Source node id.
+   * @param vId Target node id.
+   * @return A new array of the weights, in the order the edges were added, 0
+   *         for unweighted edges.
+   */
+  public int[] getWeights(int uId, int vId) {
+    Pair pair = pair(uId, vId);
+    if (pair == null)
+      return new int[0];
+    return pair.weights == null ? new int[pair.count] : Arrays.copyOf(pair.weights, pair.count);
+  }
+
+  /**
+   * Gets the ids of the successors of node with specified id, without
+   * duplicates.
+   *
+   * @param id Source node id.
+   * @return The successor ids, in the order they were first joined.
+   */
+  public int[] getSuccessors(int id) {
+    Adjacency adjacency = nodes.get(id);
+    if (adjacency == null)
+      return new int[0];
+    int[] successors = new int[adjacency.pairs.size()];
+    int i = 0;
+    for (int v : adjacency.pairs.keySet())
+      successors[i++] = v;
+    return successors;
+  }
+
+  /**
+   * Gets the ids of the successors of node with specified id, each appearing as
+   * many times as it is joined to the node.
+   *
+   * @param id Source node id.
+   * @return The expanded successor ids.
+   */
+  public int[] getSuccessorsMulti(int id) {
+    return getSuccessorIds(id);
+  }
+
+  @Override
+  public void forEachOutEdge(int id, EdgeConsumer action) {
+    Adjacency adjacency = nodes.get(id);
+    if (adjacency == null)
+      return;
+    for (Map.Entry<Integer, Pair> entry : adjacency.pairs.entrySet()) {
+      int v = entry.getKey();
+      Pair pair = entry.getValue();
+      for (int k = 0; k < pair.count; k++)
+        action.accept(id, v, pair.weight(k));
+    }
+  }
+
+  /**
+   * Performs an action on every edge of the graph, by source node. An
+   * undirected edge is reported once, as it was first added.
+   *
+   * @param action The action.
+   */
+  @Override
+  public void forEachEdge(EdgeConsumer action) {
+    for (Map.Entry<Integer, Adjacency> entry : nodes.entrySet()) {
+      int id = entry.getKey();
+      for (Pair pair : entry.getValue().pairs.values()) {
+        if (pair.from != id)
+          continue;
+        for (int k = 0; k < pair.count; k++)
+          action.accept(id, pair.to, pair.weight(k));
+      }
+    }
+  }
+
+  /**
+   * Gets a cursor expanding the edges leaving node with specified id one at a
+   * time.
+   *
+   * @param id Source node id.
+   * @return A new cursor, before the first edge.
+   */
+  @Override
+  public NeighborCursor neighbors(int id) {
+    Adjacency adjacency = nodes.get(id);
+    Iterator<Pair> pairs = adjacency == null ? List.<Pair>of().iterator() : adjacency.pairs.values().iterator();
+    return new NeighborCursor() {
+      private Pair pair;
+      private int k;
+
+      @Override
+      public boolean next() {
+        while (pair == null || ++k >= pair.count) {
+          if (!pairs.hasNext())
+            return false;
+          pair = pairs.next();
+          k = -1;
+        }
+        return true;
+      }
+
+      @Override
+      public int target() {
+        return pair.other(id);
+      }
+
+      @Override
+      public int weight() {
+        return pair.weight(k);
+      }
+    };
+  }
+
+  /**
+   * Obtain a representation of the graph in the SA (successor array) formalism,
+   * nodes being listed by increasing id and parallel edges expanded.
+   *
+   * @return A representation of the graph in the SA (successor array) formalism.
+   */
+  public int[] toSuccessorArray() {
+    long length = nodes.size();
+    for (Adjacency adjacency : nodes.values())
+      length += adjacency.degree;
+    int[] sa = new int[Math.toIntExact(length)];
+    int saIdx = 0;
+    for (int id : nodes.keySet()) {
+      for (int v : getSuccessorIds(id))
+        sa[saIdx++] = v;
+      sa[saIdx++] = 0;
+    }
+    return sa;
+  }
+
+  /**
+   * Obtain a representation of the graph as an adjacency matrix holding the
+   * multiplicity of every pair, rows and columns following the increasing node
+   * ids.
+   *
+   * @return A representation of the graph as an adjacency matrix.
+   */
+  public int[][] toAdjMatrix() {
+    int[] ids = getNodeIds();
+    int[][] am = new int[ids.length][ids.length];
+    for (int i = 0; i < ids.length; i++) {
+      for (Map.Entry<Integer, Pair> entry : nodes.get(ids[i]).pairs.entrySet())
+        am[i][Arrays.binarySearch(ids, entry.getKey())] = entry.getValue().count;
+    }
+    return am;
+  }
+
+  /**
+   * Expands this into a {@link Graph}, an {@link UndirectedGraph} when
+   * undirected, holding one edge per parallel edge.
+   *
+   * @return A new graph.
+   */
+  public Graph toGraph() {
+    Graph g = directed ? new Graph() : new UndirectedGraph();
+    copyTo(g);
+    return g;
+  }
+
+  /* Write */
+
+  @Override
+  public boolean addNode(int id) {
+    if (nodes.containsKey(id))
+      return false;
+    nodes.put(id, new Adjacency());
+    return true;
+  }
+
+  /**
+   * Remove a node and its incident edges from the graph, if it exists.
+   *
+   * @param id Target node id.
+   * @return True if node was removed, false otherwise.
+   */
+  @Override
+  public boolean removeNode(int id) {
+    Adjacency adjacency = nodes.get(id);
+    if (adjacency == null)
+      return false;
+    for (Pair pair : adjacency.pairs.values().toArray(new Pair[0]))
+      removePair(pair);
+    if (directed) {
+      for (Adjacency other : nodes.values()) {
+        Pair pair = other.pairs.get(id);
+        if (pair != null)
+          removePair(pair);
+      }
+    }
+    nodes.remove(id);
+    return true;
+  }
+
+  @Override
+  public void addEdge(int fromId, int toId) {
+    add(fromId, toId, false, 0);
+  }
+
+  /**
+   * Adds an edge with specified weight between the nodes with specified ids.
+   * The earlier unweighted edges of the pair then get weight 0.
+   *
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   * @param weight Edge weight.
+   */
+  @Override
+  public void addEdge(int fromId, int toId, int weight) {
+    add(fromId, toId, true, weight);
+  }
+
+  /**
+   * Removes all the edges between the nodes with specified ids.
+   *
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   * @return True if an edge was removed, false otherwise.
+   */
+  @Override
+  public boolean removeEdge(int fromId, int toId) {
+    Pair pair = pair(fromId, toId);
+    if (pair == null)
+      return false;
+    removePair(pair);
+    return true;
+  }
+
+  /**
+   * Removes all the edges with the specified weight between the nodes with
+   * specified ids.
+   *
+   * @param fromId Source node id.
+   * @param toId   Target node id.
+   * @param weight Edge weight.
+   * @return True if an edge was removed, false otherwise.
+   */
+  public boolean removeEdge(int fromId, int toId, int weight) {
+    Pair pair = pair(fromId, toId);
+    if (pair == null || pair.weights == null)
+      return false;
+    int kept = 0;
+    for (int k = 0; k < pair.count; k++) {
+      if (pair.weights[k] != weight)
+        pair.weights[kept++] = pair.weights[k];
+    }
+    if (kept == pair.count)
+      return false;
+    if (kept == 0) {
+      removePair(pair);
+      return true;
+    }
+    changeCount(pair, kept - pair.count);
+    return true;
+  }
+
+  private Pair pair(int uId, int vId) {
+    Adjacency adjacency = nodes.get(uId);
+    return adjacency == null ? null : adjacency.pairs.get(vId);
+  }
+
+  private void add(int fromId, int toId, boolean weighted, int weight) {
+    addNode(fromId);
+    addNode(toId);
+    Pair pair = pair(fromId, toId);
+    if (pair == null) {
+      pair = new Pair(fromId, toId);
+      nodes.get(fromId).pairs.put(toId, pair);
+      if (!directed)
+        nodes.get(toId).pairs.put(fromId, pair);
+    }
+    if (weighted && pair.weights == null) {
+      pair.weights = new int[Math.max(4, pair.count + 1)];
+      weightedPairs++;
+    }
+    if (pair.weights != null) {
+      if (pair.count == pair.weights.length)
+        pair.weights = Arrays.copyOf(pair.weights, 2 * pair.count);
+      pair.weights[pair.count] = weighted ? weight : 0;
+    }
+    changeCount(pair, 1);
+  }
+
+  /**
+   * Adds delta to the multiplicity of a pair and to the counts that follow it.
+   */
+  private void changeCount(Pair pair, int delta) {
+    if (pair.count <= 1 && pair.count + delta > 1)
+      multiPairs++;
+    else if (pair.count > 1 && pair.count + delta <= 1)
+      multiPairs--;
+    pair.count += delta;
+    edgeCount += delta;
+    nodes.get(pair.from).degree += delta;
+    if (!directed && pair.from != pair.to)
+      nodes.get(pair.to).degree += delta;
+  }
+
+  private void removePair(Pair pair) {
+    changeCount(pair, -pair.count);
+    if (pair.weights != null)
+      weightedPairs--;
+    nodes.get(pair.from).pairs.remove(pair.to);
+    if (!directed)
+      nodes.get(pair.to).pairs.remove(pair.from);
+  }
+}
@@ -0,0 +1,666 @@
+package m1graphs2025;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * A class OffHeapGraph, codes a read-only graph whose adjacency lives outside
+ * of the Java heap, in direct memory, so that graphs with billions of edges
+ * neither fill the heap with {@link Node} and {@link Edge} objects nor weigh on
+ * the garbage collector.
+ * The structure is a CSR one: nodes get dense indices 0..n-1 by increasing id,
+ * and the arcs leaving the node of index u are
+ * {@code [offsets[u], offsets[u + 1])}. Columns are split into chunks of
+ * direct buffers, so that arc counts are not limited by the int range.
+ * Every undirected edge is stored as an arc from each of its ends, a self-loop
+ * as a single arc.
+ * A graph too large for the heap is loaded by a {@link Builder}, or from an
+ * edge list file by {@link #fromEdgeList(Path, boolean)}, which stage the
+ * edges in direct memory too.
+ * The graph must be closed once done with, after which every call fails.
+ * Closing drops the buffers, whose memory is then freed by the garbage
+ * collector, not at once.
+ */
+public final class OffHeapGraph implements GraphStore, AutoCloseable {
+  private static final int CHUNK_SHIFT = 27;
+
+  private final boolean directed;
+  private final boolean weighted;
+  private final boolean multiGraph;
+  private final int nodeCount;
+  private final long edgeCount;
+  private final long arcCount;
+  private final Column nodeIds;
+  private final Column offsets;
+  private final Column targets;
+  private final Column weights;
+  private final Column inDegrees;
+  private volatile boolean closed;
+
+  private OffHeapGraph(boolean directed, boolean weighted, boolean multiGraph, long edgeCount, long arcCount,
+      Column nodeIds, Column offsets, Column targets, Column weights, Column inDegrees) {
+    this.directed = directed;
+    this.weighted = weighted;
+    this.multiGraph = multiGraph;
+    this.nodeCount = Math.toIntExact(nodeIds.length());
+    this.edgeCount = edgeCount;
+    this.arcCount = arcCount;
+    this.nodeIds = nodeIds;
+    this.offsets = offsets;
+    this.targets = targets;
+    this.weights = weights;
+    this.inDegrees = inDegrees;
+  }
+
+  /**
+   * Copies any graph store into direct memory.
+   *
+   * @param store The graph store to copy.
+   * @return The off-heap copy, to be closed once done with.
+   */
+  public static OffHeapGraph of(GraphStore store) {
+    return of(store, CHUNK_SHIFT);
+  }
+
+  /**
+   * Copies any graph store into direct memory, with chunks of 2^chunkShift
+   * entries.
+   *
+   * @param store      The graph store to copy.
+   * @param chunkShift Log2 of the number of entries per chunk.
+   * @return The off-heap copy.
+   */
+  static OffHeapGraph of(GraphStore store, int chunkShift) {
+    int[] ids = store.getNodeIds();
+    int n = ids.length;
+    long m = 0;
+    for (int id : ids)
+      m += store.outDegree(id);
+    boolean directed = store.isDirected();
+    Column nodeIds = new Column(n, Integer.BYTES, chunkShift);
+    Column offsets = new Column(n + 1L, Long.BYTES, chunkShift);
+    Column targets = new Column(m, Integer.BYTES, chunkShift);
+    Column weights = store.isWeighted() ? new Column(m, Integer.BYTES, chunkShift) : null;
+    Column inDegrees = directed ? new Column(n, Integer.BYTES, chunkShift) : null;
+
+    int[] seen = new int[n];
+    boolean[] multi = new boolean[1];
+    long[] arc = new long[1];
+    long[] loops = new long[1];
+    for (int u = 0; u < n; u++) {
+      int stamp = u + 1;
+      nodeIds.putInt(u, ids[u]);
+      offsets.putLong(u, arc[0]);
+      store.forEachOutEdge(ids[u], (from, to, weight) -> {
+        int v = Arrays.binarySearch(ids, to);
+        if (seen[v] == stamp)
+          multi[0] = true;
+        seen[v] = stamp;
+        if (from == to)
+          loops[0]++;
+        targets.putInt(arc[0], v);
+        if (weights != null)
+          weights.putInt(arc[0], weight);
+        if (inDegrees != null)
+          inDegrees.putInt(v, inDegrees.getInt(v) + 1);
+        arc[0]++;
+      });
+    }
+    if (arc[0] != m)
+      throw new GraphExceptions("Out-degrees do not match the edges of the graph");
+    offsets.putLong(n, m);
+    return new OffHeapGraph(directed, weights != null, multi[0], directed ? m : (m + loops[0]) / 2, m, nodeIds,
+        offsets, targets, weights, inDegrees);
+  }
+
+  /**
+   * Gets a builder streaming edges straight into direct memory, without ever
+   * holding them as objects.
+   *
+   * @param directed Whether the graph is directed.
+   * @return A new empty builder.
+   */
+  public static Builder builder(boolean directed) {
+    return new Builder(directed, CHUNK_SHIFT);
+  }
+
+  /**
+   * Gets a builder with chunks of 2^chunkShift entries.
+   *
+   * @param directed   Whether the graph is directed.
+   * @param chunkShift Log2 of the number of entries per chunk.
+   * @return A new empty builder.
+   */
+  static Builder builder(boolean directed, int chunkShift) {
+    return new Builder(directed, chunkShift);
+  }
+
+  /**
+   * Loads an edge list file, one edge per line as a source id, a target id and
+   * an optional weight separated by blanks, lines starting with # or % being
+   * comments. The edges go straight into direct memory.
+   *
+   * @param path     The edge list file.
+   * @param directed Whether the graph is directed.
+   * @return The graph, to be closed once done with.
+   * @throws GraphExceptions If the file cannot be read or a line is malformed.
+   */
+  public static OffHeapGraph fromEdgeList(Path path, boolean directed) {
+    Builder builder = builder(directed);
+    try (BufferedReader reader = Files.newBufferedReader(path)) {
+      String line;
+      for (int number = 1; (line = reader.readLine()) != null; number++) {
+        String trimmed = line.trim();
+        if (trimmed.isEmpty() || trimmed.startsWith("#") || trimmed.startsWith("%"))
+          continue;
+        String[] fields = trimmed.split("\\s+");
+        try {
+          if (fields.length == 2)
+            builder.addEdge(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]));
+          else if (fields.length == 3)
+            builder.addEdge(Integer.parseInt(fields[0]), Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+          else
+            throw new GraphExceptions("Malformed edge at " + path + ":" + number);
+        } catch (NumberFormatException e) {
+          throw new GraphExceptions("Malformed edge at " + path + ":" + number, e);
+        }
+      }
+    } catch (IOException e) {
+      throw new GraphExceptions("Failed to read edge list: " + path, e);
+    }
+    return builder.build();
+  }
+
+  /**
+   * Drops the direct memory of this graph, which the garbage collector frees
+   * once the buffers are unreachable. Further calls fail.
+   */
+  @Override
+  public void close() {
+    closed = true;
+    nodeIds.release();
+    offsets.release();
+    targets.release();
+    if (weights != null)
+      weights.release();
+    if (inDegrees != null)
+      inDegrees.release();
+  }
+
+  private void checkOpen() {
+    if (closed)
+      throw new IllegalStateException("Off-heap graph is closed");
+  }
+
+  /* Capabilities */
+
+  @Override
+  public boolean isDirected() {
+    checkOpen();
+    return directed;
+  }
+
+  @Override
+  public boolean isWeighted() {
+    checkOpen();
+    return weighted;
+  }
+
+  @Override
+  public boolean isMultiGraph() {
+    checkOpen();
+    return multiGraph;
+  }
+
+  /**
+   * Know whether the graph can be modified, which it cannot.
+   *
+   * @return False.
+   */
+  @Override
+  public boolean isMutable() {
+    return false;
+  }
+
+  /* Read */
+
+  @Override
+  public int nbNodes() {
+    checkOpen();
+    return nodeCount;
+  }
+
+  /**
+   * Know the number of edges, failing beyond the int range.
+   *
+   * @return The number of edges.
+   * @throws ArithmeticException If there are more than Integer.MAX_VALUE edges.
+   */
+  @Override
+  public int nbEdges() {
+    checkOpen();
+    return Math.toIntExact(edgeCount);
+  }
+
+  /**
+   * Know the number of edges, with no range limit.
+   *
+   * @return The number of edges.
+   */
+  public long getLongEdgeCount() {
+    checkOpen();
+    return edgeCount;
+  }
+
+  /**
+   * Know the number of arcs, twice the number of non-loop edges when
+   * undirected.
+   *
+   * @return The number of arcs.
+   */
+  public long nbArcs() {
+    checkOpen();
+    return arcCount;
+  }
+
+  /**
+   * Gets the dense index of the node with specified id.
+   *
+   * @param id Node id.
+   * @return Its index, or -1 when the id is not used.
+   */
+  public int indexOf(int id) {
+    checkOpen();
+    int low = 0;
+    int high = nodeCount - 1;
+    while (low <= high) {
+      int mid = (low + high) >>> 1;
+      int midId = nodeIds.getInt(mid);
+      if (midId < id)
+        low = mid + 1;
+      else if (midId > id)
+        high = mid - 1;
+      else
+        return mid;
+    }
+    return -1;
+  }
+
+  /**
+   * Gets the id of the node of specified index.
+   *
+   * @param index Node index.
+   * @return Its id.
+   */
+  public int nodeId(int index) {
+    checkOpen();
+    return nodeIds.getInt(index);
+  }
+
+  @Override
+  public boolean usesNode(int id) {
+    checkOpen();
+    return indexOf(id) >= 0;
+  }
+
+  @Override
+  public int[] getNodeIds() {
+    checkOpen();
+    int[] ids = new int[nodeCount];
+    for (int u = 0; u < nodeCount; u++)
+      ids[u] = nodeIds.getInt(u);
+    return ids;
+  }
+
+  @Override
+  public int outDegree(int id) {
+    checkOpen();
+    int u = indexOf(id);
+    return u < 0 ? 0 : (int) (offsets.getLong(u + 1) - offsets.getLong(u));
+  }
+
+  @Override
+  public int inDegree(int id) {
+    checkOpen();
+    int u = indexOf(id);
+    if (u < 0)
+      return 0;
+    return inDegrees != null ? inDegrees.getInt(u) : (int) (offsets.getLong(u + 1) - offsets.getLong(u));
+  }
+
+  @Override
+  public boolean existsEdge(int uId, int vId) {
+    checkOpen();
+    int u = indexOf(uId);
+    int v = indexOf(vId);
+    if (u < 0 || v < 0)
+      return false;
+    for (long a = offsets.getLong(u), end = offsets.getLong(u + 1); a < end; a++) {
+      if (targets.getInt(a) == v)
+        return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void forEachOutEdge(int id, EdgeConsumer action) {
+    checkOpen();
+    int u = indexOf(id);
+    if (u < 0)
+      return;
+    for (long a = offsets.getLong(u), end = offsets.getLong(u + 1); a < end; a++)
+      action.accept(id, nodeIds.getInt(targets.getInt(a)), weights == null ? 0 : weights.getInt(a));
+  }
+
+  /**
+   * Performs an action on every edge of the graph, by source node. An
+   * undirected edge is reported once, from its end of smaller id.
+   *
+   * @param action The action.
+   */
+  @Override
+  public void forEachEdge(EdgeConsumer action) {
+    checkOpen();
+    for (int u = 0; u < nodeCount; u++) {
+      int id = nodeIds.getInt(u);
+      for (long a = offsets.getLong(u), end = offsets.getLong(u + 1); a < end; a++) {
+        int v = targets.getInt(a);
+        if (directed || v >= u)
+          action.accept(id, nodeIds.getInt(v), weights == null ? 0 : weights.getInt(a));
+      }
+    }
+  }
+
+  /* Write */
+
+  @Override
+  public boolean addNode(int id) {
+    throw new UnsupportedOperationException("Off-heap graphs are read-only");
+  }
+
+  @Override
+  public boolean removeNode(int id) {
+    throw new UnsupportedOperationException("Off-heap graphs are read-only");
+  }
+
+  @Override
+  public void addEdge(int fromId, int toId) {
+    throw new UnsupportedOperationException("Off-heap graphs are read-only");
+  }
+
+  @Override
+  public void addEdge(int fromId, int toId, int weight) {
+    throw new UnsupportedOperationException("Off-heap graphs are read-only");
+  }
+
+  @Override
+  public boolean removeEdge(int fromId, int toId) {
+    throw new UnsupportedOperationException("Off-heap graphs are read-only");
+  }
+
+  /**
+   * A builder of off-heap graphs, fed edge by edge. The edges are staged in
+   * direct memory columns grown chunk by chunk, only the distinct node ids
+   * being kept in the heap, and {@link #build()} then places them by source
+   * with a counting sort, from one column to another.
+   * If any edge is given a weight, the graph is weighted and the edges added
+   * without one weigh 0. Multi-edges and self-loops are kept.
+   */
+  public static final class Builder {
+    private static final int STAGING_SHIFT = 20;
+
+    private final boolean directed;
+    private final int chunkShift;
+    private final Column sources;
+    private final Column targets;
+    private Column weights;
+    private long size = 0;
+    private int[] ids = new int[16];
+    private int idCount = 0;
+    private int sortedIds = 0;
+
+    private Builder(boolean directed, int chunkShift) {
+      this.directed = directed;
+      this.chunkShift = chunkShift;
+      int shift = Math.min(chunkShift, STAGING_SHIFT);
+      this.sources = new Column(0, Integer.BYTES, shift);
+      this.targets = new Column(0, Integer.BYTES, shift);
+    }
+
+    /**
+     * Adds a node, which is useful for isolated nodes only.
+     * @param id Node id.
+     */
+    public void addNode(int id) {
+      checkBuilding();
+      addId(id);
+    }
+
+    /**
+     * Adds an edge, its nodes being created if missing.
+     * @param fromId Source node id.
+     * @param toId   Target node id.
+     */
+    public void addEdge(int fromId, int toId) {
+      checkBuilding();
+      sources.ensureLength(size + 1);
+      targets.ensureLength(size + 1);
+      sources.putInt(size, fromId);
+      targets.putInt(size, toId);
+      size++;
+      addId(fromId);
+      if (toId != fromId)
+        addId(toId);
+    }
+
+    /**
+     * Adds an edge with specified weight, its nodes being created if missing.
+     * @param fromId Source node id.
+     * @param toId   Target node id.
+     * @param weight Edge weight.
+     */
+    public void addEdge(int fromId, int toId, int weight) {
+      addEdge(fromId, toId);
+      if (weights == null)
+        weights = new Column(0, Integer.BYTES, Math.min(chunkShift, STAGING_SHIFT));
+      weights.ensureLength(size);
+      weights.putInt(size - 1, weight);
+    }
+
+    /**
+     * Know the number of edges added.
+     * @return The number of edges.
+     */
+    public long size() {
+      return size;
+    }
+
+    /**
+     * Builds the graph, after which the builder cannot be used anymore.
+     * @return The graph, to be closed once done with.
+     */
+    public OffHeapGraph build() {
+      checkBuilding();
+      compactIds();
+      int[] nodes = Arrays.copyOf(ids, idCount);
+      ids = null;
+      int n = nodes.length;
+      long arcs = 0;
+      Column nodeIds = new Column(n, Integer.BYTES, chunkShift);
+      Column offsets = new Column(n + 1L, Long.BYTES, chunkShift);
+      Column inDegrees = directed ? new Column(n, Integer.BYTES, chunkShift) : null;
+      for (int u = 0; u < n; u++)
+        nodeIds.putInt(u, nodes[u]);
+      // Ids to indices through a lookup table when dense enough, by binary search otherwise
+      int first = n == 0 ? 0 : nodes[0];
+      long range = n == 0 ? 0 : (long) nodes[n - 1] - first + 1;
+      int[] lookup = range <= 2L * n ? new int[(int) range] : null;
+      if (lookup != null) {
+        for (int u = 0; u < n; u++)
+          lookup[nodes[u] - first] = u;
+      }
+      IntUnaryOperator index = lookup != null ? id -> lookup[id - first] : id -> Arrays.binarySearch(nodes, id);
+
+      // Out-degrees counted at offsets[u + 1], then summed up
+      for (long e = 0; e < size; e++) {
+        int u = index.applyAsInt(sources.getInt(e));
+        int v = index.applyAsInt(targets.getInt(e));
+        offsets.putLong(u + 1, offsets.getLong(u + 1) + 1);
+        arcs++;
+        if (directed) {
+          inDegrees.putInt(v, inDegrees.getInt(v) + 1);
+        } else if (u != v) {
+          offsets.putLong(v + 1, offsets.getLong(v + 1) + 1);
+          arcs++;
+        }
+      }
+      for (int u = 0; u < n; u++)
+        offsets.putLong(u + 1, offsets.getLong(u + 1) + offsets.getLong(u));
+
+      // Arcs placed by source, in order of addition
+      Column next = new Column(n, Long.BYTES, chunkShift);
+      for (int u = 0; u < n; u++)
+        next.putLong(u, offsets.getLong(u));
+      Column arcTargets = new Column(arcs, Integer.BYTES, chunkShift);
+      Column arcWeights = weights != null ? new Column(arcs, Integer.BYTES, chunkShift) : null;
+      for (long e = 0; e < size; e++) {
+        int u = index.applyAsInt(sources.getInt(e));
+        int v = index.applyAsInt(targets.getInt(e));
+        int weight = weights != null && e < weights.length() ? weights.getInt(e) : 0;
+        place(next, arcTargets, arcWeights, u, v, weight);
+        if (!directed && u != v)
+          place(next, arcTargets, arcWeights, v, u, weight);
+      }
+      next.release();
+      sources.release();
+      targets.release();
+      if (weights != null)
+        weights.release();
+
+      boolean multi = false;
+      int[] seen = new int[n];
+      for (int u = 0; u < n && !multi; u++) {
+        for (long a = offsets.getLong(u), end = offsets.getLong(u + 1); a < end && !multi; a++) {
+          int v = arcTargets.getInt(a);
+          multi = seen[v] == u + 1;
+          seen[v] = u + 1;
+        }
+      }
+      return new OffHeapGraph(directed, arcWeights != null, multi, size, arcs, nodeIds, offsets, arcTargets,
+          arcWeights, inDegrees);
+    }
+
+    private static void place(Column next, Column targets, Column weights, int u, int v, int weight) {
+      long a = next.getLong(u);
+      next.putLong(u, a + 1);
+      targets.putInt(a, v);
+      if (weights != null)
+        weights.putInt(a, weight);
+    }
+
+    /**
+     * Records a node id, the ids being sorted and deduplicated whenever the
+     * array is full, so that it grows with the number of distinct nodes.
+     */
+    private void addId(int id) {
+      if (idCount > 0 && ids[idCount - 1] == id)
+        return;
+      if (idCount == ids.length) {
+        compactIds();
+        if (idCount > ids.length / 4)
+          ids = Arrays.copyOf(ids, 2 * ids.length);
+      }
+      ids[idCount++] = id;
+    }
+
+    private void compactIds() {
+      if (sortedIds == idCount)
+        return;
+      Arrays.sort(ids, 0, idCount);
+      int count = 0;
+      for (int i = 0; i < idCount; i++) {
+        if (count == 0 || ids[count - 1] != ids[i])
+          ids[count++] = ids[i];
+      }
+      idCount = count;
+      sortedIds = count;
+    }
+
+    private void checkBuilding() {
+      if (ids == null)
+        throw new IllegalStateException("Off-heap graph already built");
+    }
+  }
+
+  /**
+   * A column of int or long values of any length, as direct buffer chunks.
+   */
+  private static final class Column {
+    private final int width;
+    private final int shift;
+    private final long mask;
+    private ByteBuffer[] chunks;
+    private long length;
+
+    Column(long length, int width, int shift) {
+      this.width = width;
+      this.shift = shift;
+      this.mask = (1L << shift) - 1;
+      int count = (int) ((length + mask) >>> shift);
+      chunks = new ByteBuffer[count];
+      for (int c = 0; c < count; c++) {
+        long size = Math.min(length - ((long) c << shift), 1L << shift);
+        chunks[c] = ByteBuffer.allocateDirect(Math.toIntExact(size * width)).order(ByteOrder.nativeOrder());
+      }
+      this.length = length;
+    }
+
+    long length() {
+      return length;
+    }
+
+    /**
+     * Grows the column, by whole chunks, so that it holds at least length
+     * values, the new ones being 0.
+     */
+    void ensureLength(long length) {
+      if (length <= this.length)
+        return;
+      int count = (int) ((length + mask) >>> shift);
+      if (count > chunks.length) {
+        int c = chunks.length;
+        chunks = Arrays.copyOf(chunks, count);
+        for (; c < count; c++)
+          chunks[c] = ByteBuffer.allocateDirect(Math.toIntExact((mask + 1) * width)).order(ByteOrder.nativeOrder());
+      }
+      this.length = length;
+    }
+
+    int getInt(long i) {
+      return chunks[(int) (i >>> shift)].getInt((int) (i & mask) * width);
+    }
+
+    void putInt(long i, int value) {
+      chunks[(int) (i >>> shift)].putInt((int) (i & mask) * width, value);
+    }
+
+    long getLong(long i) {
+      return chunks[(int) (i >>> shift)].getLong((int) (i & mask) * width);
+    }
+
+    void putLong(long i, long value) {
+      chunks[(int) (i >>> shift)].putLong((int) (i & mask) * width, value);
+    }
+
+    void release() {
+      chunks = new ByteBuffer[0];
+      length = 0;
+    }
+  }
+}
@@ -0,0 +1,547 @@
+package m1graphs2025;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UTFDataFormatException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * A class PersistentGraph, keeps a {@link Graph} on disk in a directory, so
+ * that it survives crashes and restarts without ever being rewritten whole.
+ * The directory holds a binary checkpoint of the graph and a write-ahead log
+ * of the mutations made since, appended to by a {@link ChangeListener}:
+ * <ul>
+ * <li>every batch of changes becomes one frame of the log, checked by a CRC,
+ * and frames are written together once they fill a buffer;</li>
+ * <li>{@link #sync()} writes the buffered frames and forces them to the disk,
+ * so that one {@link FileChannel#force(boolean)} covers every mutation made
+ * since the last one; {@link #setSyncInterval(long)} also forces the written
+ * frames in the background;</li>
+ * <li>{@link #checkpoint()}, also run by {@link #sync()} once the log reaches
+ * {@link #setCheckpointThreshold(long)} bytes, writes a new checkpoint and
+ * starts a new log, the checkpoint being renamed into place only once
+ * complete;</li>
+ * <li>{@link #open(Path, boolean)} loads the latest checkpoint and replays its
+ * log, cutting off a frame torn by a crash; removed and reweighted edges are
+ * logged with their position among the parallel edges, so that the edge lists
+ * come back in the same order.</li>
+ * </ul>
+ * Mutations are durable once {@link #sync()} returns. Node names are only kept
+ * by checkpoints.
+ */
+public final class PersistentGraph implements AutoCloseable {
+  private static final int CHECKPOINT_MAGIC = 0x4743_4b50; // "GCKP"
+  private static final int LOG_MAGIC = 0x4757_414c; // "GWAL"
+  private static final int CHECKPOINT_VERSION = 1;
+  private static final int LOG_VERSION = 2;
+  private static final int BUFFER_SIZE = 1 << 16;
+  private static final Pattern FILE_NAME = Pattern.compile("(checkpoint|wal)-(\\d+)\\.(bin|log)");
+
+  private final Path directory;
+  private final Graph graph;
+  private final ChangeListener listener = this::append;
+  private FileChannel log;
+  private ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+  private long logSize;
+  private boolean written;
+  private long generation;
+  private long checkpointThreshold = 64L << 20;
+  private ScheduledExecutorService flusher;
+  private ScheduledFuture<?> flushTask;
+  private boolean closed;
+
+  private PersistentGraph(Path directory, Graph graph, long generation) {
+    this.directory = directory;
+    this.graph = graph;
+    this.generation = generation;
+  }
+
+  /**
+   * Opens the graph stored in a directory, recovering it from its latest
+   * checkpoint and log, or creates an empty one if the directory holds none.
+   * @param directory The directory, created if missing.
+   * @param directed  Whether a new graph is directed or an
+   *                  {@link UndirectedGraph}.
+   * @return The opened store, whose graph receives the mutations to persist.
+   * @throws IllegalArgumentException If the stored graph is not of the given
+   *                                  orientation.
+   * @throws GraphExceptions          If the directory cannot be read or
+   *                                  written, or holds a log of another
+   *                                  version.
+   */
+  public static PersistentGraph open(Path directory, boolean directed) {
+    try {
+      Files.createDirectories(directory);
+      List<Long> checkpoints = new ArrayList<>();
+      try (Stream<Path> files = Files.list(directory)) {
+        files.forEach(file -> {
+          Matcher m = FILE_NAME.matcher(file.getFileName().toString());
+          if (m.matches() && m.group(1).equals("checkpoint"))
+            checkpoints.add(Long.parseLong(m.group(2)));
+        });
+      }
+      checkpoints.sort(null);
+
+      PersistentGraph store = null;
+      if (checkpoints.isEmpty()) {
+        store = new PersistentGraph(directory, directed ? new Graph() : new UndirectedGraph(), 0);
+        store.writeCheckpoint();
+      }
+      for (int i = checkpoints.size() - 1; store == null && i >= 0; i--) {
+        Graph g = readCheckpoint(directory.resolve(checkpointName(checkpoints.get(i))));
+        if (g != null)
+          store = new PersistentGraph(directory, g, checkpoints.get(i));
+      }
+      if (store == null)
+        throw new GraphExceptions("No readable checkpoint in " + directory);
+      if (store.graph.isDirected() != directed)
+        throw new IllegalArgumentException("The stored graph is " + (directed ? "undirected" : "directed"));
+      store.recover();
+      return store;
+    } catch (IOException e) {
+      throw new GraphExceptions("Failed to open persistent graph: " + directory, e);
+    }
+  }
+
+  /**
+   * Gets the graph, whose mutations are logged.
+   * @return this.graph
+   */
+  public Graph getGraph() {
+    return graph;
+  }
+
+  /**
+   * Gets the number of the current checkpoint, which increases with every
+   * checkpoint.
+   * @return this.generation
+   */
+  public long getGeneration() {
+    return generation;
+  }
+
+  /**
+   * Gets the size of the current log, buffered frames included.
+   * @return The size in bytes.
+   */
+  public synchronized long getLogSize() {
+    return logSize + buffer.position();
+  }
+
+  /**
+   * Sets the size of the log from which {@link #sync()} writes a checkpoint,
+   * 64 MiB by default.
+   */
+  public synchronized void setCheckpointThreshold(long checkpointThreshold) {
+    this.checkpointThreshold = checkpointThreshold;
+  }
+
+  /**
+   * Sets the period, in milliseconds, at which the buffered frames are written
+   * and forced to the disk in the background, or 0 to only do so on
+   * {@link #sync()}, the default. Changes still buffered by the graph wait
+   * for their batch to be full.
+   */
+  public synchronized void setSyncInterval(long millis) {
+    checkOpen();
+    if (flushTask != null)
+      flushTask.cancel(false);
+    flushTask = null;
+    if (millis <= 0)
+      return;
+    if (flusher == null) {
+      flusher = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread t = new Thread(r, "persistent-graph-sync");
+        t.setDaemon(true);
+        return t;
+      });
+    }
+    flushTask = flusher.scheduleWithFixedDelay(() -> {
+      synchronized (this) {
+        if (!closed)
+          flush(true);
+      }
+    }, millis, millis, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Makes every mutation made so far durable, and writes a checkpoint if the
+   * log has reached the checkpoint threshold.
+   */
+  public void sync() {
+    checkOpen();
+    graph.flushChanges();
+    boolean full;
+    synchronized (this) {
+      flush(true);
+      full = logSize >= checkpointThreshold;
+    }
+    if (full)
+      checkpoint();
+  }
+
+  /**
+   * Writes a checkpoint of the graph and starts a new, empty log, then removes
+   * the former checkpoint and log.
+   */
+  public void checkpoint() {
+    checkOpen();
+    graph.flushChanges();
+    try {
+      synchronized (this) {
+        flush(true);
+        generation++;
+        writeCheckpoint();
+        log.close();
+        openLog();
+      }
+      deleteOtherGenerations();
+    } catch (IOException e) {
+      throw new GraphExceptions("Failed to write checkpoint in " + directory, e);
+    }
+  }
+
+  /**
+   * Makes every mutation durable and stops logging them.
+   */
+  @Override
+  public void close() {
+    if (closed)
+      return;
+    sync();
+    graph.removeChangeListener(listener);
+    synchronized (this) {
+      closed = true;
+      if (flusher != null)
+        flusher.shutdown();
+      try {
+        log.close();
+      } catch (IOException e) {
+        throw new GraphExceptions("Failed to close log in " + directory, e);
+      }
+    }
+  }
+
+  /* Log */
+
+  /**
+   * Replays the log of the current checkpoint, cuts off its torn tail and
+   * starts logging.
+   */
+  private void recover() throws IOException {
+    Path path = directory.resolve(logName(generation));
+    if (Files.exists(path)) {
+      long valid = replay(path);
+      try (FileChannel channel = FileChannel.open(path, StandardOpenOption.WRITE)) {
+        if (channel.size() > valid) {
+          channel.truncate(valid);
+          channel.force(true);
+        }
+      }
+    }
+    openLog();
+    deleteOtherGenerations();
+    graph.addChangeListener(listener);
+  }
+
+  /**
+   * Applies the frames of a log to the graph.
+   * @return The length of the valid part of the log.
+   */
+  private long replay(Path path) throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)) {
+      DataInputStream data = new DataInputStream(in);
+      long fileSize = Files.size(path);
+      if (fileSize < 12 || data.readInt() != LOG_MAGIC)
+        return 0;
+      int version = data.readInt();
+      if (version != LOG_VERSION)
+        throw new GraphExceptions("Unsupported log version " + version + ": " + path);
+      data.readInt(); // generation
+      long valid = 12;
+      byte[] payload = new byte[0];
+      CRC32 crc = new CRC32();
+      while (true) {
+        int length;
+        int checksum;
+        try {
+          length = data.readInt();
+          checksum = data.readInt();
+          if (length < 0 || length > fileSize - valid - 8)
+            return valid;
+          if (payload.length < length)
+            payload = new byte[Math.max(length, 2 * payload.length)];
+          data.readFully(payload, 0, length);
+        } catch (EOFException e) {
+          return valid;
+        }
+        crc.reset();
+        crc.update(payload, 0, length);
+        if ((int) crc.getValue() != checksum)
+          return valid;
+        apply(ByteBuffer.wrap(payload, 0, length));
+        valid += 8 + length;
+      }
+    }
+  }
+
+  /**
+   * Applies the changes of one frame to the graph.
+   */
+  private void apply(ByteBuffer frame) {
+    while (frame.hasRemaining()) {
+      int flags = frame.get();
+      ChangeBatch.Kind kind = ChangeBatch.Kind.values()[flags & ChangeBatch.KIND_MASK];
+      boolean weighted = (flags & ChangeBatch.WEIGHTED) != 0;
+      int from = frame.getInt();
+      if (kind == ChangeBatch.Kind.NODE_ADDED) {
+        graph.addNode(from);
+        continue;
+      }
+      if (kind == ChangeBatch.Kind.NODE_REMOVED) {
+        graph.removeNode(from);
+        continue;
+      }
+      int to = frame.getInt();
+      int weight = weighted ? frame.getInt() : 0;
+      if (kind == ChangeBatch.Kind.EDGE_ADDED) {
+        if (weighted)
+          graph.addEdge(from, to, weight);
+        else
+          graph.addEdge(from, to);
+      } else if (kind == ChangeBatch.Kind.EDGE_REMOVED) {
+        graph.removeOneEdge(from, to, frame.getInt());
+      } else {
+        int occurrence = frame.getInt();
+        Node u = graph.getNode(from);
+        for (Edge edge : u == null ? List.<Edge>of() : graph.getAel().get(u)) {
+          if (edge.to().getId() == to && occurrence-- == 0) {
+            edge.setWeight(weight);
+            break;
+          }
+        }
+      }
+    }
+  }
+
+  /**
+   * Encodes a batch of changes as a frame of the log.
+   */
+  private synchronized void append(ChangeBatch changes) {
+    if (closed)
+      return;
+    // Room for the worst case: kind, from, to, weight and occurrence
+    int room = 8 + 17 * changes.size();
+    if (buffer.remaining() < room) {
+      flush(false);
+      if (buffer.capacity() < room)
+        buffer = ByteBuffer.allocate(room);
+    }
+    int start = buffer.position();
+    buffer.position(start + 8);
+    for (int i = 0; i < changes.size(); i++) {
+      ChangeBatch.Kind kind = changes.kind(i);
+      int flags = kind.ordinal();
+      if (changes.isWeighted(i))
+        flags |= ChangeBatch.WEIGHTED;
+      buffer.put((byte) flags);
+      buffer.putInt(changes.fromId(i));
+      if (kind == ChangeBatch.Kind.NODE_ADDED || kind == ChangeBatch.Kind.NODE_REMOVED)
+        continue;
+      buffer.putInt(changes.toId(i));
+      if (changes.isWeighted(i))
+        buffer.putInt(changes.weight(i));
+      if (kind != ChangeBatch.Kind.EDGE_ADDED)
+        buffer.putInt(changes.occurrence(i));
+    }
+    int length = buffer.position() - start - 8;
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), start + 8, length);
+    buffer.putInt(start, length);
+    buffer.putInt(start + 4, (int) crc.getValue());
+  }
+
+  /**
+   * Writes the buffered frames to the log, and forces them to the disk if
+   * asked to.
+   */
+  private void flush(boolean force) {
+    try {
+      buffer.flip();
+      while (buffer.hasRemaining())
+        written |= log.write(buffer) > 0;
+      logSize = log.position();
+      buffer.clear();
+      if (force && written) {
+        log.force(false);
+        written = false;
+      }
+    } catch (IOException e) {
+      throw new GraphExceptions("Failed to write log in " + directory, e);
+    }
+  }
+
+  private void openLog() throws IOException {
+    Path path = directory.resolve(logName(generation));
+    boolean exists = Files.exists(path) && Files.size(path) > 0;
+    log = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    if (exists) {
+      log.position(log.size());
+    } else {
+      ByteBuffer header = ByteBuffer.allocate(12).putInt(LOG_MAGIC).putInt(LOG_VERSION).putInt((int) generation);
+      header.flip();
+      while (header.hasRemaining())
+        log.write(header);
+      log.force(true);
+      syncDirectory();
+    }
+    logSize = log.position();
+  }
+
+  /* Checkpoints */
+
+  /**
+   * Writes the graph as the checkpoint of the current generation, through a
+   * temporary file renamed once forced to the disk.
+   */
+  private void writeCheckpoint() throws IOException {
+    Path path = directory.resolve(checkpointName(generation));
+    Path tmp = directory.resolve(checkpointName(generation) + ".tmp");
+    try (FileChannel channel = FileChannel.open(tmp, StandardOpenOption.CREATE,
+        StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+      CheckedOutputStream checked = new CheckedOutputStream(
+          new BufferedOutputStream(Channels.newOutputStream(channel), BUFFER_SIZE), new CRC32());
+      DataOutputStream out = new DataOutputStream(checked);
+      out.writeInt(CHECKPOINT_MAGIC);
+      out.writeInt(CHECKPOINT_VERSION);
+      out.writeBoolean(graph.isDirected());
+      out.writeInt(graph.nbNodes());
+      for (Node n : graph.getAel().keySet()) {
+        out.writeInt(n.getId());
+        out.writeUTF(n.getName());
+      }
+      for (Map.Entry<Node, List<Edge>> entry : graph.getAel().entrySet()) {
+        out.writeInt(entry.getValue().size());
+        for (Edge edge : entry.getValue()) {
+          out.writeInt(edge.to().getId());
+          out.writeBoolean(edge.isWeighted());
+          if (edge.isWeighted())
+            out.writeInt(edge.getWeight());
+        }
+      }
+      out.flush();
+      out.writeLong(checked.getChecksum().getValue());
+      out.flush();
+      channel.force(true);
+    }
+    Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    syncDirectory();
+  }
+
+  /**
+   * Reads a checkpoint.
+   * @return The graph, or null if the checkpoint is damaged, be it cut short,
+   *         inconsistent, holding malformed names or failing its checksum.
+   */
+  private static Graph readCheckpoint(Path path) throws IOException {
+    try (InputStream in = new BufferedInputStream(Files.newInputStream(path), BUFFER_SIZE)) {
+      CheckedInputStream checked = new CheckedInputStream(in, new CRC32());
+      DataInputStream data = new DataInputStream(checked);
+      if (data.readInt() != CHECKPOINT_MAGIC || data.readInt() != CHECKPOINT_VERSION)
+        return null;
+      Graph g = data.readBoolean() ? new Graph() : new UndirectedGraph();
+      int n = data.readInt();
+      if (n < 0 || n > Files.size(path))
+        return null;
+      Node[] nodes = new Node[n];
+      for (int u = 0; u < n; u++) {
+        int id = data.readInt();
+        g.addNode(id, data.readUTF());
+        nodes[u] = g.getNode(id);
+      }
+      for (Node u : nodes) {
+        int degree = data.readInt();
+        for (int k = 0; k < degree; k++) {
+          Node v = g.getNode(data.readInt());
+          boolean weighted = data.readBoolean();
+          if (v == null)
+            return null;
+          if (weighted)
+            g.addEdge(u, v, data.readInt());
+          else
+            g.addEdge(u, v);
+        }
+      }
+      long checksum = checked.getChecksum().getValue();
+      return data.readLong() == checksum ? g : null;
+    } catch (EOFException | UTFDataFormatException | IllegalArgumentException e) {
+      return null;
+    }
+  }
+
+  /**
+   * Removes the checkpoints and logs of the other generations, and the
+   * temporary files left by a crash.
+   */
+  private void deleteOtherGenerations() throws IOException {
+    List<Path> stale = new ArrayList<>();
+    try (Stream<Path> files = Files.list(directory)) {
+      files.forEach(file -> {
+        String name = file.getFileName().toString();
+        Matcher m = FILE_NAME.matcher(name);
+        if (m.matches() ? Long.parseLong(m.group(2)) != generation : name.endsWith(".bin.tmp"))
+          stale.add(file);
+      });
+    }
+    for (Path file : stale)
+      Files.deleteIfExists(file);
+  }
+
+  /**
+   * Forces the directory entries to the disk, where the platform allows it.
+   */
+  private void syncDirectory() {
+    try (FileChannel dir = FileChannel.open(directory, StandardOpenOption.READ)) {
+      dir.force(true);
+    } catch (IOException e) {
+      // Not supported on every platform
+    }
+  }
+
+  private static String checkpointName(long generation) {
+    return "checkpoint-" + generation + ".bin";
+  }
+
+  private static String logName(long generation) {
+    return "wal-" + generation + ".log";
+  }
+
+  private void checkOpen() {
+    if (closed)
+      throw new IllegalStateException("Persistent graph is closed");
+  }
+}
@@ -4,7 +4,6 @@ import java.io.BufferedReader;
 import java.io.FileReader;
 import java.io.IOException;
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
@@ -44,6 +43,29 @@ public class UndirectedGraph extends Graph {
     this.reverseGraph = super.getReverse();
   }
 
+  /**
+   * Fills this empty graph in one go, as done by {@link GraphBuilder}.
+   *
+   * @param nodes    Nodes by increasing id.
+   * @param outEdges Edge list of every node, each edge being held by its source.
+   * @param inEdges  Reversed edges by target, for the reverse graph.
+   * @param nbEdges  Total number of edges.
+   */
+  void load(Node[] nodes, List<List<Edge>> outEdges, List<List<Edge>> inEdges, int nbEdges) {
+    super.load(nodes, outEdges, nbEdges);
+    reverseGraph.load(nodes, inEdges, nbEdges);
+  }
+
+  /**
+   * Know if this is directed, which it is not.
+   * 
+   * @return False.
+   */
+  @Override
+  public boolean isDirected() {
+    return false;
+  }
+
   /**
    * Gets a list without duplicates of the neighbors of node n.
    * “Without duplicates” means that each neighbor appears uniquely in the list
@@ -96,6 +118,26 @@ public class UndirectedGraph extends Graph {
     return super.adjacent(n, u) || reverseGraph.adjacent(n, u);
   }
 
+  @Override
+  public void useEdgeIndex(int minDegree) {
+    super.useEdgeIndex(minDegree);
+    reverseGraph.useEdgeIndex(minDegree);
+  }
+
+  /**
+   * Know the number of edges between nodes u and v, whichever way they were
+   * added.
+   * 
+   * @param u Source node.
+   * @param v Target node.
+   * @return The number of edges between u and v.
+   */
+  @Override
+  public int countEdges(Node u, Node v) {
+    // Self-loops are also held by the reverse graph
+    return super.countEdges(u, v) + (u.equals(v) ? 0 : reverseGraph.countEdges(u, v));
+  }
+
   @Override
   public boolean addNode(Node n) {
     if (reverseGraph != null) {
@@ -112,6 +154,32 @@ public class UndirectedGraph extends Graph {
     return super.removeNode(n);
   }
 
+  @Override
+  void removeNodes(int[] ids) {
+    reverseGraph.removeNodes(ids);
+    super.removeNodes(ids);
+  }
+
+  @Override
+  Edge detachOneEdge(int fromId, int toId, int occurrence) {
+    Edge edge = super.detachOneEdge(fromId, toId, occurrence);
+    if (edge != null)
+      reverseGraph.detachOneEdge(toId, fromId, occurrence);
+    return edge;
+  }
+
+  /**
+   * Applies the edge mutations of a batch, the reverse graph receiving every
+   * edge backwards first, so that the listeners are told once both are done.
+   *
+   * @param batch The batch being committed.
+   */
+  @Override
+  void commitEdges(GraphBatch batch) {
+    batch.applyEdges(reverseGraph, true);
+    super.commitEdges(batch);
+  }
+
   @Override
   public int inDegree(Node n) {
     return degree(n);
@@ -132,17 +200,34 @@ public class UndirectedGraph extends Graph {
     return super.existsEdge(u, v) || reverseGraph.existsEdge(u, v);
   }
 
+  /**
+   * Know if edge (u, v) is a multi-edge, i.e. there is at least one other edge
+   * between u and v, whichever way they were added.
+   * 
+   * @param u Source node.
+   * @param v Target node.
+   * @return True if there are at least two edges between u and v, false
+   *         otherwise.
+   */
   @Override
   public boolean isMultiEdge(Node u, Node v) {
-    return super.isMultiEdge(u, v) || reverseGraph.isMultiEdge(u, v);
+    return countEdges(u, v) > 1;
   }
 
   @Override
   public void addEdge(Node u, Node v) {
-    super.addEdge(u, v);
     if (reverseGraph != null) {
       reverseGraph.addEdge(v, u);
     }
+    super.addEdge(u, v);
+  }
+
+  @Override
+  public void addEdge(Node u, Node v, int weight) {
+    if (reverseGraph != null) {
+      reverseGraph.addEdge(v, u, weight);
+    }
+    super.addEdge(u, v, weight);
   }
 
   @Override
@@ -153,6 +238,14 @@ public class UndirectedGraph extends Graph {
     return super.removeEdge(u, v);
   }
 
+  @Override
+  public boolean removeEdge(Node u, Node v, int weight) {
+    if (reverseGraph != null) {
+      reverseGraph.removeEdge(v, u, weight);
+    }
+    return super.removeEdge(u, v, weight);
+  }
+
   /**
    * Gets the list of all edges leaving node n.
    * Notice that in the undirected case, all incident edges to a node are both in
@@ -166,6 +259,27 @@ public class UndirectedGraph extends Graph {
     return getIncidentEdges(n);
   }
 
+  /**
+   * Performs an action on every edge incident to node with specified id, seen
+   * from that node. Self-loops are reported once, as counted by
+   * {@link #outDegree(Node)}.
+   * 
+   * @param id     Source node id.
+   * @param action The action.
+   */
+  @Override
+  public void forEachOutEdge(int id, EdgeConsumer action) {
+    Node n = getNode(id);
+    if (n == null)
+      return;
+    for (Edge e : super.getOutEdges(n))
+      action.accept(id, e.to().getId(), e.isWeighted() ? e.getWeight() : 0);
+    for (Edge e : reverseGraph.getOutEdges(n)) {
+      if (!e.isSelfLoop())
+        action.accept(id, e.to().getId(), e.isWeighted() ? e.getWeight() : 0);
+    }
+  }
+
   /**
    * Gets the list of all edges entering node n.
    * Notice that in the undirected case, all incident edges to a node are both in
@@ -292,36 +406,14 @@ public class UndirectedGraph extends Graph {
 
   /**
    * Transform the (possibly) multi-graph this into a simple one, by removing its
-   * self-loops and multi-edges.
+   * self-loops and multi-edges, u-v and v-u being the same edge.
    * Simple cast from Graph.
    * 
    * @return A simple graph from this in a new graph.
    */
   @Override
   public UndirectedGraph toSimpleGraph() {
-    UndirectedGraph simpleGraph = new UndirectedGraph();
-
-    for (Node n : getAllNodes()) {
-      simpleGraph.addNode(n.getId());
-    }
-
-    for (Node u : getAllNodes()) {
-      Set<Integer> targets = new HashSet<>();
-
-      for (Edge e : getAel().getOrDefault(u, List.of())) {
-        int fromId = e.from().getId();
-        int toId = e.to().getId();
-
-        if (fromId == toId || !targets.add(toId))
-          continue;
-
-        simpleGraph.addEdge(
-            simpleGraph.getNode(fromId),
-            simpleGraph.getNode(toId));
-      }
-    }
-
-    return simpleGraph;
+    return (UndirectedGraph) simpleGraphBuilder(false).build();
   }
 
   /**
@@ -0,0 +1,349 @@
+package matchings;
+
+import java.util.Arrays;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.IndexedMinHeap;
+import m1graphs2025.UndirectedGraph;
+
+/**
+ * A class BipartiteMatching, finds maximum matchings in a bipartite undirected
+ * graph.
+ * The two sides are found by a breadth-first 2-colouring, the node of smallest
+ * id of every connected component going to the left side.
+ * Maximum cardinality matchings are found with Hopcroft and Karp's algorithm in
+ * O(E sqrt(V)); maximum weight matchings with the Hungarian method in its sparse
+ * form, one shortest augmenting path per left node under Johnson potentials,
+ * in O(V E log V) at worst and much less in practice, each search stopping at
+ * the first free node. Both run on primitive arrays, and multi-edges are
+ * allowed.
+ */
+public class BipartiteMatching {
+  private static final int UNSEEN = Integer.MAX_VALUE;
+  private static final long INFINITY = Long.MAX_VALUE;
+
+  private final CompactGraph graph;
+  private final boolean[] left;
+
+  /**
+   * BipartiteMatching constructor, snapshots graph g.
+   * @param g The bipartite undirected graph to match.
+   */
+  public BipartiteMatching(UndirectedGraph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * BipartiteMatching constructor over an existing snapshot.
+   * @param graph The bipartite undirected snapshot to match.
+   */
+  public BipartiteMatching(CompactGraph graph) {
+    if (graph.isDirected())
+      throw new GraphExceptions("Bipartite matching requires an undirected graph");
+    this.left = bipartition(graph);
+    if (left == null)
+      throw new GraphExceptions("Graph is not bipartite");
+    this.graph = graph;
+  }
+
+  /**
+   * Splits an undirected snapshot into two sides such that every edge joins
+   * both sides.
+   * @param graph The undirected snapshot to split.
+   * @return Whether every node index is on the left side, or null if the graph
+   *         has an odd cycle, a self-loop included.
+   */
+  public static boolean[] bipartition(CompactGraph graph) {
+    int n = graph.nbNodes();
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    boolean[] left = new boolean[n];
+    boolean[] seen = new boolean[n];
+    int[] queue = new int[n];
+    for (int root = 0; root < n; root++) {
+      if (seen[root])
+        continue;
+      seen[root] = true;
+      left[root] = true;
+      queue[0] = root;
+      int tail = 1;
+      for (int head = 0; head < tail; head++) {
+        int u = queue[head];
+        for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+          int v = targets[a];
+          if (!seen[v]) {
+            seen[v] = true;
+            left[v] = !left[u];
+            queue[tail++] = v;
+          } else if (left[v] == left[u]) {
+            return null;
+          }
+        }
+      }
+    }
+    return left;
+  }
+
+  /**
+   * Know whether the node of specified index is on the left side.
+   * @param u Node index.
+   * @return True if on the left side, false if on the right side.
+   */
+  public boolean isLeft(int u) {
+    return left[u];
+  }
+
+  /**
+   * Finds a matching of maximum cardinality with Hopcroft and Karp's algorithm:
+   * every phase layers the graph by a breadth-first search from the free left
+   * nodes, then augments along a maximal set of vertex-disjoint shortest
+   * augmenting paths found by an iterative depth-first search.
+   * @return A maximum cardinality matching.
+   */
+  public Matching maximumMatching() {
+    int n = graph.nbNodes();
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    int[] arcEdges = graph.arcEdges();
+    int[] mate = new int[n];
+    int[] mateEdge = new int[n];
+    Arrays.fill(mate, -1);
+    Arrays.fill(mateEdge, -1);
+    int[] layer = new int[n];
+    int[] queue = new int[n];
+    int[] nextArc = new int[n];
+    int[] stack = new int[n];
+
+    while (true) {
+      int tail = 0;
+      for (int u = 0; u < n; u++) {
+        if (!left[u])
+          continue;
+        if (mate[u] < 0) {
+          layer[u] = 0;
+          queue[tail++] = u;
+        } else {
+          layer[u] = UNSEEN;
+        }
+      }
+      boolean found = false;
+      for (int head = 0; head < tail; head++) {
+        int u = queue[head];
+        for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+          int w = mate[targets[a]];
+          if (w < 0) {
+            found = true;
+          } else if (layer[w] == UNSEEN) {
+            layer[w] = layer[u] + 1;
+            queue[tail++] = w;
+          }
+        }
+      }
+      if (!found)
+        break;
+
+      for (int u = 0; u < n; u++) {
+        nextArc[u] = offsets[u];
+      }
+      for (int root = 0; root < n; root++) {
+        if (!left[root] || mate[root] >= 0)
+          continue;
+        int top = 0;
+        stack[0] = root;
+        while (top >= 0) {
+          int x = stack[top];
+          if (nextArc[x] == offsets[x + 1]) {
+            layer[x] = UNSEEN;
+            top--;
+            continue;
+          }
+          int a = nextArc[x]++;
+          int w = mate[targets[a]];
+          if (w < 0) {
+            // Every node of the stack takes the right node it was leaving by
+            for (int i = top; i >= 0; i--) {
+              int y = stack[i];
+              int b = nextArc[y] - 1;
+              mate[y] = targets[b];
+              mate[targets[b]] = y;
+              mateEdge[y] = arcEdges[b];
+              mateEdge[targets[b]] = arcEdges[b];
+            }
+            break;
+          }
+          if (layer[w] == layer[x] + 1)
+            stack[++top] = w;
+        }
+      }
+    }
+    return matching(mateEdge);
+  }
+
+  /**
+   * Finds a matching of maximum total weight, edges of negative weight being
+   * left out.
+   * @return A maximum weight matching.
+   */
+  public Matching maximumWeightMatching() {
+    return maximumWeightMatching(false);
+  }
+
+  /**
+   * Finds a matching of maximum total weight with the Hungarian method.
+   * Every left node may also stay unmatched, which is coded as an edge to a
+   * private dummy right node, so that the left nodes can be assigned one after
+   * the other: each one is given the shortest augmenting path leaving it,
+   * found by Dijkstra's algorithm over the residual graph of the assignment,
+   * with costs the opposite of the weights made non-negative by node
+   * potentials. The search stops at the first free right node, real or dummy.
+   * @param maximumCardinality Whether to find the heaviest of the maximum
+   *                           cardinality matchings, e.g. for the assignment
+   *                           problem, dummy edges then costing more than any
+   *                           set of real edges.
+   * @return The matching.
+   */
+  @SuppressWarnings("java:S3776")
+  public Matching maximumWeightMatching(boolean maximumCardinality) {
+    int n = graph.nbNodes();
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    int[] arcEdges = graph.arcEdges();
+    int[] mate = new int[n];
+    int[] mateEdge = new int[n];
+    Arrays.fill(mate, -1);
+    Arrays.fill(mateEdge, -1);
+
+    // Feasible potentials: 0 on the left and on the dummies, the cheapest
+    // incident cost on the right
+    long[] potential = new long[n];
+    long[] dummyPotential = new long[n];
+    long sinkPotential = 0;
+    long dummyCost = 0;
+    for (int u = 0; u < n; u++) {
+      long heaviest = 0;
+      for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+        heaviest = Math.max(heaviest, Math.abs((long) graph.arcWeight(a)));
+        if (!left[u])
+          potential[u] = Math.min(potential[u], -(long) graph.arcWeight(a));
+      }
+      if (left[u])
+        dummyCost += 2 * heaviest;
+      sinkPotential = Math.min(sinkPotential, potential[u]);
+    }
+    dummyCost = maximumCardinality ? dummyCost + 1 : 0;
+
+    long[] dist = new long[n];
+    long[] dummyDist = new long[n];
+    Arrays.fill(dist, INFINITY);
+    int[] touched = new int[n];
+    int[] parent = new int[n];
+    int[] parentArc = new int[n];
+    IndexedMinHeap heap = new IndexedMinHeap(n);
+    for (int root = 0; root < n; root++) {
+      if (!left[root])
+        continue;
+      int count = 0;
+      dist[root] = 0;
+      touched[count++] = root;
+      heap.offer(root, 0);
+      long sinkDist = INFINITY;
+      int last = -1;
+      boolean lastIsDummy = false;
+      while (!heap.isEmpty()) {
+        int x = heap.poll();
+        if (dist[x] >= sinkDist) {
+          heap.clear();
+          break;
+        }
+        if (left[x]) {
+          dummyDist[x] = dist[x] + dummyCost + potential[x] - dummyPotential[x];
+          long d = dummyDist[x] + dummyPotential[x] - sinkPotential;
+          if (d < sinkDist) {
+            sinkDist = d;
+            last = x;
+            lastIsDummy = true;
+          }
+          for (int a = offsets[x]; a < offsets[x + 1]; a++) {
+            if (arcEdges[a] == mateEdge[x])
+              continue;
+            int v = targets[a];
+            d = dist[x] - graph.arcWeight(a) + potential[x] - potential[v];
+            if (d < dist[v]) {
+              if (dist[v] == INFINITY)
+                touched[count++] = v;
+              dist[v] = d;
+              parent[v] = x;
+              parentArc[v] = a;
+              heap.offer(v, d);
+            }
+          }
+        } else if (mate[x] < 0) {
+          long d = dist[x] + potential[x] - sinkPotential;
+          if (d < sinkDist) {
+            sinkDist = d;
+            last = x;
+            lastIsDummy = false;
+          }
+        } else {
+          int w = mate[x];
+          long d = dist[x] + graph.edgeWeight(mateEdge[x]) + potential[x] - potential[w];
+          if (d < dist[w]) {
+            if (dist[w] == INFINITY)
+              touched[count++] = w;
+            dist[w] = d;
+            heap.offer(w, d);
+          }
+        }
+      }
+
+      // Johnson's update, shifted by -sinkDist so that unreached nodes keep their
+      // potential: only differences of potentials matter
+      for (int i = 0; i < count; i++) {
+        int u = touched[i];
+        if (left[u] && dist[u] < sinkDist)
+          dummyPotential[u] += Math.min(dummyDist[u], sinkDist) - sinkDist;
+        potential[u] += Math.min(dist[u], sinkDist) - sinkDist;
+        dist[u] = INFINITY;
+      }
+
+      int v = last;
+      if (lastIsDummy) {
+        v = mate[last];
+        mate[last] = -1;
+        mateEdge[last] = -1;
+      }
+      while (v >= 0) {
+        int a = parentArc[v];
+        int u = parent[v];
+        int previous = mate[u];
+        mate[u] = v;
+        mate[v] = u;
+        mateEdge[u] = arcEdges[a];
+        mateEdge[v] = arcEdges[a];
+        v = previous;
+      }
+    }
+    return matching(mateEdge);
+  }
+
+  /**
+   * Collects the matched edges, by increasing left node index.
+   */
+  private Matching matching(int[] mateEdge) {
+    int size = 0;
+    long total = 0;
+    for (int u = 0; u < mateEdge.length; u++) {
+      if (left[u] && mateEdge[u] >= 0) {
+        size++;
+        total += graph.edgeWeight(mateEdge[u]);
+      }
+    }
+    int[] edgeIds = new int[size];
+    for (int u = 0, i = 0; u < mateEdge.length; u++) {
+      if (left[u] && mateEdge[u] >= 0)
+        edgeIds[i++] = mateEdge[u];
+    }
+    return new Matching(graph, edgeIds, total);
+  }
+}
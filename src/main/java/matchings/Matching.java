@@ -0,0 +1,113 @@
+package matchings;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Edge;
+import m1graphs2025.Node;
+
+/**
+ * A class that encapsulates a matching: the ids of the matched edges, no two of
+ * them sharing a node, and their total weight.
+ */
+public class Matching {
+  private final CompactGraph graph;
+  private final int[] edgeIds;
+  private final long totalWeight;
+  private final int[] mate;
+
+  /**
+   * Matching constructor.
+   * @param graph The snapshot that was matched.
+   * @param edgeIds Ids of the matched edges.
+   * @param totalWeight Sum of the weights of the matched edges.
+   */
+  public Matching(CompactGraph graph, int[] edgeIds, long totalWeight) {
+    this.graph = graph;
+    this.edgeIds = edgeIds;
+    this.totalWeight = totalWeight;
+    this.mate = new int[graph.nbNodes()];
+    Arrays.fill(mate, -1);
+    for (int e : edgeIds) {
+      mate[graph.edgeSource(e)] = graph.edgeTarget(e);
+      mate[graph.edgeTarget(e)] = graph.edgeSource(e);
+    }
+  }
+
+  /**
+   * Know the number of matched edges.
+   * @return The size of the matching.
+   */
+  public int size() {
+    return edgeIds.length;
+  }
+
+  /**
+   * Gets the ids of the matched edges, i.e. their positions in
+   * {@link m1graphs2025.Graph#getAllEdges()}.
+   * @return this.edgeIds
+   */
+  public int[] getEdgeIds() {
+    return edgeIds;
+  }
+
+  /**
+   * Gets the sum of the weights of the matched edges.
+   * @return this.totalWeight
+   */
+  public long getTotalWeight() {
+    return totalWeight;
+  }
+
+  /**
+   * Gets the id of the node matched with node n.
+   * @param n Target node.
+   * @return The id of its mate, or -1 if n is not matched.
+   */
+  public int getMate(Node n) {
+    return getMate(n.getId());
+  }
+
+  /**
+   * Gets the id of the node matched with the node of specified id.
+   * @param id Target node id.
+   * @return The id of its mate, or -1 if the node is not matched.
+   */
+  public int getMate(int id) {
+    int index = graph.indexOf(id);
+    return index < 0 || mate[index] < 0 ? -1 : graph.nodeId(mate[index]);
+  }
+
+  /**
+   * Know whether the node of specified id is matched.
+   * @param id Target node id.
+   * @return True if an edge of the matching covers the node.
+   */
+  public boolean isMatched(int id) {
+    return getMate(id) >= 0;
+  }
+
+  /**
+   * Know whether every node is matched.
+   * @return True if the matching is perfect.
+   */
+  public boolean isPerfect() {
+    return 2 * edgeIds.length == graph.nbNodes();
+  }
+
+  /**
+   * Gets the matched edge instances.
+   * @return The matched edges, or an empty list if the snapshot has no backing graph.
+   */
+  public List<Edge> getEdges() {
+    List<Edge> edges = new ArrayList<>(edgeIds.length);
+    if (edgeIds.length == 0 || graph.edge(edgeIds[0]) == null)
+      return edges;
+    for (int e : edgeIds) {
+      edges.add(graph.edge(e));
+    }
+    return edges;
+  }
+}
@@ -0,0 +1,302 @@
+package ranking;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.IntStream;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Graph;
+import m1graphs2025.GraphExceptions;
+
+/**
+ * A class Centrality, scores the nodes of a graph by betweenness, closeness or
+ * harmonic centrality.
+ * All the measures run one single-source shortest path traversal per source:
+ * a breadth-first search, or Dijkstra's algorithm when weights are used, in
+ * which case every edge weight must be positive. Sources are processed in
+ * parallel, every thread reusing its own primitive arrays.
+ * Multi-edges count as distinct shortest paths, and self-loops are ignored.
+ * Betweenness follows Brandes' algorithm, exactly or from a sample of sources
+ * (k-pivot) or of shortest paths (Riondato and Kornaropoulos). The betweenness
+ * of v sums, over the pairs of other nodes s and t, the fraction of the
+ * shortest paths from s to t that go through v; pairs are unordered in an
+ * undirected graph.
+ * Closeness and harmonic centrality use the distances from every node; on a
+ * directed graph, run them on {@link CompactGraph#transpose()} to use the
+ * distances to every node instead.
+ */
+public class Centrality {
+  private final CompactGraph graph;
+  private boolean weighted;
+  private double failureProbability = 0.1;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * Centrality constructor, snapshots graph g.
+   * @param g The graph to score.
+   */
+  public Centrality(Graph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * Centrality constructor over an existing snapshot.
+   * @param graph The snapshot to score.
+   */
+  public Centrality(CompactGraph graph) {
+    this.graph = graph;
+    this.weighted = graph.isWeighted();
+  }
+
+  /**
+   * Sets whether path lengths use the edge weights rather than the number of
+   * edges, by default when the graph is weighted.
+   */
+  public void setWeighted(boolean weighted) {
+    this.weighted = weighted;
+  }
+
+  /**
+   * Sets the probability that the error bound of a sampled betweenness does not
+   * hold, 0.1 by default.
+   */
+  public void setFailureProbability(double failureProbability) {
+    if (failureProbability <= 0 || failureProbability >= 1)
+      throw new IllegalArgumentException("Failure probability must be in (0, 1)");
+    this.failureProbability = failureProbability;
+  }
+
+  /**
+   * Sets the pool running the traversals, the common pool by default.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Computes the exact betweenness of every node with Brandes' algorithm, in
+   * O(nm) time, or O(nm + n² log n) with weights.
+   * @return The betweenness scores.
+   */
+  public CentralityScores betweenness() {
+    int n = graph.nbNodes();
+    double scale = graph.isDirected() ? 1 : 0.5;
+    double[] scores = sumDependencies(IntStream.range(0, n).toArray(), scale);
+    return new CentralityScores(graph, scores, 0, 0, 0);
+  }
+
+  /**
+   * Estimates the betweenness of every node from the dependencies of k sources
+   * drawn at random without replacement, scaled by n / k.
+   * The error bound follows from Hoeffding's inequality, a single source
+   * contributing at most n - 2 to a score.
+   * @param k Number of sources, at most the number of nodes.
+   * @param seed Seed of the source sampling.
+   * @return The estimated betweenness scores.
+   */
+  public CentralityScores betweenness(int k, long seed) {
+    int n = graph.nbNodes();
+    if (k <= 0)
+      throw new IllegalArgumentException("Number of pivots must be positive");
+    if (k >= n)
+      return betweenness();
+
+    int[] candidates = IntStream.range(0, n).toArray();
+    Random random = new Random(seed);
+    for (int i = 0; i < k; i++) {
+      int j = i + random.nextInt(n - i);
+      int tmp = candidates[i];
+      candidates[i] = candidates[j];
+      candidates[j] = tmp;
+    }
+    int[] pivots = new int[k];
+    System.arraycopy(candidates, 0, pivots, 0, k);
+
+    double half = graph.isDirected() ? 1 : 0.5;
+    double[] scores = sumDependencies(pivots, half * n / k);
+    double bound = half * n * (n - 2.0) * Math.sqrt(Math.log(2.0 * n / failureProbability) / (2.0 * k));
+    return new CentralityScores(graph, scores, k, bound, failureProbability);
+  }
+
+  /**
+   * Estimates the betweenness of every node from shortest paths sampled
+   * uniformly at random (Riondato and Kornaropoulos).
+   * The number of samples depends on epsilon, on the failure probability and on
+   * an upper bound of the vertex diameter, not on the size of the graph.
+   * Every score is within {@code epsilon * n(n - 1)} of its exact value (half
+   * this on an undirected graph), except with the failure probability.
+   * @param epsilon Error bound, as a fraction of the number of node pairs.
+   * @param seed Seed of the path sampling.
+   * @return The estimated betweenness scores.
+   */
+  public CentralityScores betweenness(double epsilon, long seed) {
+    if (epsilon <= 0 || epsilon >= 1)
+      throw new IllegalArgumentException("Epsilon must be in (0, 1)");
+    checkWeights();
+    int n = graph.nbNodes();
+    double pairs = (graph.isDirected() ? 1.0 : 0.5) * n * (n - 1.0);
+    if (n < 3)
+      return new CentralityScores(graph, new double[n], 0, 0, 0);
+
+    int diameter = vertexDiameterBound();
+    double log = Math.floor(Math.log(Math.max(diameter - 2, 1)) / Math.log(2));
+    int r = (int) Math.ceil(0.5 / (epsilon * epsilon) * (log + 1 + Math.log(1 / failureProbability)));
+    double weight = pairs / r;
+
+    double[] scores = pool.submit(() -> IntStream.range(0, r).parallel()
+        .collect(() -> new Accumulator(graph, weighted), (acc, i) -> {
+          Random random = new Random(seed + i * 0x9E3779B97F4A7C15L);
+          int s = random.nextInt(n);
+          int t = random.nextInt(n - 1);
+          if (t >= s)
+            t++;
+          acc.paths.run(s);
+          int size = acc.paths.samplePath(t, random, acc.path);
+          for (int j = 0; j < size; j++) {
+            acc.scores[acc.path[j]] += weight;
+          }
+        }, Accumulator::merge)).join().scores;
+    return new CentralityScores(graph, scores, r, epsilon * pairs, failureProbability);
+  }
+
+  /**
+   * Computes the closeness of every node: the number of other nodes it reaches
+   * divided by the sum of their distances, scaled by the fraction of the other
+   * nodes it reaches (Wasserman and Faust), so that the scores of nodes in
+   * different components are comparable. A node reaching nothing scores 0.
+   * @return The closeness scores.
+   */
+  public CentralityScores closeness() {
+    int n = graph.nbNodes();
+    return singleSource(paths -> {
+      long total = 0;
+      for (int i = 1; i < paths.reached; i++) {
+        total += paths.dist[paths.order[i]];
+      }
+      double others = paths.reached - 1;
+      return total == 0 ? 0 : others / total * others / (n - 1);
+    });
+  }
+
+  /**
+   * Computes the harmonic centrality of every node: the sum of the inverse
+   * distances to the other nodes, unreachable nodes adding 0.
+   * @return The harmonic centrality scores.
+   */
+  public CentralityScores harmonic() {
+    return singleSource(paths -> {
+      double total = 0;
+      for (int i = 1; i < paths.reached; i++) {
+        total += 1.0 / paths.dist[paths.order[i]];
+      }
+      return total;
+    });
+  }
+
+  /**
+   * Scores every node from the shortest paths leaving it.
+   */
+  private CentralityScores singleSource(ToDoubleFunction<ShortestPaths> score) {
+    checkWeights();
+    int n = graph.nbNodes();
+    ThreadLocal<ShortestPaths> traversals = ThreadLocal.withInitial(() -> new ShortestPaths(graph, weighted));
+    double[] scores = new double[n];
+    pool.submit(() -> IntStream.range(0, n).parallel().forEach(s -> {
+      ShortestPaths paths = traversals.get();
+      paths.run(s);
+      scores[s] = score.applyAsDouble(paths);
+    })).join();
+    return new CentralityScores(graph, scores, 0, 0, 0);
+  }
+
+  /**
+   * Sums the scaled dependencies of the given sources on every node, every
+   * split of the sources accumulating into its own array.
+   */
+  private double[] sumDependencies(int[] sources, double scale) {
+    checkWeights();
+    return pool.submit(() -> IntStream.range(0, sources.length).parallel()
+        .collect(() -> new Accumulator(graph, weighted), (acc, i) -> {
+          acc.paths.run(sources[i]);
+          acc.paths.accumulate(acc.scores, scale);
+        }, Accumulator::merge)).join().scores;
+  }
+
+  /**
+   * Bounds the vertex diameter, the largest number of nodes on a shortest path.
+   * In an undirected component, no shortest path is longer than the sum of the
+   * two largest distances from any of its nodes, which gives a number of edges
+   * once divided by the smallest weight. Directed graphs fall back on the
+   * number of nodes.
+   */
+  private int vertexDiameterBound() {
+    int n = graph.nbNodes();
+    if (graph.isDirected())
+      return n;
+    long minWeight = 1;
+    if (weighted) {
+      minWeight = Long.MAX_VALUE;
+      for (int e = 0; e < graph.nbEdges(); e++) {
+        if (graph.edgeSource(e) != graph.edgeTarget(e))
+          minWeight = Math.min(minWeight, graph.edgeWeight(e));
+      }
+    }
+    ShortestPaths paths = new ShortestPaths(graph, weighted);
+    boolean[] seen = new boolean[n];
+    long bound = 1;
+    for (int u = 0; u < n; u++) {
+      if (seen[u])
+        continue;
+      paths.run(u);
+      long first = 0;
+      long second = 0;
+      for (int i = 0; i < paths.reached; i++) {
+        int v = paths.order[i];
+        seen[v] = true;
+        long d = paths.dist[v];
+        if (d > first) {
+          second = first;
+          first = d;
+        } else if (d > second) {
+          second = d;
+        }
+      }
+      bound = Math.max(bound, Math.min(paths.reached, (first + second) / minWeight + 1));
+    }
+    return (int) bound;
+  }
+
+  /**
+   * Checks that weighted traversals only meet positive weights.
+   */
+  private void checkWeights() {
+    if (!weighted)
+      return;
+    for (int e = 0; e < graph.nbEdges(); e++) {
+      if (graph.edgeWeight(e) <= 0 && graph.edgeSource(e) != graph.edgeTarget(e))
+        throw new GraphExceptions("Weighted centrality requires positive edge weights");
+    }
+  }
+
+  /**
+   * Scores accumulated by one split of the sources, with its traversal.
+   */
+  private static final class Accumulator {
+    final ShortestPaths paths;
+    final double[] scores;
+    final int[] path;
+
+    Accumulator(CompactGraph graph, boolean weighted) {
+      this.paths = new ShortestPaths(graph, weighted);
+      this.scores = new double[graph.nbNodes()];
+      this.path = new int[graph.nbNodes()];
+    }
+
+    void merge(Accumulator other) {
+      for (int v = 0; v < scores.length; v++) {
+        scores[v] += other.scores[v];
+      }
+    }
+  }
+}
@@ -0,0 +1,103 @@
+package ranking;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Node;
+
+/**
+ * A class that encapsulates a centrality score for every node of a graph.
+ * Sampled scores come with an additive error bound that holds for all the
+ * nodes at once, except with the stated failure probability.
+ */
+public class CentralityScores {
+  private final CompactGraph graph;
+  private final double[] scores;
+  private final int samples;
+  private final double errorBound;
+  private final double failureProbability;
+
+  /**
+   * CentralityScores constructor.
+   * @param graph The snapshot the scores were computed on.
+   * @param scores Score of every node, by node index.
+   * @param samples Number of sources or paths sampled, or 0 for exact scores.
+   * @param errorBound Additive error bound on every score, 0 for exact scores.
+   * @param failureProbability Probability that the error bound does not hold.
+   */
+  public CentralityScores(CompactGraph graph, double[] scores, int samples, double errorBound,
+      double failureProbability) {
+    this.graph = graph;
+    this.scores = scores;
+    this.samples = samples;
+    this.errorBound = errorBound;
+    this.failureProbability = failureProbability;
+  }
+
+  /**
+   * Gets the scores by node index.
+   * @return this.scores
+   */
+  public double[] getScores() {
+    return scores;
+  }
+
+  /**
+   * Gets the score of node n.
+   * @param n Target node.
+   * @return The score of n, or 0 if n is not part of the graph.
+   */
+  public double getScore(Node n) {
+    return getScore(n.getId());
+  }
+
+  /**
+   * Gets the score of node with specified id.
+   * @param id Target node id.
+   * @return The score of the node, or 0 if it is not part of the graph.
+   */
+  public double getScore(int id) {
+    int index = graph.indexOf(id);
+    return index < 0 ? 0 : scores[index];
+  }
+
+  /**
+   * Gets the ids of the k most central nodes, by decreasing score.
+   * @param k Number of nodes wanted.
+   * @return The ids of the k most central nodes.
+   */
+  public int[] getTopNodes(int k) {
+    return Rankings.topNodes(graph, scores, k);
+  }
+
+  /**
+   * Know whether the scores are exact rather than sampled.
+   * @return True if no sampling was used.
+   */
+  public boolean isExact() {
+    return samples == 0;
+  }
+
+  /**
+   * Gets the number of sources or paths sampled.
+   * @return this.samples
+   */
+  public int getSamples() {
+    return samples;
+  }
+
+  /**
+   * Gets the additive error bound on every score.
+   * @return this.errorBound
+   */
+  public double getErrorBound() {
+    return errorBound;
+  }
+
+  /**
+   * Gets the probability that some score is further than the error bound from
+   * its exact value.
+   * @return this.failureProbability
+   */
+  public double getFailureProbability() {
+    return failureProbability;
+  }
+}
@@ -0,0 +1,283 @@
+package ranking;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+import java.util.stream.IntStream;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Graph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.Node;
+
+/**
+ * A class PageRank, ranks the nodes of a graph by power iteration.
+ * Iterations are pull-based: every node sums the contributions of its
+ * in-neighbours read from the transposed CSR snapshot, so that the nodes can be
+ * updated in parallel without synchronisation. Multi-edges count as many times
+ * as they appear, and the rank of dangling nodes (no out-edge) is
+ * redistributed following the teleport distribution.
+ */
+public class PageRank {
+  private static final int CHUNK_SIZE = 4096;
+
+  private final CompactGraph graph;
+  private final CompactGraph reverse;
+  private double dampingFactor = 0.85;
+  private double tolerance = 1e-9;
+  private int maxIterations = 100;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * PageRank constructor, snapshots graph g.
+   * @param g The graph to rank.
+   */
+  public PageRank(Graph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * PageRank constructor over an existing snapshot.
+   * @param graph The snapshot to rank.
+   */
+  public PageRank(CompactGraph graph) {
+    this.graph = graph;
+    this.reverse = graph.transpose();
+  }
+
+  /**
+   * Sets the probability of following an edge rather than teleporting, 0.85 by default.
+   */
+  public void setDampingFactor(double dampingFactor) {
+    if (dampingFactor < 0 || dampingFactor >= 1)
+      throw new IllegalArgumentException("Damping factor must be in [0, 1)");
+    this.dampingFactor = dampingFactor;
+  }
+
+  /**
+   * Sets the L1 change between two iterations under which the computation stops.
+   */
+  public void setTolerance(double tolerance) {
+    this.tolerance = tolerance;
+  }
+
+  /**
+   * Sets the maximum number of iterations, 100 by default.
+   */
+  public void setMaxIterations(int maxIterations) {
+    this.maxIterations = maxIterations;
+  }
+
+  /**
+   * Sets the pool running the iterations, the common pool by default.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Computes the PageRank of every node with a uniform teleport distribution.
+   * @return The ranks, summing to 1.
+   */
+  public PageRankResult compute() {
+    return compute(null);
+  }
+
+  /**
+   * Computes the topic-sensitive PageRank of every node.
+   * Teleports, and the rank of dangling nodes, go to the nodes with probability
+   * proportional to their teleport weight.
+   * @param teleport Non-negative teleport weight of every node, by node index,
+   *                 or null for the uniform distribution.
+   * @return The ranks, summing to 1.
+   */
+  public PageRankResult compute(double[] teleport) {
+    final int n = graph.nbNodes();
+    if (n == 0)
+      return new PageRankResult(graph, new double[0], 0, 0, true);
+    final double[] jump = normalize(teleport, n);
+
+    final int[] outDegree = new int[n];
+    for (int u = 0; u < n; u++) {
+      outDegree[u] = graph.outDegree(u);
+    }
+    final int[] inOffsets = reverse.offsets();
+    final int[] inSources = reverse.targets();
+    final int nbChunks = (n + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    final double[] partials = new double[nbChunks];
+
+    double[] rank = jump.clone();
+    double[] next = new double[n];
+    double[] contribution = new double[n];
+    double delta = Double.MAX_VALUE;
+    int iteration = 0;
+
+    while (iteration < maxIterations && delta > tolerance) {
+      final double[] r = rank;
+      final double[] nr = next;
+
+      run(nbChunks, c -> {
+        double dangling = 0;
+        for (int u = c * CHUNK_SIZE, end = Math.min(n, u + CHUNK_SIZE); u < end; u++) {
+          if (outDegree[u] == 0)
+            dangling += r[u];
+          else
+            contribution[u] = r[u] / outDegree[u];
+        }
+        partials[c] = dangling;
+      });
+      double dangling = sum(partials);
+      final double base = (1 - dampingFactor) + dampingFactor * dangling;
+
+      run(nbChunks, c -> {
+        double change = 0;
+        for (int v = c * CHUNK_SIZE, end = Math.min(n, v + CHUNK_SIZE); v < end; v++) {
+          double in = 0;
+          for (int a = inOffsets[v]; a < inOffsets[v + 1]; a++) {
+            in += contribution[inSources[a]];
+          }
+          double value = base * jump[v] + dampingFactor * in;
+          change += Math.abs(value - r[v]);
+          nr[v] = value;
+        }
+        partials[c] = change;
+      });
+      delta = sum(partials);
+
+      next = rank;
+      rank = nr;
+      iteration++;
+    }
+    return new PageRankResult(graph, rank, iteration, delta, delta <= tolerance);
+  }
+
+  /**
+   * Approximates the personalized PageRank of every node with respect to node s,
+   * by local forward pushes (Andersen, Chung and Lang).
+   * Only the neighbourhood of s holding significant rank is explored,
+   * so the cost does not depend on the size of the graph but on epsilon.
+   * @param s The source node.
+   * @param epsilon Residual per arc under which a node is not pushed any more.
+   * @return The approximate ranks, which underestimate the exact ones by at most
+   *         epsilon times the out-degree for every node.
+   */
+  public PageRankResult computePersonalized(Node s, double epsilon) {
+    int source = graph.indexOf(s);
+    if (source < 0)
+      throw new GraphExceptions("Node " + s.getId() + " is not part of the graph");
+    return computePersonalized(source, epsilon);
+  }
+
+  /**
+   * Approximates the personalized PageRank with respect to the node of specified
+   * index. More details can be found here {@link #computePersonalized(Node, double)}.
+   * @param source The source node index.
+   * @param epsilon Residual per arc under which a node is not pushed any more.
+   * @return The approximate ranks.
+   * @throws GraphExceptions If there is no node of index source.
+   * @throws IllegalArgumentException If epsilon is not positive.
+   */
+  public PageRankResult computePersonalized(int source, double epsilon) {
+    final int n = graph.nbNodes();
+    if (source < 0 || source >= n)
+      throw new GraphExceptions("No node of index " + source + " in a graph of " + n + " nodes");
+    // Pushes of nothing would go on forever around any cycle
+    if (!(epsilon > 0))
+      throw new IllegalArgumentException("Epsilon must be positive");
+    final int[] offsets = graph.offsets();
+    final int[] targets = graph.targets();
+    final double alpha = 1 - dampingFactor;
+
+    double[] estimate = new double[n];
+    double[] residual = new double[n];
+    boolean[] queued = new boolean[n];
+    int[] queue = new int[n];
+    int head = 0;
+    int size = 1;
+    int pushes = 0;
+
+    residual[source] = 1;
+    queue[0] = source;
+    queued[source] = true;
+
+    while (size > 0) {
+      int u = queue[head];
+      head = head + 1 == n ? 0 : head + 1;
+      size--;
+      queued[u] = false;
+
+      double r = residual[u];
+      int degree = offsets[u + 1] - offsets[u];
+      if (r < epsilon * Math.max(degree, 1))
+        continue;
+      residual[u] = 0;
+      estimate[u] += alpha * r;
+      pushes++;
+
+      if (degree == 0) {
+        // Dangling node: the walk restarts at the source
+        size = enqueue(source, (1 - alpha) * r, residual, queued, queue, head, size, epsilon, offsets);
+        continue;
+      }
+      double share = (1 - alpha) * r / degree;
+      for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+        size = enqueue(targets[a], share, residual, queued, queue, head, size, epsilon, offsets);
+      }
+    }
+
+    double left = 0;
+    for (double r : residual) {
+      left += r;
+    }
+    return new PageRankResult(graph, estimate, pushes, left, true);
+  }
+
+  private static int enqueue(int v, double mass, double[] residual, boolean[] queued, int[] queue, int head,
+      int size, double epsilon, int[] offsets) {
+    residual[v] += mass;
+    if (!queued[v] && residual[v] >= epsilon * Math.max(offsets[v + 1] - offsets[v], 1)) {
+      queued[v] = true;
+      queue[(head + size) % queue.length] = v;
+      size++;
+    }
+    return size;
+  }
+
+  private double[] normalize(double[] teleport, int n) {
+    double[] jump = new double[n];
+    if (teleport == null) {
+      Arrays.fill(jump, 1.0 / n);
+      return jump;
+    }
+    if (teleport.length != n)
+      throw new IllegalArgumentException("Teleport vector must have one weight per node");
+    double total = 0;
+    for (double w : teleport) {
+      if (w < 0)
+        throw new IllegalArgumentException("Teleport weights must be non-negative");
+      total += w;
+    }
+    if (total == 0)
+      throw new IllegalArgumentException("Teleport weights must not all be 0");
+    for (int u = 0; u < n; u++) {
+      jump[u] = teleport[u] / total;
+    }
+    return jump;
+  }
+
+  private void run(int nbChunks, IntConsumer body) {
+    if (nbChunks == 1) {
+      body.accept(0);
+      return;
+    }
+    pool.submit(() -> IntStream.range(0, nbChunks).parallel().forEach(body)).join();
+  }
+
+  private static double sum(double[] values) {
+    double total = 0;
+    for (double v : values) {
+      total += v;
+    }
+    return total;
+  }
+}
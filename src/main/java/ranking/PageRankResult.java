@@ -0,0 +1,93 @@
+package ranking;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Node;
+
+/**
+ * A class that encapsulates the outcome of a PageRank computation:
+ * the rank of every node, the number of iterations (or pushes) performed,
+ * the remaining residual and whether the tolerance was reached.
+ */
+public class PageRankResult {
+  private final CompactGraph graph;
+  private final double[] ranks;
+  private final int iterations;
+  private final double residual;
+  private final boolean converged;
+
+  /**
+   * PageRankResult constructor.
+   * @param graph The snapshot the ranks were computed on.
+   * @param ranks Rank of every node, by node index.
+   * @param iterations Number of iterations, or pushes for the local approximation.
+   * @param residual Last L1 change between two iterations, or rank mass left to push.
+   * @param converged Whether the tolerance was reached before the iteration cap.
+   */
+  public PageRankResult(CompactGraph graph, double[] ranks, int iterations, double residual, boolean converged) {
+    this.graph = graph;
+    this.ranks = ranks;
+    this.iterations = iterations;
+    this.residual = residual;
+    this.converged = converged;
+  }
+
+  /**
+   * Gets the ranks by node index.
+   * @return this.ranks
+   */
+  public double[] getRanks() {
+    return ranks;
+  }
+
+  /**
+   * Gets the rank of node n.
+   * @param n Target node.
+   * @return The rank of n, or 0 if n is not part of the ranked graph.
+   */
+  public double getRank(Node n) {
+    return getRank(n.getId());
+  }
+
+  /**
+   * Gets the rank of node with specified id.
+   * @param id Target node id.
+   * @return The rank of the node, or 0 if it is not part of the ranked graph.
+   */
+  public double getRank(int id) {
+    int index = graph.indexOf(id);
+    return index < 0 ? 0 : ranks[index];
+  }
+
+  /**
+   * Gets the ids of the k best ranked nodes, by decreasing rank.
+   * @param k Number of nodes wanted.
+   * @return The ids of the k best ranked nodes.
+   */
+  public int[] getTopNodes(int k) {
+    return Rankings.topNodes(graph, ranks, k);
+  }
+
+  /**
+   * Gets the number of iterations performed.
+   * @return this.iterations
+   */
+  public int getIterations() {
+    return iterations;
+  }
+
+  /**
+   * Gets the residual left when the computation stopped.
+   * @return this.residual
+   */
+  public double getResidual() {
+    return residual;
+  }
+
+  /**
+   * Know whether the computation reached its tolerance.
+   * @return this.converged
+   */
+  public boolean isConverged() {
+    return converged;
+  }
+}
@@ -0,0 +1,37 @@
+package ranking;
+
+import m1graphs2025.CompactGraph;
+
+/**
+ * Helpers shared by the ranking results.
+ */
+final class Rankings {
+  private Rankings() {
+  }
+
+  /**
+   * Gets the ids of the k nodes of highest score, by decreasing score.
+   */
+  static int[] topNodes(CompactGraph graph, double[] scores, int k) {
+    int n = scores.length;
+    k = Math.min(k, n);
+    // Partial selection: keep the k best indices sorted in a small array
+    int[] best = new int[k];
+    int size = 0;
+    for (int u = 0; u < n; u++) {
+      if (size == k && scores[u] <= scores[best[k - 1]])
+        continue;
+      int pos = size < k ? size++ : k - 1;
+      while (pos > 0 && scores[best[pos - 1]] < scores[u]) {
+        best[pos] = best[pos - 1];
+        pos--;
+      }
+      best[pos] = u;
+    }
+    int[] ids = new int[k];
+    for (int i = 0; i < k; i++) {
+      ids[i] = graph.nodeId(best[i]);
+    }
+    return ids;
+  }
+}
@@ -0,0 +1,171 @@
+package ranking;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.IndexedMinHeap;
+
+/**
+ * Single-source shortest path traversal shared by the centrality measures:
+ * a breadth-first search, or Dijkstra's algorithm on positive weights, that
+ * records the distance and the number of shortest paths of every reached node,
+ * together with the order in which nodes were settled.
+ * One instance is owned by one thread and reused from source to source; only
+ * the reached nodes are reset between two runs.
+ * Predecessors are not stored: the nodes preceding v on shortest paths are
+ * found back by scanning the in-arcs of v and checking distances.
+ */
+final class ShortestPaths {
+  static final long UNREACHED = Long.MAX_VALUE;
+
+  private final CompactGraph graph;
+  private final CompactGraph reverse;
+  private final boolean weighted;
+  final long[] dist;
+  final double[] sigma;
+  final double[] delta;
+  final int[] order;
+  int reached;
+  private final IndexedMinHeap heap;
+
+  ShortestPaths(CompactGraph graph, boolean weighted) {
+    this.graph = graph;
+    this.reverse = graph.transpose();
+    this.weighted = weighted;
+    int n = graph.nbNodes();
+    this.dist = new long[n];
+    this.sigma = new double[n];
+    this.delta = new double[n];
+    this.order = new int[n];
+    this.heap = weighted ? new IndexedMinHeap(n) : null;
+    Arrays.fill(dist, UNREACHED);
+  }
+
+  /**
+   * Computes the shortest paths from s, forgetting the previous run.
+   * Nodes are settled in non-decreasing distance, in order[0..reached).
+   */
+  void run(int s) {
+    for (int i = 0; i < reached; i++) {
+      int v = order[i];
+      dist[v] = UNREACHED;
+      sigma[v] = 0;
+      delta[v] = 0;
+    }
+    dist[s] = 0;
+    sigma[s] = 1;
+    if (weighted)
+      dijkstra(s);
+    else
+      bfs(s);
+  }
+
+  private void bfs(int s) {
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    order[0] = s;
+    int tail = 1;
+    for (int head = 0; head < tail; head++) {
+      int u = order[head];
+      long d = dist[u] + 1;
+      for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+        int v = targets[a];
+        if (dist[v] == UNREACHED) {
+          dist[v] = d;
+          order[tail++] = v;
+        }
+        if (dist[v] == d)
+          sigma[v] += sigma[u];
+      }
+    }
+    reached = tail;
+  }
+
+  private void dijkstra(int s) {
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    int count = 0;
+    heap.offer(s, 0);
+    while (!heap.isEmpty()) {
+      int u = heap.poll();
+      order[count++] = u;
+      for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+        int v = targets[a];
+        if (v == u)
+          continue;
+        long d = dist[u] + graph.arcWeight(a);
+        if (d < dist[v]) {
+          dist[v] = d;
+          sigma[v] = sigma[u];
+          heap.offer(v, d);
+        } else if (d == dist[v]) {
+          sigma[v] += sigma[u];
+        }
+      }
+    }
+    reached = count;
+  }
+
+  /**
+   * Brandes' dependency accumulation for the last run: adds to into[v] the
+   * dependency of the source on every node v other than the source.
+   */
+  void accumulate(double[] into, double scale) {
+    int[] offsets = reverse.offsets();
+    int[] targets = reverse.targets();
+    for (int i = reached - 1; i > 0; i--) {
+      int v = order[i];
+      double coefficient = (1 + delta[v]) / sigma[v];
+      for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+        int w = targets[a];
+        if (isPredecessor(w, v, a))
+          delta[w] += sigma[w] * coefficient;
+      }
+      into[v] += scale * delta[v];
+    }
+  }
+
+  /**
+   * Picks a shortest path from the source of the last run to t uniformly at
+   * random, walking back from t and choosing every predecessor w of v with
+   * probability sigma[w] / sigma[v].
+   * @return The number of inner nodes written to path, in reverse order, or -1
+   *         if t was not reached.
+   */
+  int samplePath(int t, Random random, int[] path) {
+    if (dist[t] == UNREACHED)
+      return -1;
+    int[] offsets = reverse.offsets();
+    int[] targets = reverse.targets();
+    int source = order[0];
+    int size = 0;
+    int v = t;
+    while (v != source) {
+      double pick = random.nextDouble() * sigma[v];
+      int next = -1;
+      for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+        int w = targets[a];
+        if (isPredecessor(w, v, a)) {
+          next = w;
+          pick -= sigma[w];
+          if (pick < 0)
+            break;
+        }
+      }
+      v = next;
+      if (v != source)
+        path[size++] = v;
+    }
+    return size;
+  }
+
+  /**
+   * Know whether the in-arc a of v, coming from w, lies on a shortest path.
+   */
+  private boolean isPredecessor(int w, int v, int a) {
+    if (dist[w] == UNREACHED || w == v)
+      return false;
+    return dist[w] + (weighted ? reverse.arcWeight(a) : 1) == dist[v];
+  }
+}
@@ -0,0 +1,303 @@
+package reordering;
+
+import java.util.Arrays;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Graph;
+
+/**
+ * A class NodeReordering, computes node orders that bring the neighbours of a
+ * node close to it in memory, so that traversals of the renumbered graph miss
+ * the cache less.
+ * Every order is given as a {@link Relabeling}, which builds the renumbered
+ * snapshot and maps ids both ways. Orders use the edges regardless of their
+ * direction:
+ * <ul>
+ * <li>degree order, by decreasing degree, which packs the hubs together;</li>
+ * <li>breadth-first order, component by component;</li>
+ * <li>reverse Cuthill-McKee, a breadth-first order from a node of minimum
+ * degree in which neighbours are visited by increasing degree, then
+ * reversed, which reduces the bandwidth of the adjacency matrix;</li>
+ * <li>Gorder (Wei et al.), a greedy order in which every next node is the one
+ * sharing the most neighbours and in-neighbours with the last
+ * {@code window} placed nodes.</li>
+ * </ul>
+ */
+public class NodeReordering {
+  private final CompactGraph graph;
+  private final CompactGraph reverse;
+  private int window = 5;
+  private int hubDegree = 1024;
+
+  /**
+   * NodeReordering constructor, snapshots graph g.
+   * @param g The graph to reorder.
+   */
+  public NodeReordering(Graph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * NodeReordering constructor over an existing snapshot.
+   * @param graph The snapshot to reorder.
+   */
+  public NodeReordering(CompactGraph graph) {
+    this.graph = graph;
+    this.reverse = graph.isDirected() ? graph.transpose() : null;
+  }
+
+  /**
+   * Sets the number of last placed nodes Gorder compares to, 5 by default.
+   */
+  public void setWindow(int window) {
+    if (window < 1)
+      throw new IllegalArgumentException("Window must be positive");
+    this.window = window;
+  }
+
+  /**
+   * Sets the out-degree above which Gorder does not count the successors of a
+   * node as sharing it, 1024 by default, so that hubs do not make it quadratic.
+   */
+  public void setHubDegree(int hubDegree) {
+    this.hubDegree = hubDegree;
+  }
+
+  /**
+   * Orders the nodes by decreasing degree, ties by index.
+   * @return The relabeling.
+   */
+  public Relabeling degreeOrder() {
+    int n = graph.nbNodes();
+    int maxDegree = 0;
+    for (int u = 0; u < n; u++)
+      maxDegree = Math.max(maxDegree, degree(u));
+    // Counting sort by decreasing degree, stable
+    int[] starts = new int[maxDegree + 2];
+    for (int u = 0; u < n; u++)
+      starts[maxDegree - degree(u) + 1]++;
+    for (int d = 1; d < starts.length; d++)
+      starts[d] += starts[d - 1];
+    int[] order = new int[n];
+    for (int u = 0; u < n; u++)
+      order[starts[maxDegree - degree(u)]++] = u;
+    return new Relabeling(graph, order);
+  }
+
+  /**
+   * Orders the nodes breadth-first, from the node of smallest index of every
+   * component.
+   * @return The relabeling.
+   */
+  public Relabeling bfsOrder() {
+    int n = graph.nbNodes();
+    int[] order = new int[n];
+    boolean[] placed = new boolean[n];
+    int size = 0;
+    for (int s = 0; s < n; s++) {
+      if (placed[s])
+        continue;
+      placed[s] = true;
+      order[size++] = s;
+      for (int head = size - 1; head < size; head++)
+        size = visit(order[head], order, size, placed);
+    }
+    return new Relabeling(graph, order);
+  }
+
+  /**
+   * Orders the nodes by reverse Cuthill-McKee, every component starting from
+   * one of its nodes of minimum degree.
+   * @return The relabeling.
+   */
+  public Relabeling reverseCuthillMcKee() {
+    int n = graph.nbNodes();
+    long[] byDegree = new long[n];
+    for (int u = 0; u < n; u++)
+      byDegree[u] = (long) degree(u) << 32 | u;
+    Arrays.sort(byDegree);
+
+    int[] order = new int[n];
+    boolean[] placed = new boolean[n];
+    long[] keys = new long[16];
+    int size = 0;
+    for (long start : byDegree) {
+      int s = (int) start;
+      if (placed[s])
+        continue;
+      placed[s] = true;
+      order[size++] = s;
+      for (int head = size - 1; head < size; head++) {
+        int from = size;
+        size = visit(order[head], order, size, placed);
+        // Newly reached neighbours by increasing degree
+        if (keys.length < size - from)
+          keys = new long[Math.max(size - from, 2 * keys.length)];
+        for (int i = from; i < size; i++)
+          keys[i - from] = (long) degree(order[i]) << 32 | order[i];
+        Arrays.sort(keys, 0, size - from);
+        for (int i = from; i < size; i++)
+          order[i] = (int) keys[i - from];
+      }
+    }
+    for (int i = 0, j = n - 1; i < j; i++, j--) {
+      int tmp = order[i];
+      order[i] = order[j];
+      order[j] = tmp;
+    }
+    return new Relabeling(graph, order);
+  }
+
+  /**
+   * Orders the nodes by Gorder, starting from a node of maximum in-degree.
+   * The score of a candidate counts, for every node of the window, the edges
+   * between them in either direction plus their common in-neighbours; it is
+   * kept up to date in a bucket queue as nodes enter and leave the window.
+   * @return The relabeling.
+   */
+  public Relabeling gorder() {
+    int n = graph.nbNodes();
+    int[] order = new int[n];
+    if (n == 0)
+      return new Relabeling(graph, order);
+    boolean[] placed = new boolean[n];
+    UnitHeap heap = new UnitHeap(n);
+    int start = 0;
+    for (int u = 1; u < n; u++) {
+      if (inDegree(u) > inDegree(start))
+        start = u;
+    }
+    heap.remove(start);
+    placed[start] = true;
+    order[0] = start;
+    score(start, 1, placed, heap);
+    for (int size = 1; size < n; size++) {
+      if (size > window)
+        score(order[size - window - 1], -1, placed, heap);
+      int v = heap.extractMax();
+      placed[v] = true;
+      order[size] = v;
+      score(v, 1, placed, heap);
+    }
+    return new Relabeling(graph, order);
+  }
+
+  /**
+   * Adds delta to the score of the unplaced nodes related to node v.
+   */
+  private void score(int v, int delta, boolean[] placed, UnitHeap heap) {
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    for (int a = offsets[v]; a < offsets[v + 1]; a++) {
+      if (!placed[targets[a]])
+        heap.add(targets[a], delta);
+    }
+    CompactGraph in = reverse != null ? reverse : graph;
+    int[] inOffsets = in.offsets();
+    int[] inTargets = in.targets();
+    for (int b = inOffsets[v]; b < inOffsets[v + 1]; b++) {
+      int w = inTargets[b];
+      if (reverse != null && !placed[w])
+        heap.add(w, delta);
+      // Siblings, sharing the in-neighbour w
+      if (offsets[w + 1] - offsets[w] > hubDegree)
+        continue;
+      for (int a = offsets[w]; a < offsets[w + 1]; a++) {
+        int u = targets[a];
+        if (u != v && !placed[u])
+          heap.add(u, delta);
+      }
+    }
+  }
+
+  /**
+   * Places the unplaced neighbours of node u after the placed nodes.
+   * @return The new number of placed nodes.
+   */
+  private int visit(int u, int[] order, int size, boolean[] placed) {
+    size = visitArcs(graph, u, order, size, placed);
+    return reverse == null ? size : visitArcs(reverse, u, order, size, placed);
+  }
+
+  private static int visitArcs(CompactGraph g, int u, int[] order, int size, boolean[] placed) {
+    int[] offsets = g.offsets();
+    int[] targets = g.targets();
+    for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+      int v = targets[a];
+      if (!placed[v]) {
+        placed[v] = true;
+        order[size++] = v;
+      }
+    }
+    return size;
+  }
+
+  private int degree(int u) {
+    return graph.outDegree(u) + (reverse == null ? 0 : reverse.outDegree(u));
+  }
+
+  private int inDegree(int u) {
+    return (reverse == null ? graph : reverse).outDegree(u);
+  }
+
+  /**
+   * A max-priority queue of nodes whose keys only change by one, as buckets of
+   * doubly linked nodes by key.
+   */
+  private static final class UnitHeap {
+    private final int[] key;
+    private final int[] prev;
+    private final int[] next;
+    private int[] head;
+    private int max;
+
+    UnitHeap(int n) {
+      key = new int[n];
+      prev = new int[n];
+      next = new int[n];
+      head = new int[16];
+      Arrays.fill(head, -1);
+      for (int u = n - 1; u >= 0; u--)
+        link(u);
+    }
+
+    void remove(int u) {
+      if (prev[u] >= 0)
+        next[prev[u]] = next[u];
+      else
+        head[key[u]] = next[u];
+      if (next[u] >= 0)
+        prev[next[u]] = prev[u];
+    }
+
+    void add(int u, int delta) {
+      remove(u);
+      key[u] += delta;
+      link(u);
+    }
+
+    int extractMax() {
+      while (head[max] < 0)
+        max--;
+      int u = head[max];
+      remove(u);
+      return u;
+    }
+
+    private void link(int u) {
+      int k = key[u];
+      if (k >= head.length) {
+        int length = head.length;
+        head = Arrays.copyOf(head, Math.max(k + 1, 2 * length));
+        Arrays.fill(head, length, head.length, -1);
+      }
+      prev[u] = -1;
+      next[u] = head[k];
+      if (head[k] >= 0)
+        prev[head[k]] = u;
+      head[k] = u;
+      if (k > max)
+        max = k;
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package reordering;
+
+import java.util.Arrays;
+
+import m1graphs2025.CompactGraph;
+
+/**
+ * A class that encapsulates a node order computed by {@link NodeReordering}:
+ * the permutation of the node indices of a snapshot, the renumbered snapshot,
+ * and the mapping between the ids of both.
+ * In the renumbered snapshot, the node of new index i has id i + 1, and edges
+ * are listed by new source, so that the edge columns follow the nodes. Edge
+ * instances of the original graph are not kept.
+ */
+public class Relabeling {
+  private final CompactGraph original;
+  private final int[] order;
+  private final int[] newIndices;
+  private CompactGraph graph;
+
+  /**
+   * Relabeling constructor.
+   * @param original The snapshot the order was computed on.
+   * @param order    Original node index of every new index.
+   * @throws IllegalArgumentException If order is not a permutation of the node
+   *                                  indices.
+   */
+  public Relabeling(CompactGraph original, int[] order) {
+    int n = original.nbNodes();
+    if (order.length != n)
+      throw new IllegalArgumentException("Order must hold every node once");
+    int[] newIndices = new int[n];
+    Arrays.fill(newIndices, -1);
+    for (int i = 0; i < n; i++) {
+      if (order[i] < 0 || order[i] >= n || newIndices[order[i]] >= 0)
+        throw new IllegalArgumentException("Order must hold every node once");
+      newIndices[order[i]] = i;
+    }
+    this.original = original;
+    this.order = order;
+    this.newIndices = newIndices;
+  }
+
+  /**
+   * Gets the snapshot the order was computed on.
+   * @return this.original
+   */
+  public CompactGraph getOriginal() {
+    return original;
+  }
+
+  /**
+   * Gets the original index of every new index.
+   * @return this.order
+   */
+  public int[] getOrder() {
+    return order;
+  }
+
+  /**
+   * Gets the new index of the node of original index u.
+   * @param u Original node index.
+   * @return Its new index.
+   */
+  public int newIndex(int u) {
+    return newIndices[u];
+  }
+
+  /**
+   * Gets the new id of the node of original id oldId.
+   * @param oldId Original node id.
+   * @return Its id in the renumbered snapshot, or -1 if oldId is not used.
+   */
+  public int toNewId(int oldId) {
+    int u = original.indexOf(oldId);
+    return u < 0 ? -1 : newIndices[u] + 1;
+  }
+
+  /**
+   * Gets the original id of the node of id newId in the renumbered snapshot.
+   * @param newId Node id in the renumbered snapshot.
+   * @return Its original id.
+   */
+  public int toOldId(int newId) {
+    if (newId < 1 || newId > order.length)
+      throw new IllegalArgumentException("No node " + newId + " in the renumbered graph");
+    return original.nodeId(order[newId - 1]);
+  }
+
+  /**
+   * Translates values computed on the renumbered snapshot, such as ranks, back
+   * to the original indices.
+   * @param values Values by new index.
+   * @return A new array of the values by original index.
+   */
+  public double[] toOriginalOrder(double[] values) {
+    double[] result = new double[values.length];
+    for (int i = 0; i < order.length; i++)
+      result[order[i]] = values[i];
+    return result;
+  }
+
+  /**
+   * Translates values computed on the renumbered snapshot, such as component
+   * labels, back to the original indices.
+   * @param values Values by new index.
+   * @return A new array of the values by original index.
+   */
+  public int[] toOriginalOrder(int[] values) {
+    int[] result = new int[values.length];
+    for (int i = 0; i < order.length; i++)
+      result[order[i]] = values[i];
+    return result;
+  }
+
+  /**
+   * Gets the renumbered snapshot, built on the first call.
+   * @return The snapshot whose node of index i is the node of original index
+   *         order[i].
+   */
+  public synchronized CompactGraph getGraph() {
+    if (graph != null)
+      return graph;
+    int n = order.length;
+    int m = original.nbEdges();
+    int[] nodeIds = new int[n];
+    for (int i = 0; i < n; i++)
+      nodeIds[i] = i + 1;
+    // Counting sort of the edges by new source, stable
+    int[] starts = new int[n + 1];
+    for (int e = 0; e < m; e++)
+      starts[newIndices[original.edgeSource(e)] + 1]++;
+    for (int i = 0; i < n; i++)
+      starts[i + 1] += starts[i];
+    int[] sources = new int[m];
+    int[] targets = new int[m];
+    int[] weights = original.isWeighted() ? new int[m] : null;
+    for (int e = 0; e < m; e++) {
+      int u = newIndices[original.edgeSource(e)];
+      int f = starts[u]++;
+      sources[f] = u;
+      targets[f] = newIndices[original.edgeTarget(e)];
+      if (weights != null)
+        weights[f] = original.edgeWeight(e);
+    }
+    graph = CompactGraph.fromEdges(original.isDirected(), nodeIds, sources, targets, weights);
+    return graph;
+  }
+}
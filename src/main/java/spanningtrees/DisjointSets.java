@@ -0,0 +1,46 @@
+package spanningtrees;
+
+import java.util.Arrays;
+
+/**
+ * Union-find over the integers 0..n-1, with union by size and path halving,
+ * stored in a single primitive array: a negative entry is the opposite of the
+ * size of a root's set, any other entry is the parent.
+ */
+class DisjointSets {
+  private final int[] parent;
+
+  DisjointSets(int n) {
+    parent = new int[n];
+    Arrays.fill(parent, -1);
+  }
+
+  int find(int x) {
+    while (parent[x] >= 0) {
+      int p = parent[x];
+      if (parent[p] >= 0)
+        parent[x] = parent[p];
+      x = p;
+    }
+    return x;
+  }
+
+  /**
+   * Merges the sets of x and y.
+   * @return False if x and y were already in the same set.
+   */
+  boolean union(int x, int y) {
+    x = find(x);
+    y = find(y);
+    if (x == y)
+      return false;
+    if (parent[x] > parent[y]) {
+      int tmp = x;
+      x = y;
+      y = tmp;
+    }
+    parent[x] += parent[y];
+    parent[y] = x;
+    return true;
+  }
+}
@@ -0,0 +1,221 @@
+package spanningtrees;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.stream.IntStream;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.IndexedMinHeap;
+import m1graphs2025.UndirectedGraph;
+
+/**
+ * A class MinimumSpanningForest, computes a minimum spanning forest of a
+ * weighted undirected graph with Kruskal's, Prim's or Borůvka's algorithm.
+ * Self-loops are never selected, multi-edges are allowed, and unweighted edges
+ * weigh 0. Ties between equal weights are broken by smallest edge id, so the
+ * three algorithms select the same forest.
+ */
+public class MinimumSpanningForest {
+  private static final long NONE = Long.MAX_VALUE;
+
+  private final CompactGraph graph;
+  private ForkJoinPool pool = ForkJoinPool.commonPool();
+
+  /**
+   * MinimumSpanningForest constructor, snapshots graph g.
+   * @param g The undirected graph to span.
+   */
+  public MinimumSpanningForest(UndirectedGraph g) {
+    this(CompactGraph.of(g));
+  }
+
+  /**
+   * MinimumSpanningForest constructor over an existing snapshot.
+   * @param graph The undirected snapshot to span.
+   */
+  public MinimumSpanningForest(CompactGraph graph) {
+    if (graph.isDirected())
+      throw new GraphExceptions("Minimum spanning forests require an undirected graph");
+    this.graph = graph;
+  }
+
+  /**
+   * Sets the pool running Borůvka's rounds, the common pool by default.
+   */
+  public void setPool(ForkJoinPool pool) {
+    this.pool = pool;
+  }
+
+  /**
+   * Kruskal's algorithm: edges are radix-sorted by weight, then added in that
+   * order whenever they join two different trees of a union-find.
+   * @return The minimum spanning forest.
+   */
+  public SpanningForest kruskal() {
+    int n = graph.nbNodes();
+    int[] sorted = sortEdgesByWeight();
+    DisjointSets sets = new DisjointSets(n);
+    int[] selected = new int[Math.max(n - 1, 0)];
+    int count = 0;
+    long total = 0;
+    for (int i = 0; i < sorted.length && count < n - 1; i++) {
+      int e = sorted[i];
+      if (sets.union(graph.edgeSource(e), graph.edgeTarget(e))) {
+        selected[count++] = e;
+        total += graph.edgeWeight(e);
+      }
+    }
+    return new SpanningForest(graph, Arrays.copyOf(selected, count), total);
+  }
+
+  /**
+   * Prim's algorithm, grown from every node not reached yet, with an indexed
+   * heap keyed by the lightest edge joining each node to the current tree.
+   * @return The minimum spanning forest.
+   */
+  public SpanningForest prim() {
+    int n = graph.nbNodes();
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    int[] arcEdges = graph.arcEdges();
+    boolean[] inTree = new boolean[n];
+    int[] bestEdge = new int[n];
+    IndexedMinHeap heap = new IndexedMinHeap(n);
+    int[] selected = new int[Math.max(n - 1, 0)];
+    int count = 0;
+    long total = 0;
+
+    for (int root = 0; root < n; root++) {
+      if (inTree[root])
+        continue;
+      heap.offer(root, Long.MIN_VALUE);
+      bestEdge[root] = -1;
+      while (!heap.isEmpty()) {
+        int u = heap.poll();
+        inTree[u] = true;
+        if (bestEdge[u] >= 0) {
+          selected[count++] = bestEdge[u];
+          total += graph.edgeWeight(bestEdge[u]);
+        }
+        for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+          int v = targets[a];
+          if (!inTree[v] && heap.offer(v, rank(arcEdges[a])))
+            bestEdge[v] = arcEdges[a];
+        }
+      }
+    }
+    return new SpanningForest(graph, Arrays.copyOf(selected, count), total);
+  }
+
+  /**
+   * Borůvka's algorithm: every round, each tree picks its lightest outgoing edge
+   * and all picked edges are added at once, so that the number of trees at
+   * least halves. Picking the lightest edges scans the remaining edges in
+   * parallel.
+   * @return The minimum spanning forest.
+   */
+  public SpanningForest boruvka() {
+    int n = graph.nbNodes();
+    int[] component = new int[n];
+    for (int u = 0; u < n; u++) {
+      component[u] = u;
+    }
+    DisjointSets sets = new DisjointSets(n);
+    AtomicLongArray cheapest = new AtomicLongArray(n);
+    int[] selected = new int[Math.max(n - 1, 0)];
+    int count = 0;
+    long total = 0;
+
+    int[] active = IntStream.range(0, graph.nbEdges())
+        .filter(e -> graph.edgeSource(e) != graph.edgeTarget(e))
+        .toArray();
+    while (active.length > 0) {
+      final int[] edges = active;
+      for (int c = 0; c < n; c++) {
+        cheapest.set(c, NONE);
+      }
+      pool.submit(() -> IntStream.range(0, edges.length).parallel().forEach(i -> {
+        int e = edges[i];
+        long key = rank(e);
+        lower(cheapest, component[graph.edgeSource(e)], key);
+        lower(cheapest, component[graph.edgeTarget(e)], key);
+      })).join();
+
+      boolean merged = false;
+      for (int c = 0; c < n; c++) {
+        long key = cheapest.get(c);
+        if (key == NONE)
+          continue;
+        int e = (int) key;
+        if (sets.union(graph.edgeSource(e), graph.edgeTarget(e))) {
+          selected[count++] = e;
+          total += graph.edgeWeight(e);
+          merged = true;
+        }
+      }
+      if (!merged)
+        break;
+      for (int u = 0; u < n; u++) {
+        component[u] = sets.find(u);
+      }
+      active = pool.submit(() -> Arrays.stream(edges).parallel()
+          .filter(e -> component[graph.edgeSource(e)] != component[graph.edgeTarget(e)])
+          .toArray()).join();
+    }
+    return new SpanningForest(graph, Arrays.copyOf(selected, count), total);
+  }
+
+  /**
+   * Orders edges by weight then id: the weight fills the high half of the long
+   * and the non-negative id the low half.
+   */
+  private long rank(int e) {
+    return ((long) graph.edgeWeight(e) << 32) | e;
+  }
+
+  private static void lower(AtomicLongArray cheapest, int c, long key) {
+    long current = cheapest.get(c);
+    while (key < current && !cheapest.compareAndSet(c, current, key)) {
+      current = cheapest.get(c);
+    }
+  }
+
+  /**
+   * LSD radix sort of the non self-loop edge ids by weight, 16 bits per pass.
+   * Flipping the sign bit makes the signed weights sort as unsigned digits, and
+   * stability keeps equal weights by increasing id.
+   */
+  private int[] sortEdgesByWeight() {
+    int m = graph.nbEdges();
+    int size = 0;
+    int[] ids = new int[m];
+    for (int e = 0; e < m; e++) {
+      if (graph.edgeSource(e) != graph.edgeTarget(e))
+        ids[size++] = e;
+    }
+    int[] buffer = new int[size];
+    int[] counts = new int[(1 << 16) + 1];
+    for (int shift = 0; shift < 32; shift += 16) {
+      Arrays.fill(counts, 0);
+      for (int i = 0; i < size; i++) {
+        counts[digit(ids[i], shift) + 1]++;
+      }
+      for (int d = 0; d < 1 << 16; d++) {
+        counts[d + 1] += counts[d];
+      }
+      for (int i = 0; i < size; i++) {
+        buffer[counts[digit(ids[i], shift)]++] = ids[i];
+      }
+      int[] tmp = ids;
+      ids = buffer;
+      buffer = tmp;
+    }
+    return size == m ? ids : Arrays.copyOf(ids, size);
+  }
+
+  private int digit(int e, int shift) {
+    return ((graph.edgeWeight(e) ^ Integer.MIN_VALUE) >>> shift) & 0xFFFF;
+  }
+}
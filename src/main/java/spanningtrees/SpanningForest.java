@@ -0,0 +1,97 @@
+package spanningtrees;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Edge;
+import m1graphs2025.Node;
+import m1graphs2025.UndirectedGraph;
+
+/**
+ * A class that encapsulates a minimum spanning forest: the ids of the selected
+ * edges and their total weight. A graph is only rebuilt on demand.
+ */
+public class SpanningForest {
+  private final CompactGraph graph;
+  private final int[] edgeIds;
+  private final long totalWeight;
+
+  /**
+   * SpanningForest constructor.
+   * @param graph The snapshot the forest spans.
+   * @param edgeIds Ids of the selected edges.
+   * @param totalWeight Sum of the weights of the selected edges.
+   */
+  public SpanningForest(CompactGraph graph, int[] edgeIds, long totalWeight) {
+    this.graph = graph;
+    this.edgeIds = edgeIds;
+    this.totalWeight = totalWeight;
+  }
+
+  /**
+   * Gets the ids of the selected edges, i.e. their positions in
+   * {@link m1graphs2025.Graph#getAllEdges()}.
+   * @return this.edgeIds
+   */
+  public int[] getEdgeIds() {
+    return edgeIds;
+  }
+
+  /**
+   * Gets the sum of the weights of the selected edges.
+   * @return this.totalWeight
+   */
+  public long getTotalWeight() {
+    return totalWeight;
+  }
+
+  /**
+   * Know the number of trees, counting isolated nodes as trees.
+   * @return The number of connected components of the graph.
+   */
+  public int nbTrees() {
+    return graph.nbNodes() - edgeIds.length;
+  }
+
+  /**
+   * Gets the selected edge instances.
+   * @return The selected edges, or an empty list if the snapshot has no backing graph.
+   */
+  public List<Edge> getEdges() {
+    List<Edge> edges = new ArrayList<>(edgeIds.length);
+    if (edgeIds.length == 0 || graph.edge(edgeIds[0]) == null)
+      return edges;
+    for (int e : edgeIds) {
+      edges.add(graph.edge(e));
+    }
+    return edges;
+  }
+
+  /**
+   * Builds the forest as a new undirected graph holding every node of the
+   * spanned graph.
+   * @return The forest in a new undirected graph.
+   */
+  public UndirectedGraph toGraph() {
+    UndirectedGraph g = new UndirectedGraph();
+    Node[] nodes = new Node[graph.nbNodes()];
+    for (int u = 0; u < nodes.length; u++) {
+      nodes[u] = new Node(graph.nodeId(u), g);
+    }
+    for (int e : edgeIds) {
+      Edge original = graph.edge(e);
+      if (original != null) {
+        nodes[graph.edgeSource(e)].setName(original.from().getName());
+        nodes[graph.edgeTarget(e)].setName(original.to().getName());
+      }
+    }
+    for (Node n : nodes) {
+      g.addNode(n);
+    }
+    for (int e : edgeIds) {
+      g.addEdge(nodes[graph.edgeSource(e)], nodes[graph.edgeTarget(e)], graph.edgeWeight(e));
+    }
+    return g;
+  }
+}
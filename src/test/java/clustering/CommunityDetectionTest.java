@@ -0,0 +1,101 @@
+package clustering;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Graph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.UndirectedGraph;
+
+public class CommunityDetectionTest {
+
+  /**
+   * Two cliques 1..4 and 5..8, joined by the edge 4-5 repeated bridges times.
+   */
+  private static UndirectedGraph twoCliques(int bridges) {
+    UndirectedGraph g = new UndirectedGraph();
+    for (int offset = 0; offset <= 4; offset += 4) {
+      for (int u = 1; u <= 4; u++) {
+        for (int v = u + 1; v <= 4; v++) {
+          g.addEdge(offset + u, offset + v);
+        }
+      }
+    }
+    for (int i = 0; i < bridges; i++) {
+      g.addEdge(4, 5);
+    }
+    return g;
+  }
+
+  private static Communities[] both(UndirectedGraph g) {
+    ForkJoinPool pool = new ForkJoinPool(2);
+    LabelPropagation propagation = new LabelPropagation(g);
+    propagation.setSeed(42);
+    propagation.setPool(pool);
+    Louvain louvain = new Louvain(g);
+    louvain.setPool(pool);
+    Communities[] found = { propagation.compute(), louvain.compute() };
+    pool.shutdown();
+    return found;
+  }
+
+  @Test
+  public void separatesTwoCliques() {
+    UndirectedGraph g = twoCliques(1);
+    for (Communities communities : both(g)) {
+      assertEquals(2, communities.nbCommunities());
+      int first = communities.getCommunity(1);
+      assertArrayEquals(new int[] { 1, 2, 3, 4 }, communities.getMembers(first));
+      assertArrayEquals(new int[] { 5, 6, 7, 8 }, communities.getMembers(1 - first));
+      assertEquals(1 - first, communities.getCommunity(g.getNode(8)));
+      assertEquals(-1, communities.getCommunity(9));
+      // Both communities hold 6 of the 13 edges and half of the degrees
+      assertEquals(12.0 / 13 - 0.5, communities.getModularity(), 1e-9);
+    }
+  }
+
+  @Test
+  public void multiEdgesWeighTheirMultiplicity() {
+    for (Communities communities : both(twoCliques(2))) {
+      assertEquals(2, communities.nbCommunities());
+      assertEquals(12.0 / 14 - 0.5, communities.getModularity(), 1e-9);
+    }
+  }
+
+  @Test
+  public void emptySingleNodeAndDisconnectedGraphs() {
+    for (Communities communities : both(new UndirectedGraph())) {
+      assertEquals(0, communities.nbCommunities());
+      assertEquals(0, communities.getCommunities().length);
+      assertFalse(Double.isNaN(communities.getModularity()));
+    }
+
+    UndirectedGraph loop = new UndirectedGraph();
+    loop.addNode(1);
+    loop.addEdge(1, 1);
+    for (Communities communities : both(loop)) {
+      assertEquals(1, communities.nbCommunities());
+      assertEquals(0, communities.getModularity(), 1e-9);
+    }
+
+    UndirectedGraph isolated = new UndirectedGraph();
+    for (int i = 1; i <= 3; i++) {
+      isolated.addNode(i);
+    }
+    for (Communities communities : both(isolated)) {
+      assertEquals(3, communities.nbCommunities());
+      assertFalse(Double.isNaN(communities.getModularity()));
+    }
+  }
+
+  @Test(expected = GraphExceptions.class)
+  public void directedGraphsAreRefused() {
+    new Louvain(CompactGraph.of(new Graph(2, 0, 0)));
+  }
+}
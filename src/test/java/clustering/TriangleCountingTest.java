@@ -0,0 +1,36 @@
+package clustering;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import m1graphs2025.UndirectedGraph;
+
+public class TriangleCountingTest {
+
+  @Test
+  public void countsTrianglesIgnoringMultiEdgesAndSelfLoops() {
+    // Two triangles 1-2-3 and 2-3-4 sharing edge 2-3, a doubled edge 1-2,
+    // a self-loop on 4 and a pendant node 5
+    UndirectedGraph g = new UndirectedGraph(2, 2, 3, 0, 3, 4, 0, 4, 0, 4, 5, 0, 0);
+    TriangleCounts counts = new TriangleCounting(g).count();
+
+    assertEquals(2, counts.getTotal());
+    assertArrayEquals(new long[] { 1, 2, 2, 1, 0 }, counts.getPerNode());
+    assertEquals(1.0, counts.getClusteringCoefficient(1), 1e-12);
+    assertEquals(2.0 / 3, counts.getClusteringCoefficient(2), 1e-12);
+    assertEquals(1.0 / 3, counts.getClusteringCoefficient(4), 1e-12);
+    assertEquals(0.0, counts.getClusteringCoefficient(5), 1e-12);
+  }
+
+  @Test
+  public void completeGraphIsFullyClustered() {
+    UndirectedGraph g = new UndirectedGraph(2, 3, 4, 0, 3, 4, 0, 4, 0, 0);
+    TriangleCounts counts = new TriangleCounting(g).count();
+
+    assertEquals(4, counts.getTotal());
+    assertEquals(1.0, counts.getGlobalClusteringCoefficient(), 1e-12);
+    assertEquals(1.0, counts.getAverageClusteringCoefficient(), 1e-12);
+  }
+}
@@ -0,0 +1,90 @@
+package connectivity;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Graph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.UndirectedGraph;
+
+public class BiconnectivityTest {
+
+  @Test
+  public void findsArticulationPointsBridgesAndComponents() {
+    // Triangles 1-2-3 and 3-4-5, the bridge 5-6, the doubled edge 6-7, a
+    // self-loop on 7 and the isolated node 8
+    UndirectedGraph g = new UndirectedGraph();
+    int[][] edges = { { 1, 2 }, { 2, 3 }, { 3, 1 }, { 3, 4 }, { 4, 5 }, { 5, 3 }, { 5, 6 }, { 6, 7 }, { 7, 6 },
+        { 7, 7 } };
+    for (int[] e : edges) {
+      g.addEdge(e[0], e[1]);
+    }
+    g.addNode(8);
+    CompactGraph snapshot = CompactGraph.of(g);
+    BiconnectedComponents bcc = new Biconnectivity(snapshot).compute();
+
+    assertArrayEquals(new int[] { 3, 5, 6 }, bcc.getArticulationPoints());
+    assertTrue(bcc.isArticulationPoint(6));
+    assertFalse(bcc.isArticulationPoint(7));
+    assertFalse(bcc.isArticulationPoint(8));
+    assertFalse(bcc.isArticulationPoint(42));
+
+    int[] bridges = bcc.getBridges();
+    assertEquals(1, bridges.length);
+    int from = snapshot.nodeId(snapshot.edgeSource(bridges[0]));
+    int to = snapshot.nodeId(snapshot.edgeTarget(bridges[0]));
+    assertEquals(5, Math.min(from, to));
+    assertEquals(6, Math.max(from, to));
+
+    assertEquals(4, bcc.nbComponents());
+    int edgesInComponents = 0;
+    for (int c = 0; c < bcc.nbComponents(); c++) {
+      for (int e : bcc.getComponent(c)) {
+        assertEquals(c, bcc.componentOf(e));
+        edgesInComponents++;
+      }
+    }
+    assertEquals(9, edgesInComponents);
+    for (int e = 0; e < snapshot.nbEdges(); e++) {
+      if (snapshot.edgeSource(e) == snapshot.edgeTarget(e)) {
+        assertEquals(-1, bcc.componentOf(e));
+      }
+    }
+  }
+
+  @Test
+  public void emptySingleNodeAndDisconnectedGraphs() {
+    BiconnectedComponents empty = new Biconnectivity(new UndirectedGraph()).compute();
+    assertEquals(0, empty.getArticulationPoints().length);
+    assertEquals(0, empty.getBridges().length);
+    assertEquals(0, empty.nbComponents());
+
+    UndirectedGraph g = new UndirectedGraph();
+    g.addNode(1);
+    g.addNode(2);
+    g.addNode(3);
+    g.addEdge(1, 1);
+    BiconnectedComponents isolated = new Biconnectivity(g).compute();
+    assertEquals(0, isolated.getArticulationPoints().length);
+    assertEquals(0, isolated.getBridges().length);
+    assertEquals(0, isolated.nbComponents());
+  }
+
+  @Test
+  public void pathIsMadeOfBridges() {
+    BiconnectedComponents path = new Biconnectivity(new UndirectedGraph(2, 0, 3, 0, 4, 0, 0)).compute();
+    assertArrayEquals(new int[] { 2, 3 }, path.getArticulationPoints());
+    assertEquals(3, path.getBridges().length);
+    assertEquals(3, path.nbComponents());
+  }
+
+  @Test(expected = GraphExceptions.class)
+  public void directedGraphsAreRefused() {
+    new Biconnectivity(CompactGraph.of(new Graph(2, 0, 0)));
+  }
+}
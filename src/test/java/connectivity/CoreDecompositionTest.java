@@ -0,0 +1,94 @@
+package connectivity;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import m1graphs2025.Graph;
+import m1graphs2025.UndirectedGraph;
+
+public class CoreDecompositionTest {
+
+  @Test
+  public void peelsAKnownGraph() {
+    // The clique 1..4, node 5 tied to 1 and 2, node 6 hanging from 5 and the
+    // isolated node 7
+    UndirectedGraph g = new UndirectedGraph();
+    int[][] edges = { { 1, 2 }, { 1, 3 }, { 1, 4 }, { 2, 3 }, { 2, 4 }, { 3, 4 }, { 5, 1 }, { 5, 2 }, { 6, 5 } };
+    for (int[] e : edges) {
+      g.addEdge(e[0], e[1]);
+    }
+    g.addNode(7);
+    CoreDecomposition decomposition = new CoreDecomposition(g);
+    ForkJoinPool pool = new ForkJoinPool(2);
+    decomposition.setPool(pool);
+
+    for (Cores cores : new Cores[] { decomposition.compute(), decomposition.computeParallel() }) {
+      int[] expected = { 3, 3, 3, 3, 2, 1, 0 };
+      for (int id = 1; id <= 7; id++) {
+        assertEquals(expected[id - 1], cores.getCoreNumber(id));
+      }
+      assertEquals(3, cores.getCoreNumber(g.getNode(1)));
+      assertEquals(-1, cores.getCoreNumber(8));
+      assertEquals(3, cores.getDegeneracy());
+      assertArrayEquals(new int[] { 1, 2, 3, 4, 5 }, cores.getCore(2));
+      assertArrayEquals(new int[] { 1, 2, 3, 4, 5, 6, 7 }, cores.getCore(0));
+      assertEquals(0, cores.getCore(4).length);
+
+      // Every node has at most 3 neighbours after it in the ordering
+      int[] ordering = cores.getDegeneracyOrdering();
+      assertEquals(7, ordering.length);
+      int[] rank = new int[8];
+      for (int i = 0; i < ordering.length; i++) {
+        rank[ordering[i]] = i;
+      }
+      int[] later = new int[8];
+      for (int[] e : edges) {
+        later[rank[e[0]] < rank[e[1]] ? e[0] : e[1]]++;
+      }
+      for (int id = 1; id <= 7; id++) {
+        assertTrue(later[id] <= 3);
+      }
+    }
+    pool.shutdown();
+  }
+
+  @Test
+  public void multiEdgesSelfLoopsAndDirectedGraphs() {
+    UndirectedGraph doubled = new UndirectedGraph();
+    doubled.addEdge(1, 2);
+    doubled.addEdge(2, 1);
+    Cores cores = new CoreDecomposition(doubled).compute();
+    assertEquals(2, cores.getCoreNumber(1));
+    assertEquals(2, cores.getCoreNumber(2));
+
+    // A self-loop counts in the degree of its node, like Graph.degree
+    Graph loop = new Graph(1, 0);
+    CoreDecomposition decomposition = new CoreDecomposition(loop);
+    assertEquals(loop.degree(1), decomposition.compute().getCoreNumber(1));
+    assertEquals(loop.degree(1), decomposition.computeParallel().getCoreNumber(1));
+
+    // In and out-degrees add up around a directed cycle
+    Graph cycle = new Graph(2, 0, 3, 0, 1, 0);
+    assertArrayEquals(new int[] { 2, 2, 2 }, new CoreDecomposition(cycle).computeParallel().getCoreNumbers());
+  }
+
+  @Test
+  public void emptyAndDisconnectedGraphs() {
+    CoreDecomposition empty = new CoreDecomposition(new Graph());
+    assertEquals(0, empty.compute().getDegeneracy());
+    assertEquals(0, empty.computeParallel().getDegeneracyOrdering().length);
+
+    Graph isolated = new Graph();
+    isolated.addNode(1);
+    isolated.addNode(2);
+    Cores cores = new CoreDecomposition(isolated).computeParallel();
+    assertArrayEquals(new int[] { 0, 0 }, cores.getCoreNumbers());
+    assertEquals(0, cores.getDegeneracy());
+    assertEquals(2, cores.getDegeneracyOrdering().length);
+  }
+}
@@ -0,0 +1,75 @@
+package dags;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import m1graphs2025.Graph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.UndirectedGraph;
+
+public class TopologicalSortTest {
+
+  @Test
+  public void ordersADagInWaves() {
+    // 1 -> 2, 1 -> 3, 2 -> 4 twice, 3 -> 4, and 5 on its own
+    Graph g = new Graph(2, 3, 0, 4, 4, 0, 4, 0, 0, 0);
+    TopologicalSort sort = new TopologicalSort(g);
+
+    TopologicalOrder order = sort.sort();
+    assertTrue(order.isAcyclic());
+    assertNull(order.getCycle());
+    assertArrayEquals(new int[] { 1, 5, 2, 3, 4 }, order.getOrder());
+    assertEquals(0, order.nbWaves());
+
+    TopologicalOrder waves = sort.sortInWaves();
+    assertEquals(3, waves.nbWaves());
+    assertArrayEquals(new int[][] { { 1, 5 }, { 2, 3 }, { 4 } }, waves.getWaves());
+  }
+
+  @Test
+  public void reportsACycle() {
+    // 1 -> 2 -> 3 -> 1, with 3 -> 4 behind the cycle
+    Graph g = new Graph(2, 0, 3, 0, 1, 4, 0, 0);
+    TopologicalOrder order = new TopologicalSort(g).sortInWaves();
+
+    assertFalse(order.isAcyclic());
+    assertEquals(0, order.getOrder().length);
+    int[] cycle = order.getCycle();
+    assertEquals(3, cycle.length);
+    for (int i = 0; i < cycle.length; i++) {
+      assertTrue(g.existsEdge(cycle[i], cycle[(i + 1) % cycle.length]));
+    }
+  }
+
+  @Test
+  public void selfLoopIsACycle() {
+    Graph g = new Graph(0, 2, 0);
+    TopologicalOrder order = new TopologicalSort(g).sort();
+    assertFalse(order.isAcyclic());
+    assertArrayEquals(new int[] { 1 }, order.getOrder());
+    assertArrayEquals(new int[] { 2 }, order.getCycle());
+  }
+
+  @Test
+  public void emptyAndSingleNodeGraphs() {
+    TopologicalOrder empty = new TopologicalSort(new Graph()).sortInWaves();
+    assertTrue(empty.isAcyclic());
+    assertEquals(0, empty.getOrder().length);
+    assertEquals(0, empty.nbWaves());
+
+    Graph single = new Graph();
+    single.addNode(7);
+    TopologicalOrder order = new TopologicalSort(single).sortInWaves();
+    assertArrayEquals(new int[][] { { 7 } }, order.getWaves());
+  }
+
+  @Test(expected = GraphExceptions.class)
+  public void undirectedGraphsAreRefused() {
+    new TopologicalSort(new UndirectedGraph(2, 0, 0));
+  }
+}
@@ -0,0 +1,57 @@
+package flownetworks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import m1graphs2025.GraphExceptions;
+
+public class BatchMaxFlowTest {
+  private static final int[] NODES = { 1, 2, 3, 4 };
+
+  /**
+   * s=1 -> a=2 -> t=4, s -> b=3 -> t and a -> b, with extra edges after them.
+   */
+  private static BatchMaxFlow batch(int[] tails, int[] heads, long[] capacities) {
+    CompactFlowNetwork network = CompactFlowNetwork.fromEdges(NODES, 0, 3, tails, heads, capacities, null);
+    return new BatchMaxFlow(network);
+  }
+
+  @Test
+  public void solvesEveryPair() {
+    BatchMaxFlow flows = batch(new int[] { 0, 1, 0, 2, 1 }, new int[] { 1, 3, 2, 3, 2 }, new long[] { 4, 3, 2, 5, 3 });
+    ForkJoinPool pool = new ForkJoinPool(2);
+    flows.setPool(pool);
+    int[][] pairs = { { 1, 4 }, { 2, 4 }, { 3, 4 }, { 4, 1 }, { 1, 3 }, { 1, 4 } };
+    assertArrayEquals(new long[] { 6, 6, 5, 0, 5, 6 }, flows.solve(pairs));
+    assertEquals(0, flows.solve(new int[0][]).length);
+    pool.shutdown();
+  }
+
+  @Test
+  public void multiEdgesAddUpAndSelfLoopsCarryNothing() {
+    // A second s -> a of capacity 1, and a loop on a
+    BatchMaxFlow flows = batch(new int[] { 0, 1, 0, 2, 1, 0, 1 }, new int[] { 1, 3, 2, 3, 2, 1, 1 },
+        new long[] { 4, 3, 2, 5, 3, 1, 9 });
+    assertArrayEquals(new long[] { 7, 5 }, flows.solve(new int[][] { { 1, 4 }, { 1, 2 } }));
+  }
+
+  @Test
+  public void disconnectedNodesHaveNoFlow() {
+    BatchMaxFlow flows = batch(new int[0], new int[0], new long[0]);
+    assertArrayEquals(new long[] { 0, 0 }, flows.solve(new int[][] { { 1, 4 }, { 3, 2 } }));
+  }
+
+  @Test(expected = GraphExceptions.class)
+  public void unknownNodesAreRefused() {
+    batch(new int[0], new int[0], new long[0]).solve(new int[][] { { 1, 5 } });
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void pairsHoldTwoNodes() {
+    batch(new int[0], new int[0], new long[0]).solve(new int[][] { { 1, 2, 3 } });
+  }
+}
@@ -0,0 +1,39 @@
+package flownetworks;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+public class FlowDecompositionTest {
+  private static final String NETWORK = "src/test/java/flownetworks/resources/minCostFlow";
+
+  @Test
+  public void minimumCutIsCertifiedByTheFlow() {
+    FlowNetwork network = FlowNetwork.fromDotFile(NETWORK);
+    FlowNetworkOperations operations = new FlowNetworkOperations(network);
+    operations.getMinimumCostMaximumFlow(MinCostFlow.Method.SUCCESSIVE_SHORTEST_PATHS);
+    MinCut cut = operations.getMinimumCut();
+
+    // Both edges leaving s are saturated
+    assertEquals(6, cut.getCapacity());
+    assertArrayEquals(new int[] { network.getSource().getId() }, cut.getSourceSide());
+    assertEquals(2, cut.getCutEdges().size());
+  }
+
+  @Test
+  public void pathsAndCyclesAddUpToTheFlow() {
+    // s -> a -> t carries 2, plus a cycle a -> b -> a carrying 1
+    CompactFlowNetwork network = CompactFlowNetwork.fromEdges(new int[] { 1, 2, 3, 4 }, 0, 3,
+        new int[] { 0, 1, 1, 2 }, new int[] { 1, 3, 2, 1 }, new long[] { 2, 2, 1, 1 }, null);
+    Flow flow = new Flow(network, new long[] { 2, 2, 1, 1 }, 2, 0);
+    FlowDecomposition decomposition = flow.decompose();
+
+    assertEquals(1, decomposition.nbPaths());
+    assertArrayEquals(new int[] { 0, 1 }, decomposition.getPath(0));
+    assertArrayEquals(new int[] { 1, 2, 4 }, decomposition.getPathNodes(0));
+    assertEquals(2, decomposition.getPathFlow(0));
+    assertEquals(1, decomposition.nbCycles());
+    assertEquals(1, decomposition.getCycleFlow(0));
+  }
+}
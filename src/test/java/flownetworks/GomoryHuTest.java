@@ -0,0 +1,99 @@
+package flownetworks;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Graph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.UndirectedGraph;
+
+public class GomoryHuTest {
+
+  @Test
+  public void cutsAKnownGraph() {
+    // The triangle 1-2 (3), 2-3 (1), 1-3 (1), a loop on 3 and the isolated node 4
+    UndirectedGraph g = graph(4, new int[][] { { 1, 2, 3 }, { 2, 3, 1 }, { 1, 3, 1 }, { 3, 3, 5 } });
+    GomoryHuTree tree = new GomoryHu(g).compute();
+    assertEquals(4, tree.minCut(1, 2));
+    assertEquals(2, tree.minCut(3, 1));
+    assertEquals(2, tree.minCut(2, 3));
+    assertEquals(0, tree.minCut(4, 2));
+    assertEquals(Long.MAX_VALUE, tree.minCut(3, 3));
+    assertEquals(-1, tree.getParent(1));
+    assertEquals(4, tree.getWeight(2));
+  }
+
+  @Test
+  public void agreesWithEveryCut() {
+    Random random = new Random(3);
+    for (int round = 0; round < 200; round++) {
+      int n = 1 + random.nextInt(6);
+      int[][] edges = new int[random.nextInt(12)][];
+      for (int e = 0; e < edges.length; e++) {
+        edges[e] = new int[] { 1 + random.nextInt(n), 1 + random.nextInt(n), random.nextInt(6) };
+      }
+      GomoryHuTree tree = new GomoryHu(graph(n, edges)).compute();
+      for (int u = 1; u <= n; u++) {
+        for (int v = u + 1; v <= n; v++) {
+          assertEquals(minCut(n, edges, u, v), tree.minCut(u, v));
+        }
+      }
+    }
+  }
+
+  @Test
+  public void emptyAndSingleNodeGraphs() {
+    new GomoryHu(new UndirectedGraph()).compute();
+    GomoryHuTree single = new GomoryHu(graph(1, new int[0][])).compute();
+    assertEquals(-1, single.getParent(1));
+    assertEquals(Long.MAX_VALUE, single.minCut(1, 1));
+  }
+
+  @Test(expected = GraphExceptions.class)
+  public void theRootHasNoWeight() {
+    new GomoryHu(graph(2, new int[][] { { 1, 2, 1 } })).compute().getWeight(1);
+  }
+
+  @Test(expected = GraphExceptions.class)
+  public void unknownNodesAreRefused() {
+    new GomoryHu(graph(2, new int[0][])).compute().minCut(1, 3);
+  }
+
+  @Test(expected = GraphExceptions.class)
+  public void directedGraphsAreRefused() {
+    new GomoryHu(CompactGraph.of(new Graph(2, 0, 0)));
+  }
+
+  private static UndirectedGraph graph(int n, int[][] edges) {
+    UndirectedGraph g = new UndirectedGraph();
+    for (int id = 1; id <= n; id++) {
+      g.addNode(id);
+    }
+    for (int[] e : edges) {
+      g.addEdge(e[0], e[1], e[2]);
+    }
+    return g;
+  }
+
+  /**
+   * Smallest capacity crossing a side holding u and not v, over every side.
+   */
+  private static long minCut(int n, int[][] edges, int u, int v) {
+    long best = Long.MAX_VALUE;
+    for (int side = 0; side < 1 << n; side++) {
+      if ((side >> (u - 1) & 1) == 0 || (side >> (v - 1) & 1) != 0)
+        continue;
+      long cut = 0;
+      for (int[] e : edges) {
+        if ((side >> (e[0] - 1) & 1) != (side >> (e[1] - 1) & 1))
+          cut += e[2];
+      }
+      best = Math.min(best, cut);
+    }
+    return best;
+  }
+}
@@ -0,0 +1,82 @@
+package flownetworks;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.junit.Test;
+
+import m1graphs2025.Edge;
+
+public class LongCapacitiesTest {
+  private static final String NETWORK = "src/test/java/flownetworks/resources/longCapacities";
+
+  @Test
+  public void capacitiesBeyondIntRangeAreKept() {
+    FlowNetwork network = FlowNetwork.fromDotFile(NETWORK);
+    assertTrue(network.hasLongValues());
+    Edge st = network.getEdges(network.getSource(), network.getTarget()).getFirst();
+    assertEquals(7_000_000_000L, network.getLongEdgeCapacity(st));
+
+    new FlowNetworkOperations(network).getMinimumCostMaximumFlow(MinCostFlow.Method.SUCCESSIVE_SHORTEST_PATHS);
+    assertEquals(10_000_000_000L, network.getLongFlowValue());
+    assertEquals(7_000_000_000L, network.getLongEdgeFlow(st));
+    assertTrue(network.toDotString().contains("Value: 10000000000."));
+  }
+
+  @Test(expected = ArithmeticException.class)
+  public void intAccessorsDoNotOverflowSilently() {
+    FlowNetwork network = FlowNetwork.fromDotFile(NETWORK);
+    network.getEdgeCapacity(network.getEdges(network.getSource(), network.getTarget()).getFirst());
+  }
+
+  @Test
+  public void incrementalChangesKeepLongCapacities() {
+    FlowNetwork network = FlowNetwork.fromDotFile(NETWORK);
+    Edge st = network.getEdges(network.getSource(), network.getTarget()).getFirst();
+    IncrementalMaxFlow flow = new IncrementalMaxFlow(network);
+    assertEquals(10_000_000_000L, flow.solve());
+
+    flow.setCapacity(st, 9_000_000_000L);
+    assertEquals(9_000_000_000L, network.getLongEdgeCapacity(st));
+    assertEquals(12_000_000_000L, flow.solve());
+    flow.setCapacity(st, 5);
+    assertEquals(5, network.getLongEdgeCapacity(st));
+    assertEquals(3_000_000_005L, flow.solve());
+    assertEquals(flow.solve(), new BatchMaxFlow(network).solve(new int[][] {
+        { network.getSource().getId(), network.getTarget().getId() } })[0]);
+
+    st.setWeight(3);
+    assertEquals(3, network.getLongEdgeCapacity(st));
+  }
+
+  @Test
+  public void symetricNetworkKeepsLongFlows() {
+    FlowNetwork network = FlowNetwork.fromDotFile(NETWORK);
+    new FlowNetworkOperations(network).getMinimumCostMaximumFlow(MinCostFlow.Method.SUCCESSIVE_SHORTEST_PATHS);
+    SymetricFlowNetwork symetric = network.getSymetricFlowNetwork();
+    symetric.applySymetry();
+    Edge st = symetric.getEdges(network.getSource().getId(), network.getTarget().getId()).getFirst();
+    assertEquals(7_000_000_000L, symetric.getLongEdgeFlow(st));
+    assertEquals(7_000_000_000L, symetric.getLongEdgeCapacity(st));
+    assertTrue(symetric.toDotString().contains("[label=7000000000, len=7000000000]"));
+  }
+
+  @Test
+  public void edgesAddedInLongModeGetTheirOwnSlots() {
+    FlowNetwork network = new FlowNetwork();
+    network.useLongValues();
+    for (int i = 1; i <= 40; i++) {
+      network.addNode(i);
+      if (i > 1)
+        network.addEdge(i - 1, i, i);
+    }
+    network.addEdge(1, 2, 4);
+    List<Edge> edges = network.getAllEdges();
+    for (int i = 0; i < edges.size(); i++)
+      network.setLongEdgeCapacity(edges.get(i), 5_000_000_000L + i);
+    for (int i = 0; i < edges.size(); i++)
+      assertEquals(5_000_000_000L + i, network.getLongEdgeCapacity(edges.get(i)));
+  }
+}
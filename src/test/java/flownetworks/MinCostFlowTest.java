@@ -0,0 +1,41 @@
+package flownetworks;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import m1graphs2025.Edge;
+
+public class MinCostFlowTest {
+  private static final String NETWORK = "src/test/java/flownetworks/resources/minCostFlow";
+
+  @Test
+  public void bothMethodsFindTheCheapestMaximumFlow() {
+    for (MinCostFlow.Method method : MinCostFlow.Method.values()) {
+      FlowNetwork network = FlowNetwork.fromDotFile(NETWORK);
+      Flow flow = new FlowNetworkOperations(network).getMinimumCostMaximumFlow(method);
+
+      assertEquals(6, flow.getValue());
+      // Two units must go through a -> t, the others take the cheaper a -> b -> t
+      assertEquals(30, flow.getCost());
+      assertEquals(6, network.getFlowValue());
+      Edge at = network.getEdges(network.getNodeOrCreate("a"), network.getTarget()).getFirst();
+      assertEquals(2, network.getEdgeFlow(at));
+      assertEquals(6, network.getEdgeCost(at));
+    }
+  }
+
+  @Test
+  public void flowLimitKeepsTheCheapestPaths() {
+    // s -> a -> b -> t costs 3 per unit, s -> b -> t costs 5 and s -> a -> t 7
+    CompactFlowNetwork network = CompactFlowNetwork.fromEdges(new int[] { 1, 2, 3, 4 }, 0, 3,
+        new int[] { 0, 0, 1, 1, 2 }, new int[] { 1, 2, 2, 3, 3 }, new long[] { 4, 2, 2, 3, 4 },
+        new long[] { 1, 4, 1, 6, 1 });
+    MinCostFlow minCostFlow = new MinCostFlow(network);
+    minCostFlow.setFlowLimit(3);
+    Flow flow = minCostFlow.compute();
+
+    assertEquals(3, flow.getValue());
+    assertEquals(2 * 3 + 5, flow.getCost());
+  }
+}
@@ -0,0 +1,92 @@
+package m1graphs2025;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+public class ChangeListenerTest {
+
+  @Test
+  public void changesAreDeliveredInBatches() {
+    Graph g = new Graph();
+    List<String> seen = new ArrayList<>();
+    List<Integer> sizes = new ArrayList<>();
+    g.setChangeBatchSize(3);
+    g.addChangeListener(changes -> {
+      sizes.add(changes.size());
+      for (int i = 0; i < changes.size(); i++) {
+        seen.add(changes.kind(i) + " " + changes.fromId(i) + " " + changes.toId(i) + " " + changes.weight(i));
+      }
+    });
+
+    g.addNode(1);
+    g.addNode(2);
+    g.addEdge(1, 2, 4);
+    assertEquals(3, seen.size());
+    g.getEdges(1, 2).get(0).setWeight(6);
+    g.addEdge(2, 1);
+    assertEquals(3, seen.size());
+    g.removeNode(1);
+    g.flushChanges();
+
+    assertEquals(List.of(3, 3, 2), sizes);
+    assertEquals("NODE_ADDED 1 0 0", seen.get(0));
+    assertEquals("EDGE_ADDED 1 2 4", seen.get(2));
+    assertEquals("WEIGHT_CHANGED 1 2 6", seen.get(3));
+    assertEquals("EDGE_ADDED 2 1 0", seen.get(4));
+    assertTrue(seen.get(5).startsWith("EDGE_REMOVED 1 2"));
+    assertEquals("EDGE_REMOVED 2 1 0", seen.get(6));
+    assertEquals("NODE_REMOVED 1 0 0", seen.get(7));
+  }
+
+  @Test
+  public void asynchronousListenersGetCopiesAndBatchCommitsFlush() {
+    UndirectedGraph g = new UndirectedGraph();
+    List<ChangeBatch> batches = new ArrayList<>();
+    ChangeListener listener = batches::add;
+    g.addChangeListener(listener, Runnable::run);
+
+    GraphBatch batch = g.batch();
+    batch.addEdge(1, 2, 3);
+    batch.addEdge(2, 3, 1);
+    batch.removeEdge(2, 3);
+    batch.commit();
+
+    assertEquals(1, batches.size());
+    ChangeBatch changes = batches.get(0);
+    assertEquals(0, changes.getFirstSequence());
+    assertEquals(4, changes.size());
+    assertEquals(ChangeBatch.Kind.EDGE_ADDED, changes.kind(3));
+    assertEquals(3, changes.weight(3));
+
+    assertTrue(g.removeChangeListener(listener));
+    assertFalse(g.removeChangeListener(listener));
+    g.addEdge(4, 5);
+    g.flushChanges();
+    assertEquals(1, batches.size());
+  }
+
+  @Test
+  public void listenersSeeTheGraphAfterEachMutation() {
+    Graph g = new Graph();
+    g.addEdge(1, 2);
+    g.addEdge(1, 2);
+    g.addEdge(3, 1);
+    List<String> seen = new ArrayList<>();
+    g.setChangeBatchSize(1);
+    g.addChangeListener(changes -> seen.add(changes.kind(0) + " " + g.existsEdge(1, 2) + " " + g.nbEdges()));
+
+    g.removeEdge(1, 2);
+    new Edge(g.getNode(3), g.getNode(1)).setWeight(4);
+    g.getEdges(3, 1).get(0).setWeight(5);
+    g.removeNode(1);
+
+    assertEquals(List.of("EDGE_REMOVED false 1", "EDGE_REMOVED false 1", "WEIGHT_CHANGED false 1",
+        "EDGE_REMOVED false 0", "NODE_REMOVED false 0"), seen);
+  }
+}
@@ -0,0 +1,50 @@
+package m1graphs2025;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import org.junit.Test;
+
+public class CompactGraphViewsTest {
+
+  @Test
+  public void inducedSubgraphSharesTheEdges() {
+    Graph g = new Graph();
+    for (int id = 1; id <= 4; id++) {
+      g.addNode(id);
+    }
+    g.addEdge(1, 2, 3);
+    g.addEdge(2, 3, 4);
+    g.addEdge(3, 4, 5);
+    g.addEdge(4, 2, 6);
+    BitSet nodes = new BitSet();
+    nodes.set(1, 4);
+    CompactGraph view = CompactGraph.of(g).inducedSubgraph(nodes);
+
+    assertEquals(3, view.nbNodes());
+    assertEquals(2, view.nodeId(0));
+    assertEquals(3, view.nbEdges());
+    assertSame(g.getAllEdges().get(1), view.edge(0));
+    assertEquals(6, view.edgeWeight(2));
+    // In-arcs of node 2 come from node 4 only once 1 is gone
+    assertArrayEquals(new int[] { 2 }, Arrays.copyOfRange(view.transpose().targets(),
+        view.transpose().offsets()[0], view.transpose().offsets()[1]));
+  }
+
+  @Test
+  public void simpleViewSkipsLoopsAndDuplicates() {
+    CompactGraph graph = CompactGraph.fromEdges(false, new int[] { 1, 2, 3 }, new int[] { 0, 1, 2, 0, 1 },
+        new int[] { 1, 0, 2, 1, 2 }, null);
+    CompactGraph simple = graph.simpleView();
+
+    assertEquals(2, simple.nbEdges());
+    assertEquals(1, simple.outDegree(0));
+    assertEquals(2, simple.outDegree(1));
+    assertSame(simple, graph.simpleView());
+    assertEquals(4, graph.filterEdges(e -> e != 2).nbEdges());
+  }
+}
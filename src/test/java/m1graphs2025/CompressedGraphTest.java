@@ -0,0 +1,60 @@
+package m1graphs2025;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class CompressedGraphTest {
+
+  @Test
+  public void cursorDecodesSortedSuccessorsAndWeights() {
+    Graph g = new Graph();
+    for (int id = 1; id <= 10; id++) {
+      g.addNode(id);
+    }
+    // An interval 5..9 between two isolated successors, and a multi-edge
+    int[] targets = { 9, 2, 6, 10, 5, 8, 7, 2 };
+    for (int i = 0; i < targets.length; i++) {
+      g.addEdge(4, targets[i], i - 3);
+    }
+    CompressedGraph c = CompressedGraph.of(g, 3);
+
+    assertTrue(c.isMultiGraph());
+    assertEquals(8, c.outDegree(4));
+    assertEquals(1, c.inDegree(5));
+    GraphStore.NeighborCursor cursor = c.neighbors(4);
+    int[] decoded = new int[8];
+    int[] weights = new int[8];
+    for (int i = 0; cursor.next(); i++) {
+      decoded[i] = cursor.target();
+      weights[i] = cursor.weight();
+    }
+    assertArrayEquals(new int[] { 2, 2, 5, 6, 7, 8, 9, 10 }, decoded);
+    assertArrayEquals(new int[] { -2, 4, 1, -1, 3, 2, -3, 0 }, weights);
+    assertTrue(c.existsEdge(4, 7));
+    assertFalse(c.existsEdge(4, 3));
+  }
+
+  @Test
+  public void undirectedEdgesAreReportedOnce() {
+    UndirectedGraph g = new UndirectedGraph();
+    for (int id = 1; id <= 4; id++) {
+      g.addNode(id);
+    }
+    g.addEdge(3, 1);
+    g.addEdge(2, 2);
+    g.addEdge(4, 2);
+    CompactGraph snapshot = CompactGraph.of(g);
+    CompressedGraph c = CompressedGraph.of(snapshot);
+
+    assertEquals(3, c.nbEdges());
+    assertEquals(snapshot.nbArcs(), c.nbArcs());
+    assertArrayEquals(new int[] { 2, 4 }, c.getSuccessorIds(2));
+    StringBuilder edges = new StringBuilder();
+    c.forEachEdge((from, to, w) -> edges.append(from).append('-').append(to).append(' '));
+    assertEquals("1-3 2-2 2-4 ", edges.toString());
+  }
+}
@@ -0,0 +1,77 @@
+package m1graphs2025;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class EdgeIndexTest {
+
+  @Test
+  public void indexedHubKeepsMultiplicities() {
+    Graph g = new Graph();
+    for (int id = 1; id <= 5; id++) {
+      g.addNode(id);
+    }
+    g.useEdgeIndex(2);
+    g.addEdge(1, 2, 1);
+    g.addEdge(1, 3, 1);
+    g.addEdge(1, 3, 2);
+    g.addEdge(1, 3, 2);
+    g.addEdge(4, 5);
+
+    assertTrue(g.hasEdgeIndex());
+    assertEquals(3, g.countEdges(1, 3));
+    assertTrue(g.isMultiEdge(1, 3));
+    assertTrue(g.getEdges(1, 3).get(0).isMultiEdge());
+    assertFalse(g.getEdges(1, 2).get(0).isMultiEdge());
+    assertTrue(g.removeEdge(1, 3, 2));
+    assertEquals(1, g.countEdges(1, 3));
+    assertEquals(3, g.nbEdges());
+    assertTrue(g.removeEdge(1, 3));
+    assertFalse(g.existsEdge(1, 3));
+    assertFalse(g.isMultiGraph());
+    g.removeNode(2);
+    assertEquals(0, g.countEdges(1, 2));
+    assertEquals(1, g.nbEdges());
+  }
+
+  @Test
+  public void undirectedCountsEdgesAddedEitherWay() {
+    UndirectedGraph g = new UndirectedGraph();
+    for (int id = 1; id <= 3; id++) {
+      g.addNode(id);
+    }
+    g.addEdge(1, 2);
+    g.addEdge(2, 1);
+    g.addEdge(3, 3);
+    g.useEdgeIndex(1);
+
+    assertEquals(2, g.countEdges(1, 2));
+    assertEquals(2, g.countEdges(2, 1));
+    assertEquals(1, g.countEdges(3, 3));
+    assertEquals(2, g.getEdges(2, 1).size());
+  }
+
+  @Test
+  public void undirectedMultiEdgesAddedEitherWay() {
+    UndirectedGraph g = new UndirectedGraph();
+    for (int id = 1; id <= 3; id++) {
+      g.addNode(id);
+    }
+    g.addEdge(1, 2);
+    g.addEdge(2, 3);
+    assertFalse(g.isMultiGraph());
+    g.addEdge(2, 1);
+
+    assertTrue(g.isMultiEdge(1, 2));
+    assertTrue(g.isMultiEdge(2, 1));
+    assertTrue(g.getEdges(1, 2).get(0).isMultiEdge());
+    assertFalse(g.isMultiEdge(2, 3));
+    assertTrue(g.isMultiGraph());
+    g.useEdgeIndex(1);
+    assertTrue(g.isMultiEdge(2, 1));
+    assertFalse(g.isMultiEdge(3, 2));
+  }
+}
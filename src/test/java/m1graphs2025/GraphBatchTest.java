@@ -0,0 +1,156 @@
+package m1graphs2025;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class GraphBatchTest {
+
+  @Test
+  public void commitActsLikeMutationsInOrder() {
+    Graph g = new Graph();
+    g.addEdge(1, 2);
+    g.addEdge(2, 3);
+    g.addEdge(3, 1);
+    g.useEdgeIndex(1);
+
+    GraphBatch batch = g.batch();
+    batch.addEdge(1, 4, 7);
+    batch.addEdge(1, 3, 5);
+    batch.removeEdge(1, 3, 5);
+    batch.addEdge(5, 2);
+    batch.removeNode(2);
+    batch.addEdge(2, 1);
+    batch.removeEdge(6, 7);
+    assertEquals(7, batch.size());
+    assertFalse(g.existsEdge(1, 4));
+
+    batch.commit();
+    assertEquals(0, batch.size());
+    assertEquals(5, g.nbNodes());
+    assertEquals(3, g.nbEdges());
+    assertTrue(g.existsEdge(1, 4));
+    assertEquals(7, (int) g.getEdges(1, 4).get(0).getWeight());
+    assertFalse(g.existsEdge(1, 3));
+    assertFalse(g.existsEdge(5, 2));
+    assertTrue(g.usesNode(5));
+    assertTrue(g.existsEdge(2, 1));
+    assertTrue(g.existsEdge(3, 1));
+    assertFalse(g.usesNode(6));
+  }
+
+  @Test
+  public void undirectedRemovalKeepsItsOrientation() {
+    UndirectedGraph g = new UndirectedGraph();
+    g.addEdge(1, 2);
+    g.addEdge(2, 1);
+    g.addEdge(2, 3);
+
+    GraphBatch batch = g.batch();
+    batch.removeEdge(1, 2);
+    batch.addEdge(3, 3);
+    batch.commit();
+
+    assertEquals(3, g.nbEdges());
+    assertTrue(g.existsEdge(2, 1));
+    assertEquals(1, g.degree(1));
+    assertTrue(g.existsEdge(3, 2));
+    assertEquals(2, g.degree(3));
+
+    batch.removeNode(3);
+    batch.commit();
+    assertEquals(1, g.nbEdges());
+    assertEquals(2, g.nbNodes());
+    assertEquals(1, g.degree(2));
+  }
+
+  @Test
+  public void undirectedCommitActsLikeMutationsOneByOne() {
+    Random random = new Random(11);
+    for (int round = 0; round < 500; round++) {
+      UndirectedGraph batched = new UndirectedGraph();
+      UndirectedGraph sequential = new UndirectedGraph();
+      for (int i = 0; i < 6; i++) {
+        int u = 1 + random.nextInt(5);
+        int v = 1 + random.nextInt(5);
+        batched.addEdge(u, v);
+        sequential.addEdge(u, v);
+      }
+      GraphBatch batch = batched.batch();
+      for (int op = 0; op < 12; op++) {
+        int u = 1 + random.nextInt(6);
+        int v = 1 + random.nextInt(6);
+        int w = random.nextInt(3);
+        switch (random.nextInt(6)) {
+          case 0:
+            batch.addNode(u);
+            sequential.addNode(u);
+            break;
+          case 1:
+            batch.removeNode(u);
+            sequential.removeNode(u);
+            break;
+          case 2:
+            batch.addEdge(u, v);
+            sequential.addEdge(u, v);
+            break;
+          case 3:
+            // Weighted edges of a batch create their nodes
+            batch.addEdge(u, v, w);
+            sequential.addNode(u);
+            sequential.addNode(v);
+            sequential.addEdge(u, v, w);
+            break;
+          case 4:
+            batch.removeEdge(u, v);
+            sequential.removeEdge(u, v);
+            break;
+          default:
+            batch.removeEdge(u, v, w);
+            sequential.removeEdge(u, v, w);
+        }
+      }
+      batch.commit();
+      assertEquals(describe(sequential), describe(batched));
+    }
+  }
+
+  /**
+   * Lists the nodes and the edges of every node, in adjacency order.
+   */
+  private static String describe(UndirectedGraph g) {
+    StringBuilder sb = new StringBuilder().append(g.nbNodes()).append(' ').append(g.nbEdges());
+    for (int id = 1; id <= 6; id++) {
+      Node n = g.getNode(id);
+      if (n == null)
+        continue;
+      sb.append('\n').append(id).append(':');
+      for (Edge e : g.getIncidentEdges(n)) {
+        sb.append(' ').append(e.from().getId()).append('-').append(e.to().getId()).append('/').append(e.getWeight());
+      }
+      sb.append(" degree ").append(g.degree(n));
+    }
+    return sb.toString();
+  }
+
+  @Test
+  public void namedNodesGetFreshIdsAfterRemoval() {
+    Graph g = new Graph();
+    Node x = g.getNodeOrCreate("x");
+    Node y = g.getNodeOrCreate("y");
+    Node z = g.getNodeOrCreate("z");
+    g.removeNode(y);
+
+    Node w = g.getNodeOrCreate("w");
+    assertEquals(3, g.nbNodes());
+    assertEquals(4, w.getId());
+    assertTrue(g.holdsNode(w));
+    assertEquals("z", g.getNode(3).getName());
+    assertEquals(z, g.getNodeOrCreate("z"));
+    assertEquals(x, g.getNode(1));
+  }
+}
@@ -0,0 +1,54 @@
+package m1graphs2025;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class GraphBuilderTest {
+
+  @Test
+  public void buffersAreMergedAndGroupedBySource() {
+    GraphBuilder builder = new GraphBuilder(true);
+    GraphBuilder.EdgeBuffer buffer = builder.buffer();
+    builder.addEdge(3, 1, 5);
+    buffer.addEdge(1, 3, 2);
+    builder.addEdge(1, 2);
+    builder.addNode(7);
+    Graph g = builder.build();
+
+    assertEquals(4, g.nbNodes());
+    assertEquals(3, g.nbEdges());
+    assertEquals(0, g.degree(7));
+    // Edges of node 1 keep the order of the buffers
+    assertEquals(2, g.getOutEdges(1).get(0).to().getId());
+    assertEquals(Integer.valueOf(0), g.getOutEdges(1).get(0).getWeight());
+    assertEquals(Integer.valueOf(2), g.getOutEdges(1).get(1).getWeight());
+
+    CompactGraph compact = builder.buildCompact();
+    CompactGraph snapshot = CompactGraph.of(g);
+    assertArrayEquals(snapshot.offsets(), compact.offsets());
+    assertArrayEquals(snapshot.targets(), compact.targets());
+  }
+
+  @Test
+  public void undirectedSimpleGraphDropsReversedDuplicates() {
+    UndirectedGraph g = new UndirectedGraph();
+    for (int id = 1; id <= 3; id++) {
+      g.addNode(id);
+    }
+    g.addEdge(1, 2);
+    g.addEdge(2, 1);
+    g.addEdge(3, 3);
+    g.addEdge(2, 3);
+    UndirectedGraph simple = g.toSimpleGraph();
+
+    assertEquals(2, simple.nbEdges());
+    assertTrue(simple.isSimpleGraph());
+    assertTrue(simple.existsEdge(3, 2));
+    assertFalse(simple.existsEdge(3, 3));
+    assertEquals(2, simple.degree(2));
+  }
+}
@@ -0,0 +1,45 @@
+package m1graphs2025;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class GraphStoreTest {
+
+  @Test
+  public void undirectedGraphReportsEdgesFromBothEnds() {
+    GraphStore store = new UndirectedGraph();
+    for (int id = 1; id <= 3; id++) {
+      store.addNode(id);
+    }
+    store.addEdge(1, 2, 4);
+    store.addEdge(3, 2, 5);
+    store.addEdge(2, 2, 6);
+
+    assertFalse(store.isDirected());
+    assertTrue(store.isWeighted());
+    assertArrayEquals(new int[] { 1, 2, 3 }, store.getNodeIds());
+    assertEquals(store.outDegree(2), store.getSuccessorIds(2).length);
+    int[] weight = new int[1];
+    store.forEachEdge((from, to, w) -> weight[0] += w);
+    assertEquals(15, weight[0]);
+    assertArrayEquals(new int[] { 2, 1, 3 }, store.getBFSIds(2));
+  }
+
+  @Test
+  public void snapshotOfCopyMatchesSnapshotOfGraph() {
+    Graph g = new Graph(2, 3, 0, 3, 0, 1, 0, 0);
+    Graph copy = new Graph();
+    g.copyTo(copy);
+    CompactGraph expected = CompactGraph.of(g);
+    CompactGraph snapshot = CompactGraph.of((GraphStore) copy);
+
+    assertEquals(expected.nbEdges(), snapshot.nbEdges());
+    assertArrayEquals(expected.offsets(), snapshot.offsets());
+    assertArrayEquals(expected.targets(), snapshot.targets());
+    assertEquals(g.toDotString(), copy.toDotString());
+  }
+}
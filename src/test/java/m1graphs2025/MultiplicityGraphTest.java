@@ -0,0 +1,65 @@
+package m1graphs2025;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+public class MultiplicityGraphTest {
+
+  @Test
+  public void parallelEdgesExpandLazily() {
+    MultiplicityGraph g = new MultiplicityGraph(true);
+    for (int k = 0; k < 3; k++) {
+      g.addEdge(1, 2, k);
+    }
+    g.addEdge(1, 3);
+    g.addEdge(3, 3);
+    g.addEdge(3, 3);
+
+    assertEquals(6, g.nbEdges());
+    assertEquals(3, g.nbPairs());
+    assertEquals(3, g.countEdges(1, 2));
+    assertTrue(g.isMultiEdge(1, 2));
+    assertFalse(g.isMultiEdge(1, 3));
+    assertTrue(g.isMultiGraph());
+    assertTrue(g.isWeighted());
+    assertArrayEquals(new int[] { 0, 1, 2 }, g.getWeights(1, 2));
+    assertArrayEquals(new int[] { 2, 2, 2, 3 }, g.getSuccessorsMulti(1));
+    assertArrayEquals(new int[] { 2, 3 }, g.getSuccessors(1));
+    assertArrayEquals(new int[] { 2, 2, 2, 3, 0, 0, 3, 3, 0 }, g.toSuccessorArray());
+    assertArrayEquals(new int[][] { { 0, 3, 1 }, { 0, 0, 0 }, { 0, 0, 2 } }, g.toAdjMatrix());
+
+    assertTrue(g.removeEdge(1, 2, 1));
+    assertArrayEquals(new int[] { 0, 2 }, g.getWeights(1, 2));
+    assertTrue(g.removeEdge(3, 3));
+    assertEquals(3, g.nbEdges());
+    assertEquals(1, g.inDegree(3));
+    g.removeNode(2);
+    assertFalse(g.isMultiGraph());
+    assertEquals(1, g.nbEdges());
+  }
+
+  @Test
+  public void undirectedPairsAreSharedAndExpandToGraph() {
+    UndirectedGraph source = new UndirectedGraph();
+    source.addEdge(1, 2);
+    source.addEdge(2, 1);
+    source.addEdge(2, 2);
+    MultiplicityGraph g = MultiplicityGraph.of(source);
+
+    assertEquals(2, g.countEdges(1, 2));
+    assertEquals(2, g.countEdges(2, 1));
+    assertTrue(g.isMultiEdge(2, 1));
+    assertEquals(3, g.outDegree(2));
+    assertEquals(2, g.nbPairs());
+    assertArrayEquals(new int[][] { { 0, 2 }, { 2, 1 } }, g.toAdjMatrix());
+
+    Graph copy = g.toGraph();
+    assertTrue(copy instanceof UndirectedGraph);
+    assertEquals(3, copy.nbEdges());
+    assertEquals(2, copy.countEdges(1, 2));
+  }
+}
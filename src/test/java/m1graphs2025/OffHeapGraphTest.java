@@ -0,0 +1,95 @@
+package m1graphs2025;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import org.junit.Test;
+
+public class OffHeapGraphTest {
+
+  @Test
+  public void matchesTheCopiedGraphAcrossChunks() {
+    UndirectedGraph g = new UndirectedGraph();
+    for (int id = 1; id <= 5; id++) {
+      g.addNode(id);
+    }
+    g.addEdge(1, 2, 7);
+    g.addEdge(2, 3, 1);
+    g.addEdge(3, 1, 4);
+    g.addEdge(3, 3, 2);
+    g.addEdge(4, 5, 9);
+    try (OffHeapGraph o = OffHeapGraph.of(g, 1)) {
+      assertEquals(5, o.nbEdges());
+      assertEquals(9, o.nbArcs());
+      assertFalse(o.isMultiGraph());
+      assertEquals(g.outDegree(3), o.outDegree(3));
+      assertTrue(o.existsEdge(1, 3));
+      assertFalse(o.existsEdge(1, 4));
+      assertArrayEquals(g.getBFSIds(1), o.getBFSIds(1));
+      int[] weight = new int[1];
+      o.forEachEdge((from, to, w) -> weight[0] += w);
+      assertEquals(23, weight[0]);
+    }
+  }
+
+  @Test
+  public void builderStreamsEdgesAcrossChunks() {
+    OffHeapGraph.Builder builder = OffHeapGraph.builder(true, 1);
+    builder.addEdge(5, 1);
+    builder.addEdge(1, 3, 2);
+    builder.addEdge(1, 3);
+    builder.addEdge(3, 3, 4);
+    builder.addNode(9);
+    try (OffHeapGraph o = builder.build()) {
+      assertArrayEquals(new int[] { 1, 3, 5, 9 }, o.getNodeIds());
+      assertEquals(4, o.nbEdges());
+      assertTrue(o.isWeighted());
+      assertTrue(o.isMultiGraph());
+      assertEquals(2, o.outDegree(1));
+      assertEquals(3, o.inDegree(3));
+      assertEquals(0, o.outDegree(9));
+      int[] weight = new int[1];
+      o.forEachOutEdge(1, (from, to, w) -> weight[0] += w);
+      assertEquals(2, weight[0]);
+    }
+  }
+
+  @Test
+  public void loadsAnEdgeList() throws IOException {
+    Path file = Files.createTempFile("edges", ".txt");
+    Files.write(file, List.of("# undirected", "1 2", "2\t3", "", "3 1"));
+    try (OffHeapGraph o = OffHeapGraph.fromEdgeList(file, false)) {
+      assertEquals(3, o.nbEdges());
+      assertEquals(6, o.nbArcs());
+      assertFalse(o.isWeighted());
+      assertTrue(o.existsEdge(1, 3));
+    } finally {
+      Files.delete(file);
+    }
+  }
+
+  @Test
+  public void closedGraphFails() {
+    OffHeapGraph o = OffHeapGraph.of(new Graph(2, 0, 0));
+    o.close();
+    Runnable[] calls = { () -> o.usesNode(1), () -> o.nbEdges(), () -> o.nbArcs(), () -> o.outDegree(1),
+        () -> o.inDegree(1), () -> o.existsEdge(1, 2), () -> o.forEachOutEdge(1, (from, to, w) -> {
+        }) };
+    for (Runnable call : calls) {
+      try {
+        call.run();
+        fail();
+      } catch (IllegalStateException e) {
+        // expected
+      }
+    }
+  }
+}
@@ -0,0 +1,191 @@
+package m1graphs2025;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import org.junit.Test;
+
+public class PersistentGraphTest {
+
+  @Test
+  public void recoversFromCheckpointAndLog() throws IOException {
+    Path dir = Files.createTempDirectory("graph");
+    PersistentGraph store = PersistentGraph.open(dir, true);
+    Graph g = store.getGraph();
+    g.addNode(1, "a");
+    g.addNode(2);
+    g.addEdge(1, 2, 5);
+    store.checkpoint();
+    g.addEdge(2, 3);
+    g.addEdge(2, 3);
+    g.getEdges(1, 2).get(0).setWeight(7);
+    g.removeNode(3);
+    g.addEdge(3, 1);
+    store.sync();
+    // Crash: the store is not closed, and a frame is torn
+    Files.write(dir.resolve("wal-1.log"), new byte[] { 0, 0, 0, 9, 1 }, StandardOpenOption.APPEND);
+
+    PersistentGraph recovered = PersistentGraph.open(dir, true);
+    Graph h = recovered.getGraph();
+    assertEquals(1, recovered.getGeneration());
+    assertEquals(3, h.nbNodes());
+    assertEquals(2, h.nbEdges());
+    assertEquals("a", h.getNode(1).getName());
+    assertEquals(7, (int) h.getEdges(1, 2).get(0).getWeight());
+    assertFalse(h.existsEdge(2, 3));
+    assertTrue(h.existsEdge(3, 1));
+    assertFalse(h.getEdges(3, 1).get(0).isWeighted());
+    recovered.close();
+    delete(dir);
+  }
+
+  @Test
+  public void checkpointsReplaceTheLog() throws IOException {
+    Path dir = Files.createTempDirectory("graph");
+    PersistentGraph store = PersistentGraph.open(dir, false);
+    store.setCheckpointThreshold(100);
+    for (int i = 0; i < 50; i++) {
+      store.getGraph().addEdge(i, i + 1);
+    }
+    store.sync();
+    assertEquals(1, store.getGeneration());
+    assertEquals(12, store.getLogSize());
+    store.close();
+
+    try (Stream<Path> files = Files.list(dir)) {
+      assertEquals(2, files.count());
+    }
+    PersistentGraph reopened = PersistentGraph.open(dir, false);
+    assertEquals(50, reopened.getGraph().nbEdges());
+    assertEquals(2, reopened.getGraph().degree(7));
+    reopened.close();
+    delete(dir);
+  }
+
+  @Test
+  public void damagedCheckpointFallsBackToThePreviousOne() throws IOException {
+    Path dir = Files.createTempDirectory("graph");
+    PersistentGraph store = PersistentGraph.open(dir, true);
+    Graph g = store.getGraph();
+    g.addNode(1, "a");
+    g.addEdge(1, 2);
+    store.sync();
+    byte[] checkpoint = Files.readAllBytes(dir.resolve("checkpoint-0.bin"));
+    byte[] log = Files.readAllBytes(dir.resolve("wal-0.log"));
+    store.checkpoint();
+    store.close();
+    // A crash left the former generation, and the name of node 1 is garbled
+    Files.write(dir.resolve("checkpoint-0.bin"), checkpoint);
+    Files.write(dir.resolve("wal-0.log"), log);
+    byte[] damaged = Files.readAllBytes(dir.resolve("checkpoint-1.bin"));
+    damaged[19] = (byte) 0xff;
+    Files.write(dir.resolve("checkpoint-1.bin"), damaged);
+
+    PersistentGraph recovered = PersistentGraph.open(dir, true);
+    assertEquals(0, recovered.getGeneration());
+    assertEquals(2, recovered.getGraph().nbNodes());
+    assertTrue(recovered.getGraph().existsEdge(1, 2));
+    assertFalse(Files.exists(dir.resolve("checkpoint-1.bin")));
+    recovered.close();
+    delete(dir);
+  }
+
+  @Test
+  public void recoversTheOrderOfParallelEdges() throws IOException {
+    Path dir = Files.createTempDirectory("graph");
+    PersistentGraph store = PersistentGraph.open(dir, true);
+    Graph g = store.getGraph();
+    g.addNode(1);
+    g.addNode(2);
+    g.addEdge(1, 2, 5);
+    g.addEdge(1, 2, 3);
+    g.addEdge(1, 2, 5);
+    g.addEdge(1, 2);
+    // The second edge of weight 5 changes, not the first one
+    g.getEdges(1, 2).get(2).setWeight(3);
+    g.getEdges(1, 2).get(3).setWeight(5);
+    // Then the second of two edges of weight 7 goes
+    g.addEdge(1, 1, 7);
+    g.addEdge(1, 1, 7);
+    g.getEdges(1, 1).get(0).setWeight(8);
+    g.removeEdge(1, 1, 7);
+    assertEquals("1: 2/5 2/3 2/3 2/5 1/8\n2:", describe(g));
+    store.close();
+
+    PersistentGraph recovered = PersistentGraph.open(dir, true);
+    assertEquals(describe(g), describe(recovered.getGraph()));
+    recovered.close();
+    delete(dir);
+  }
+
+  @Test
+  public void replayRebuildsTheSameEdgeLists() throws IOException {
+    Random random = new Random(5);
+    for (int round = 0; round < 100; round++) {
+      Path dir = Files.createTempDirectory("graph");
+      PersistentGraph store = PersistentGraph.open(dir, round % 2 == 0);
+      Graph g = store.getGraph();
+      for (int id = 1; id <= 3; id++) {
+        g.addNode(id);
+      }
+      for (int op = 0; op < 30; op++) {
+        Node u = g.getNode(1 + random.nextInt(3));
+        Node v = g.getNode(1 + random.nextInt(3));
+        List<Edge> edges = u == null || v == null ? List.of() : g.getEdges(u, v);
+        int choice = random.nextInt(10);
+        if (u == null || v == null) {
+          g.addNode(1 + random.nextInt(3));
+        } else if (choice < 5) {
+          g.addEdge(u, v, random.nextInt(3));
+        } else if (choice < 8 && !edges.isEmpty()) {
+          edges.get(random.nextInt(edges.size())).setWeight(random.nextInt(3));
+        } else if (choice == 8) {
+          g.removeEdge(u, v, random.nextInt(3));
+        } else if (random.nextInt(4) == 0) {
+          g.removeNode(u);
+        }
+      }
+      store.close();
+
+      PersistentGraph recovered = PersistentGraph.open(dir, round % 2 == 0);
+      assertEquals(describe(g), describe(recovered.getGraph()));
+      recovered.close();
+      delete(dir);
+    }
+  }
+
+  /**
+   * Lists the out edges of every node, in order.
+   */
+  private static String describe(Graph g) {
+    StringBuilder sb = new StringBuilder();
+    for (int id = 1; id <= 3; id++) {
+      Node n = g.getNode(id);
+      if (n == null)
+        continue;
+      sb.append(sb.length() == 0 ? "" : "\n").append(id).append(':');
+      for (Edge e : g.getAel().get(n)) {
+        sb.append(' ').append(e.to().getId()).append('/').append(e.getWeight());
+      }
+    }
+    return sb.toString();
+  }
+
+  private static void delete(Path dir) throws IOException {
+    try (Stream<Path> files = Files.list(dir)) {
+      for (Path file : (Iterable<Path>) files::iterator) {
+        Files.delete(file);
+      }
+    }
+    Files.delete(dir);
+  }
+}
@@ -0,0 +1,45 @@
+package matchings;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.UndirectedGraph;
+
+public class BipartiteMatchingTest {
+
+  @Test
+  public void matchesEveryNodeOfAPath() {
+    // Path 1-2-3-4-5-6: the greedy choice 2-3 would leave 1 unmatched
+    UndirectedGraph g = new UndirectedGraph(2, 0, 3, 0, 4, 0, 5, 0, 6, 0, 0);
+    Matching matching = new BipartiteMatching(g).maximumMatching();
+
+    assertEquals(3, matching.size());
+    assertEquals(2, matching.getMate(1));
+    assertEquals(4, matching.getMate(3));
+    assertEquals(6, matching.getMate(5));
+  }
+
+  @Test
+  public void trustsWeightsOverCardinalityUnlessAsked() {
+    // Left 1, 2 and right 3, 4 with edges 1-3 (5), 1-4 (1) and 2-3 (3)
+    CompactGraph g = CompactGraph.fromEdges(false, new int[] { 1, 2, 3, 4 }, new int[] { 0, 0, 1 },
+        new int[] { 2, 3, 2 }, new int[] { 5, 1, 3 });
+    BipartiteMatching matching = new BipartiteMatching(g);
+
+    Matching heaviest = matching.maximumWeightMatching();
+    assertEquals(1, heaviest.size());
+    assertEquals(5, heaviest.getTotalWeight());
+
+    Matching assignment = matching.maximumWeightMatching(true);
+    assertEquals(2, assignment.size());
+    assertEquals(4, assignment.getTotalWeight());
+  }
+
+  @Test(expected = GraphExceptions.class)
+  public void rejectsOddCycles() {
+    new BipartiteMatching(new UndirectedGraph(2, 3, 0, 3, 0, 0));
+  }
+}
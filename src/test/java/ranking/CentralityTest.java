@@ -0,0 +1,101 @@
+package ranking;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import m1graphs2025.Graph;
+import m1graphs2025.UndirectedGraph;
+
+public class CentralityTest {
+  private static final double EPSILON = 1e-9;
+
+  @Test
+  public void scoresAPathAndAnIsolatedNode() {
+    // 1 - 2 - 3 - 4, and 5 alone
+    UndirectedGraph g = new UndirectedGraph(2, 0, 3, 0, 4, 0, 0, 0);
+    Centrality centrality = new Centrality(g);
+    ForkJoinPool pool = new ForkJoinPool(2);
+    centrality.setPool(pool);
+
+    CentralityScores betweenness = centrality.betweenness();
+    assertTrue(betweenness.isExact());
+    assertArrayEquals(new double[] { 0, 2, 2, 0, 0 }, betweenness.getScores(), EPSILON);
+    assertArrayEquals(new int[] { 2, 3 }, betweenness.getTopNodes(2));
+    assertEquals(0, betweenness.getScore(42), EPSILON);
+
+    CentralityScores closeness = centrality.closeness();
+    assertEquals(3.0 / 6 * 3 / 4, closeness.getScore(1), EPSILON);
+    assertEquals(3.0 / 4 * 3 / 4, closeness.getScore(g.getNode(2)), EPSILON);
+    assertEquals(0, closeness.getScore(5), EPSILON);
+
+    CentralityScores harmonic = centrality.harmonic();
+    assertEquals(1 + 1.0 / 2 + 1.0 / 3, harmonic.getScore(1), EPSILON);
+    assertEquals(2.5, harmonic.getScore(3), EPSILON);
+    assertEquals(0, harmonic.getScore(5), EPSILON);
+
+    // As many pivots as nodes is exact, sampled paths stay within their bound
+    assertTrue(centrality.betweenness(5, 1).isExact());
+    CentralityScores sampled = centrality.betweenness(0.2, 1);
+    assertFalse(sampled.isExact());
+    assertTrue(sampled.getSamples() > 0);
+    for (int id = 1; id <= 5; id++) {
+      assertTrue(Math.abs(sampled.getScore(id) - betweenness.getScore(id)) <= sampled.getErrorBound());
+    }
+    pool.shutdown();
+  }
+
+  @Test
+  public void multiEdgesAreDistinctPathsAndSelfLoopsIgnored() {
+    // The square 1-2-4-3-1 with 1-2 doubled and a self-loop on 4
+    UndirectedGraph g = new UndirectedGraph();
+    int[][] edges = { { 1, 2 }, { 2, 1 }, { 1, 3 }, { 2, 4 }, { 3, 4 }, { 4, 4 } };
+    for (int[] e : edges) {
+      g.addEdge(e[0], e[1]);
+    }
+    CentralityScores betweenness = new Centrality(g).betweenness();
+    assertArrayEquals(new double[] { 2.0 / 3, 2.0 / 3, 1.0 / 3, 1.0 / 3 }, betweenness.getScores(), EPSILON);
+  }
+
+  @Test
+  public void weightsChangeTheShortestPaths() {
+    Graph g = new Graph();
+    for (int i = 1; i <= 3; i++) {
+      g.addNode(i);
+    }
+    g.addEdge(1, 2, 1);
+    g.addEdge(2, 3, 1);
+    g.addEdge(1, 3, 5);
+    Centrality centrality = new Centrality(g);
+    centrality.setWeighted(true);
+    assertEquals(1, centrality.betweenness().getScore(2), EPSILON);
+    assertEquals(1 + 1.0 / 2, centrality.harmonic().getScore(1), EPSILON);
+    centrality.setWeighted(false);
+    assertEquals(0, centrality.betweenness().getScore(2), EPSILON);
+    assertEquals(2, centrality.harmonic().getScore(1), EPSILON);
+  }
+
+  @Test
+  public void emptyAndSingleNodeGraphs() {
+    Centrality empty = new Centrality(new Graph());
+    assertEquals(0, empty.betweenness().getScores().length);
+    assertEquals(0, empty.closeness().getScores().length);
+    assertEquals(0, empty.betweenness(0.1, 1).getScores().length);
+
+    Graph single = new Graph(1, 0);
+    Centrality centrality = new Centrality(single);
+    assertArrayEquals(new double[] { 0 }, centrality.betweenness().getScores(), EPSILON);
+    assertArrayEquals(new double[] { 0 }, centrality.closeness().getScores(), EPSILON);
+    assertArrayEquals(new double[] { 0 }, centrality.harmonic().getScores(), EPSILON);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void failureProbabilityMustBeAProbability() {
+    new Centrality(new Graph()).setFailureProbability(1);
+  }
+}
@@ -0,0 +1,105 @@
+package ranking;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Edge;
+import m1graphs2025.Graph;
+import m1graphs2025.Node;
+
+/**
+ * JMH benchmark comparing {@link PageRank} with a naive power iteration over
+ * {@link Graph#getInEdges(Node)}.
+ * Run with {@code mvn test-compile} then
+ * {@code java -cp target/test-classes:target/classes:<test classpath> ranking.PageRankBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class PageRankBenchmark {
+  private static final int ITERATIONS = 20;
+
+  @Param({ "1000", "4000" })
+  public int nbNodes;
+
+  private Graph graph;
+  private CompactGraph compactGraph;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    graph = new Graph();
+    Node[] nodes = new Node[nbNodes];
+    for (int i = 0; i < nbNodes; i++) {
+      nodes[i] = new Node(i + 1, graph);
+      graph.addNode(nodes[i]);
+    }
+    for (int i = 0; i < 8 * nbNodes; i++) {
+      graph.addEdge(nodes[random.nextInt(nbNodes)], nodes[random.nextInt(nbNodes)]);
+    }
+    compactGraph = CompactGraph.of(graph);
+  }
+
+  @Benchmark
+  public double[] pageRank() {
+    PageRank pageRank = new PageRank(compactGraph);
+    pageRank.setMaxIterations(ITERATIONS);
+    pageRank.setTolerance(0);
+    return pageRank.compute().getRanks();
+  }
+
+  @Benchmark
+  public double[] pageRankWithSnapshot() {
+    PageRank pageRank = new PageRank(graph);
+    pageRank.setMaxIterations(ITERATIONS);
+    pageRank.setTolerance(0);
+    return pageRank.compute().getRanks();
+  }
+
+  @Benchmark
+  public double[] naiveInEdges() {
+    int n = graph.nbNodes();
+    double[] rank = new double[n + 1];
+    double[] next = new double[n + 1];
+    Arrays.fill(rank, 1.0 / n);
+    for (int it = 0; it < ITERATIONS; it++) {
+      double dangling = 0;
+      for (Node u : graph.getAllNodes()) {
+        if (graph.outDegree(u) == 0)
+          dangling += rank[u.getId()];
+      }
+      for (Node v : graph.getAllNodes()) {
+        double in = 0;
+        for (Edge e : graph.getInEdges(v)) {
+          in += rank[e.from().getId()] / graph.outDegree(e.from());
+        }
+        next[v.getId()] = (0.15 + 0.85 * dangling) / n + 0.85 * in;
+      }
+      double[] tmp = rank;
+      rank = next;
+      next = tmp;
+    }
+    return rank;
+  }
+
+  public static void main(String[] args) throws Exception {
+    org.openjdk.jmh.Main.main(new String[] { PageRankBenchmark.class.getSimpleName() });
+  }
+}
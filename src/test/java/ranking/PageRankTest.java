@@ -0,0 +1,60 @@
+package ranking;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import m1graphs2025.Graph;
+import m1graphs2025.GraphExceptions;
+
+public class PageRankTest {
+
+  @Test
+  public void ranksSumToOneWithDanglingNodes() {
+    // Node 4 has no out-edge
+    Graph g = new Graph(2, 3, 0, 3, 0, 1, 4, 0, 0);
+    PageRankResult result = new PageRank(g).compute();
+
+    double total = 0;
+    for (double r : result.getRanks())
+      total += r;
+    assertEquals(1.0, total, 1e-9);
+    assertTrue(result.isConverged());
+    assertTrue(result.getRank(3) > result.getRank(2));
+  }
+
+  @Test
+  public void symmetricCycleHasUniformRanks() {
+    Graph g = new Graph(2, 0, 3, 0, 1, 0);
+    PageRankResult result = new PageRank(g).compute();
+    for (int id = 1; id <= 3; id++)
+      assertEquals(1.0 / 3, result.getRank(id), 1e-9);
+  }
+
+  @Test
+  public void pushApproximationMatchesPowerIteration() {
+    Graph g = new Graph(2, 3, 0, 3, 4, 0, 1, 0, 5, 0, 1, 2, 0);
+    PageRank pageRank = new PageRank(g);
+    pageRank.setTolerance(1e-12);
+    pageRank.setMaxIterations(1000);
+    double[] teleport = new double[g.nbNodes()];
+    teleport[0] = 1;
+    PageRankResult exact = pageRank.compute(teleport);
+    PageRankResult approx = pageRank.computePersonalized(g.getNode(1), 1e-10);
+
+    for (int id = 1; id <= g.nbNodes(); id++)
+      assertEquals(exact.getRank(id), approx.getRank(id), 1e-6);
+    assertEquals(1, approx.getTopNodes(1)[0]);
+  }
+
+  @Test(expected = GraphExceptions.class)
+  public void personalizedSourceMustBeANodeIndex() {
+    new PageRank(new Graph(2, 0, 0)).computePersonalized(2, 1e-6);
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void personalizedEpsilonMustBePositive() {
+    new PageRank(new Graph(2, 0, 1, 0)).computePersonalized(0, 0);
+  }
+}
@@ -0,0 +1,58 @@
+package reordering;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.UndirectedGraph;
+
+public class NodeReorderingTest {
+
+  @Test
+  public void reverseCuthillMcKeeNumbersAPathInSequence() {
+    // The path 7 - 3 - 9 - 1 - 5 with scattered ids
+    UndirectedGraph g = new UndirectedGraph();
+    int[] path = { 7, 3, 9, 1, 5 };
+    for (int id : path) {
+      g.addNode(id);
+    }
+    for (int i = 0; i + 1 < path.length; i++) {
+      g.addEdge(path[i], path[i + 1]);
+    }
+    Relabeling relabeling = new NodeReordering(g).reverseCuthillMcKee();
+    CompactGraph renumbered = relabeling.getGraph();
+
+    for (int e = 0; e < renumbered.nbEdges(); e++) {
+      assertEquals(1, Math.abs(renumbered.edgeSource(e) - renumbered.edgeTarget(e)));
+    }
+    for (int id : path) {
+      assertEquals(id, relabeling.toOldId(relabeling.toNewId(id)));
+    }
+  }
+
+  @Test
+  public void everyOrderKeepsTheEdges() {
+    CompactGraph graph = CompactGraph.fromEdges(true, new int[] { 2, 4, 6, 8 },
+        new int[] { 0, 1, 1, 2, 3, 3 }, new int[] { 1, 2, 3, 0, 0, 3 }, new int[] { 5, 6, 7, 8, 9, 10 });
+    NodeReordering reordering = new NodeReordering(graph);
+    Relabeling[] relabelings = { reordering.degreeOrder(), reordering.bfsOrder(),
+        reordering.reverseCuthillMcKee(), reordering.gorder() };
+    for (Relabeling relabeling : relabelings) {
+      CompactGraph renumbered = relabeling.getGraph();
+      int total = 0;
+      for (int e = 0; e < renumbered.nbEdges(); e++) {
+        int from = relabeling.toOldId(renumbered.nodeId(renumbered.edgeSource(e)));
+        int to = relabeling.toOldId(renumbered.nodeId(renumbered.edgeTarget(e)));
+        total += from * 100 + to + renumbered.edgeWeight(e) * 10000;
+      }
+      assertEquals(204 + 406 + 408 + 602 + 802 + 808 + 450000, total);
+    }
+    double[] byNewIndex = { 0, 1, 2, 3 };
+    Relabeling degree = relabelings[0];
+    // Node 8 has the highest degree, its self-loop counting both ways
+    assertEquals(0, degree.newIndex(3));
+    assertArrayEquals(new double[] { 1, 2, 3, 0 }, degree.toOriginalOrder(byNewIndex), 0);
+  }
+}
@@ -0,0 +1,133 @@
+package reordering;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.GraphBuilder;
+import ranking.PageRank;
+
+/**
+ * JMH benchmark of traversals over a grid whose node ids are shuffled, as
+ * given and after every {@link NodeReordering} order.
+ * Run with {@code mvn test-compile} then
+ * {@code java -cp target/test-classes:target/classes:<test classpath> reordering.ReorderingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ReorderingBenchmark {
+  private static final int ITERATIONS = 10;
+
+  @Param({ "1000", "2000" })
+  public int side;
+
+  @Param({ "none", "degree", "bfs", "rcm", "gorder" })
+  public String ordering;
+
+  private CompactGraph graph;
+
+  @Setup
+  public void setup() {
+    Random random = new Random(42);
+    int n = side * side;
+    int[] ids = new int[n];
+    for (int i = 0; i < n; i++) {
+      ids[i] = i + 1;
+    }
+    for (int i = n - 1; i > 0; i--) {
+      int j = random.nextInt(i + 1);
+      int tmp = ids[i];
+      ids[i] = ids[j];
+      ids[j] = tmp;
+    }
+    GraphBuilder builder = new GraphBuilder(false);
+    for (int x = 0; x < side; x++) {
+      for (int y = 0; y < side; y++) {
+        int u = ids[x * side + y];
+        if (x + 1 < side)
+          builder.addEdge(u, ids[(x + 1) * side + y]);
+        if (y + 1 < side)
+          builder.addEdge(u, ids[x * side + y + 1]);
+        // A few long-range edges
+        if (random.nextInt(10) == 0)
+          builder.addEdge(u, ids[random.nextInt(n)]);
+      }
+    }
+    CompactGraph shuffled = builder.buildCompact();
+    NodeReordering reordering = new NodeReordering(shuffled);
+    switch (ordering) {
+      case "degree":
+        graph = reordering.degreeOrder().getGraph();
+        break;
+      case "bfs":
+        graph = reordering.bfsOrder().getGraph();
+        break;
+      case "rcm":
+        graph = reordering.reverseCuthillMcKee().getGraph();
+        break;
+      case "gorder":
+        graph = reordering.gorder().getGraph();
+        break;
+      default:
+        graph = shuffled;
+    }
+  }
+
+  @Benchmark
+  public int[] bfs() {
+    int n = graph.nbNodes();
+    int[] offsets = graph.offsets();
+    int[] targets = graph.targets();
+    int[] distance = new int[n];
+    Arrays.fill(distance, -1);
+    int[] queue = new int[n];
+    for (int s = 0; s < n; s++) {
+      if (distance[s] >= 0)
+        continue;
+      distance[s] = 0;
+      int head = 0;
+      int tail = 0;
+      queue[tail++] = s;
+      while (head < tail) {
+        int u = queue[head++];
+        for (int a = offsets[u]; a < offsets[u + 1]; a++) {
+          int v = targets[a];
+          if (distance[v] < 0) {
+            distance[v] = distance[u] + 1;
+            queue[tail++] = v;
+          }
+        }
+      }
+    }
+    return distance;
+  }
+
+  @Benchmark
+  public double[] pageRank() {
+    PageRank pageRank = new PageRank(graph);
+    pageRank.setMaxIterations(ITERATIONS);
+    pageRank.setTolerance(0);
+    return pageRank.compute().getRanks();
+  }
+
+  public static void main(String[] args) throws Exception {
+    org.openjdk.jmh.Main.main(new String[] { ReorderingBenchmark.class.getSimpleName() });
+  }
+}
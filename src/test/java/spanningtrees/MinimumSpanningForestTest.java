@@ -0,0 +1,97 @@
+package spanningtrees;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import m1graphs2025.CompactGraph;
+import m1graphs2025.Edge;
+import m1graphs2025.Graph;
+import m1graphs2025.GraphExceptions;
+import m1graphs2025.UndirectedGraph;
+
+public class MinimumSpanningForestTest {
+
+  @Test
+  public void spansEachComponent() {
+    UndirectedGraph g = new UndirectedGraph();
+    for (int i = 1; i <= 7; i++) {
+      g.addNode(i);
+    }
+    g.addEdge(1, 2, 1);
+    g.addEdge(2, 3, 2);
+    g.addEdge(3, 4, 3);
+    g.addEdge(4, 1, 4);
+    g.addEdge(3, 1, 5);
+    g.addEdge(1, 3, 1);
+    g.addEdge(2, 2, -10);
+    g.addEdge(6, 7, 2);
+    MinimumSpanningForest msf = new MinimumSpanningForest(g);
+
+    SpanningForest kruskal = msf.kruskal();
+    assertEquals(7, kruskal.getTotalWeight());
+    assertEquals(3, kruskal.nbTrees());
+    assertEquals(4, kruskal.getEdges().size());
+    for (Edge e : kruskal.getEdges()) {
+      assertTrue(!e.isSelfLoop() && e.getWeight() <= 3);
+    }
+
+    UndirectedGraph forest = kruskal.toGraph();
+    assertEquals(7, forest.nbNodes());
+    assertEquals(4, forest.nbEdges());
+    assertTrue(forest.existsEdge(3, 1));
+    assertEquals(0, forest.degree(5));
+
+    int[] ids = sorted(kruskal.getEdgeIds());
+    assertArrayEquals(ids, sorted(msf.prim().getEdgeIds()));
+    assertArrayEquals(ids, sorted(msf.boruvka().getEdgeIds()));
+  }
+
+  @Test
+  public void emptyAndSingleNodeGraphs() {
+    MinimumSpanningForest empty = new MinimumSpanningForest(new UndirectedGraph());
+    for (SpanningForest f : new SpanningForest[] { empty.kruskal(), empty.prim(), empty.boruvka() }) {
+      assertEquals(0, f.getTotalWeight());
+      assertEquals(0, f.nbTrees());
+      assertEquals(0, f.getEdgeIds().length);
+    }
+
+    UndirectedGraph single = new UndirectedGraph();
+    single.addNode(1);
+    single.addEdge(1, 1, 3);
+    MinimumSpanningForest loop = new MinimumSpanningForest(single);
+    for (SpanningForest f : new SpanningForest[] { loop.kruskal(), loop.prim(), loop.boruvka() }) {
+      assertEquals(0, f.getTotalWeight());
+      assertEquals(1, f.nbTrees());
+      assertTrue(f.getEdges().isEmpty());
+    }
+  }
+
+  @Test
+  public void disconnectedNodesAreTrees() {
+    UndirectedGraph g = new UndirectedGraph();
+    for (int i = 1; i <= 4; i++) {
+      g.addNode(i);
+    }
+    MinimumSpanningForest msf = new MinimumSpanningForest(g);
+    assertEquals(4, msf.kruskal().nbTrees());
+    assertEquals(4, msf.prim().nbTrees());
+    assertEquals(4, msf.boruvka().nbTrees());
+    assertEquals(4, msf.boruvka().toGraph().nbNodes());
+  }
+
+  @Test(expected = GraphExceptions.class)
+  public void directedGraphsAreRefused() {
+    new MinimumSpanningForest(CompactGraph.of(new Graph(2, 0, 0)));
+  }
+
+  private static int[] sorted(int[] ids) {
+    int[] copy = ids.clone();
+    Arrays.sort(copy);
+    return copy;
+  }
+}